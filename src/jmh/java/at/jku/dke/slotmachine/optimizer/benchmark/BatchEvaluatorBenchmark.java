@@ -0,0 +1,78 @@
+package at.jku.dke.slotmachine.optimizer.benchmark;
+
+import at.jku.dke.slotmachine.optimizer.optimization.FitnessMethod;
+import at.jku.dke.slotmachine.optimizer.optimization.InvalidOptimizationParameterTypeException;
+import at.jku.dke.slotmachine.optimizer.optimization.LinearFitnessEstimator;
+import at.jku.dke.slotmachine.optimizer.optimization.jenetics.JeneticsOptimization;
+import at.jku.dke.slotmachine.optimizer.optimization.jenetics.evaluation.BatchEvaluator;
+import at.jku.dke.slotmachine.optimizer.optimization.jenetics.evaluation.BatchEvaluatorFactory;
+import io.jenetics.EnumGene;
+import io.jenetics.Phenotype;
+import io.jenetics.util.ISeq;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Evaluation of a population of the default size by the {@link BatchEvaluator} of each {@link FitnessMethod}, in
+ * non-privacy-preserving mode, i.e., without the Privacy Engine. Also covers the conversion of a population into the
+ * format sent to the Privacy Engine, which does not depend on the fitness method, so that it may be restricted to a
+ * single one, e.g., <code>-p fitnessMethod=ORDER</code>.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BatchEvaluatorBenchmark {
+    private static final int POPULATION_SIZE = 50;
+
+    @Param({"50", "200", "1000", "5000", "example/test.json"})
+    public String instance;
+
+    @Param
+    public FitnessMethod fitnessMethod;
+
+    /**
+     * Number of quantiles, or percentage of the maximum fitness, depending on the fitness method
+     */
+    @Param({"10"})
+    public int fitnessPrecision;
+
+    private BatchEvaluator evaluator;
+    private ISeq<Phenotype<EnumGene<Integer>, Integer>> population;
+
+    @Setup
+    public void setUp() throws IOException, InvalidOptimizationParameterTypeException {
+        BenchmarkProblem problem = BenchmarkProblem.load(this.instance);
+
+        JeneticsOptimization optimization = new JeneticsOptimization(problem.getFlights(), problem.getSlots());
+        optimization.newConfiguration(new HashMap<>());
+        optimization.setFitnessMethod(this.fitnessMethod);
+        optimization.setFitnessPrecision(this.fitnessPrecision);
+        optimization.setFitnessEstimator(new LinearFitnessEstimator());
+
+        this.evaluator = BatchEvaluatorFactory.getEvaluator(this.fitnessMethod, optimization.getProblem(), optimization);
+
+        List<Phenotype<EnumGene<Integer>, Integer>> phenotypes = new ArrayList<>(POPULATION_SIZE);
+        for(int i = 0; i < POPULATION_SIZE; i++) {
+            phenotypes.add(Phenotype.of(optimization.getProblem().codec().encoding().newInstance(), 1));
+        }
+        this.population = ISeq.of(phenotypes);
+    }
+
+    @Benchmark
+    public ISeq<Phenotype<EnumGene<Integer>, Integer>> eval() {
+        return this.evaluator.eval(this.population);
+    }
+
+    @Benchmark
+    public int[][] convertPopulationToArray() {
+        return this.evaluator.convertPopulationToArray(this.population);
+    }
+}
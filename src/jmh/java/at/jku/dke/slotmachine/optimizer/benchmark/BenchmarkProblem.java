@@ -0,0 +1,84 @@
+package at.jku.dke.slotmachine.optimizer.benchmark;
+
+import at.jku.dke.slotmachine.optimizer.domain.Flight;
+import at.jku.dke.slotmachine.optimizer.domain.Slot;
+
+import java.io.File;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Flights and slots of a benchmark instance. An instance is either the number of flights of a synthetic problem, e.g.,
+ * <code>1000</code>, or the path of an optimization request in JSON format, e.g., <code>example/test.json</code>.
+ * <p>
+ * In a synthetic problem, each flight is scheduled at most four slots before its position in the slot sequence, and
+ * its weights decrease with the delay. Slots are shuffled, as the order of submitted slots is arbitrary.
+ */
+public class BenchmarkProblem {
+    private static final long SEED = 42;
+
+    private final Flight[] flights;
+    private final Slot[] slots;
+
+    private BenchmarkProblem(Flight[] flights, Slot[] slots) {
+        this.flights = flights;
+        this.slots = slots;
+    }
+
+    /**
+     * @param instance the number of flights of a synthetic problem, or the path of a JSON file
+     * @return the benchmark problem
+     * @throws IOException if the JSON file cannot be read
+     */
+    public static BenchmarkProblem load(String instance) throws IOException {
+        if(instance.chars().allMatch(Character::isDigit)) {
+            return synthetic(Integer.parseInt(instance));
+        }
+
+        return fromJson(new File(instance));
+    }
+
+    private static BenchmarkProblem synthetic(int size) {
+        Random random = new Random(SEED);
+        LocalDateTime start = LocalDateTime.of(2021, 7, 20, 6, 0);
+
+        List<Slot> slots = new ArrayList<>(size);
+        for(int s = 0; s < size; s++) {
+            slots.add(new Slot(start.plusMinutes(2L * s)));
+        }
+
+        Flight[] flights = new Flight[size];
+        for(int f = 0; f < size; f++) {
+            int scheduledPosition = Math.max(0, f - random.nextInt(5));
+
+            int[] weights = new int[size];
+            for(int s = 0; s < size; s++) {
+                weights[s] = s < scheduledPosition ? 0 : Math.max(0, 10000 - 30 * (s - scheduledPosition)) + random.nextInt(500);
+            }
+
+            flights[f] = new Flight("F" + f, start.plusMinutes(2L * scheduledPosition), weights);
+        }
+
+        Collections.shuffle(slots, random);
+
+        return new BenchmarkProblem(flights, slots.toArray(Slot[]::new));
+    }
+
+    private static BenchmarkProblem fromJson(File file) throws IOException {
+        BenchmarkInstance instance = BenchmarkInstance.load(file);
+
+        return new BenchmarkProblem(instance.getFlights(), instance.getSlots());
+    }
+
+    public Flight[] getFlights() {
+        return flights;
+    }
+
+    public Slot[] getSlots() {
+        return slots;
+    }
+}
@@ -0,0 +1,59 @@
+package at.jku.dke.slotmachine.optimizer.benchmark;
+
+import at.jku.dke.slotmachine.optimizer.optimization.WeightMatrix;
+import at.jku.dke.slotmachine.optimizer.optimization.hungarian.HungarianAlgorithm;
+import at.jku.dke.slotmachine.optimizer.optimization.hungarian.SparseHungarianAlgorithm;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Exact assignment using the sparse Hungarian algorithm, which only considers assignments that satisfy the flights'
+ * scheduled times, and the dense Hungarian algorithm on the full cost matrix. The dense algorithm takes cubic time,
+ * hence the largest synthetic problem is not run by default; it may be added with <code>-p instance=5000</code>.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+public class HungarianBenchmark {
+    @Param({"50", "200", "1000", "example/test.json"})
+    public String instance;
+
+    private WeightMatrix weightMatrix;
+    private double[][] costMatrix;
+
+    @Setup
+    public void setUp() throws IOException {
+        BenchmarkProblem problem = BenchmarkProblem.load(this.instance);
+        this.weightMatrix = new WeightMatrix(problem.getFlights(), problem.getSlots());
+
+        // costMatrix[i][j] is the cost of assigning flight j to slot i; the algorithm minimizes cost
+        int maxWeight = Integer.MIN_VALUE;
+        for(int i = 0; i < this.weightMatrix.getSlotCount(); i++) {
+            for(int j = 0; j < this.weightMatrix.getFlightCount(); j++) {
+                maxWeight = Math.max(maxWeight, this.weightMatrix.getWeight(j, i));
+            }
+        }
+
+        this.costMatrix = new double[this.weightMatrix.getSlotCount()][this.weightMatrix.getFlightCount()];
+        for(int i = 0; i < this.weightMatrix.getSlotCount(); i++) {
+            for(int j = 0; j < this.weightMatrix.getFlightCount(); j++) {
+                this.costMatrix[i][j] = (double) maxWeight - this.weightMatrix.getWeight(j, i);
+            }
+        }
+    }
+
+    @Benchmark
+    public int[] executeSparse() {
+        return new SparseHungarianAlgorithm(this.weightMatrix).execute();
+    }
+
+    @Benchmark
+    public int[] executeDense() {
+        return new HungarianAlgorithm(this.costMatrix).execute();
+    }
+}
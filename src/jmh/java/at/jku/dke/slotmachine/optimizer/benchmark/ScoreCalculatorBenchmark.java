@@ -0,0 +1,54 @@
+package at.jku.dke.slotmachine.optimizer.benchmark;
+
+import at.jku.dke.slotmachine.optimizer.optimization.WeightMatrix;
+import at.jku.dke.slotmachine.optimizer.optimization.optaplanner.FlightPlanningEntity;
+import at.jku.dke.slotmachine.optimizer.optimization.optaplanner.FlightPrioritization;
+import at.jku.dke.slotmachine.optimizer.optimization.optaplanner.FlightPrioritizationEasyScoreCalculator;
+import at.jku.dke.slotmachine.optimizer.optimization.optaplanner.SlotProblemFact;
+import org.openjdk.jmh.annotations.*;
+import org.optaplanner.core.api.score.buildin.hardsoft.HardSoftScore;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Score calculation of OptaPlanner's easy score calculator, applied to the initial allocation of an OptaPlanner
+ * optimization, i.e., flights in order of their scheduled times.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ScoreCalculatorBenchmark {
+    @Param({"50", "200", "1000", "5000", "example/test.json"})
+    public String instance;
+
+    private final FlightPrioritizationEasyScoreCalculator calculator = new FlightPrioritizationEasyScoreCalculator();
+    private FlightPrioritization flightPrioritization;
+
+    @Setup
+    public void setUp() throws IOException {
+        BenchmarkProblem problem = BenchmarkProblem.load(this.instance);
+
+        List<FlightPlanningEntity> flights = IntStream.range(0, problem.getFlights().length)
+                .mapToObj(i -> new FlightPlanningEntity(problem.getFlights()[i], i)).sorted().toList();
+        List<SlotProblemFact> slots = IntStream.range(0, problem.getSlots().length)
+                .mapToObj(i -> new SlotProblemFact(problem.getSlots()[i], i)).sorted().toList();
+
+        for(int i = 0; i < Math.min(flights.size(), slots.size()); i++) {
+            flights.get(i).setSlot(slots.get(i));
+        }
+
+        this.flightPrioritization = new FlightPrioritization(slots, flights,
+                new WeightMatrix(problem.getFlights(), problem.getSlots()));
+    }
+
+    @Benchmark
+    public HardSoftScore calculateScore() {
+        return this.calculator.calculateScore(this.flightPrioritization);
+    }
+}
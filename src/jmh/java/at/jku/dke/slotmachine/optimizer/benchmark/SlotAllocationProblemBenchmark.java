@@ -0,0 +1,57 @@
+package at.jku.dke.slotmachine.optimizer.benchmark;
+
+import at.jku.dke.slotmachine.optimizer.optimization.jenetics.SlotAllocationProblem;
+import io.jenetics.EnumGene;
+import io.jenetics.Genotype;
+import io.jenetics.util.ISeq;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fitness function of the genetic algorithm, applied to random candidate solutions.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SlotAllocationProblemBenchmark {
+    private static final int CANDIDATES = 64;
+
+    @Param({"50", "200", "1000", "5000", "example/test.json"})
+    public String instance;
+
+    private SlotAllocationProblem problem;
+    private Genotype<EnumGene<Integer>>[] candidates;
+    private int next = 0;
+
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setUp() throws IOException {
+        BenchmarkProblem benchmarkProblem = BenchmarkProblem.load(this.instance);
+        this.problem = new SlotAllocationProblem(ISeq.of(benchmarkProblem.getFlights()), ISeq.of(benchmarkProblem.getSlots()));
+
+        this.candidates = new Genotype[CANDIDATES];
+        for(int i = 0; i < CANDIDATES; i++) {
+            this.candidates[i] = this.problem.codec().encoding().newInstance();
+        }
+    }
+
+    private Genotype<EnumGene<Integer>> nextCandidate() {
+        this.next = (this.next + 1) % CANDIDATES;
+        return this.candidates[this.next];
+    }
+
+    @Benchmark
+    public Integer fitness() {
+        return this.problem.fitness(this.nextCandidate());
+    }
+
+    @Benchmark
+    public long evaluate() {
+        return this.problem.evaluate(this.nextCandidate());
+    }
+}
@@ -0,0 +1,33 @@
+package at.jku.dke.slotmachine.optimizer.benchmark;
+
+import at.jku.dke.slotmachine.optimizer.optimization.WeightMatrix;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Construction of the {@link WeightMatrix}, which every optimization performs once before it runs.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class WeightMatrixBenchmark {
+    @Param({"50", "200", "1000", "5000", "example/test.json"})
+    public String instance;
+
+    private BenchmarkProblem problem;
+
+    @Setup
+    public void setUp() throws IOException {
+        this.problem = BenchmarkProblem.load(this.instance);
+    }
+
+    @Benchmark
+    public WeightMatrix construct() {
+        return new WeightMatrix(this.problem.getFlights(), this.problem.getSlots());
+    }
+}
@@ -1,26 +1,20 @@
 package at.jku.dke.slotmachine.optimizer;
 
+import at.jku.dke.slotmachine.optimizer.service.OptimizationScheduler;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.scheduling.annotation.EnableAsync;
-import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
-import java.util.concurrent.Executor;
+import java.time.Duration;
 
 @Configuration
-@EnableAsync
 public class ApplicationConfiguration {
 
-    @Bean(name = "threadPoolTaskExecutor")
-    public Executor getAsyncExecutor() {
-        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
-
-        executor.setCorePoolSize(4);
-        executor.setMaxPoolSize(4);
-        executor.setQueueCapacity(50);
-        executor.setThreadNamePrefix("AsyncThread::");
-        executor.initialize();
-
-        return executor;
+    @Bean(destroyMethod = "shutdown")
+    public OptimizationScheduler getOptimizationScheduler(@Value("${scheduler.cores:0}") int cores,
+                                                          @Value("${scheduler.ioBoundSlots:256}") int ioBoundSlots,
+                                                          @Value("${scheduler.queueCapacity:50}") int queueCapacity,
+                                                          @Value("${scheduler.defaultRunTime:PT1M}") Duration defaultRunTime) {
+        return new OptimizationScheduler(cores, ioBoundSlots, queueCapacity, defaultRunTime);
     }
 }
@@ -18,6 +18,16 @@ public class OptimizerApplication {
     public static final String FITNESS_ESTIMATOR = "slotmachine.optimization.estimator";
 
     public static void main(String[] args) {
+        loadOptimizationSettings();
+
+        SpringApplication.run(OptimizerApplication.class, args);
+    }
+
+    /**
+     * Reads the optimization factories, OptaPlanner configurations and fitness estimators from the classpath into the
+     * system properties, where they are looked up when optimizations are created.
+     */
+    public static void loadOptimizationSettings() {
         final String resourceName = "optimizationFactorySettings.json";
 
         ClassLoader loader = Thread.currentThread().getContextClassLoader();
@@ -48,7 +58,5 @@ public class OptimizerApplication {
         } catch (IOException e) {
             logger.error("Could not read fitness estimator settings.", e);
         }
-
-        SpringApplication.run(OptimizerApplication.class, args);
     }
 }
@@ -0,0 +1,451 @@
+package at.jku.dke.slotmachine.optimizer.benchmark;
+
+import at.jku.dke.slotmachine.optimizer.OptimizerApplication;
+import at.jku.dke.slotmachine.optimizer.Utils;
+import at.jku.dke.slotmachine.optimizer.domain.Flight;
+import at.jku.dke.slotmachine.optimizer.domain.Slot;
+import at.jku.dke.slotmachine.optimizer.optimization.FitnessEstimator;
+import at.jku.dke.slotmachine.optimizer.optimization.FitnessMethod;
+import at.jku.dke.slotmachine.optimizer.optimization.LocalSearch;
+import at.jku.dke.slotmachine.optimizer.optimization.Optimization;
+import at.jku.dke.slotmachine.optimizer.optimization.OptimizationFactory;
+import at.jku.dke.slotmachine.optimizer.optimization.OptimizationMode;
+import at.jku.dke.slotmachine.optimizer.optimization.hungarian.HungarianOptimization;
+import at.jku.dke.slotmachine.optimizer.service.OptimizationScheduler;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Headless runner that solves a suite of optimization requests with every configured framework and parameter combination,
+ * without going through Spring or HTTP. Runs are executed in parallel by an {@link OptimizationScheduler} on a given
+ * number of cores, each run claiming the CPU budget of its optimization. The report is written in CSV format with one
+ * row per run, containing the wall time, generations per second, fitness function invocations, the gap to the optimum
+ * computed by the Hungarian algorithm, and the peak heap usage.
+ * <p>
+ * The peak heap usage is sampled for the whole JVM while the run is active, hence it includes the heap of concurrent
+ * runs; use a single core for isolated figures.
+ * <p>
+ * Usage: <code>BatchBenchmarkRunner [--cores n] [--repetitions n] [--configurations file] [--report file] [path...]</code>,
+ * where each path is an optimization request in JSON format or a folder of such requests; by default, the folders
+ * <code>example</code> and <code>resources</code>. The configurations file contains a JSON array of
+ * {@link BenchmarkConfiguration}s that are applied to each instance; by default, each instance is run with the
+ * configuration given in its request.
+ */
+public class BatchBenchmarkRunner {
+    private static final Logger logger = LogManager.getLogger();
+
+    private static final String[] DEFAULT_PATHS = {"example", "resources"};
+    private static final String DEFAULT_REPORT = "benchmark-report.csv";
+
+    private static final Duration HEAP_SAMPLE_INTERVAL = Duration.ofMillis(50);
+
+    private static final String[] REPORT_COLUMNS = {
+            "instance", "configuration", "framework", "repetition", "status", "wallTimeMillis", "iterations",
+            "generationsPerSecond", "fitnessInvocations", "resultFitness", "optimumFitness", "gapPercent", "peakHeapBytes"
+    };
+
+    private final int cores;
+    private final int repetitions;
+    private final List<BenchmarkConfiguration> configurations;
+
+    /**
+     * @param cores the number of cores shared by the runs; the number of available processors if less than one
+     * @param repetitions the number of runs per instance and configuration
+     * @param configurations the configurations applied to each instance; the configuration of the instance if null
+     */
+    public BatchBenchmarkRunner(int cores, int repetitions, List<BenchmarkConfiguration> configurations) {
+        this.cores = cores > 0 ? cores : Runtime.getRuntime().availableProcessors();
+        this.repetitions = Math.max(1, repetitions);
+        this.configurations = configurations;
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        int cores = 0;
+        int repetitions = 1;
+        List<BenchmarkConfiguration> configurations = null;
+        File report = new File(DEFAULT_REPORT);
+        List<String> paths = new ArrayList<>();
+
+        for(int i = 0; i < args.length; i++) {
+            switch(args[i]) {
+                case "--cores" -> cores = Integer.parseInt(args[++i]);
+                case "--repetitions" -> repetitions = Integer.parseInt(args[++i]);
+                case "--configurations" -> configurations = Arrays.asList(
+                        new ObjectMapper().readValue(new File(args[++i]), BenchmarkConfiguration[].class)
+                );
+                case "--report" -> report = new File(args[++i]);
+                default -> {
+                    if(args[i].startsWith("--")) {
+                        throw new IllegalArgumentException("Unknown option " + args[i] + ".");
+                    }
+                    paths.add(args[i]);
+                }
+            }
+        }
+
+        if(paths.isEmpty()) {
+            paths.addAll(Arrays.asList(DEFAULT_PATHS));
+        }
+
+        OptimizerApplication.loadOptimizationSettings();
+
+        List<BenchmarkInstance> instances = new ArrayList<>();
+        for(String path : paths) {
+            instances.addAll(loadInstances(new File(path)));
+        }
+
+        BatchBenchmarkRunner runner = new BatchBenchmarkRunner(cores, repetitions, configurations);
+
+        int failed;
+        try(PrintWriter writer = new PrintWriter(report, StandardCharsets.UTF_8)) {
+            failed = runner.run(instances, writer);
+        }
+
+        logger.info("Wrote benchmark report to " + report.getAbsolutePath() + ".");
+
+        System.exit(failed > 0 ? 1 : 0);
+    }
+
+    /**
+     * Loads an optimization request or all optimization requests in a folder, in the order of their file names. Files
+     * that are not optimization requests are skipped.
+     */
+    private static List<BenchmarkInstance> loadInstances(File path) {
+        List<BenchmarkInstance> instances = new ArrayList<>();
+
+        File[] files = path.isDirectory() ? path.listFiles((dir, name) -> name.endsWith(".json")) : new File[]{path};
+
+        if(files == null) {
+            logger.warn("Could not list the instances in " + path + ".");
+            return instances;
+        }
+
+        Arrays.sort(files, Comparator.comparing(File::getName));
+
+        for(File file : files) {
+            try {
+                instances.add(BenchmarkInstance.load(file));
+            } catch (IOException e) {
+                logger.warn("Skipping instance " + file + ": " + e.getMessage());
+            }
+        }
+
+        return instances;
+    }
+
+    /**
+     * Runs each configuration on each instance and writes a report row per run, in the order of the instances,
+     * configurations and repetitions.
+     * @param instances the benchmark instances
+     * @param report the writer of the CSV report
+     * @return the number of failed runs
+     * @throws InterruptedException if interrupted while waiting for the runs
+     */
+    public int run(List<BenchmarkInstance> instances, PrintWriter report) throws InterruptedException {
+        Map<BenchmarkInstance, Double> optimumFitness = new HashMap<>();
+        for(BenchmarkInstance instance : instances) {
+            optimumFitness.put(instance, this.computeOptimumFitness(instance));
+        }
+
+        List<Run> runs = new ArrayList<>();
+        for(BenchmarkInstance instance : instances) {
+            List<BenchmarkConfiguration> configurations =
+                    this.configurations != null ? this.configurations : List.of(instance.getConfiguration());
+
+            for(BenchmarkConfiguration configuration : configurations) {
+                for(int repetition = 1; repetition <= this.repetitions; repetition++) {
+                    runs.add(new Run(instance, configuration, repetition, optimumFitness.get(instance)));
+                }
+            }
+        }
+
+        logger.info("Running " + runs.size() + " optimizations of " + instances.size() + " instances on " + this.cores + " cores.");
+
+        OptimizationScheduler scheduler = new OptimizationScheduler(this.cores, 1, runs.size(), Duration.ofMinutes(1));
+        HeapSampler heapSampler = new HeapSampler(HEAP_SAMPLE_INTERVAL);
+
+        int failed = 0;
+
+        try {
+            List<Future<Run>> futures = new ArrayList<>();
+            for(Run run : runs) {
+                Optimization optimization;
+
+                try {
+                    optimization = createOptimization(run);
+                } catch (Exception e) {
+                    logger.error("Could not create the optimization of " + run.instance.getName() + " with configuration " +
+                            run.configuration.getName() + ".", e);
+                    run.status = "FAILED";
+                    futures.add(null);
+                    continue;
+                }
+
+                futures.add(scheduler.submit(
+                        run.runId,
+                        OptimizationScheduler.Priority.BENCHMARKING,
+                        optimization.getCpuBudget(),
+                        () -> this.execute(run, optimization, heapSampler)
+                ));
+            }
+
+            report.println(String.join(",", REPORT_COLUMNS));
+
+            for(int i = 0; i < runs.size(); i++) {
+                Run run = runs.get(i);
+
+                try {
+                    if(futures.get(i) != null) {
+                        futures.get(i).get();
+                    }
+                } catch (ExecutionException e) {
+                    logger.error("Run " + (i + 1) + " of " + runs.size() + " failed.", e.getCause());
+                    run.status = "FAILED";
+                }
+
+                if(run.status.equals("FAILED")) {
+                    failed++;
+                }
+
+                report.println(run.toCsv());
+                report.flush();
+
+                logger.info("Finished run " + (i + 1) + " of " + runs.size() + ": " + run.instance.getName() + ", " +
+                        run.configuration.getName() + ", repetition " + run.repetition + ": " + run.status + ".");
+            }
+        } finally {
+            heapSampler.shutdown();
+            scheduler.printLogs();
+            scheduler.shutdown();
+        }
+
+        return failed;
+    }
+
+    private double computeOptimumFitness(BenchmarkInstance instance) {
+        try {
+            HungarianOptimization hungarianOptimization = new HungarianOptimization(instance.getFlights(), instance.getSlots());
+            hungarianOptimization.run();
+            return hungarianOptimization.getStatistics().getResultFitness();
+        } catch (RuntimeException e) {
+            logger.warn("Could not compute the optimum of instance " + instance.getName() + ".", e);
+            return Double.NaN;
+        }
+    }
+
+    private Run execute(Run run, Optimization optimization, HeapSampler heapSampler) {
+        heapSampler.track(run.runId);
+
+        long start = System.nanoTime();
+        try {
+            Map<Flight, Slot> result = optimization.run();
+
+            if(optimization.getLocalSearch() != null) {
+                optimization.getLocalSearch().improve(optimization, result);
+            }
+        } catch (RuntimeException e) {
+            run.status = "FAILED";
+            throw e;
+        } finally {
+            run.wallTime = Duration.ofNanos(System.nanoTime() - start);
+            run.peakHeapBytes = heapSampler.untrack(run.runId);
+        }
+
+        run.status = "DONE";
+        run.iterations = optimization.getStatistics().getIterations();
+        run.fitnessInvocations = optimization.getStatistics().getFitnessFunctionInvocations();
+        run.resultFitness = optimization.getStatistics().getResultFitness();
+
+        return run;
+    }
+
+    /**
+     * Creates the optimization of a run in the same way as an optimization request in non-privacy-preserving mode, i.e.,
+     * with exact fitness values unless an estimator is configured, and the optimum as theoretical maximum fitness.
+     */
+    private static Optimization createOptimization(Run run) throws Exception {
+        BenchmarkConfiguration configuration = run.configuration;
+        BenchmarkInstance instance = run.instance;
+
+        String factoryClasses = System.getProperty(OptimizerApplication.FACTORY_PROPERTY);
+        String factoryClassName = Utils.getMapFromJson(factoryClasses).get(configuration.getOptimizationFramework());
+
+        if(factoryClassName == null) {
+            throw new IllegalArgumentException("Unknown optimization framework " + configuration.getOptimizationFramework() + ".");
+        }
+
+        OptimizationFactory factory =
+                (OptimizationFactory) Class.forName(factoryClassName).getDeclaredConstructor().newInstance();
+
+        // without parameters, the optimization still requires a configuration with default values;
+        // the parameters are copied, as they may be modified by the optimization
+        Optimization optimization = factory.createOptimization(
+                instance.getFlights(),
+                instance.getSlots(),
+                configuration.getParameters() != null ? new HashMap<>(configuration.getParameters()) : new HashMap<>()
+        );
+
+        optimization.setOptId(run.runId);
+        optimization.setLocalSearch(LocalSearch.fromParameters(configuration.getParameters()));
+        optimization.setInitialFlightSequence(instance.getInitialFlightSequence());
+        optimization.setMode(OptimizationMode.NON_PRIVACY_PRESERVING);
+
+        if(configuration.getFitnessEstimator() != null) {
+            String estimatorClasses = System.getProperty(OptimizerApplication.FITNESS_ESTIMATOR);
+            String estimatorClassName = Utils.getMapFromJson(estimatorClasses).get(configuration.getFitnessEstimator());
+
+            optimization.setFitnessEstimator(
+                    (FitnessEstimator) Class.forName(estimatorClassName).getDeclaredConstructor().newInstance()
+            );
+        }
+
+        // the fitness is not hidden in non-privacy-preserving mode, hence the order of the solutions is the default
+        optimization.setFitnessMethod(
+                configuration.getFitnessMethod() != null ? FitnessMethod.valueOf(configuration.getFitnessMethod()) : FitnessMethod.ORDER
+        );
+
+        if(configuration.getFitnessPrecision() != null) {
+            optimization.setFitnessPrecision(configuration.getFitnessPrecision());
+        }
+
+        if(!Double.isNaN(run.optimumFitness)) {
+            optimization.setTheoreticalMaximumFitness(run.optimumFitness);
+            optimization.getConfiguration().setParameter("theoreticalMaximumFitness", run.optimumFitness);
+        }
+
+        return optimization;
+    }
+
+    /**
+     * Samples the heap usage of the JVM and keeps the peak usage of each active run.
+     */
+    private static class HeapSampler {
+        private final MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+
+        private final Map<UUID, AtomicLong> peaks = new ConcurrentHashMap<>();
+
+        private final ScheduledExecutorService sampler;
+
+        private HeapSampler(Duration interval) {
+            this.sampler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "BatchBenchmarkRunner::heapSampler");
+                thread.setDaemon(true);
+                return thread;
+            });
+
+            this.sampler.scheduleAtFixedRate(this::sample, 0, interval.toMillis(), TimeUnit.MILLISECONDS);
+        }
+
+        private void sample() {
+            long used = this.memory.getHeapMemoryUsage().getUsed();
+
+            for(AtomicLong peak : this.peaks.values()) {
+                peak.accumulateAndGet(used, Math::max);
+            }
+        }
+
+        private void track(UUID runId) {
+            this.peaks.put(runId, new AtomicLong(this.memory.getHeapMemoryUsage().getUsed()));
+        }
+
+        private long untrack(UUID runId) {
+            this.sample();
+            return this.peaks.remove(runId).get();
+        }
+
+        private void shutdown() {
+            this.sampler.shutdownNow();
+        }
+    }
+
+    /**
+     * A run of a configuration on an instance and its measurements.
+     */
+    private static class Run {
+        private final UUID runId = UUID.randomUUID();
+
+        private final BenchmarkInstance instance;
+        private final BenchmarkConfiguration configuration;
+        private final int repetition;
+        private final double optimumFitness;
+
+        private volatile String status = "WAITING";
+        private volatile Duration wallTime;
+        private volatile int iterations;
+        private volatile int fitnessInvocations;
+        private volatile double resultFitness = Double.NaN;
+        private volatile long peakHeapBytes = -1;
+
+        private Run(BenchmarkInstance instance, BenchmarkConfiguration configuration, int repetition, double optimumFitness) {
+            this.instance = instance;
+            this.configuration = configuration;
+            this.repetition = repetition;
+            this.optimumFitness = optimumFitness;
+        }
+
+        private String toCsv() {
+            double seconds = this.wallTime != null ? this.wallTime.toNanos() / 1e9 : Double.NaN;
+
+            double gapPercent = Double.NaN;
+            if(!Double.isNaN(this.resultFitness) && !Double.isNaN(this.optimumFitness) && this.optimumFitness != 0) {
+                gapPercent = (this.optimumFitness - this.resultFitness) / Math.abs(this.optimumFitness) * 100;
+            }
+
+            return String.join(",",
+                    csvField(this.instance.getName()),
+                    csvField(this.configuration.getName()),
+                    csvField(this.configuration.getOptimizationFramework()),
+                    String.valueOf(this.repetition),
+                    this.status,
+                    this.wallTime != null ? String.valueOf(this.wallTime.toMillis()) : "",
+                    this.iterations > 0 ? String.valueOf(this.iterations) : "",
+                    this.iterations > 0 && seconds > 0 ? format(this.iterations / seconds) : "",
+                    this.fitnessInvocations > 0 ? String.valueOf(this.fitnessInvocations) : "",
+                    format(this.resultFitness),
+                    format(this.optimumFitness),
+                    format(gapPercent),
+                    this.peakHeapBytes >= 0 ? String.valueOf(this.peakHeapBytes) : ""
+            );
+        }
+
+        private static String format(double value) {
+            return Double.isNaN(value) ? "" : String.format(Locale.ROOT, "%.3f", value);
+        }
+
+        private static String csvField(String value) {
+            if(value == null) {
+                return "";
+            }
+
+            if(value.contains(",") || value.contains("\"") || value.contains("\n")) {
+                return "\"" + value.replace("\"", "\"\"") + "\"";
+            }
+
+            return value;
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package at.jku.dke.slotmachine.optimizer.benchmark;
+
+import java.util.Map;
+
+/**
+ * Framework and parameters of the optimizations run by the {@link BatchBenchmarkRunner}. The properties have the same
+ * names and meaning as in an optimization request, so configurations can be copied from requests.
+ */
+public class BenchmarkConfiguration {
+    private String name;
+    private String optimizationFramework;
+    private Map<String, Object> parameters;
+    private String fitnessMethod;
+    private String fitnessEstimator;
+    private Integer fitnessPrecision;
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getOptimizationFramework() {
+        return optimizationFramework;
+    }
+
+    public void setOptimizationFramework(String optimizationFramework) {
+        this.optimizationFramework = optimizationFramework;
+    }
+
+    public Map<String, Object> getParameters() {
+        return parameters;
+    }
+
+    public void setParameters(Map<String, Object> parameters) {
+        this.parameters = parameters;
+    }
+
+    public String getFitnessMethod() {
+        return fitnessMethod;
+    }
+
+    public void setFitnessMethod(String fitnessMethod) {
+        this.fitnessMethod = fitnessMethod;
+    }
+
+    public String getFitnessEstimator() {
+        return fitnessEstimator;
+    }
+
+    public void setFitnessEstimator(String fitnessEstimator) {
+        this.fitnessEstimator = fitnessEstimator;
+    }
+
+    public Integer getFitnessPrecision() {
+        return fitnessPrecision;
+    }
+
+    public void setFitnessPrecision(Integer fitnessPrecision) {
+        this.fitnessPrecision = fitnessPrecision;
+    }
+}
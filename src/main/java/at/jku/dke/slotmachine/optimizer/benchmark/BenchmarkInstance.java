@@ -0,0 +1,146 @@
+package at.jku.dke.slotmachine.optimizer.benchmark;
+
+import at.jku.dke.slotmachine.optimizer.domain.Flight;
+import at.jku.dke.slotmachine.optimizer.domain.Slot;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Problem instance read from an optimization request in JSON format, e.g., the files in the <code>example</code> and
+ * <code>resources</code> folders, together with the optimization configuration of the request. Times are either
+ * formatted as <code>yyyy-MM-dd HH:mm</code> or given in seconds since the epoch.
+ */
+public class BenchmarkInstance {
+    private static final DateTimeFormatter TIME_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+
+    private final String name;
+
+    private final Flight[] flights;
+    private final Slot[] slots;
+    private final String[] initialFlightSequence;
+
+    private final BenchmarkConfiguration configuration;
+
+    private BenchmarkInstance(String name, Flight[] flights, Slot[] slots, String[] initialFlightSequence,
+                              BenchmarkConfiguration configuration) {
+        this.name = name;
+        this.flights = flights;
+        this.slots = slots;
+        this.initialFlightSequence = initialFlightSequence;
+        this.configuration = configuration;
+    }
+
+    /**
+     * @param file the optimization request in JSON format
+     * @return the instance, named after the file
+     * @throws IOException if the file cannot be read or is not an optimization request
+     */
+    public static BenchmarkInstance load(File file) throws IOException {
+        ObjectMapper mapper = new ObjectMapper();
+        JsonNode optimization = mapper.readTree(file);
+
+        if(optimization == null || !optimization.has("flights") || !optimization.has("slots")) {
+            throw new IOException(file + " is not an optimization request.");
+        }
+
+        List<Flight> flights = new ArrayList<>();
+        for(JsonNode flight : optimization.get("flights")) {
+            JsonNode weightMap = flight.get("weightMap");
+
+            // as in the service, a flight without a weight map has no weights
+            int[] weights = null;
+            if(weightMap != null && !weightMap.isNull()) {
+                weights = new int[weightMap.size()];
+                for(int s = 0; s < weights.length; s++) {
+                    weights[s] = weightMap.get(s).asInt();
+                }
+            }
+
+            flights.add(new Flight(flight.get("flightId").asText(), parseTime(flight.get("scheduledTime")), weights));
+        }
+
+        List<Slot> slots = new ArrayList<>();
+        for(JsonNode slot : optimization.get("slots")) {
+            slots.add(new Slot(parseTime(slot.get("time"))));
+        }
+
+        String[] initialFlightSequence = null;
+        if(optimization.hasNonNull("initialFlightSequence")) {
+            initialFlightSequence = mapper.convertValue(optimization.get("initialFlightSequence"), String[].class);
+        }
+
+        BenchmarkConfiguration configuration = new BenchmarkConfiguration();
+        configuration.setName(file.getName());
+        configuration.setOptimizationFramework(textOrNull(optimization.get("optimizationFramework")));
+        configuration.setFitnessMethod(textOrNull(optimization.get("fitnessMethod")));
+        configuration.setFitnessEstimator(textOrNull(optimization.get("fitnessEstimator")));
+
+        if(optimization.hasNonNull("fitnessPrecision")) {
+            configuration.setFitnessPrecision(optimization.get("fitnessPrecision").asInt());
+        }
+
+        if(optimization.hasNonNull("parameters")) {
+            configuration.setParameters(
+                    mapper.convertValue(optimization.get("parameters"), new TypeReference<Map<String, Object>>(){})
+            );
+        }
+
+        return new BenchmarkInstance(
+                file.getName(),
+                flights.toArray(Flight[]::new),
+                slots.toArray(Slot[]::new),
+                initialFlightSequence,
+                configuration
+        );
+    }
+
+    private static LocalDateTime parseTime(JsonNode time) {
+        if(time == null || time.isNull()) {
+            return null;
+        }
+
+        if(time.isNumber()) {
+            return LocalDateTime.ofInstant(Instant.ofEpochMilli(Math.round(time.asDouble() * 1000)), ZoneOffset.UTC);
+        }
+
+        return LocalDateTime.parse(time.asText(), TIME_FORMAT);
+    }
+
+    private static String textOrNull(JsonNode node) {
+        return node == null || node.isNull() ? null : node.asText();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Flight[] getFlights() {
+        return flights;
+    }
+
+    public Slot[] getSlots() {
+        return slots;
+    }
+
+    public String[] getInitialFlightSequence() {
+        return initialFlightSequence;
+    }
+
+    /**
+     * @return the configuration given in the optimization request
+     */
+    public BenchmarkConfiguration getConfiguration() {
+        return configuration;
+    }
+}
@@ -1,16 +1,11 @@
 package at.jku.dke.slotmachine.optimizer.domain;
 
 import java.time.LocalDateTime;
-import java.util.Arrays;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
 
 public class Flight implements Comparable<Flight> {
     private String flightId;
     private LocalDateTime scheduledTime;
     private int[] weights;
-    private Map<Slot, Integer> weightMap;
     private Margins margins;
 
     public Flight(String flightId, LocalDateTime scheduledTime, int[] weights) {
@@ -35,38 +30,6 @@ public class Flight implements Comparable<Flight> {
         this.scheduledTime = scheduledTime;
     }
 
-    public void computeWeightMap(Slot[] slots) {
-        if(weightMap != null) {
-            weightMap.clear();
-        } else {
-            weightMap = new HashMap<>();
-        }
-
-        if (weights == null) {
-        	// in SECRET mode no weights are stored in Flight and the
-        	// weight map cannot be computed
-        	return;
-        }
-        
-        // sort the slots by their time
-        List<Slot> slotList = Arrays.stream(slots).sorted().toList();
-
-        // for each slot in the sorted slot list get the weight from the weights array
-        for(Slot s : slotList){
-            weightMap.put(s, weights[slotList.indexOf(s)]);
-        }
-    }
-
-    public int getWeight(Slot s) {
-        int weight = Integer.MIN_VALUE;
-
-        if(weightMap != null && weightMap.containsKey(s)) {
-            weight = weightMap.get(s);
-        }
-
-        return weight;
-    }
-
     public int[] getWeights() {
         return weights;
     }
@@ -2,8 +2,8 @@ package at.jku.dke.slotmachine.optimizer.optimization;
 
 public class FitnessEvolutionStep {
     private int generation;
-    private Double[] evaluatedPopulation = null;
-    private Double[] estimatedPopulation = null;
+    private float[] evaluatedPopulation = null;
+    private float[] estimatedPopulation = null;
 
     public int getGeneration() {
         return generation;
@@ -13,19 +13,19 @@ public class FitnessEvolutionStep {
         this.generation = generation;
     }
 
-    public Double[] getEvaluatedPopulation() {
+    public float[] getEvaluatedPopulation() {
         return evaluatedPopulation;
     }
 
-    public void setEvaluatedPopulation(Double[] evaluatedPopulation) {
+    public void setEvaluatedPopulation(float[] evaluatedPopulation) {
         this.evaluatedPopulation = evaluatedPopulation;
     }
 
-    public Double[] getEstimatedPopulation() {
+    public float[] getEstimatedPopulation() {
         return estimatedPopulation;
     }
 
-    public void setEstimatedPopulation(Double[] estimatedPopulation) {
+    public void setEstimatedPopulation(float[] estimatedPopulation) {
         this.estimatedPopulation = estimatedPopulation;
     }
 }
@@ -0,0 +1,224 @@
+package at.jku.dke.slotmachine.optimizer.optimization;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Columnar store of the fitness evolution of an optimization. For each traced generation, the store keeps the generation
+ * number and the positions of the evaluated and estimated fitness values, which are appended to columns of primitive
+ * floats. The columns consist of chunks that double in size up to a maximum, so appending never copies previously
+ * traced values and the trace of a short optimization stays small.
+ * <p>
+ * The trace may be downsampled, i.e., only every n-th generation is traced, and summarised, i.e., instead of the fitness
+ * values of the whole population, only the given number of quantiles is kept for each generation. Reads may start from
+ * any generation, which allows clients to fetch only the generations they have not seen yet. The store is thread-safe.
+ */
+public class FitnessEvolutionTrace {
+    private static final int FIRST_CHUNK_SIZE = 256;
+    private static final int MAX_CHUNK_SIZE = 1 << 16;
+
+    private final int sampleInterval;
+    private final int quantiles;
+
+    private int size = 0;
+    private int[] generations = new int[64];
+    private long[] evaluatedOffsets = new long[64];
+    private int[] evaluatedLengths = new int[64];
+    private long[] estimatedOffsets = new long[64];
+    private int[] estimatedLengths = new int[64];
+
+    private final FloatColumn evaluatedValues = new FloatColumn();
+    private final FloatColumn estimatedValues = new FloatColumn();
+
+    /**
+     * Creates a trace of the whole population of every generation.
+     */
+    public FitnessEvolutionTrace() {
+        this(1, 0);
+    }
+
+    /**
+     * @param sampleInterval only generations that are a multiple of the interval are traced; every generation if less than two
+     * @param quantiles the number of quantiles kept per generation, e.g., 4 keeps minimum, quartiles and maximum;
+     *                  the whole population if less than one
+     */
+    public FitnessEvolutionTrace(int sampleInterval, int quantiles) {
+        this.sampleInterval = Math.max(1, sampleInterval);
+        this.quantiles = Math.max(0, quantiles);
+    }
+
+    /**
+     * @param generation the generation number
+     * @return true if the generation is traced
+     */
+    public boolean isTraced(long generation) {
+        return generation % this.sampleInterval == 0;
+    }
+
+    /**
+     * Appends a step to the trace, summarising the fitness values if quantiles are configured. The step is not retained.
+     * @param step the step of a traced generation
+     */
+    public synchronized void append(FitnessEvolutionStep step) {
+        if(this.size == this.generations.length) {
+            int capacity = this.size * 2;
+            this.generations = Arrays.copyOf(this.generations, capacity);
+            this.evaluatedOffsets = Arrays.copyOf(this.evaluatedOffsets, capacity);
+            this.evaluatedLengths = Arrays.copyOf(this.evaluatedLengths, capacity);
+            this.estimatedOffsets = Arrays.copyOf(this.estimatedOffsets, capacity);
+            this.estimatedLengths = Arrays.copyOf(this.estimatedLengths, capacity);
+        }
+
+        float[] evaluated = this.summarise(step.getEvaluatedPopulation());
+        float[] estimated = this.summarise(step.getEstimatedPopulation());
+
+        this.generations[this.size] = step.getGeneration();
+        this.evaluatedOffsets[this.size] = this.evaluatedValues.size;
+        this.evaluatedLengths[this.size] = evaluated != null ? evaluated.length : -1;
+        this.estimatedOffsets[this.size] = this.estimatedValues.size;
+        this.estimatedLengths[this.size] = estimated != null ? estimated.length : -1;
+
+        this.evaluatedValues.append(evaluated);
+        this.estimatedValues.append(estimated);
+
+        this.size++;
+    }
+
+    /**
+     * Returns the traced steps of all generations greater than or equal to the given generation, in the order in which
+     * they were traced.
+     * @param fromGeneration the first generation of interest
+     * @return the traced steps
+     */
+    public synchronized List<FitnessEvolutionStep> getSteps(int fromGeneration) {
+        List<FitnessEvolutionStep> steps = new ArrayList<>();
+
+        for(int i = 0; i < this.size; i++) {
+            if(this.generations[i] >= fromGeneration) {
+                FitnessEvolutionStep step = new FitnessEvolutionStep();
+                step.setGeneration(this.generations[i]);
+                step.setEvaluatedPopulation(this.evaluatedValues.read(this.evaluatedOffsets[i], this.evaluatedLengths[i]));
+                step.setEstimatedPopulation(this.estimatedValues.read(this.estimatedOffsets[i], this.estimatedLengths[i]));
+                steps.add(step);
+            }
+        }
+
+        return steps;
+    }
+
+    /**
+     * @return the number of traced generations
+     */
+    public synchronized int size() {
+        return this.size;
+    }
+
+    /**
+     * @return the estimated heap usage of the trace in bytes
+     */
+    public synchronized long getEstimatedSize() {
+        return (long) this.generations.length * (Integer.BYTES * 3 + Long.BYTES * 2)
+                + this.evaluatedValues.getAllocatedSize()
+                + this.estimatedValues.getAllocatedSize();
+    }
+
+    /**
+     * Returns the quantiles of the fitness values in the order of the values, i.e., values sorted in descending order
+     * yield the quantiles from the maximum to the minimum.
+     */
+    private float[] summarise(float[] values) {
+        if(values == null || this.quantiles == 0 || values.length <= this.quantiles + 1) {
+            return values;
+        }
+
+        float[] sorted = values.clone();
+        Arrays.sort(sorted);
+
+        boolean descending = values[0] >= values[values.length - 1];
+
+        float[] summary = new float[this.quantiles + 1];
+        for(int q = 0; q <= this.quantiles; q++) {
+            int rank = (int) Math.round((double) q * (sorted.length - 1) / this.quantiles);
+            summary[descending ? this.quantiles - q : q] = sorted[rank];
+        }
+
+        return summary;
+    }
+
+    /**
+     * Growable column of floats consisting of chunks. Each chunk is as large as all previous chunks together, between
+     * the first and the maximum chunk size.
+     */
+    private static class FloatColumn {
+        private final List<float[]> chunks = new ArrayList<>();
+        private long[] chunkOffsets = new long[16];
+        private long size = 0;
+        private long allocated = 0;
+
+        private void append(float[] values) {
+            if(values == null) {
+                return;
+            }
+
+            int written = 0;
+            while(written < values.length) {
+                if(this.size == this.allocated) {
+                    this.addChunk();
+                }
+
+                int chunk = this.chunks.size() - 1;
+                int chunkOffset = (int) (this.size - this.chunkOffsets[chunk]);
+                int length = Math.min(values.length - written, this.chunks.get(chunk).length - chunkOffset);
+                System.arraycopy(values, written, this.chunks.get(chunk), chunkOffset, length);
+
+                written += length;
+                this.size += length;
+            }
+        }
+
+        private void addChunk() {
+            int chunkSize = (int) Math.min(MAX_CHUNK_SIZE, Math.max(FIRST_CHUNK_SIZE, this.allocated));
+
+            if(this.chunks.size() == this.chunkOffsets.length) {
+                this.chunkOffsets = Arrays.copyOf(this.chunkOffsets, this.chunkOffsets.length * 2);
+            }
+
+            this.chunkOffsets[this.chunks.size()] = this.allocated;
+            this.chunks.add(new float[chunkSize]);
+            this.allocated += chunkSize;
+        }
+
+        private float[] read(long offset, int length) {
+            if(length < 0) {
+                return null;
+            }
+
+            float[] values = new float[length];
+
+            int read = 0;
+            while(read < length) {
+                long position = offset + read;
+
+                int chunk = Arrays.binarySearch(this.chunkOffsets, 0, this.chunks.size(), position);
+                if(chunk < 0) {
+                    // the chunk starting before the position
+                    chunk = -chunk - 2;
+                }
+
+                int chunkOffset = (int) (position - this.chunkOffsets[chunk]);
+                int count = Math.min(length - read, this.chunks.get(chunk).length - chunkOffset);
+
+                System.arraycopy(this.chunks.get(chunk), chunkOffset, values, read, count);
+
+                read += count;
+            }
+
+            return values;
+        }
+
+        private long getAllocatedSize() {
+            return this.allocated * Float.BYTES + (long) this.chunkOffsets.length * Long.BYTES;
+        }
+    }
+}
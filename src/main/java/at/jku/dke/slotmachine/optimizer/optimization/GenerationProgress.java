@@ -0,0 +1,65 @@
+package at.jku.dke.slotmachine.optimizer.optimization;
+
+/**
+ * Summary of a single evaluated generation, reported to the progress listener of an optimization as soon as the
+ * generation has been evaluated. Fitness values include the devaluation of invalid solutions.
+ */
+public class GenerationProgress {
+    private long generation;
+    private double bestFitness;
+    private double meanFitness;
+    private double worstFitness;
+    private int invalidCount;
+    private long evaluationMillis;
+
+    public long getGeneration() {
+        return generation;
+    }
+
+    public void setGeneration(long generation) {
+        this.generation = generation;
+    }
+
+    public double getBestFitness() {
+        return bestFitness;
+    }
+
+    public void setBestFitness(double bestFitness) {
+        this.bestFitness = bestFitness;
+    }
+
+    public double getMeanFitness() {
+        return meanFitness;
+    }
+
+    public void setMeanFitness(double meanFitness) {
+        this.meanFitness = meanFitness;
+    }
+
+    public double getWorstFitness() {
+        return worstFitness;
+    }
+
+    public void setWorstFitness(double worstFitness) {
+        this.worstFitness = worstFitness;
+    }
+
+    public int getInvalidCount() {
+        return invalidCount;
+    }
+
+    public void setInvalidCount(int invalidCount) {
+        this.invalidCount = invalidCount;
+    }
+
+    /**
+     * @return the time in milliseconds it took to evaluate the generation
+     */
+    public long getEvaluationMillis() {
+        return evaluationMillis;
+    }
+
+    public void setEvaluationMillis(long evaluationMillis) {
+        this.evaluationMillis = evaluationMillis;
+    }
+}
@@ -0,0 +1,399 @@
+package at.jku.dke.slotmachine.optimizer.optimization;
+
+import at.jku.dke.slotmachine.optimizer.domain.Flight;
+import at.jku.dke.slotmachine.optimizer.domain.Slot;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * Hill climbing that improves the best solutions of an optimization once the optimization framework has finished,
+ * i.e., the memetic part of a memetic algorithm. Each solution is improved by swapping the slots of two flights or
+ * moving a flight to an unassigned slot, and by reversing the order of the flights in short sequences of consecutive
+ * slots. Moves are evaluated by the change in weight of the affected assignments only. A move is applied if it
+ * reduces the number of flights assigned before their scheduled time, or keeps this number and increases the fitness,
+ * so invalid solutions are repaired along the way.
+ * <p>
+ * The solutions are improved in parallel, using as many threads as the optimization's CPU budget, until no move
+ * improves them or the time budget is used up. The local search requires the weights of the flights and is skipped in
+ * privacy-preserving mode.
+ */
+public class LocalSearch {
+    private static final Logger logger = LogManager.getLogger();
+
+    /**
+     * Maximum number of consecutive slots whose flights are reversed in a single move
+     */
+    private static final int MAX_SEGMENT_LENGTH = 16;
+
+    private static final int DEFAULT_SOLUTIONS = 5;
+
+    private final Duration timeBudget;
+    private final int solutions;
+
+    /**
+     * @param timeBudget the maximum duration of the local search
+     * @param solutions the number of best distinct solutions that are improved
+     */
+    public LocalSearch(Duration timeBudget, int solutions) {
+        this.timeBudget = timeBudget;
+        this.solutions = Math.max(1, solutions);
+    }
+
+    /**
+     * Creates the local search from the parameters of an optimization request: <code>localSearchTimeBudget</code>, the
+     * time budget in milliseconds, and <code>localSearchSolutions</code>, the number of solutions to improve.
+     * @param parameters the parameters of the optimization; may be null
+     * @return the local search, or null if no positive time budget is given
+     * @throws InvalidOptimizationParameterTypeException if a parameter is not an integer
+     */
+    public static LocalSearch fromParameters(Map<String, Object> parameters) throws InvalidOptimizationParameterTypeException {
+        if(parameters == null) {
+            return null;
+        }
+
+        Object localSearchTimeBudget = parameters.get("localSearchTimeBudget");
+        Object localSearchSolutions = parameters.get("localSearchSolutions");
+
+        int timeBudget;
+        int solutions = DEFAULT_SOLUTIONS;
+
+        try {
+            timeBudget = localSearchTimeBudget != null ? (int) localSearchTimeBudget : 0;
+        } catch (Exception e) {
+            throw new InvalidOptimizationParameterTypeException("localSearchTimeBudget", Integer.class);
+        }
+
+        try {
+            if (localSearchSolutions != null) {
+                solutions = (int) localSearchSolutions;
+            }
+        } catch (Exception e) {
+            throw new InvalidOptimizationParameterTypeException("localSearchSolutions", Integer.class);
+        }
+
+        return timeBudget > 0 ? new LocalSearch(Duration.ofMillis(timeBudget), solutions) : null;
+    }
+
+    /**
+     * Improves the best solutions of a finished optimization. The improved solutions replace the solutions they were
+     * derived from at the top of the optimization's results, and the statistics, fitness values and converted results
+     * of the optimization are updated accordingly.
+     * @param optimization the optimization
+     * @param result the best solution returned by the optimization
+     * @return the best solution after the local search
+     */
+    public Map<Flight, Slot> improve(Optimization optimization, Map<Flight, Slot> result) {
+        WeightMatrix weightMatrix = optimization.getWeightMatrix();
+
+        if(optimization.getMode() == OptimizationMode.PRIVACY_PRESERVING || !weightMatrix.hasWeights()) {
+            logger.info("Local search requires the weights of the flights and is skipped.");
+            return result;
+        }
+
+        long start = System.nanoTime();
+        long deadline = start + this.timeBudget.toNanos();
+
+        Flight[] flights = optimization.getFlights();
+        Slot[] slots = optimization.getSlots();
+
+        Map<Flight, Integer> flightIndexes = new HashMap<>();
+        for(int f = 0; f < flights.length; f++) {
+            flightIndexes.put(flights[f], f);
+        }
+        Map<Slot, Integer> slotIndexes = new HashMap<>();
+        for(int s = 0; s < slots.length; s++) {
+            slotIndexes.put(slots[s], s);
+        }
+
+        // the results of the optimization, or only the returned solution if the framework does not keep results
+        Map<Flight, Slot>[] results = optimization.getResults();
+        List<Map<Flight, Slot>> solutions = results != null ? new ArrayList<>(Arrays.asList(results)) : new ArrayList<>();
+        if(solutions.isEmpty() || !solutions.contains(result)) {
+            solutions.add(0, result);
+        }
+
+        List<int[]> assignments = new ArrayList<>(solutions.size());
+        for(Map<Flight, Slot> solution : solutions) {
+            assignments.add(toAssignment(solution, flightIndexes, slotIndexes, flights.length));
+        }
+
+        // the first solutions that are complete assignments are improved
+        List<int[]> improved = new ArrayList<>();
+        List<int[]> remaining = new ArrayList<>();
+        for(int[] assignment : assignments) {
+            if(assignment != null && improved.size() < this.solutions
+                    && improved.stream().noneMatch(other -> Arrays.equals(other, assignment))) {
+                improved.add(assignment.clone());
+            } else if(assignment != null) {
+                remaining.add(assignment);
+            }
+        }
+
+        if(improved.isEmpty()) {
+            logger.info("No complete solution to improve by local search.");
+            return result;
+        }
+
+        long initialFitness = fitness(weightMatrix, improved.get(0));
+        int[] moves = new int[improved.size()];
+
+        int parallelism = Math.min(improved.size(), optimization.getCpuBudget());
+        if(parallelism > 1) {
+            ForkJoinPool pool = new ForkJoinPool(parallelism);
+            try {
+                pool.submit(() -> IntStream.range(0, improved.size()).parallel()
+                        .forEach(i -> moves[i] = climb(weightMatrix, improved.get(i), deadline))).join();
+            } finally {
+                pool.shutdown();
+            }
+        } else {
+            for(int i = 0; i < improved.size(); i++) {
+                moves[i] = climb(weightMatrix, improved.get(i), deadline);
+            }
+        }
+
+        // improved solutions are ordered by validity and fitness and precede the solutions that were not improved
+        improved.sort(Comparator.<int[]>comparingInt(assignment -> invalidAssignments(weightMatrix, assignment))
+                .thenComparing(assignment -> -fitness(weightMatrix, assignment)));
+
+        List<int[]> resultAssignments = new ArrayList<>();
+        for(int[] assignment : improved) {
+            if(resultAssignments.stream().noneMatch(other -> Arrays.equals(other, assignment))) {
+                resultAssignments.add(assignment);
+            }
+        }
+        for(int[] assignment : remaining) {
+            if(resultAssignments.stream().noneMatch(other -> Arrays.equals(other, assignment))) {
+                resultAssignments.add(assignment);
+            }
+        }
+
+        List<Map<Flight, Slot>> resultMaps = new ArrayList<>(resultAssignments.size());
+        List<Integer> fitnessValues = new ArrayList<>(resultAssignments.size());
+        for(int[] assignment : resultAssignments) {
+            Map<Flight, Slot> resultMap = new HashMap<>();
+            for(int f = 0; f < assignment.length; f++) {
+                resultMap.put(flights[f], slots[assignment[f]]);
+            }
+            resultMaps.add(resultMap);
+            fitnessValues.add(toInt(fitness(weightMatrix, assignment)));
+        }
+
+        if(results != null) {
+            optimization.setResults(resultMaps);
+            optimization.setFitnessValuesResults(fitnessValues);
+        }
+
+        if(optimization.getConvertedResults() != null) {
+            optimization.setConvertedResults(
+                    resultAssignments.stream().map(assignment -> toSlotOrder(weightMatrix, assignment)).toArray(Integer[][]::new)
+            );
+        }
+
+        long bestFitness = fitness(weightMatrix, resultAssignments.get(0));
+        optimization.getStatistics().setResultFitness(bestFitness);
+        if(bestFitness > optimization.getMaximumFitness()) {
+            optimization.setMaximumFitness(bestFitness);
+        }
+
+        logger.info("Local search improved the fitness of the best solution from " + initialFitness + " to " + bestFitness
+                + " with " + Arrays.stream(moves).sum() + " moves on " + improved.size() + " solutions in "
+                + Duration.ofNanos(System.nanoTime() - start).toMillis() + " ms.");
+
+        return resultMaps.get(0);
+    }
+
+    /**
+     * @return the index of the slot assigned to each flight, or null if not every flight is assigned to a slot
+     */
+    private static int[] toAssignment(Map<Flight, Slot> solution, Map<Flight, Integer> flightIndexes,
+                                      Map<Slot, Integer> slotIndexes, int flightCount) {
+        if(solution == null || solution.size() != flightCount) {
+            return null;
+        }
+
+        int[] assignment = new int[flightCount];
+        for(Map.Entry<Flight, Slot> e : solution.entrySet()) {
+            Integer f = flightIndexes.get(e.getKey());
+            Integer s = slotIndexes.get(e.getValue());
+
+            if(f == null || s == null) {
+                return null;
+            }
+
+            assignment[f] = s;
+        }
+
+        return assignment;
+    }
+
+    /**
+     * Applies improving moves to the assignment until no move improves it or the deadline has passed.
+     * @param weightMatrix the weights
+     * @param assignment the index of the slot assigned to each flight, modified in place
+     * @param deadline the deadline in terms of {@link System#nanoTime()}
+     * @return the number of applied moves
+     */
+    private static int climb(WeightMatrix weightMatrix, int[] assignment, long deadline) {
+        final int slotCount = weightMatrix.getSlotCount();
+
+        int[] flightAt = new int[slotCount];
+        Arrays.fill(flightAt, -1);
+        for(int f = 0; f < assignment.length; f++) {
+            flightAt[assignment[f]] = f;
+        }
+
+        int moves = 0;
+        boolean improved = true;
+
+        while(improved && System.nanoTime() < deadline) {
+            improved = false;
+
+            // swap the slots of two flights or move a flight to an unassigned slot; best move per flight
+            for(int f = 0; f < assignment.length; f++) {
+                if((f & 63) == 0 && System.nanoTime() >= deadline) {
+                    return moves;
+                }
+
+                int from = assignment[f];
+                int bestSlot = -1;
+                int bestInvalid = 0;
+                long bestWeight = 0;
+
+                for(int to = 0; to < slotCount; to++) {
+                    if(to == from) continue;
+
+                    int g = flightAt[to];
+
+                    long weight = (long) weightMatrix.getWeight(f, to) - weightMatrix.getWeight(f, from);
+                    int invalid = invalid(weightMatrix, f, to) - invalid(weightMatrix, f, from);
+
+                    if(g >= 0) {
+                        weight += (long) weightMatrix.getWeight(g, from) - weightMatrix.getWeight(g, to);
+                        invalid += invalid(weightMatrix, g, from) - invalid(weightMatrix, g, to);
+                    }
+
+                    if(invalid < bestInvalid || (invalid == bestInvalid && weight > bestWeight)) {
+                        bestSlot = to;
+                        bestInvalid = invalid;
+                        bestWeight = weight;
+                    }
+                }
+
+                if(bestSlot >= 0) {
+                    int g = flightAt[bestSlot];
+
+                    assignment[f] = bestSlot;
+                    flightAt[bestSlot] = f;
+                    flightAt[from] = g;
+                    if(g >= 0) {
+                        assignment[g] = from;
+                    }
+
+                    moves++;
+                    improved = true;
+                }
+            }
+
+            // reverse the order of the flights in consecutive slots, i.e., 2-opt on the flight sequence
+            for(int position = 0; position < slotCount; position++) {
+                if((position & 63) == 0 && System.nanoTime() >= deadline) {
+                    return moves;
+                }
+
+                for(int length = 3; length <= MAX_SEGMENT_LENGTH && position + length <= slotCount; length++) {
+                    long weight = 0;
+                    int invalid = 0;
+
+                    for(int t = 0; t < length; t++) {
+                        int from = weightMatrix.getSlotAtPosition(position + t);
+                        int to = weightMatrix.getSlotAtPosition(position + length - 1 - t);
+                        int f = flightAt[from];
+
+                        if(f >= 0) {
+                            weight += (long) weightMatrix.getWeight(f, to) - weightMatrix.getWeight(f, from);
+                            invalid += invalid(weightMatrix, f, to) - invalid(weightMatrix, f, from);
+                        }
+                    }
+
+                    if(invalid < 0 || (invalid == 0 && weight > 0)) {
+                        for(int t = 0, u = length - 1; t < u; t++, u--) {
+                            int slotT = weightMatrix.getSlotAtPosition(position + t);
+                            int slotU = weightMatrix.getSlotAtPosition(position + u);
+                            int f = flightAt[slotT];
+                            int g = flightAt[slotU];
+
+                            flightAt[slotT] = g;
+                            flightAt[slotU] = f;
+                            if(f >= 0) assignment[f] = slotU;
+                            if(g >= 0) assignment[g] = slotT;
+                        }
+
+                        moves++;
+                        improved = true;
+                    }
+                }
+            }
+        }
+
+        return moves;
+    }
+
+    private static int invalid(WeightMatrix weightMatrix, int flight, int slot) {
+        return weightMatrix.isAllowed(flight, slot) ? 0 : 1;
+    }
+
+    private static long fitness(WeightMatrix weightMatrix, int[] assignment) {
+        long fitness = 0;
+        for(int f = 0; f < assignment.length; f++) {
+            fitness += weightMatrix.getWeight(f, assignment[f]);
+        }
+        return fitness;
+    }
+
+    /**
+     * Clamps a sum of weights to the range of the integer fitness values of the results instead of truncating it.
+     */
+    private static int toInt(long fitness) {
+        return (int) Math.max(Integer.MIN_VALUE, Math.min(Integer.MAX_VALUE, fitness));
+    }
+
+    private static int invalidAssignments(WeightMatrix weightMatrix, int[] assignment) {
+        int invalidAssignments = 0;
+        for(int f = 0; f < assignment.length; f++) {
+            invalidAssignments += invalid(weightMatrix, f, assignment[f]);
+        }
+        return invalidAssignments;
+    }
+
+    /**
+     * @return for each flight, the index of its slot among the assigned slots ordered by time, as required by the
+     * Privacy Engine
+     */
+    private static Integer[] toSlotOrder(WeightMatrix weightMatrix, int[] assignment) {
+        int[] flightAtPosition = new int[weightMatrix.getSlotCount()];
+        Arrays.fill(flightAtPosition, -1);
+        for(int f = 0; f < assignment.length; f++) {
+            flightAtPosition[weightMatrix.getSlotPosition(assignment[f])] = f;
+        }
+
+        Integer[] slotOrder = new Integer[assignment.length];
+        int index = 0;
+        for(int f : flightAtPosition) {
+            if(f >= 0) {
+                slotOrder[f] = index++;
+            }
+        }
+        return slotOrder;
+    }
+}
@@ -7,6 +7,7 @@ import at.jku.dke.slotmachine.optimizer.service.PrivacyEngineService;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.function.Consumer;
 
 /***
  *
@@ -17,6 +18,7 @@ public abstract class Optimization {
     private Slot[] slots;
 	private List<Map<Flight, Slot>> results = null;
 	private Integer[][] convertedResults = null;
+	private WeightMatrix weightMatrix = null;
 	private FitnessEstimator fitnessEstimator;
 
 	private OptimizationMode mode = OptimizationMode.NON_PRIVACY_PRESERVING;
@@ -33,7 +35,11 @@ public abstract class Optimization {
 	private double theoreticalMaximumFitness = Double.MAX_VALUE; // the "true" maximum fitness as determined by Hungarian algorithm
 
 	private boolean traceFitnessEvolution = false;
+	private volatile Consumer<GenerationProgress> progressListener = null;
+	private OptimizationMetrics metrics = OptimizationMetrics.disabled();
+	private LocalSearch localSearch = null;
 	private String[] initialFlightSequence = null;
+	private List<Map<Flight, Slot>> initialAllocations = null;
 
 	private List<Integer> fitnessValuesResults = null;
 
@@ -75,6 +81,7 @@ public abstract class Optimization {
 
 	public void setFlights(Flight[] flights) {
 		this.flights = flights;
+		this.weightMatrix = null;
 	}
 
 	public Slot[] getSlots() {
@@ -83,6 +90,27 @@ public abstract class Optimization {
 
 	public void setSlots(Slot[] slots) {
 		this.slots = slots;
+		this.weightMatrix = null;
+	}
+
+	/**
+	 * Get the weight matrix of the optimization's flights and slots. The matrix is built on first access.
+	 * @return the weight matrix
+	 */
+	public WeightMatrix getWeightMatrix() {
+		if(this.weightMatrix == null) {
+			this.weightMatrix = new WeightMatrix(this.flights, this.slots);
+		}
+
+		return this.weightMatrix;
+	}
+
+	/**
+	 * Set the weight matrix; allows optimizations over the same flights and slots to share a matrix.
+	 * @param weightMatrix a weight matrix built from this optimization's flights and slots
+	 */
+	public void setWeightMatrix(WeightMatrix weightMatrix) {
+		this.weightMatrix = weightMatrix;
 	}
 
 	public UUID getOptId() {
@@ -158,6 +186,42 @@ public abstract class Optimization {
 		this.traceFitnessEvolution = traceFitnessEvolution;
 	}
 
+	/**
+	 * Returns the listener notified whenever a generation has been evaluated, or null if there is none. Only
+	 * optimizations evolving generations, i.e., Jenetics optimizations, report their progress.
+	 * @return the progress listener
+	 */
+	public Consumer<GenerationProgress> getProgressListener() {
+		return progressListener;
+	}
+
+	public void setProgressListener(Consumer<GenerationProgress> progressListener) {
+		this.progressListener = progressListener;
+	}
+
+	/**
+	 * @return the meters of the optimization; disabled unless set
+	 */
+	public OptimizationMetrics getMetrics() {
+		return metrics;
+	}
+
+	public void setMetrics(OptimizationMetrics metrics) {
+		this.metrics = metrics;
+	}
+
+	/**
+	 * @return the local search applied to the results once the optimization has finished, or null if the results
+	 * are returned as found by the optimization framework
+	 */
+	public LocalSearch getLocalSearch() {
+		return localSearch;
+	}
+
+	public void setLocalSearch(LocalSearch localSearch) {
+		this.localSearch = localSearch;
+	}
+
 
 	public FitnessMethod getFitnessMethod() {
 		return fitnessMethod;
@@ -183,6 +247,18 @@ public abstract class Optimization {
 		this.initialFlightSequence = initialFlightSequence;
 	}
 
+	/**
+	 * @return the solutions the optimization starts from, e.g., the repaired solutions of a previous optimization,
+	 * or null if the optimization framework constructs its own initial solutions
+	 */
+	public List<Map<Flight, Slot>> getInitialAllocations() {
+		return initialAllocations;
+	}
+
+	public void setInitialAllocations(List<Map<Flight, Slot>> initialAllocations) {
+		this.initialAllocations = initialAllocations;
+	}
+
 	public double getTheoreticalMaximumFitness() {
 		return theoreticalMaximumFitness;
 	}
@@ -193,6 +269,15 @@ public abstract class Optimization {
 
 	public abstract int computeInitialFitness();
 
+	/**
+	 * Returns the number of cores the optimization occupies while running. The scheduler only starts an optimization
+	 * once as many cores are available. By default, an optimization runs on a single thread.
+	 * @return the CPU budget of the optimization
+	 */
+	public int getCpuBudget() {
+		return 1;
+	}
+
 	public List<Integer> getFitnessValuesResults() {
 		return fitnessValuesResults;
 	}
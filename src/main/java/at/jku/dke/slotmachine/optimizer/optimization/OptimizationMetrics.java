@@ -0,0 +1,224 @@
+package at.jku.dke.slotmachine.optimizer.optimization;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
+
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Meters of an optimization run. Each measurement is recorded twice: by a global meter, which is tagged with the
+ * optimization framework only and aggregates all optimizations, and by a per-optimization meter named
+ * <code>slotmachine.optimization.*</code>, which is additionally tagged with the optimization identifier. Per-optimization
+ * meters are removed from the registry when the optimization is closed, whereas global meters are kept.
+ * <p>
+ * Measurements are recorded at most once per generation, never per solution. Optimizations that are not created by the
+ * service, e.g., in benchmarks, use the disabled metrics, which record nothing.
+ */
+public class OptimizationMetrics {
+    public static final String PREFIX = "slotmachine.";
+    public static final String OPTIMIZATION_PREFIX = PREFIX + "optimization.";
+
+    public static final String OPTIMIZATION_TAG = "optimization";
+    public static final String FRAMEWORK_TAG = "framework";
+
+    private static final OptimizationMetrics DISABLED = new OptimizationMetrics(new CompositeMeterRegistry(), null, "NONE");
+
+    private final MeterRegistry registry;
+
+    private final Tags globalTags;
+    private final Tags optimizationTags;
+
+    /**
+     * Meters tagged with the optimization identifier
+     */
+    private final CopyOnWriteArrayList<Meter> optimizationMeters = new CopyOnWriteArrayList<>();
+
+    private final Timer generationDuration;
+    private final Timer optimizationGenerationDuration;
+
+    private final Counter fitnessEvaluations;
+    private final Counter optimizationFitnessEvaluations;
+    private final AtomicLong fitnessEvaluationsTotal = new AtomicLong();
+
+    private final Counter phenotypes;
+    private final Counter invalidPhenotypes;
+    private final Counter optimizationInvalidPhenotypes;
+    private final Counter invalidAssignments;
+
+    private final Counter rejectedGenerations;
+    private final Counter initialDuplicates;
+    private final Counter remainingDuplicates;
+    private final Counter unsentDuplicates;
+
+    /**
+     * @param registry the registry of the meters
+     * @param optId the optimization identifier
+     * @param framework the optimization framework, e.g., JENETICS
+     */
+    public OptimizationMetrics(MeterRegistry registry, UUID optId, String framework) {
+        this.registry = registry;
+        this.globalTags = Tags.of(FRAMEWORK_TAG, String.valueOf(framework));
+        this.optimizationTags = this.globalTags.and(OPTIMIZATION_TAG, String.valueOf(optId));
+
+        this.generationDuration = Timer.builder(PREFIX + "generation.duration")
+                .description("Time to evaluate a generation")
+                .tags(this.globalTags)
+                .register(registry);
+        this.optimizationGenerationDuration = this.register(
+                Timer.builder(OPTIMIZATION_PREFIX + "generation.duration")
+                        .description("Time to evaluate a generation of the optimization")
+                        .tags(this.optimizationTags)
+                        .register(registry)
+        );
+
+        this.fitnessEvaluations = Counter.builder(PREFIX + "fitness.evaluations")
+                .description("Invocations of the fitness function")
+                .tags(this.globalTags)
+                .register(registry);
+        this.optimizationFitnessEvaluations = this.register(
+                Counter.builder(OPTIMIZATION_PREFIX + "fitness.evaluations")
+                        .description("Invocations of the fitness function by the optimization")
+                        .tags(this.optimizationTags)
+                        .register(registry)
+        );
+
+        this.phenotypes = Counter.builder(PREFIX + "evaluation.phenotypes")
+                .description("Evaluated solutions")
+                .tags(this.globalTags)
+                .register(registry);
+        this.invalidPhenotypes = Counter.builder(PREFIX + "evaluation.phenotypes.invalid")
+                .description("Evaluated solutions violating the scheduled time of a flight")
+                .tags(this.globalTags)
+                .register(registry);
+        this.optimizationInvalidPhenotypes = this.register(
+                Counter.builder(OPTIMIZATION_PREFIX + "evaluation.phenotypes.invalid")
+                        .description("Evaluated solutions of the optimization violating the scheduled time of a flight")
+                        .tags(this.optimizationTags)
+                        .register(registry)
+        );
+        this.invalidAssignments = Counter.builder(PREFIX + "evaluation.assignments.invalid")
+                .description("Assignments of flights to slots before their scheduled time")
+                .tags(this.globalTags)
+                .register(registry);
+
+        this.rejectedGenerations = Counter.builder(PREFIX + "evaluation.generations.rejected")
+                .description("Generations returned unevaluated because of duplicates")
+                .tags(this.globalTags)
+                .register(registry);
+        this.initialDuplicates = this.duplicates("initial");
+        this.remainingDuplicates = this.duplicates("remaining");
+        this.unsentDuplicates = this.duplicates("unsent");
+    }
+
+    /**
+     * @return metrics that record nothing
+     */
+    public static OptimizationMetrics disabled() {
+        return DISABLED;
+    }
+
+    private Counter duplicates(String stage) {
+        return Counter.builder(PREFIX + "evaluation.duplicates")
+                .description("Duplicate solutions by stage of deduplication")
+                .tags(this.globalTags)
+                .tag("stage", stage)
+                .register(this.registry);
+    }
+
+    private <M extends Meter> M register(M meter) {
+        // the registry returns the existing meter if a meter with the same name and tags is registered again
+        this.optimizationMeters.addIfAbsent(meter);
+        return meter;
+    }
+
+    /**
+     * Records the evaluation of a generation.
+     * @param evaluationNanos the time it took to evaluate the generation
+     * @param phenotypes the number of solutions in the generation
+     * @param invalidPhenotypes the number of invalid solutions in the generation
+     * @param invalidAssignments the number of invalid assignments of all solutions in the generation
+     */
+    public void recordGeneration(long evaluationNanos, int phenotypes, int invalidPhenotypes, long invalidAssignments) {
+        this.generationDuration.record(evaluationNanos, TimeUnit.NANOSECONDS);
+        this.optimizationGenerationDuration.record(evaluationNanos, TimeUnit.NANOSECONDS);
+
+        this.phenotypes.increment(phenotypes);
+        this.invalidPhenotypes.increment(invalidPhenotypes);
+        this.optimizationInvalidPhenotypes.increment(invalidPhenotypes);
+        this.invalidAssignments.increment(invalidAssignments);
+    }
+
+    /**
+     * Records the total number of fitness function invocations so far; the counters are incremented by the difference
+     * to the largest total recorded before, so several threads may record the total of the same optimization.
+     * @param total the number of invocations of the fitness function since the start of the optimization
+     */
+    public void recordFitnessEvaluations(long total) {
+        long previous = this.fitnessEvaluationsTotal.getAndAccumulate(total, Math::max);
+
+        if(total > previous) {
+            this.fitnessEvaluations.increment(total - previous);
+            this.optimizationFitnessEvaluations.increment(total - previous);
+        }
+    }
+
+    /**
+     * Records a generation that is returned unevaluated because it contains duplicates.
+     * @param duplicates the number of duplicates in the generation
+     */
+    public void recordRejectedGeneration(long duplicates) {
+        this.rejectedGenerations.increment();
+        this.initialDuplicates.increment(duplicates);
+    }
+
+    /**
+     * @param duplicates the number of duplicates that remain after deduplication
+     */
+    public void recordRemainingDuplicates(long duplicates) {
+        this.remainingDuplicates.increment(duplicates);
+    }
+
+    /**
+     * @param duplicates the number of duplicates that are evaluated once instead of being sent to the Privacy Engine
+     */
+    public void recordUnsentDuplicates(long duplicates) {
+        this.unsentDuplicates.increment(duplicates);
+    }
+
+    /**
+     * Registers a gauge tagged with the optimization identifier, which is removed when the metrics are closed.
+     * @param name the name of the gauge, without the per-optimization prefix
+     * @param description the description of the gauge
+     * @param object the object the gauge is computed from, which is only weakly referenced
+     * @param function computes the value of the gauge
+     * @param <T> the type of the object
+     */
+    public <T> void gauge(String name, String description, T object, ToDoubleFunction<T> function) {
+        this.register(
+                Gauge.builder(OPTIMIZATION_PREFIX + name, object, function)
+                        .description(description)
+                        .tags(this.optimizationTags)
+                        .register(this.registry)
+        );
+    }
+
+    /**
+     * Removes the meters tagged with the optimization identifier from the registry.
+     */
+    public void close() {
+        for(Meter meter : this.optimizationMeters) {
+            this.registry.remove(meter);
+        }
+
+        this.optimizationMeters.clear();
+    }
+}
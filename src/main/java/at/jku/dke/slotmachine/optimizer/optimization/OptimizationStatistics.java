@@ -4,8 +4,6 @@ import org.springframework.lang.Nullable;
 
 import java.time.Duration;
 import java.time.LocalDateTime;
-import java.util.LinkedList;
-import java.util.List;
 
 public class OptimizationStatistics {
 
@@ -20,7 +18,7 @@ public class OptimizationStatistics {
     private LocalDateTime timeAborted;
     private LocalDateTime timeFinished;
 
-    private List<FitnessEvolutionStep> fitnessEvolution = null;
+    private FitnessEvolutionTrace fitnessEvolution = null;
 
     public double getInitialFitness() {
         return initialFitness;
@@ -96,11 +94,11 @@ public class OptimizationStatistics {
         this.fitnessFunctionInvocations = fitnessFunctionInvocations;
     }
 
-    public List<FitnessEvolutionStep> getFitnessEvolution() {
+    public FitnessEvolutionTrace getFitnessEvolution() {
         return fitnessEvolution;
     }
 
-    public void setFitnessEvolution(List<FitnessEvolutionStep> fitnessEvolution) {
+    public void setFitnessEvolution(FitnessEvolutionTrace fitnessEvolution) {
         this.fitnessEvolution = fitnessEvolution;
     }
 }
@@ -0,0 +1,293 @@
+package at.jku.dke.slotmachine.optimizer.optimization;
+
+import at.jku.dke.slotmachine.optimizer.domain.Flight;
+import at.jku.dke.slotmachine.optimizer.domain.Slot;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.Random;
+
+/**
+ * Feasibility of the SOBT constraint, i.e., whether each flight can be assigned to a distinct slot that is not before
+ * its scheduled time, and construction of such assignments.
+ * <p>
+ * A valid assignment exists if and only if, for every scheduled time, there are at least as many slots at or after
+ * that time as there are flights scheduled at or after it, and there are at least as many slots as flights. The
+ * analysis sorts scheduled times and slot times once and checks the condition in a single sweep over both.
+ * <p>
+ * Valid assignments are constructed by assigning the flights in descending order of their earliest allowed slot:
+ * every slot a flight may take is also allowed for all flights assigned after it, so any allowed free slot can be
+ * chosen without losing feasibility. Free slots are kept in a Fenwick tree, so that a flight is assigned in
+ * logarithmic time.
+ */
+public class SobtFeasibility {
+    private final boolean feasible;
+
+    private final int requiringFlights;
+    private final LocalDateTime scheduledTime;
+    private final int availableSlots;
+
+    private SobtFeasibility(boolean feasible, int requiringFlights, LocalDateTime scheduledTime, int availableSlots) {
+        this.feasible = feasible;
+        this.requiringFlights = requiringFlights;
+        this.scheduledTime = scheduledTime;
+        this.availableSlots = availableSlots;
+    }
+
+    /**
+     * Determines whether the flights can be assigned to the slots without violating the SOBT constraint.
+     * @param flights the flights; flights without scheduled time may be assigned to any slot
+     * @param slots the available slots
+     * @return the result of the analysis
+     */
+    public static SobtFeasibility analyse(Flight[] flights, Slot[] slots) {
+        LocalDateTime[] scheduledTimes = Arrays.stream(flights)
+                .map(Flight::getScheduledTime)
+                .filter(Objects::nonNull)
+                .sorted()
+                .toArray(LocalDateTime[]::new);
+
+        LocalDateTime[] slotTimes = Arrays.stream(slots)
+                .map(Slot::getTime)
+                .sorted()
+                .toArray(LocalDateTime[]::new);
+
+        // sweep both from the latest time, counting the slots at or after each scheduled time
+        int slot = slotTimes.length;
+        for(int i = 1; i <= scheduledTimes.length; i++) {
+            LocalDateTime time = scheduledTimes[scheduledTimes.length - i];
+
+            while(slot > 0 && !slotTimes[slot - 1].isBefore(time)) {
+                slot--;
+            }
+
+            int slotsAfter = slotTimes.length - slot;
+
+            if(slotsAfter < i) {
+                return new SobtFeasibility(false, i, time, slotsAfter);
+            }
+        }
+
+        if(slots.length < flights.length) {
+            return new SobtFeasibility(false, flights.length, null, slots.length);
+        }
+
+        return new SobtFeasibility(true, 0, null, slots.length);
+    }
+
+    public boolean isFeasible() {
+        return feasible;
+    }
+
+    /**
+     * @return a description of the violated condition, or null if a valid assignment exists
+     */
+    public String getViolation() {
+        if(feasible) {
+            return null;
+        }
+
+        if(scheduledTime == null) {
+            return requiringFlights + " flights require a slot, but there are only " + availableSlots + " slots available.";
+        }
+
+        return requiringFlights + " flights require a slot after or equal to " + scheduledTime + ", but there are only " +
+                availableSlots + " slots available.";
+    }
+
+    /**
+     * Completes an assignment of flights to slots such that no flight is assigned before its scheduled time, if
+     * possible. Assignments that do not violate the SOBT constraint are kept if the remaining flights can still be
+     * assigned validly; the remaining flights are assigned at random to one of the earliest free allowed slots. If the
+     * kept assignments prevent a valid assignment, a flight only keeps its slot if the slot is still free when the
+     * flight is assigned; if no valid assignment exists, flights without an allowed free slot are assigned to the
+     * latest free slot.
+     * @param weightMatrix the weight matrix of the flights and slots
+     * @param assignment the index of the slot of each flight, or -1 if the flight is not assigned
+     * @param choices the number of earliest free allowed slots a flight is chosen from; 1 assigns the earliest
+     * @param random the source of randomness; may be null if choices is 1
+     * @return the index of the slot of each flight, distinct for all flights
+     * @throws IllegalArgumentException if there are fewer slots than flights
+     */
+    public static int[] repair(WeightMatrix weightMatrix, int[] assignment, int choices, Random random) {
+        int flightCount = weightMatrix.getFlightCount();
+        int slotCount = weightMatrix.getSlotCount();
+
+        if(slotCount < flightCount) {
+            throw new IllegalArgumentException(flightCount + " flights cannot be assigned to " + slotCount + " slots.");
+        }
+
+        int[] order = getFlightsByEarliestSlotDescending(weightMatrix);
+
+        int[] result = new int[flightCount];
+        Arrays.fill(result, -1);
+
+        FreeSlots freeSlots = new FreeSlots(slotCount);
+
+        for(int f = 0; f < flightCount; f++) {
+            if(keep(weightMatrix, assignment, f, freeSlots)) {
+                result[f] = assignment[f];
+            }
+        }
+
+        boolean valid = true;
+        for(int f : order) {
+            if(result[f] < 0) {
+                int position = freeSlots.choose(weightMatrix.getEarliestSlotPosition(f), choices, random);
+
+                if(position < 0) {
+                    valid = false;
+                    break;
+                }
+
+                result[f] = weightMatrix.getSlotAtPosition(position);
+                freeSlots.remove(position);
+            }
+        }
+
+        if(!valid) {
+            // a flight keeps its slot only if it is still free when the flight's turn comes
+            Arrays.fill(result, -1);
+            freeSlots = new FreeSlots(slotCount);
+
+            for(int f : order) {
+                if(keep(weightMatrix, assignment, f, freeSlots)) {
+                    result[f] = assignment[f];
+                } else {
+                    int position = freeSlots.choose(weightMatrix.getEarliestSlotPosition(f), choices, random);
+
+                    if(position < 0) {
+                        position = freeSlots.select(freeSlots.count(slotCount) - 1);
+                    }
+
+                    result[f] = weightMatrix.getSlotAtPosition(position);
+                    freeSlots.remove(position);
+                }
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Keeps the slot of a flight if it is allowed and still free.
+     */
+    private static boolean keep(WeightMatrix weightMatrix, int[] assignment, int f, FreeSlots freeSlots) {
+        int s = assignment[f];
+
+        if(s >= 0 && weightMatrix.isAllowed(f, s) && freeSlots.isFree(weightMatrix.getSlotPosition(s))) {
+            freeSlots.remove(weightMatrix.getSlotPosition(s));
+            return true;
+        }
+
+        return false;
+    }
+
+    /**
+     * Counting sort of the flights by the position of their earliest allowed slot, latest first.
+     */
+    private static int[] getFlightsByEarliestSlotDescending(WeightMatrix weightMatrix) {
+        int flightCount = weightMatrix.getFlightCount();
+        int slotCount = weightMatrix.getSlotCount();
+
+        int[] counts = new int[slotCount + 2];
+        for(int f = 0; f < flightCount; f++) {
+            counts[slotCount - weightMatrix.getEarliestSlotPosition(f) + 1]++;
+        }
+        for(int i = 1; i < counts.length; i++) {
+            counts[i] += counts[i - 1];
+        }
+
+        int[] order = new int[flightCount];
+        for(int f = 0; f < flightCount; f++) {
+            order[counts[slotCount - weightMatrix.getEarliestSlotPosition(f)]++] = f;
+        }
+
+        return order;
+    }
+
+    /**
+     * Fenwick tree over the slot positions in time order, counting the free slots.
+     */
+    private static class FreeSlots {
+        private final int[] tree;
+        private final boolean[] free;
+
+        FreeSlots(int slotCount) {
+            this.tree = new int[slotCount + 1];
+            this.free = new boolean[slotCount];
+
+            Arrays.fill(free, true);
+            for(int i = 1; i <= slotCount; i++) {
+                tree[i]++;
+
+                int parent = i + (i & -i);
+                if(parent <= slotCount) {
+                    tree[parent] += tree[i];
+                }
+            }
+        }
+
+        boolean isFree(int position) {
+            return free[position];
+        }
+
+        void remove(int position) {
+            free[position] = false;
+
+            for(int i = position + 1; i < tree.length; i += i & -i) {
+                tree[i]--;
+            }
+        }
+
+        /**
+         * @return the number of free slots before the given position
+         */
+        int count(int position) {
+            int count = 0;
+
+            for(int i = position; i > 0; i -= i & -i) {
+                count += tree[i];
+            }
+
+            return count;
+        }
+
+        /**
+         * @return the position of the free slot with the given rank, starting with 0
+         */
+        int select(int rank) {
+            int position = 0;
+            int remaining = rank + 1;
+
+            for(int step = Integer.highestOneBit(tree.length - 1); step > 0; step >>= 1) {
+                if(position + step < tree.length && tree[position + step] < remaining) {
+                    position += step;
+                    remaining -= tree[position];
+                }
+            }
+
+            return position;
+        }
+
+        /**
+         * @return one of the earliest free slots at or after the given position, or -1 if there is none
+         */
+        int choose(int earliestPosition, int choices, Random random) {
+            int before = this.count(earliestPosition);
+            int after = this.count(tree.length - 1) - before;
+
+            if(after <= 0) {
+                return -1;
+            }
+
+            int rank = before;
+            if(choices > 1) {
+                rank += random.nextInt(Math.min(choices, after));
+            }
+
+            return this.select(rank);
+        }
+    }
+}
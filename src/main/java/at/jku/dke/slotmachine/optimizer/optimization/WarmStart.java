@@ -0,0 +1,72 @@
+package at.jku.dke.slotmachine.optimizer.optimization;
+
+import at.jku.dke.slotmachine.optimizer.domain.Flight;
+import at.jku.dke.slotmachine.optimizer.domain.Slot;
+
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Turns the solution of a previous optimization into a solution of a changed optimization, e.g., after flights were
+ * delayed or slots were removed, so that the changed optimization can start from the previous solution rather than
+ * from scratch. Flights and slots of the two optimizations are matched by flight identifier and slot time.
+ */
+public class WarmStart {
+    private WarmStart() { }
+
+    /**
+     * Repairs a previous solution for the given flights and slots. A flight keeps its previous slot if the slot still
+     * exists and is not before the flight's scheduled time, as far as this permits a valid solution; the remaining
+     * flights are assigned to the earliest free slot that is not before their scheduled time, see
+     * {@link SobtFeasibility#repair(WeightMatrix, int[], int, Random)}.
+     * @param weightMatrix the weight matrix of the changed optimization's flights and slots
+     * @param flights the flights of the changed optimization
+     * @param slots the slots of the changed optimization
+     * @param flightSequence the flight identifiers of the previous solution, ordered by slot
+     * @param slotTimes the times of the slots the flights of the previous solution are assigned to
+     * @return a mapping from each flight to a distinct slot, or null if there are fewer slots than flights
+     */
+    public static Map<Flight, Slot> repair(WeightMatrix weightMatrix, Flight[] flights, Slot[] slots,
+                                           String[] flightSequence, LocalDateTime[] slotTimes) {
+        if(slots.length < flights.length) {
+            return null;
+        }
+
+        Map<String, Integer> flightIndexes = new HashMap<>();
+        for(int f = 0; f < flights.length; f++) {
+            flightIndexes.put(flights[f].getFlightId(), f);
+        }
+
+        // slots with the same time are matched in time order
+        Map<LocalDateTime, ArrayDeque<Integer>> slotsByTime = new HashMap<>();
+        for(int position = 0; position < slots.length; position++) {
+            int s = weightMatrix.getSlotAtPosition(position);
+            slotsByTime.computeIfAbsent(slots[s].getTime(), time -> new ArrayDeque<>()).add(s);
+        }
+
+        int[] assignment = new int[flights.length];
+        Arrays.fill(assignment, -1);
+
+        for(int i = 0; i < flightSequence.length && i < slotTimes.length; i++) {
+            Integer f = flightIndexes.get(flightSequence[i]);
+            ArrayDeque<Integer> candidates = slotsByTime.get(slotTimes[i]);
+
+            if(f != null && assignment[f] < 0 && candidates != null && !candidates.isEmpty()) {
+                assignment[f] = candidates.pollFirst();
+            }
+        }
+
+        assignment = SobtFeasibility.repair(weightMatrix, assignment, 1, null);
+
+        Map<Flight, Slot> allocation = new HashMap<>();
+        for(int f = 0; f < flights.length; f++) {
+            allocation.put(flights[f], slots[assignment[f]]);
+        }
+
+        return allocation;
+    }
+}
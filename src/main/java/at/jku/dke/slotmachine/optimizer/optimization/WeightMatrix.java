@@ -0,0 +1,185 @@
+package at.jku.dke.slotmachine.optimizer.optimization;
+
+import at.jku.dke.slotmachine.optimizer.domain.Flight;
+import at.jku.dke.slotmachine.optimizer.domain.Slot;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.stream.IntStream;
+
+/**
+ * Dense representation of the weights of a slot allocation problem. Flights and slots are referred to by their index
+ * in the arrays that the matrix was built from. The weights submitted for a flight are ordered by the slots' times;
+ * the matrix translates them once into the order of the slot array, so that the weight of an assignment can be looked
+ * up without hashing or boxing. For each flight, the matrix also holds the position (in time order) of the earliest
+ * slot that does not violate the flight's scheduled time.
+ */
+public class WeightMatrix {
+    private final int flightCount;
+    private final int slotCount;
+
+    /**
+     * weights[f][s] is the weight of assigning flight f to slot s
+     */
+    private final int[][] weights;
+
+    /**
+     * Position of each slot when the slots are ordered by time
+     */
+    private final int[] slotPositions;
+
+    /**
+     * Index of the slot at each position when the slots are ordered by time
+     */
+    private final int[] slotsByPosition;
+
+    /**
+     * Position of the earliest slot each flight may be assigned to without violating its scheduled time
+     */
+    private final int[] earliestSlotPositions;
+
+    /**
+     * False if at least one flight has no weights, e.g., in privacy-preserving mode
+     */
+    private final boolean hasWeights;
+
+    /**
+     * Builds the weight matrix for the given flights and slots.
+     * @param flights the flights of the problem
+     * @param slots the available slots of the problem
+     */
+    public WeightMatrix(Flight[] flights, Slot[] slots) {
+        this.flightCount = flights.length;
+        this.slotCount = slots.length;
+
+        // sorting is stable, slots with the same time keep their relative order
+        this.slotsByPosition = IntStream.range(0, slotCount)
+                .boxed()
+                .sorted(Comparator.comparing(s -> slots[s]))
+                .mapToInt(Integer::intValue)
+                .toArray();
+
+        this.slotPositions = new int[slotCount];
+        LocalDateTime[] slotTimes = new LocalDateTime[slotCount];
+        for(int position = 0; position < slotCount; position++) {
+            slotPositions[slotsByPosition[position]] = position;
+            slotTimes[position] = slots[slotsByPosition[position]].getTime();
+        }
+
+        this.weights = new int[flightCount][slotCount];
+        this.earliestSlotPositions = new int[flightCount];
+
+        boolean allWeightsAvailable = true;
+
+        for(int f = 0; f < flightCount; f++) {
+            int[] flightWeights = flights[f].getWeights();
+
+            if(flightWeights == null) {
+                // in SECRET mode no weights are stored in the flight
+                Arrays.fill(weights[f], Integer.MIN_VALUE);
+                allWeightsAvailable = false;
+            } else {
+                for(int s = 0; s < slotCount; s++) {
+                    weights[f][s] = flightWeights[slotPositions[s]];
+                }
+            }
+
+            earliestSlotPositions[f] = getEarliestPosition(slotTimes, flights[f].getScheduledTime());
+        }
+
+        this.hasWeights = allWeightsAvailable;
+    }
+
+    /**
+     * Binary search for the first slot time that is not before the scheduled time.
+     */
+    private static int getEarliestPosition(LocalDateTime[] slotTimes, LocalDateTime scheduledTime) {
+        if(scheduledTime == null) {
+            return 0;
+        }
+
+        int low = 0;
+        int high = slotTimes.length;
+
+        while(low < high) {
+            int mid = (low + high) >>> 1;
+
+            if(slotTimes[mid].isBefore(scheduledTime)) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+
+        return low;
+    }
+
+    public int getFlightCount() {
+        return flightCount;
+    }
+
+    public int getSlotCount() {
+        return slotCount;
+    }
+
+    public boolean hasWeights() {
+        return hasWeights;
+    }
+
+    /**
+     * Returns the weight of assigning a flight to a slot.
+     * @param flight the index of the flight
+     * @param slot the index of the slot
+     * @return the weight, or Integer.MIN_VALUE if the flight has no weights
+     */
+    public int getWeight(int flight, int slot) {
+        return weights[flight][slot];
+    }
+
+    /**
+     * Returns the weights of a flight, indexed by slot. The returned array is shared and must not be modified.
+     * @param flight the index of the flight
+     * @return the weights of the flight
+     */
+    public int[] getWeights(int flight) {
+        return weights[flight];
+    }
+
+    /**
+     * Determines whether a flight can be assigned to a slot without violating the flight's scheduled time.
+     * @param flight the index of the flight
+     * @param slot the index of the slot
+     * @return true if the slot is not before the flight's scheduled time; false otherwise.
+     */
+    public boolean isAllowed(int flight, int slot) {
+        return slotPositions[slot] >= earliestSlotPositions[flight];
+    }
+
+    /**
+     * Returns the position (in time order) of the earliest slot the flight may be assigned to.
+     * @param flight the index of the flight
+     * @return the position of the earliest allowed slot; equals the number of slots if no slot is allowed
+     */
+    public int getEarliestSlotPosition(int flight) {
+        return earliestSlotPositions[flight];
+    }
+
+    /**
+     * Returns the position of a slot when the slots are ordered by time.
+     * @param slot the index of the slot
+     * @return the position of the slot
+     */
+    public int getSlotPosition(int slot) {
+        return slotPositions[slot];
+    }
+
+    /**
+     * Returns the index of the slot at a given position when the slots are ordered by time.
+     * @param position the position in time order
+     * @return the index of the slot
+     */
+    public int getSlotAtPosition(int position) {
+        return slotsByPosition[position];
+    }
+}
@@ -0,0 +1,273 @@
+package at.jku.dke.slotmachine.optimizer.optimization.auction;
+
+import at.jku.dke.slotmachine.optimizer.optimization.WeightMatrix;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * Bertsekas' auction algorithm with epsilon-scaling for the slot allocation problem. Flights bid for slots; each bid
+ * raises the price of the flight's most profitable slot by the difference to its second most profitable slot plus
+ * epsilon. As in the Hungarian optimization, assigning a flight to a slot before its scheduled time is devalued.
+ * <p>
+ * The weights are scaled by the number of flights plus one, so that the final phase with epsilon = 1 yields an optimal
+ * assignment for integer weights. If flights and slots differ in number, the problem is completed with dummy flights or
+ * slots of zero weight. In Gauss-Seidel mode, one flight bids at a time. In Jacobi mode, all unassigned flights bid
+ * against the same prices in parallel, and each slot goes to its highest bidder.
+ */
+public class AuctionAlgorithm {
+    public static final long DEVALUATION = -10000000;
+
+    private final WeightMatrix weightMatrix;
+    private final int flightCount;
+    private final int slotCount;
+
+    /**
+     * Number of persons and objects of the (square) auction problem
+     */
+    private final int size;
+    private final long scale;
+
+    private final int epsilonScalingFactor;
+    private final int parallelism;
+
+    private long noBids;
+    private int noPhases;
+
+    /**
+     * @param weightMatrix the weight matrix of the slot allocation problem
+     * @param epsilonScalingFactor the factor by which epsilon is reduced after each phase, at least 2
+     * @param parallelism the number of threads bidding in parallel; 1 for Gauss-Seidel bidding
+     */
+    public AuctionAlgorithm(WeightMatrix weightMatrix, int epsilonScalingFactor, int parallelism) {
+        this.weightMatrix = weightMatrix;
+        this.flightCount = weightMatrix.getFlightCount();
+        this.slotCount = weightMatrix.getSlotCount();
+        this.size = Math.max(flightCount, slotCount);
+        this.scale = size + 1;
+        this.epsilonScalingFactor = Math.max(2, epsilonScalingFactor);
+        this.parallelism = Math.max(1, parallelism);
+        this.noBids = 0;
+        this.noPhases = 0;
+    }
+
+    /**
+     * Computes an assignment of flights to slots with maximum sum of (devalued) weights.
+     * @return the index of the slot assigned to each flight, -1 if the flight is not assigned
+     */
+    public int[] execute() {
+        long[] prices = new long[size];
+        int[] slotOfPerson = new int[size];
+        int[] personOfSlot = new int[size];
+
+        long epsilon = Math.max(1, this.getMaximumBenefit() / epsilonScalingFactor);
+
+        ForkJoinPool pool = parallelism > 1 ? new ForkJoinPool(parallelism) : null;
+
+        try {
+            while(true) {
+                this.noPhases++;
+
+                // each phase starts without assignment, but keeps the prices of the previous phase
+                Arrays.fill(slotOfPerson, -1);
+                Arrays.fill(personOfSlot, -1);
+
+                if(pool == null) {
+                    this.runGaussSeidelPhase(prices, slotOfPerson, personOfSlot, epsilon);
+                } else {
+                    this.runJacobiPhase(prices, slotOfPerson, personOfSlot, epsilon, pool);
+                }
+
+                if(epsilon == 1) {
+                    break;
+                }
+
+                epsilon = Math.max(1, epsilon / epsilonScalingFactor);
+            }
+        } finally {
+            if(pool != null) {
+                pool.shutdown();
+            }
+        }
+
+        int[] assignment = new int[flightCount];
+        for(int f = 0; f < flightCount; f++) {
+            assignment[f] = slotOfPerson[f] < slotCount ? slotOfPerson[f] : -1;
+        }
+
+        return assignment;
+    }
+
+    private void runGaussSeidelPhase(long[] prices, int[] slotOfPerson, int[] personOfSlot, long epsilon) {
+        int[] unassigned = new int[size];
+        for(int i = 0; i < size; i++) {
+            unassigned[i] = size - 1 - i;
+        }
+        int unassignedCount = size;
+
+        long[] bid = new long[2];
+
+        while(unassignedCount > 0) {
+            int person = unassigned[--unassignedCount];
+
+            this.computeBid(person, prices, epsilon, bid);
+            int slot = (int) bid[0];
+            prices[slot] = bid[1];
+            this.noBids++;
+
+            int previousOwner = personOfSlot[slot];
+            if(previousOwner >= 0) {
+                slotOfPerson[previousOwner] = -1;
+                unassigned[unassignedCount++] = previousOwner;
+            }
+
+            personOfSlot[slot] = person;
+            slotOfPerson[person] = slot;
+        }
+    }
+
+    private void runJacobiPhase(long[] prices, int[] slotOfPerson, int[] personOfSlot, long epsilon, ForkJoinPool pool) {
+        int[] bidders = IntStream.range(0, size).toArray();
+        int bidderCount = size;
+
+        int[] bidSlots = new int[size];
+        long[] bidPrices = new long[size];
+
+        // highest bid of the current round for each slot
+        int[] roundOfBid = new int[size];
+        Arrays.fill(roundOfBid, -1);
+        long[] highestBid = new long[size];
+        int[] highestBidder = new int[size];
+        int[] biddenSlots = new int[size];
+        int[] nextBidders = new int[size];
+
+        int round = 0;
+
+        while(bidderCount > 0) {
+            final int[] currentBidders = bidders;
+            final int currentBidderCount = bidderCount;
+
+            // all bidders bid against the prices of the previous round
+            pool.submit(() -> IntStream.range(0, currentBidderCount).parallel().forEach(k -> {
+                long[] bid = new long[2];
+                this.computeBid(currentBidders[k], prices, epsilon, bid);
+                bidSlots[k] = (int) bid[0];
+                bidPrices[k] = bid[1];
+            })).join();
+
+            this.noBids += currentBidderCount;
+
+            int biddenSlotCount = 0;
+            for(int k = 0; k < currentBidderCount; k++) {
+                int slot = bidSlots[k];
+
+                if(roundOfBid[slot] != round) {
+                    roundOfBid[slot] = round;
+                    highestBid[slot] = bidPrices[k];
+                    highestBidder[slot] = currentBidders[k];
+                    biddenSlots[biddenSlotCount++] = slot;
+                } else if(bidPrices[k] > highestBid[slot]) {
+                    highestBid[slot] = bidPrices[k];
+                    highestBidder[slot] = currentBidders[k];
+                }
+            }
+
+            // losing bidders and previous owners of the bidden slots bid again in the next round
+            int nextBidderCount = 0;
+
+            for(int k = 0; k < currentBidderCount; k++) {
+                if(highestBidder[bidSlots[k]] != currentBidders[k]) {
+                    nextBidders[nextBidderCount++] = currentBidders[k];
+                }
+            }
+
+            for(int b = 0; b < biddenSlotCount; b++) {
+                int slot = biddenSlots[b];
+                int previousOwner = personOfSlot[slot];
+
+                if(previousOwner >= 0) {
+                    slotOfPerson[previousOwner] = -1;
+                    nextBidders[nextBidderCount++] = previousOwner;
+                }
+
+                prices[slot] = highestBid[slot];
+                personOfSlot[slot] = highestBidder[slot];
+                slotOfPerson[highestBidder[slot]] = slot;
+            }
+
+            // swap the bidder buffers
+            bidders = nextBidders;
+            nextBidders = currentBidders;
+            bidderCount = nextBidderCount;
+            round++;
+        }
+    }
+
+    /**
+     * Computes the bid of a person, i.e., its most profitable slot and the new price of this slot.
+     * @param person the index of the person
+     * @param prices the current prices
+     * @param epsilon the minimum price increment
+     * @param bid receives the slot at index 0 and the bid price at index 1
+     */
+    private void computeBid(int person, long[] prices, long epsilon, long[] bid) {
+        long best = Long.MIN_VALUE;
+        long secondBest = Long.MIN_VALUE;
+        int bestSlot = 0;
+
+        for(int slot = 0; slot < size; slot++) {
+            long value = this.getBenefit(person, slot) - prices[slot];
+
+            if(value > best) {
+                secondBest = best;
+                best = value;
+                bestSlot = slot;
+            } else if(value > secondBest) {
+                secondBest = value;
+            }
+        }
+
+        long increment = secondBest == Long.MIN_VALUE ? epsilon : best - secondBest + epsilon;
+
+        bid[0] = bestSlot;
+        bid[1] = prices[bestSlot] + increment;
+    }
+
+    /**
+     * Returns the scaled benefit of assigning a person to an object; dummy persons and objects have zero benefit.
+     */
+    private long getBenefit(int person, int slot) {
+        if(person >= flightCount || slot >= slotCount) {
+            return 0;
+        }
+
+        long weight = weightMatrix.getWeight(person, slot);
+
+        if(!weightMatrix.isAllowed(person, slot)) {
+            weight += DEVALUATION;
+        }
+
+        return weight * scale;
+    }
+
+    private long getMaximumBenefit() {
+        long maximum = 1;
+
+        for(int f = 0; f < flightCount; f++) {
+            for(int s = 0; s < slotCount; s++) {
+                maximum = Math.max(maximum, Math.abs(this.getBenefit(f, s)));
+            }
+        }
+
+        return maximum;
+    }
+
+    public long getNoBids() {
+        return noBids;
+    }
+
+    public int getNoPhases() {
+        return noPhases;
+    }
+}
@@ -0,0 +1,233 @@
+package at.jku.dke.slotmachine.optimizer.optimization.auction;
+
+import at.jku.dke.slotmachine.optimizer.domain.Flight;
+import at.jku.dke.slotmachine.optimizer.domain.Slot;
+import at.jku.dke.slotmachine.optimizer.optimization.InvalidOptimizationParameterTypeException;
+import at.jku.dke.slotmachine.optimizer.optimization.Optimization;
+import at.jku.dke.slotmachine.optimizer.optimization.WeightMatrix;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.HashMap;
+import java.util.Map;
+
+public class AuctionOptimization extends Optimization {
+    private static final Logger logger = LogManager.getLogger();
+
+    private AuctionOptimizationConfiguration configuration = null;
+    private AuctionOptimizationStatistics statistics;
+
+    public AuctionOptimization(Flight[] flights, Slot[] slots) {
+        super(flights, slots);
+
+        this.statistics = new AuctionOptimizationStatistics();
+    }
+
+    @Override
+    public Map<Flight, Slot> run() {
+        logger.info("Running optimization using auction algorithm ...");
+        Flight[] flights = this.getFlights();
+        Slot[] slots = this.getSlots();
+        logger.debug("Optimization flights: " + flights.length + " | slots: " + slots.length);
+        WeightMatrix weightMatrix = this.getWeightMatrix();
+
+        String biddingMode = null;
+        int parallelism = Integer.MIN_VALUE;
+        int epsilonScalingFactor = Integer.MIN_VALUE;
+
+        if(this.getConfiguration() != null) {
+            biddingMode = this.getConfiguration().getBiddingMode();
+            parallelism = this.getConfiguration().getParallelism();
+            epsilonScalingFactor = this.getConfiguration().getEpsilonScalingFactor();
+        }
+
+        if(biddingMode == null) {
+            biddingMode = this.getDefaultConfiguration().getBiddingMode();
+        }
+
+        if(epsilonScalingFactor < 2) {
+            epsilonScalingFactor = this.getDefaultConfiguration().getEpsilonScalingFactor();
+        }
+
+        switch (biddingMode) {
+            case "GAUSS_SEIDEL":
+                logger.info("Use Gauss-Seidel bidding.");
+                parallelism = 1;
+                break;
+            case "JACOBI":
+                if(parallelism < 1) {
+                    parallelism = this.getDefaultConfiguration().getParallelism();
+                }
+                logger.info("Use Jacobi bidding with " + parallelism + " threads.");
+                break;
+            default:
+                throw new IllegalStateException("Unexpected value: " + biddingMode);
+        }
+
+        AuctionAlgorithm auction = new AuctionAlgorithm(weightMatrix, epsilonScalingFactor, parallelism);
+        int[] assignment = auction.execute();
+
+        logger.info("Auction finished after " + auction.getNoPhases() + " phases and " + auction.getNoBids() + " bids.");
+
+        double sumOfWeights = 0;
+        Map<Flight, Slot> resultMap = new HashMap<>();
+        for (int j = 0; j < assignment.length; j++) {
+            int i = assignment[j];
+
+            if (i < 0) {
+                // more flights than slots
+                continue;
+            }
+
+            resultMap.put(flights[j], slots[i]);
+
+            int weight;
+            if(!weightMatrix.isAllowed(j, i)) {
+                weight = (int) AuctionAlgorithm.DEVALUATION;
+            } else {
+                weight = weightMatrix.getWeight(j, i);
+            }
+
+            sumOfWeights = sumOfWeights + weight;
+        }
+        logger.info("Finished optimization using auction algorithm for " + this.getOptId() + " with a fitness value of " + sumOfWeights);
+
+        if(this.getStatistics() == null) {
+            this.statistics = new AuctionOptimizationStatistics();
+        }
+
+        this.getStatistics().setResultFitness(sumOfWeights);
+        this.getStatistics().setIterations((int) Math.min(Integer.MAX_VALUE, auction.getNoBids()));
+
+        return resultMap;
+    }
+
+    /**
+     * In Jacobi mode, the flights bid in parallel using the configured number of threads.
+     */
+    @Override
+    public int getCpuBudget() {
+        String biddingMode = null;
+        int parallelism = Integer.MIN_VALUE;
+
+        if(this.getConfiguration() != null) {
+            biddingMode = this.getConfiguration().getBiddingMode();
+            parallelism = this.getConfiguration().getParallelism();
+        }
+
+        if(!"JACOBI".equals(biddingMode)) {
+            return 1;
+        }
+
+        if(parallelism < 1) {
+            parallelism = this.getDefaultConfiguration().getParallelism();
+        }
+
+        return parallelism;
+    }
+
+    @Override
+    public AuctionOptimizationConfiguration getDefaultConfiguration() {
+        AuctionOptimizationConfiguration defaultConfiguration = new AuctionOptimizationConfiguration();
+
+        defaultConfiguration.setBiddingMode("GAUSS_SEIDEL");
+        defaultConfiguration.setParallelism(Runtime.getRuntime().availableProcessors());
+        defaultConfiguration.setEpsilonScalingFactor(4);
+
+        return defaultConfiguration;
+    }
+
+    @Override
+    public AuctionOptimizationConfiguration getConfiguration() {
+        return this.configuration;
+    }
+
+    @Override
+    public void newConfiguration(Map<String, Object> parameters) throws InvalidOptimizationParameterTypeException {
+        AuctionOptimizationConfiguration newConfiguration = new AuctionOptimizationConfiguration();
+
+        Object biddingMode = parameters.get("biddingMode");
+        Object parallelism = parameters.get("parallelism");
+        Object epsilonScalingFactor = parameters.get("epsilonScalingFactor");
+
+        // set the parameters
+        try {
+            if (biddingMode != null) {
+                newConfiguration.setBiddingMode((String) biddingMode);
+            }
+        } catch (Exception e) {
+            throw new InvalidOptimizationParameterTypeException("biddingMode", String.class);
+        }
+
+        try {
+            if (parallelism != null) {
+                newConfiguration.setParallelism((int) parallelism);
+            }
+        } catch (Exception e) {
+            throw new InvalidOptimizationParameterTypeException("parallelism", Integer.class);
+        }
+
+        try {
+            if (epsilonScalingFactor != null) {
+                newConfiguration.setEpsilonScalingFactor((int) epsilonScalingFactor);
+            }
+        } catch (Exception e) {
+            throw new InvalidOptimizationParameterTypeException("epsilonScalingFactor", Integer.class);
+        }
+
+        // replace the configuration if no error was thrown
+        this.configuration = newConfiguration;
+    }
+
+    @Override
+    public AuctionOptimizationStatistics getStatistics() {
+        return this.statistics;
+    }
+
+    /**
+     * Computes the fitness of the initial flight sequence, which assigns the i-th flight of the sequence to the i-th
+     * slot, from the weight matrix.
+     * @return the initial fitness, or Integer.MIN_VALUE if the weights are not available or not all flights are
+     * assigned by the initial flight sequence
+     */
+    @Override
+    public int computeInitialFitness() {
+        logger.info("Calculating fitness of initial flight sequence.");
+        WeightMatrix weightMatrix = this.getWeightMatrix();
+        Flight[] flights = this.getFlights();
+        String[] initialFlightSequence = this.getInitialFlightSequence();
+
+        if(initialFlightSequence == null || !weightMatrix.hasWeights()) {
+            logger.info("Could not calculate initial fitness as no initial flight sequence or no weights are available.");
+            return Integer.MIN_VALUE;
+        }
+
+        Map<String, Integer> flightIndexes = new HashMap<>();
+        for(int f = 0; f < flights.length; f++) {
+            flightIndexes.put(flights[f].getFlightId(), f);
+        }
+
+        boolean[] assigned = new boolean[flights.length];
+        int assignedCount = 0;
+        long initialFitness = 0;
+
+        for(int s = 0; s < initialFlightSequence.length && s < weightMatrix.getSlotCount(); s++) {
+            Integer f = flightIndexes.get(initialFlightSequence[s]);
+
+            if(f != null && !assigned[f]) {
+                assigned[f] = true;
+                assignedCount++;
+                initialFitness += weightMatrix.getWeight(f, s);
+            }
+        }
+
+        if(assignedCount < flights.length) {
+            logger.info("Could not calculate initial fitness as not all initial flight IDs have been mapped to a slot.");
+            return Integer.MIN_VALUE;
+        }
+
+        logger.info("Initial fitness: {}.", initialFitness);
+
+        return (int) Math.max(Integer.MIN_VALUE, Math.min(Integer.MAX_VALUE, initialFitness));
+    }
+}
@@ -0,0 +1,42 @@
+package at.jku.dke.slotmachine.optimizer.optimization.auction;
+
+import at.jku.dke.slotmachine.optimizer.optimization.OptimizationConfiguration;
+
+public class AuctionOptimizationConfiguration extends OptimizationConfiguration {
+    /**
+     * Returns the bidding mode, i.e., GAUSS_SEIDEL (one flight bids at a time) or JACOBI (all unassigned flights bid in
+     * parallel).
+     * @return the bidding mode
+     */
+    public String getBiddingMode() {
+        return this.getStringParameter("biddingMode");
+    }
+
+    public void setBiddingMode(String biddingMode) {
+        this.setParameter("biddingMode", biddingMode);
+    }
+
+    /**
+     * Returns the number of threads used in JACOBI bidding mode, or Integer.MIN_VALUE if the parameter is not set.
+     * @return the parallelism
+     */
+    public int getParallelism() {
+        return this.getIntegerParameter("parallelism");
+    }
+
+    public void setParallelism(int parallelism) {
+        this.setParameter("parallelism", parallelism);
+    }
+
+    /**
+     * Returns the factor by which epsilon is reduced after each phase, or Integer.MIN_VALUE if the parameter is not set.
+     * @return the epsilon scaling factor
+     */
+    public int getEpsilonScalingFactor() {
+        return this.getIntegerParameter("epsilonScalingFactor");
+    }
+
+    public void setEpsilonScalingFactor(int epsilonScalingFactor) {
+        this.setParameter("epsilonScalingFactor", epsilonScalingFactor);
+    }
+}
@@ -0,0 +1,33 @@
+package at.jku.dke.slotmachine.optimizer.optimization.auction;
+
+import at.jku.dke.slotmachine.optimizer.domain.Flight;
+import at.jku.dke.slotmachine.optimizer.domain.Slot;
+import at.jku.dke.slotmachine.optimizer.optimization.InvalidOptimizationParameterTypeException;
+import at.jku.dke.slotmachine.optimizer.optimization.OptimizationFactory;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.Map;
+
+public class AuctionOptimizationFactory extends OptimizationFactory {
+    private static final Logger logger = LogManager.getLogger();
+
+    @Override
+    public AuctionOptimization createOptimization(Flight[] flights, Slot[] slots) {
+        return new AuctionOptimization(flights, slots);
+    }
+
+    @Override
+    public AuctionOptimization createOptimization(Flight[] flights, Slot[] slots, Map<String, Object> parameters) throws InvalidOptimizationParameterTypeException {
+        AuctionOptimization optimization = this.createOptimization(flights, slots);
+
+        try {
+            optimization.newConfiguration(parameters);
+        } catch (InvalidOptimizationParameterTypeException e) {
+            logger.error("Wrong parameter for auction algorithm configuration.", e);
+            throw e;
+        }
+
+        return optimization;
+    }
+}
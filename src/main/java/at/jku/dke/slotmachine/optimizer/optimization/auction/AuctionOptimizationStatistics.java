@@ -0,0 +1,6 @@
+package at.jku.dke.slotmachine.optimizer.optimization.auction;
+
+import at.jku.dke.slotmachine.optimizer.optimization.OptimizationStatistics;
+
+public class AuctionOptimizationStatistics extends OptimizationStatistics {
+}
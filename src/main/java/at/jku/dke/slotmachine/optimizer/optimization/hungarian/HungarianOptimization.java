@@ -4,7 +4,9 @@ import at.jku.dke.slotmachine.optimizer.domain.Flight;
 import at.jku.dke.slotmachine.optimizer.domain.Slot;
 import at.jku.dke.slotmachine.optimizer.optimization.InvalidOptimizationParameterTypeException;
 import at.jku.dke.slotmachine.optimizer.optimization.Optimization;
+import at.jku.dke.slotmachine.optimizer.optimization.WeightMatrix;
 
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -30,123 +32,124 @@ public class HungarianOptimization extends Optimization {
     	Flight[] flights = this.getFlights();
     	Slot[] slots = this.getSlots();
     	logger.debug("Optimization flights: " + flights.length + " | slots: " + slots.length);
-    	
+    	WeightMatrix weightMatrix = this.getWeightMatrix();
+
+    	// assignment[j] = i: flights[j] at slots[i]
+    	int[] assignment = new SparseHungarianAlgorithm(weightMatrix).execute();
+
+    	if (assignment == null) {
+    		logger.info("No assignment satisfies the scheduled times of all flights. Using dense Hungarian algorithm with devaluation.");
+    		assignment = this.executeDense(weightMatrix);
+    	}
+
+    	if (logger.isDebugEnabled()) {
+    		StringBuilder out = new StringBuilder();
+    		for (int slot : assignment) {
+    			out.append('[').append(slot).append(']');
+    		}
+    		logger.debug(out);
+    	}
+
+    	double sumOfWeights = 0;
+    	Map<Flight, Slot> resultMap = new HashMap<>();
+    	for (int j = 0; j < assignment.length; j++) {
+    		int i = assignment[j];
+
+    		if (i < 0) {
+    			// more flights than slots
+    			continue;
+    		}
+
+    		resultMap.put(flights[j], slots[i]);
+			int weight;
+			if(DEVALUE_SOBT_CONSTRAINT && !weightMatrix.isAllowed(j, i)){
+				weight = DEVALUATION;
+			}else{
+				weight = weightMatrix.getWeight(j, i);
+			}
+			if (logger.isDebugEnabled()) {
+				logger.debug("Slot " + slots[i].getTime().toString() + ": " + flights[j].getFlightId()
+						+ " | weight: " + weightMatrix.getWeight(j, i));
+			}
+
+    		sumOfWeights = sumOfWeights + weight;
+    	}
+    	logger.info("Finished optimization using Hungarian algorithm for " + this.getOptId() + " with a fitness value of " + sumOfWeights);
+
+    	if(this.getStatistics() == null) {
+    		this.statistics = new HungarianOptimizationStatistics();
+    	}
+
+    	this.getStatistics().setResultFitness(sumOfWeights);
+
+        return resultMap;
+    }
+
+	/**
+	 * Computes the assignment using the dense Hungarian algorithm, where assignments that violate a flight's scheduled
+	 * time are devalued rather than excluded.
+	 * @param weightMatrix the weight matrix
+	 * @return the index of the slot assigned to each flight, -1 if the flight is not assigned
+	 */
+	private int[] executeDense(WeightMatrix weightMatrix) {
+		int slotCount = weightMatrix.getSlotCount();
+		int flightCount = weightMatrix.getFlightCount();
+
     	// create cost matrix
     	// slots are with index i (so some slots can be unassigned)
     	// flights are with index j
     	//  -> at [i][j] is the weight to assign flight j to slot i
-    	double[][] costMatrix = new double[slots.length][flights.length];
-    	for (int i = 0; i < slots.length; i++) {
-    		for (int j = 0; j < flights.length; j++) {
-    			if(i == 0) flights[j].computeWeightMap(slots);
-
-				if(DEVALUE_SOBT_CONSTRAINT &&
-						flights[j].getScheduledTime() != null &&
-						slots[i].getTime().isBefore(flights[j].getScheduledTime())){
+    	double[][] costMatrix = new double[slotCount][flightCount];
+    	double minValue = Double.MAX_VALUE;
+    	for (int i = 0; i < slotCount; i++) {
+    		for (int j = 0; j < flightCount; j++) {
+				if(DEVALUE_SOBT_CONSTRAINT && !weightMatrix.isAllowed(j, i)){
 					costMatrix[i][j] = DEVALUATION;
 				}else{
-					costMatrix[i][j] = flights[j].getWeight(slots[i]);
+					costMatrix[i][j] = weightMatrix.getWeight(j, i);
 				}
+				minValue = Math.min(minValue, costMatrix[i][j]);
 			}
     	}
-    	
-    	//logger.debug - print costmatrix
+
     	logger.debug("costMatrix[" + costMatrix.length + "][" + costMatrix[0].length + "]");
-    	if (logger.isDebugEnabled()) {
-	    	String out = "";
-	    	for (int k = 0; k < costMatrix.length; k++) {
-	    		for (int l = 0; l < costMatrix[k].length; l++) {
-	    			out = out + ("[" + costMatrix[k][l] + "]");
-	    		}
-	    		out = out + "\n";
-	    	}
-	    	logger.debug(out);
-    	}
-    	
+
     	// Hungarian algorithm cannot work with negative values
     	// See https://math.stackexchange.com/q/2036640 & https://en.wikipedia.org/wiki/Hungarian_algorithm
-    	// TODO Can this implementation work with negative numbers or is it better to adjust cost matrix?
-    	
-    	// adjusting cost matrix
-   		// find minimum value
-    	double minValue = Double.MAX_VALUE;
-    	for (int i = 0; i < costMatrix.length; i++) {
-    		for (int j = 0; j < costMatrix[i].length; j++) {
-    			if (minValue > costMatrix[i][j]) {
-    				minValue = costMatrix[i][j];
-    			}
-    		}
-    	}
-    	
-    	for (int i = 0; i < costMatrix.length; i++) {
-    		for (int j = 0; j < costMatrix[i].length; j++) {
+    	// adjusting cost matrix by shifting all values above the minimum value
+    	double maxValue = Double.MIN_VALUE;
+    	for (int i = 0; i < slotCount; i++) {
+    		for (int j = 0; j < flightCount; j++) {
     			if (minValue < costMatrix[i][j]) {
     				costMatrix[i][j] = Math.abs(minValue) + costMatrix[i][j];
     			}
+    			maxValue = Math.max(maxValue, costMatrix[i][j]);
     		}
     	}
-    	
-    	// TODO Adjust cost matrix or adjust Hungarian algorithm implementation?
-    	// (Hungarian algorithm tries to minimize cost, but here the goal is to maximize utility)
+
+    	// Hungarian algorithm tries to minimize cost, but here the goal is to maximize utility
     	// https://stackoverflow.com/a/17520780
-    	
-    	// Adjusting cost matrix
-		// find maximum value
-    	double maxValue = Double.MIN_VALUE;
-    	for (int i = 0; i < costMatrix.length; i++) {
-    		for (int j = 0; j < costMatrix[i].length; j++) {
-    			if (maxValue < costMatrix[i][j]) {
-    				maxValue = costMatrix[i][j];
-    			}
-    		}
-    	}
-    	
-    	for (int i = 0; i < costMatrix.length; i++) {
-    		for (int j = 0; j < costMatrix[i].length; j++) {
+    	for (int i = 0; i < slotCount; i++) {
+    		for (int j = 0; j < flightCount; j++) {
     			costMatrix[i][j] = maxValue - costMatrix[i][j];
     		}
     	}
-    	
+
     	// use Hungarian algorithm
     	HungarianAlgorithm ha = new HungarianAlgorithm(costMatrix);
     	// result[3] = 51: flights[51] at slots[3]
     	int[] result = ha.execute();
-    	
-    	if (logger.isDebugEnabled()) {
-    		String out = "";
-    		for (int i = 0; i < result.length; i++) {
-    			out = out + "[" + result[i] + "]";
-    		}
-    		logger.debug(out);
-    	}
 
-    	double sumOfWeights = 0;
-    	Map<Flight, Slot> resultMap = new HashMap<>();
+    	int[] assignment = new int[flightCount];
+    	Arrays.fill(assignment, -1);
     	for (int i = 0; i < result.length; i++) {
-    		resultMap.put(flights[result[i]], slots[i]);
-			int weight;
-			if(DEVALUE_SOBT_CONSTRAINT &&
-					flights[result[i]].getScheduledTime() != null &&
-					slots[i].getTime().isBefore(flights[result[i]].getScheduledTime())){
-				weight = DEVALUATION;
-			}else{
-				weight = flights[result[i]].getWeight(slots[i]);
-			}
-    		logger.debug("Slot " + slots[i].getTime().toString() + ": " + flights[result[i]].getFlightId() 
-    				+ " | weight: " + flights[result[i]].getWeight(slots[i]));
-
-    		sumOfWeights = sumOfWeights + weight;
-    	}
-    	logger.info("Finished optimization using Hungarian algorithm for " + this.getOptId() + " with a fitness value of " + sumOfWeights);
-
-    	if(this.getStatistics() == null) {
-    		this.statistics = new HungarianOptimizationStatistics();
+    		if (result[i] >= 0) {
+    			assignment[result[i]] = i;
+    		}
     	}
 
-    	this.getStatistics().setResultFitness(sumOfWeights);
-
-        return resultMap;
-    }
+    	return assignment;
+	}
 
     // no configuration used
     @Override
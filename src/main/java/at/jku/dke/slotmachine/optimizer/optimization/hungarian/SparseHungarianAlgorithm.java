@@ -0,0 +1,169 @@
+package at.jku.dke.slotmachine.optimizer.optimization.hungarian;
+
+import at.jku.dke.slotmachine.optimizer.optimization.WeightMatrix;
+
+import java.util.Arrays;
+
+/**
+ * Hungarian algorithm (shortest augmenting paths with dual potentials) that maximizes the sum of weights of a slot
+ * allocation while only considering assignments that satisfy the flights' scheduled times. Slots before a flight's
+ * scheduled time are excluded instead of devalued. When the slots are ordered by time, the slots allowed for a
+ * flight form a suffix starting at the flight's earliest slot position, so only this band is scanned for each flight.
+ * <p>
+ * The weights are read from the {@link WeightMatrix} as integers; no cost matrix is built. The algorithm runs in time
+ * O(n^2 m) in the worst case and requires O(n + m) additional memory, where n is the number of flights and m the
+ * number of slots.
+ */
+public class SparseHungarianAlgorithm {
+    private static final long INFINITY = Long.MAX_VALUE / 4;
+
+    private final WeightMatrix weightMatrix;
+    private final int flightCount;
+    private final int slotCount;
+
+    /**
+     * @param weightMatrix the weight matrix of the slot allocation problem
+     */
+    public SparseHungarianAlgorithm(WeightMatrix weightMatrix) {
+        this.weightMatrix = weightMatrix;
+        this.flightCount = weightMatrix.getFlightCount();
+        this.slotCount = weightMatrix.getSlotCount();
+    }
+
+    /**
+     * Computes an assignment of flights to slots with maximum sum of weights in which no flight is assigned to a slot
+     * before its scheduled time.
+     * @return the index of the slot assigned to each flight, or null if there are more flights than slots or no
+     * assignment satisfies the scheduled times of all flights
+     */
+    public int[] execute() {
+        if(flightCount > slotCount) {
+            return null;
+        }
+
+        int[] slotAtPosition = new int[slotCount];
+        for(int position = 0; position < slotCount; position++) {
+            slotAtPosition[position] = weightMatrix.getSlotAtPosition(position);
+        }
+
+        // positions are 1-based, position 0 is the virtual root of each augmenting path
+        long[] flightPotentials = new long[flightCount + 1];
+        long[] positionPotentials = new long[slotCount + 1];
+        int[] flightAtPosition = new int[slotCount + 1]; // 1-based flight, 0 if the position is free
+        int[] previousPosition = new int[slotCount + 1];
+        long[] minimumSlack = new long[slotCount + 1];
+        boolean[] visited = new boolean[slotCount + 1];
+
+        boolean[] matched = new boolean[flightCount + 1];
+        this.initialize(slotAtPosition, flightPotentials, positionPotentials, flightAtPosition, matched);
+
+        for(int flight = 1; flight <= flightCount; flight++) {
+            if(matched[flight]) {
+                continue;
+            }
+
+            flightAtPosition[0] = flight;
+            int position = 0;
+
+            Arrays.fill(minimumSlack, INFINITY);
+            Arrays.fill(visited, false);
+
+            // grow the alternating tree until a free position is reached
+            do {
+                visited[position] = true;
+                int currentFlight = flightAtPosition[position];
+                int[] weights = weightMatrix.getWeights(currentFlight - 1);
+                long currentPotential = flightPotentials[currentFlight];
+
+                // only slots at or after the flight's earliest slot position are allowed
+                for(int j = weightMatrix.getEarliestSlotPosition(currentFlight - 1) + 1; j <= slotCount; j++) {
+                    if(!visited[j]) {
+                        long slack = -(long) weights[slotAtPosition[j - 1]] - currentPotential - positionPotentials[j];
+                        if(slack < minimumSlack[j]) {
+                            minimumSlack[j] = slack;
+                            previousPosition[j] = position;
+                        }
+                    }
+                }
+
+                long delta = INFINITY;
+                int nextPosition = -1;
+                for(int j = 1; j <= slotCount; j++) {
+                    if(!visited[j] && minimumSlack[j] < delta) {
+                        delta = minimumSlack[j];
+                        nextPosition = j;
+                    }
+                }
+
+                if(nextPosition < 0) {
+                    // no free slot can be reached without violating a scheduled time
+                    return null;
+                }
+
+                for(int j = 0; j <= slotCount; j++) {
+                    if(visited[j]) {
+                        flightPotentials[flightAtPosition[j]] += delta;
+                        positionPotentials[j] -= delta;
+                    } else if(minimumSlack[j] < INFINITY) {
+                        minimumSlack[j] -= delta;
+                    }
+                }
+
+                position = nextPosition;
+            } while(flightAtPosition[position] != 0);
+
+            // augment along the path back to the root
+            do {
+                int previous = previousPosition[position];
+                flightAtPosition[position] = flightAtPosition[previous];
+                position = previous;
+            } while(position != 0);
+        }
+
+        flightAtPosition[0] = 0;
+
+        int[] assignment = new int[flightCount];
+        for(int j = 1; j <= slotCount; j++) {
+            if(flightAtPosition[j] != 0) {
+                assignment[flightAtPosition[j] - 1] = slotAtPosition[j - 1];
+            }
+        }
+
+        return assignment;
+    }
+
+    /**
+     * Computes feasible initial potentials by row reduction and matches each flight to a free slot of minimum reduced
+     * cost, if there is one. Only these matched edges are tight, so the potentials remain valid for the augmentation
+     * of the remaining flights. The potentials of the slots start at 0 and only decrease during the augmentation, so
+     * slots that remain free keep the largest potential, which the optimality of a matching with more slots than
+     * flights requires; a column reduction would violate this.
+     */
+    private void initialize(int[] slotAtPosition, long[] flightPotentials, long[] positionPotentials, int[] flightAtPosition, boolean[] matched) {
+        // row reduction and greedy matching on tight edges
+        for(int flight = 1; flight <= flightCount; flight++) {
+            int[] weights = weightMatrix.getWeights(flight - 1);
+            long minimum = INFINITY;
+            int best = -1;
+
+            for(int j = weightMatrix.getEarliestSlotPosition(flight - 1) + 1; j <= slotCount; j++) {
+                long reducedCost = -(long) weights[slotAtPosition[j - 1]] - positionPotentials[j];
+                if(reducedCost < minimum || (reducedCost == minimum && flightAtPosition[j] == 0 && flightAtPosition[best] != 0)) {
+                    minimum = reducedCost;
+                    best = j;
+                }
+            }
+
+            if(best < 0) {
+                continue;
+            }
+
+            flightPotentials[flight] = minimum;
+
+            if(flightAtPosition[best] == 0) {
+                flightAtPosition[best] = flight;
+                matched[flight] = true;
+            }
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package at.jku.dke.slotmachine.optimizer.optimization.jenetics;
+
+import io.jenetics.EnumGene;
+import io.jenetics.Genotype;
+import io.jenetics.Mutator;
+import io.jenetics.Phenotype;
+import io.jenetics.SwapMutator;
+import io.jenetics.ext.RSMutator;
+import io.jenetics.util.Seq;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * Derives the scores of mutated children from the scores of their parents. The mutators created by
+ * {@link #getMutator(Mutator)} report the positions they change, and the child's score is computed from the parent's
+ * score and these positions only, see {@link SlotAllocationProblem#evaluateDelta}. Children whose parent's score is
+ * unknown, e.g., children of a crossover, are evaluated in full by the evaluator.
+ * <p>
+ * Genotypes are identified by reference. The scores of the last two evaluated populations are kept; parents are kept
+ * for as long as they are selected for mutation.
+ */
+public class DeltaEvaluation {
+    private static final Logger logger = LogManager.getLogger();
+
+    private final SlotAllocationProblem problem;
+
+    private Map<Genotype<EnumGene<Integer>>, Long> scores = new IdentityHashMap<>();
+    private Map<Genotype<EnumGene<Integer>>, Long> previousScores = new IdentityHashMap<>();
+
+    /**
+     * Scores of the children created since the last population was evaluated
+     */
+    private final Map<Genotype<EnumGene<Integer>>, Long> childScores = new IdentityHashMap<>();
+
+    private long noDeltaEvaluations;
+    private long noUnknownParents;
+
+    public DeltaEvaluation(SlotAllocationProblem problem) {
+        this.problem = problem;
+        this.noDeltaEvaluations = 0;
+        this.noUnknownParents = 0;
+    }
+
+    /**
+     * Returns a mutator that behaves like the given mutator and reports its changes to this delta evaluation.
+     * @param mutator the configured mutator
+     * @return the delta-aware mutator, or the given mutator if its changes cannot be tracked
+     */
+    public Mutator<EnumGene<Integer>, Integer> getMutator(Mutator<EnumGene<Integer>, Integer> mutator) {
+        // RSMutator and HPRMutator are not related, HPRMutator applies swaps and reversals in one mutation
+        if(mutator.getClass() == SwapMutator.class) {
+            logger.info("Use delta evaluation for swap mutator.");
+            return new DeltaSwapMutator(mutator.probability(), this);
+        } else if(mutator.getClass() == RSMutator.class) {
+            logger.info("Use delta evaluation for reverse sequence mutator.");
+            return new DeltaReverseSequenceMutator(mutator.probability(), this);
+        }
+
+        logger.info("Delta evaluation is not supported by {}; mutated candidates are evaluated in full.", mutator.getClass().getSimpleName());
+        return mutator;
+    }
+
+    /**
+     * Registers a mutated child and derives its score if the score of the parent is known.
+     * @param parent the parent genotype
+     * @param child the child genotype
+     * @param positions the positions changed by the mutation
+     * @param count the number of positions
+     */
+    void registerChild(Genotype<EnumGene<Integer>> parent, Genotype<EnumGene<Integer>> child, int[] positions, int count) {
+        Long parentScore = this.scores.get(parent);
+
+        if(parentScore == null) {
+            parentScore = this.previousScores.get(parent);
+
+            if(parentScore == null) {
+                this.noUnknownParents++;
+                return;
+            }
+
+            // the parent is still part of the population
+            this.scores.put(parent, parentScore);
+        }
+
+        this.childScores.put(child, this.problem.evaluateDelta(parent, parentScore, child, positions, count));
+        this.noDeltaEvaluations++;
+    }
+
+    /**
+     * Returns the score derived for a child. May be called concurrently while a population is scored.
+     * @param genotype the genotype of the child
+     * @return the packed score, or null if the score has not been derived
+     */
+    public Long getScore(Genotype<EnumGene<Integer>> genotype) {
+        return this.childScores.get(genotype);
+    }
+
+    /**
+     * Stores the scores of an evaluated population for the next mutation step.
+     * @param population the evaluated population
+     * @param populationScores the packed scores, indexed like the population
+     */
+    public void setScores(Seq<Phenotype<EnumGene<Integer>, Integer>> population, long[] populationScores) {
+        this.previousScores = this.scores;
+        this.scores = new IdentityHashMap<>(2 * population.size());
+
+        for(int i = 0; i < population.size(); i++) {
+            this.scores.put(population.get(i).genotype(), populationScores[i]);
+        }
+
+        this.childScores.clear();
+    }
+
+    public void printLogs() {
+        logger.info("Delta evaluation statistics:");
+        logger.info("Number of delta evaluations: " + noDeltaEvaluations);
+        logger.info("Number of mutated candidates with unknown parent score: " + noUnknownParents);
+    }
+}
@@ -0,0 +1,60 @@
+package at.jku.dke.slotmachine.optimizer.optimization.jenetics;
+
+import io.jenetics.Chromosome;
+import io.jenetics.EnumGene;
+import io.jenetics.Genotype;
+import io.jenetics.Mutator;
+import io.jenetics.MutatorResult;
+import io.jenetics.Phenotype;
+import io.jenetics.util.MSeq;
+
+import java.util.Random;
+
+/**
+ * Reverse sequence mutator that reports the reversed positions to a {@link DeltaEvaluation}. As with the
+ * {@link io.jenetics.ext.RSMutator}, a mutated chromosome has a random subsequence reversed.
+ */
+public class DeltaReverseSequenceMutator extends Mutator<EnumGene<Integer>, Integer> {
+    private final DeltaEvaluation deltaEvaluation;
+
+    public DeltaReverseSequenceMutator(double probability, DeltaEvaluation deltaEvaluation) {
+        super(probability);
+        this.deltaEvaluation = deltaEvaluation;
+    }
+
+    @Override
+    protected MutatorResult<Phenotype<EnumGene<Integer>, Integer>> mutate(Phenotype<EnumGene<Integer>, Integer> phenotype, long generation, double p, Random random) {
+        Genotype<EnumGene<Integer>> genotype = phenotype.genotype();
+        Chromosome<EnumGene<Integer>> chromosome = genotype.chromosome();
+
+        if(chromosome.length() <= 1 || random.nextDouble() >= p) {
+            // the genotype is not changed and keeps its score
+            this.deltaEvaluation.registerChild(genotype, genotype, new int[0], 0);
+            return MutatorResult.of(Phenotype.of(genotype, generation));
+        }
+
+        // two distinct points in [0, length], the subsequence between them is reversed
+        int start = random.nextInt(chromosome.length() + 1);
+        int end = random.nextInt(chromosome.length());
+        if(end >= start) {
+            end++;
+        } else {
+            int tmp = start;
+            start = end;
+            end = tmp;
+        }
+
+        MSeq<EnumGene<Integer>> genes = MSeq.of(chromosome);
+        genes.subSeq(start, end).reverse();
+
+        int[] positions = new int[end - start];
+        for(int i = 0; i < positions.length; i++) {
+            positions[i] = start + i;
+        }
+
+        Genotype<EnumGene<Integer>> mutated = Genotype.of(chromosome.newInstance(genes.toISeq()));
+        this.deltaEvaluation.registerChild(genotype, mutated, positions, positions.length);
+
+        return MutatorResult.of(Phenotype.of(mutated, generation), end - start - 1);
+    }
+}
@@ -0,0 +1,59 @@
+package at.jku.dke.slotmachine.optimizer.optimization.jenetics;
+
+import io.jenetics.Chromosome;
+import io.jenetics.EnumGene;
+import io.jenetics.Genotype;
+import io.jenetics.Mutator;
+import io.jenetics.MutatorResult;
+import io.jenetics.Phenotype;
+import io.jenetics.util.MSeq;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Swap mutator that reports the swapped positions to a {@link DeltaEvaluation}. As with the
+ * {@link io.jenetics.SwapMutator}, each gene of a mutated chromosome is swapped with a random gene with probability p.
+ */
+public class DeltaSwapMutator extends Mutator<EnumGene<Integer>, Integer> {
+    private final DeltaEvaluation deltaEvaluation;
+
+    public DeltaSwapMutator(double probability, DeltaEvaluation deltaEvaluation) {
+        super(probability);
+        this.deltaEvaluation = deltaEvaluation;
+    }
+
+    @Override
+    protected MutatorResult<Phenotype<EnumGene<Integer>, Integer>> mutate(Phenotype<EnumGene<Integer>, Integer> phenotype, long generation, double p, Random random) {
+        Genotype<EnumGene<Integer>> genotype = phenotype.genotype();
+        Chromosome<EnumGene<Integer>> chromosome = genotype.chromosome();
+
+        if(chromosome.length() <= 1 || random.nextDouble() >= p) {
+            // the genotype is not changed and keeps its score
+            this.deltaEvaluation.registerChild(genotype, genotype, new int[0], 0);
+            return MutatorResult.of(Phenotype.of(genotype, generation));
+        }
+
+        MSeq<EnumGene<Integer>> genes = MSeq.of(chromosome);
+        int[] positions = new int[8];
+        int count = 0;
+
+        for(int i = 0; i < genes.length(); i++) {
+            if(random.nextDouble() < p) {
+                int j = random.nextInt(genes.length());
+                genes.swap(i, j);
+
+                if(count + 2 > positions.length) {
+                    positions = Arrays.copyOf(positions, 2 * positions.length);
+                }
+                positions[count++] = i;
+                positions[count++] = j;
+            }
+        }
+
+        Genotype<EnumGene<Integer>> mutated = Genotype.of(chromosome.newInstance(genes.toISeq()));
+        this.deltaEvaluation.registerChild(genotype, mutated, positions, count);
+
+        return MutatorResult.of(Phenotype.of(mutated, generation), count / 2);
+    }
+}
@@ -0,0 +1,111 @@
+package at.jku.dke.slotmachine.optimizer.optimization.jenetics;
+
+import io.jenetics.Chromosome;
+import io.jenetics.EnumGene;
+import io.jenetics.Genotype;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bounded cache of fitness values of an optimization run that evicts the least recently used entries. Genotypes are
+ * identified by a 64-bit Zobrist hash of their permutation, i.e., the exclusive or of one random number per position
+ * and allele. The random numbers are derived from position and allele using the SplitMix64 mixing function instead of
+ * being stored in a table. Distinct permutations may collide, but with a probability that is negligible for the number
+ * of genotypes evaluated in an optimization run.
+ * <p>
+ * Unless in privacy-preserving mode, the cache holds the scores computed by {@link SlotAllocationProblem#evaluate(Genotype)};
+ * in privacy-preserving mode, it holds the actual fitness values returned by the Privacy Engine. The cache may be
+ * shared by several evaluators and is thread-safe.
+ */
+public class FitnessCache {
+    private static final Logger logger = LogManager.getLogger();
+
+    private static final long SEED = 0x5DEECE66DL;
+
+    private final int capacity;
+    private final Map<Long, Long> entries;
+
+    private long noHits;
+    private long noMisses;
+    private long noEvictions;
+
+    /**
+     * @param capacity the maximum number of cached fitness values
+     */
+    public FitnessCache(int capacity) {
+        this.capacity = capacity;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Long> eldest) {
+                if(size() > FitnessCache.this.capacity) {
+                    noEvictions++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Computes the Zobrist hash of the permutation encoded by the genotype.
+     * @param genotype the genotype
+     * @return the hash of the genotype
+     */
+    public long hash(Genotype<EnumGene<Integer>> genotype) {
+        Chromosome<EnumGene<Integer>> chromosome = genotype.chromosome();
+        int length = chromosome.length();
+
+        long hash = 0;
+        for(int i = 0; i < length; i++) {
+            hash ^= zobrist((long) i * length + chromosome.get(i).alleleIndex());
+        }
+
+        return hash;
+    }
+
+    /**
+     * Returns the random number of a position and allele.
+     */
+    private static long zobrist(long index) {
+        long z = SEED + index * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * @param hash the hash of a genotype
+     * @return the cached value, or null if the genotype is not cached
+     */
+    public synchronized Long get(long hash) {
+        Long value = this.entries.get(hash);
+
+        if(value == null) {
+            this.noMisses++;
+        } else {
+            this.noHits++;
+        }
+
+        return value;
+    }
+
+    /**
+     * @param hash the hash of a genotype
+     * @param value the value to be cached for the genotype
+     */
+    public synchronized void put(long hash, long value) {
+        this.entries.put(hash, value);
+    }
+
+    public synchronized void printLogs() {
+        logger.info("--------------- Statistics Fitness Cache --------------------");
+        logger.info("Capacity: " + this.capacity + " | entries: " + this.entries.size());
+        logger.info("Number of cache hits: " + this.noHits);
+        logger.info("Number of cache misses: " + this.noMisses);
+        logger.info("Number of evicted entries: " + this.noEvictions);
+        logger.info("--------------------------------------------------------------");
+    }
+}
@@ -0,0 +1,160 @@
+package at.jku.dke.slotmachine.optimizer.optimization.jenetics;
+
+import io.jenetics.EnumGene;
+import io.jenetics.Genotype;
+import io.jenetics.Phenotype;
+import io.jenetics.engine.EvolutionInterceptor;
+import io.jenetics.engine.EvolutionResult;
+import io.jenetics.engine.EvolutionStart;
+import io.jenetics.util.ISeq;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Exchanges elite genotypes between the islands of an island-model genetic algorithm. Every migration interval, each
+ * island publishes the genotypes of its best phenotypes and replaces its worst phenotypes with the latest elites of its
+ * neighbours. In a ring topology, the neighbour of an island is its predecessor; in a full-mesh topology, all other
+ * islands are neighbours. The islands do not wait for each other, i.e., an island receives whatever its neighbours
+ * published last.
+ * <p>
+ * Migrants enter the population without fitness and are evaluated by the island's own evaluator.
+ */
+public class IslandMigration {
+    private static final Logger logger = LogManager.getLogger();
+
+    public enum Topology {
+        RING,
+        FULL_MESH
+    }
+
+    private final int islands;
+    private final int migrationInterval;
+    private final int migrants;
+    private final Topology topology;
+
+    /**
+     * Elite genotypes last published by each island
+     */
+    private final AtomicReferenceArray<ISeq<Genotype<EnumGene<Integer>>>> elites;
+
+    private final LongAdder noMigrations = new LongAdder();
+    private final LongAdder noMigrants = new LongAdder();
+
+    /**
+     * @param islands the number of islands
+     * @param migrationInterval the number of generations between two migrations
+     * @param migrants the number of elite genotypes an island sends to each of its neighbours
+     * @param topology the topology that determines the neighbours of an island
+     */
+    public IslandMigration(int islands, int migrationInterval, int migrants, Topology topology) {
+        this.islands = islands;
+        this.migrationInterval = Math.max(1, migrationInterval);
+        this.migrants = Math.max(0, migrants);
+        this.topology = topology;
+        this.elites = new AtomicReferenceArray<>(islands);
+    }
+
+    /**
+     * Returns the interceptor that lets the engine of an island take part in the migration.
+     * @param island the index of the island
+     * @return the interceptor for the island's engine
+     */
+    public EvolutionInterceptor<EnumGene<Integer>, Integer> getInterceptor(int island) {
+        return EvolutionInterceptor.of(
+                start -> this.immigrate(island, start),
+                result -> this.emigrate(island, result)
+        );
+    }
+
+    private EvolutionResult<EnumGene<Integer>, Integer> emigrate(int island, EvolutionResult<EnumGene<Integer>, Integer> result) {
+        if(migrants > 0 && result.generation() % migrationInterval == 0) {
+            ISeq<Genotype<EnumGene<Integer>>> islandElites = result.population()
+                    .stream()
+                    .sorted(Comparator.comparingInt(Phenotype<EnumGene<Integer>, Integer>::fitness).reversed())
+                    .limit(migrants)
+                    .map(Phenotype::genotype)
+                    .collect(ISeq.toISeq());
+
+            this.elites.set(island, islandElites);
+        }
+
+        return result;
+    }
+
+    private EvolutionStart<EnumGene<Integer>, Integer> immigrate(int island, EvolutionStart<EnumGene<Integer>, Integer> start) {
+        // the start of a generation follows the result of the previous generation
+        long previousGeneration = start.generation() - 1;
+
+        if(migrants == 0 || previousGeneration < 1 || previousGeneration % migrationInterval != 0 || start.population().isEmpty()) {
+            return start;
+        }
+
+        List<Phenotype<EnumGene<Integer>, Integer>> population = new ArrayList<>(start.population().asList());
+        Set<Genotype<EnumGene<Integer>>> genotypes = new HashSet<>();
+        for(Phenotype<EnumGene<Integer>, Integer> phenotype : population) {
+            genotypes.add(phenotype.genotype());
+        }
+
+        // genotypes already present on the island would not add diversity
+        List<Genotype<EnumGene<Integer>>> immigrants = new ArrayList<>();
+        for(int neighbour : this.getNeighbours(island)) {
+            ISeq<Genotype<EnumGene<Integer>>> neighbourElites = this.elites.get(neighbour);
+
+            if(neighbourElites != null) {
+                for(Genotype<EnumGene<Integer>> genotype : neighbourElites) {
+                    if(genotypes.add(genotype)) {
+                        immigrants.add(genotype);
+                    }
+                }
+            }
+        }
+
+        int replaced = Math.min(immigrants.size(), population.size() - 1);
+        if(replaced <= 0) {
+            return start;
+        }
+
+        // the immigrants replace the worst phenotypes of the island
+        population.sort(Comparator.comparingInt(Phenotype<EnumGene<Integer>, Integer>::fitness).reversed());
+        for(int i = 0; i < replaced; i++) {
+            population.set(population.size() - replaced + i, Phenotype.of(immigrants.get(i), start.generation()));
+        }
+
+        this.noMigrations.increment();
+        this.noMigrants.add(replaced);
+        logger.debug("Island " + island + " received " + replaced + " migrants in generation " + start.generation() + ".");
+
+        return EvolutionStart.of(ISeq.of(population), start.generation());
+    }
+
+    private int[] getNeighbours(int island) {
+        switch (topology) {
+            case RING:
+                return new int[] { (island + islands - 1) % islands };
+            case FULL_MESH:
+                int[] neighbours = new int[islands - 1];
+                for(int i = 0, j = 0; i < islands; i++) {
+                    if(i != island) {
+                        neighbours[j++] = i;
+                    }
+                }
+                return neighbours;
+            default:
+                throw new IllegalStateException("Unexpected value: " + topology);
+        }
+    }
+
+    public void printLogs() {
+        logger.info("Island migration: " + islands + " islands | topology: " + topology + " | interval: " + migrationInterval + " | migrants: " + migrants);
+        logger.info("Number of migrations: " + noMigrations.sum());
+        logger.info("Number of migrated genotypes: " + noMigrants.sum());
+    }
+}
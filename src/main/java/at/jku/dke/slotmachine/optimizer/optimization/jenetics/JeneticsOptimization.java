@@ -2,15 +2,18 @@ package at.jku.dke.slotmachine.optimizer.optimization.jenetics;
 
 import at.jku.dke.slotmachine.optimizer.domain.Flight;
 import at.jku.dke.slotmachine.optimizer.domain.Slot;
+import at.jku.dke.slotmachine.optimizer.optimization.FitnessEvolutionTrace;
 import at.jku.dke.slotmachine.optimizer.optimization.FitnessMethod;
 import at.jku.dke.slotmachine.optimizer.optimization.InvalidOptimizationParameterTypeException;
 import at.jku.dke.slotmachine.optimizer.optimization.Optimization;
 import at.jku.dke.slotmachine.optimizer.optimization.OptimizationMode;
+import at.jku.dke.slotmachine.optimizer.optimization.SobtFeasibility;
 import at.jku.dke.slotmachine.optimizer.optimization.jenetics.evaluation.BatchEvaluator;
 import at.jku.dke.slotmachine.optimizer.optimization.jenetics.evaluation.BatchEvaluatorFactory;
 import io.jenetics.*;
 import io.jenetics.engine.*;
 import io.jenetics.util.ISeq;
+import io.jenetics.util.RandomRegistry;
 import io.jenetics.util.Seq;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -18,7 +21,13 @@ import org.apache.logging.log4j.Logger;
 import java.time.LocalDateTime;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
 import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
@@ -30,6 +39,8 @@ public class JeneticsOptimization extends Optimization {
     private JeneticsOptimizationConfiguration configuration = null;
     private JeneticsOptimizationStatistics statistics;
     private final SlotAllocationProblem problem;
+    private DeltaEvaluation deltaEvaluation = null;
+    private FitnessCache fitnessCache = null;
 
 
     public JeneticsOptimization(Flight[] flights, Slot[] slots) {
@@ -39,7 +50,8 @@ public class JeneticsOptimization extends Optimization {
 
         this.problem = new SlotAllocationProblem(
                 ISeq.of(this.getFlights()),
-                ISeq.of(this.getSlots())
+                ISeq.of(this.getSlots()),
+                this.getWeightMatrix()
         );
         logger.info("Slot allocation problem initialized.");
     }
@@ -114,164 +126,252 @@ public class JeneticsOptimization extends Optimization {
         }
 
         if(this.statistics.getFitnessEvolution() != null)  {
-            this.statistics.getFitnessEvolution().clear();
+            int traceSampleInterval = Integer.MIN_VALUE;
+            int traceQuantiles = Integer.MIN_VALUE;
+            if(this.getConfiguration() != null) {
+                traceSampleInterval = this.getConfiguration().getTraceSampleInterval();
+                traceQuantiles = this.getConfiguration().getTraceQuantiles();
+            }
+
+            this.statistics.setFitnessEvolution(new FitnessEvolutionTrace(traceSampleInterval, traceQuantiles));
             logger.info("Cleared fitness evolution.");
         }
 
+        if(this.getInitialAllocations() != null && !this.getInitialAllocations().isEmpty()) {
+            initialPopulation = this.getSeededPopulation(this.getInitialAllocations(), populationSize);
+            logger.info("Seeded initial population with " + this.getInitialAllocations().size() + " solutions.");
+        }
+
+        if(SobtFeasibility.analyse(this.getFlights(), this.getSlots()).isFeasible()) {
+            SobtConstraint constraint = new SobtConstraint(problem);
+            long invalidIndividuals = initialPopulation.stream().filter(genotype -> !problem.isValid(genotype)).count();
+
+            initialPopulation = initialPopulation.map(genotype -> problem.isValid(genotype) ? genotype : constraint.repair(genotype));
+            logger.info("Repaired " + invalidIndividuals + " invalid individuals of the initial population.");
+        }
+
         logger.info("Initial population consists of " + initialPopulation.length() + " individuals.");
         logger.info("Initial population consists of " + initialPopulation.stream().distinct().toList().size() + " distinct individuals.");
 
-        logger.info("Build the genetic algorithm engine.");
-
-        Evaluator evaluator = BatchEvaluatorFactory.getEvaluator(getFitnessMethod(), problem, this);
+        int islands = Integer.MIN_VALUE;
+        if(this.getConfiguration() != null) {
+            islands = this.getConfiguration().getIslands();
+        }
+        if(islands < 1) {
+            islands = this.getDefaultConfiguration().getIslands();
+        }
 
-        Engine.Builder<EnumGene<Integer>, Integer> builder;
+        boolean steadyState = this.getConfiguration() != null && this.getConfiguration().isSteadyState();
+        if(steadyState && islands > 1) {
+            logger.info("Islands are not available for the steady-state engine; evolving a single population.");
+            islands = 1;
+        }
 
-        builder = new Engine.Builder<>(evaluator, problem.codec().encoding());
+        if(this.getConfiguration() != null && this.getConfiguration().isDeltaEvaluation()
+                && this.getMode() != OptimizationMode.PRIVACY_PRESERVING) {
+            if(islands > 1) {
+                logger.info("Delta evaluation is not available for multiple islands.");
+                this.deltaEvaluation = null;
+            } else if(steadyState) {
+                logger.info("Delta evaluation is not available for the steady-state engine.");
+                this.deltaEvaluation = null;
+            } else {
+                logger.info("Derive the fitness of mutated candidates from the fitness of their parents.");
+                this.deltaEvaluation = new DeltaEvaluation(problem);
+                mutator = this.deltaEvaluation.getMutator(mutator);
+            }
+        } else {
+            this.deltaEvaluation = null;
+        }
 
-        // builder = Engine.builder(problem);
+        if(this.getConfiguration() != null && this.getConfiguration().getFitnessCacheSize() > 0) {
+            logger.info("Cache up to " + this.getConfiguration().getFitnessCacheSize() + " fitness values.");
+            this.fitnessCache = new FitnessCache(this.getConfiguration().getFitnessCacheSize());
+        } else {
+            this.fitnessCache = null;
+        }
 
+        IslandMigration migration = null;
+        if(islands > 1) {
+            int migrationInterval = this.getConfiguration().getMigrationInterval();
+            if(migrationInterval < 1) {
+                migrationInterval = this.getDefaultConfiguration().getMigrationInterval();
+            }
 
-        if(this.getConfiguration().isDeduplicate()){
-            int maxRetries = this.getConfiguration().getDeduplicateMaxRetries();
+            int migrants = this.getConfiguration().getMigrants();
+            if(migrants < 0) {
+                migrants = this.getDefaultConfiguration().getMigrants();
+            }
 
-            if (maxRetries > 0) {
-                logger.debug("The engine should deduplicate the population; maxRetries: " + maxRetries);
-                builder = builder.interceptor(EvolutionResult.toUniquePopulation(maxRetries));
-            } else {
-                logger.debug("The engine should deduplicate the population");
-                builder = builder.interceptor(EvolutionResult.toUniquePopulation());
+            IslandMigration.Topology migrationTopology = this.getConfiguration().getMigrationTopology();
+            if(migrationTopology == null) {
+                migrationTopology = this.getDefaultConfiguration().getMigrationTopology();
             }
+
+            logger.info("Evolve " + islands + " islands with " + migrants + " migrants every " + migrationInterval + " generations (" + migrationTopology + ").");
+            migration = new IslandMigration(islands, migrationInterval, migrants, migrationTopology);
         }
 
-        Engine<EnumGene<Integer>, Integer> engine = builder
-                .optimize(Optimize.MAXIMUM)
-                .populationSize(populationSize)
-                .alterers(mutator, crossover)
-                .offspringSelector(offspringSelector)
-                .survivorsSelector(survivorsSelector)
-                .maximalPhenotypeAge(maximalPhenotypeAge)
-                .offspringFraction(offspringFraction)
-                .constraint(problem.constraint().isPresent()?problem.constraint().get():null)
-                .build();
+        logger.info("Build the genetic algorithm engine.");
 
-        logger.info("Engine population size: " + engine.populationSize());
+        // each island has its own evaluator, as the evaluator keeps the state of the generation it evaluates
+        List<BatchEvaluator> evaluators = new ArrayList<>(islands);
+        List<Engine<EnumGene<Integer>, Integer>> engines = new ArrayList<>(islands);
+        SteadyStateEngine steadyStateEngine = null;
 
         EvolutionStatistics <Integer, ?> statistics = EvolutionStatistics.ofNumber();
+        EvolutionResult<EnumGene<Integer>, Integer> result;
+        Map<Flight, Slot> resultMap;
 
-        logger.info("Running optimization using Jenetics framework as slot allocation problem ...");
+        // the evaluators of parallel evaluation hold thread pools, which are shut down however the evolution ends
+        try {
+            if(steadyState) {
+                int replacements = this.getConfiguration().getSteadyStateReplacements();
+                if(replacements < 1) {
+                    replacements = this.getDefaultConfiguration().getSteadyStateReplacements();
+                }
 
-        EvolutionStream<EnumGene<Integer>, Integer> stream = engine.stream(initialPopulation);
+                int eliteSize = this.getConfiguration().getSteadyStateEliteSize();
+                if(eliteSize < 1) {
+                    eliteSize = this.getDefaultConfiguration().getSteadyStateEliteSize();
+                }
 
-        for(Predicate<? super EvolutionResult<EnumGene<Integer>, Integer>> terminationCondition: terminationConditions) {
-            stream = stream.limit(terminationCondition);
-        }
+                int deduplicateRetries = 0;
+                if(this.getConfiguration().isDeduplicate()) {
+                    deduplicateRetries = this.getConfiguration().getDeduplicateMaxRetries();
+                    if(deduplicateRetries <= 0) {
+                        deduplicateRetries = RetryConstraint.DEFAULT_RETRY_COUNT;
+                    }
+                }
 
-        logger.info("Current thread: " + Thread.currentThread());
+                // without an estimator, exact fitness values are used unless in privacy-preserving mode
+                boolean relativeFitness = this.getFitnessMethod() != FitnessMethod.ACTUAL_VALUES &&
+                        !(this.getMode() != OptimizationMode.PRIVACY_PRESERVING && this.getFitnessEstimator() == null);
 
-        // add a termination condition that truncates the result if the current thread was interrupted
-        stream = stream.limit(result -> !Thread.currentThread().isInterrupted());
+                BatchEvaluator evaluator = BatchEvaluatorFactory.getEvaluator(getFitnessMethod(), problem, this);
+                evaluators.add(evaluator);
 
-        this.getStatistics().setTimeStarted(LocalDateTime.now()); // set the begin time in the statistics
+                logger.info("Evolve a steady-state population replacing up to " + replacements + " individuals per step, keeping an elite of " + eliteSize + ".");
+                steadyStateEngine = new SteadyStateEngine(problem, evaluator, populationSize, replacements, eliteSize,
+                        mutator, crossover, deduplicateRetries, relativeFitness);
+            } else {
+                for(int island = 0; island < islands; island++) {
+                    BatchEvaluator evaluator = BatchEvaluatorFactory.getEvaluator(getFitnessMethod(), problem, this);
 
-        EvolutionResult<EnumGene<Integer>, Integer> result = stream
-                .peek(statistics)
-                .collect(EvolutionResult.toBestEvolutionResult());
+                    Engine.Builder<EnumGene<Integer>, Integer> builder;
 
+                    builder = new Engine.Builder<>(evaluator, problem.codec().encoding());
 
-        logger.info("Finished optimization");
+                    // builder = Engine.builder(problem);
 
-        logger.info(Thread.currentThread() + " was interrupted: " + Thread.currentThread().isInterrupted());
+                    EvolutionInterceptor<EnumGene<Integer>, Integer> interceptor = EvolutionInterceptor.identity();
 
-        logger.info("Result fitness after optimization: {}.", result.bestFitness());
-        logger.info("Removing invalid solutions from result generation");
-        logger.info("Result population contains {} invalid solutions.", result.invalidCount());
-        AtomicInteger invalidPhenotypeCount = new AtomicInteger();
-        List<Phenotype<EnumGene<Integer>, Integer>> validSolutions = result.population()
-                .stream()
-                .filter(phenotype -> {
-                    Map<Flight, Slot> decodedGenotype = problem.decode(phenotype.genotype());
-                    for(Map.Entry<Flight, Slot> entry : decodedGenotype.entrySet()){
-                        if(entry.getKey().getScheduledTime() != null && entry.getKey().getScheduledTime().isAfter(entry.getValue().getTime())){
-                            invalidPhenotypeCount.getAndIncrement();
-                            return false;
+                    if(this.getConfiguration().isDeduplicate()){
+                        int maxRetries = this.getConfiguration().getDeduplicateMaxRetries();
+
+                        if (maxRetries > 0) {
+                            logger.debug("The engine should deduplicate the population; maxRetries: " + maxRetries);
+                            interceptor = EvolutionResult.toUniquePopulation(maxRetries);
+                        } else {
+                            logger.debug("The engine should deduplicate the population");
+                            interceptor = EvolutionResult.toUniquePopulation();
                         }
                     }
-                    return true;
-                })
-                .toList();
-        boolean hasValidSolutions = !validSolutions.isEmpty();
-        if(!hasValidSolutions){
-            logger.warn("There are no valid solutions left.");
-            logger.warn("Optimization will return an invalid solution.");
-            validSolutions = new ArrayList<>();
-            validSolutions.add(result.bestPhenotype());
-        }
-
-        logger.info("Removed {} invalid solutions.", invalidPhenotypeCount.get());
-        logger.info("Result has {} remaining solutions.", validSolutions.size());
-        result = EvolutionResult.of(
-                Optimize.MAXIMUM,
-                ISeq.of(validSolutions),
-                result.generation(),
-                result.totalGenerations(),
-                result.durations(),
-                invalidPhenotypeCount.get(),
-                result.invalidCount() - invalidPhenotypeCount.get(),
-                result.alterCount()
-        );
-        logger.info("Result fitness after invalid solutions have been removed: {}.", result.bestFitness());
-
-
-        BatchEvaluator batchEvaluator = (BatchEvaluator) evaluator;
-        if(hasValidSolutions){ // for invalid solutions, the devalued fitness will be returned
-            if(this.getMode() == OptimizationMode.NON_PRIVACY_PRESERVING ||
-                    this.getMode() == OptimizationMode.DEMONSTRATION ||
-                    this.getMode() == OptimizationMode.BENCHMARKING) {
-                logger.info("Running in non-privacy-preserving mode.");
-                logger.info("Evaluating result population with exact fitness values.");
-                var evaluatedResultGeneration = result.population()
-                        .stream()
-                        .map(phenotype -> phenotype.withFitness(problem.fitness(phenotype.genotype())))
-                        .sorted(Comparator.comparingInt(Phenotype::fitness))
-                        .sorted(Comparator.reverseOrder())
-                        .collect(Collectors.toList());
 
-                logger.info("Setting evaluated population as result.");
-                result = EvolutionResult.of(
-                        Optimize.MAXIMUM,
-                        ISeq.of(evaluatedResultGeneration),
-                        result.generation(),
-                        result.totalGenerations(),
-                        result.durations(),
-                        result.killCount(),
-                        result.invalidCount(),
-                        result.alterCount()
-                );
-
-                logger.info("Setting fitness values of distinct, evaluated population.");
-                var distinctIndividualFitnessValues = result.population()
-                        .stream()
-                        .map(Phenotype::genotype)
-                        .distinct()
-                        .map(problem::fitness)
-                        .sorted(Comparator.reverseOrder())
-                        .collect(Collectors.toList());
+                    if(migration != null) {
+                        interceptor = interceptor.compose(migration.getInterceptor(island));
+                    }
 
-                this.setFitnessValuesResults(distinctIndividualFitnessValues);
-            }else{
-                if(getFitnessMethod() != FitnessMethod.ACTUAL_VALUES){
-                    logger.debug("Running in privacy-preserving mode. Evaluating the last generation with actual values.");
-                    var seq = Seq.of(result.population());
-                    Integer[] fitnessValues = this.getPrivacyEngineService().computeActualFitnessValues(this, batchEvaluator.convertPopulationToArray(seq));
-
-                    EvolutionResult<EnumGene<Integer>, Integer> finalResult = result;
-                    var evaluatedResultGeneration = IntStream
-                            .range(0, fitnessValues.length)
-                            .mapToObj(i -> finalResult.population().get(i).withFitness(fitnessValues[i]))
+                    Engine<EnumGene<Integer>, Integer> engine = builder
+                            .interceptor(interceptor)
+                            .optimize(Optimize.MAXIMUM)
+                            .populationSize(populationSize)
+                            .alterers(mutator, crossover)
+                            .offspringSelector(offspringSelector)
+                            .survivorsSelector(survivorsSelector)
+                            .maximalPhenotypeAge(maximalPhenotypeAge)
+                            .offspringFraction(offspringFraction)
+                            .constraint(problem.constraint().isPresent()?problem.constraint().get():null)
+                            .build();
+
+                    evaluators.add(evaluator);
+                    engines.add(engine);
+                }
+            }
+
+            logger.info("Engine population size: " + (steadyState ? populationSize : engines.get(0).populationSize()));
+
+            logger.info("Running optimization using Jenetics framework as slot allocation problem ...");
+
+            logger.info("Current thread: " + Thread.currentThread());
+
+            this.getStatistics().setTimeStarted(LocalDateTime.now()); // set the begin time in the statistics
+
+            if(steadyStateEngine != null) {
+                result = steadyStateEngine.evolve(initialPopulation, terminationConditions, () -> Thread.currentThread().isInterrupted(), statistics);
+            } else if(engines.size() == 1) {
+                // add a termination condition that truncates the result if the current thread was interrupted
+                result = this.evolve(engines.get(0), initialPopulation, terminationConditions, () -> Thread.currentThread().isInterrupted())
+                        .peek(statistics)
+                        .collect(EvolutionResult.toBestEvolutionResult());
+            } else {
+                result = this.evolveIslands(engines, initialPopulation, statistics);
+            }
+
+            logger.info("Finished optimization");
+
+            logger.info(Thread.currentThread() + " was interrupted: " + Thread.currentThread().isInterrupted());
+
+            logger.info("Result fitness after optimization: {}.", result.bestFitness());
+            logger.info("Removing invalid solutions from result generation");
+            logger.info("Result population contains {} invalid solutions.", result.invalidCount());
+            AtomicInteger invalidPhenotypeCount = new AtomicInteger();
+            List<Phenotype<EnumGene<Integer>, Integer>> validSolutions = result.population()
+                    .stream()
+                    .filter(phenotype -> {
+                        if(!problem.isValid(phenotype.genotype())){
+                            invalidPhenotypeCount.getAndIncrement();
+                            return false;
+                        }
+                        return true;
+                    })
+                    .toList();
+            boolean hasValidSolutions = !validSolutions.isEmpty();
+            if(!hasValidSolutions){
+                logger.warn("There are no valid solutions left.");
+                logger.warn("Optimization will return an invalid solution.");
+                validSolutions = new ArrayList<>();
+                validSolutions.add(result.bestPhenotype());
+            }
+
+            logger.info("Removed {} invalid solutions.", invalidPhenotypeCount.get());
+            logger.info("Result has {} remaining solutions.", validSolutions.size());
+            result = EvolutionResult.of(
+                    Optimize.MAXIMUM,
+                    ISeq.of(validSolutions),
+                    result.generation(),
+                    result.totalGenerations(),
+                    result.durations(),
+                    invalidPhenotypeCount.get(),
+                    result.invalidCount() - invalidPhenotypeCount.get(),
+                    result.alterCount()
+            );
+            logger.info("Result fitness after invalid solutions have been removed: {}.", result.bestFitness());
+
+
+            BatchEvaluator batchEvaluator = evaluators.get(0);
+            if(hasValidSolutions){ // for invalid solutions, the devalued fitness will be returned
+                if(this.getMode() != OptimizationMode.PRIVACY_PRESERVING) {
+                    logger.info("Running in non-privacy-preserving mode.");
+                    logger.info("Evaluating result population with exact fitness values.");
+                    var evaluatedResultGeneration = result.population()
+                            .stream()
+                            .map(phenotype -> phenotype.withFitness(problem.fitness(phenotype.genotype())))
+                            .sorted(Comparator.comparingInt(Phenotype::fitness))
+                            .sorted(Comparator.reverseOrder())
                             .collect(Collectors.toList());
 
-                    logger.info("Setting evaluated population as new result population.");
+                    logger.info("Setting evaluated population as result.");
                     result = EvolutionResult.of(
                             Optimize.MAXIMUM,
                             ISeq.of(evaluatedResultGeneration),
@@ -282,44 +382,97 @@ public class JeneticsOptimization extends Optimization {
                             result.invalidCount(),
                             result.alterCount()
                     );
-                }
-                logger.info("Setting fitness values of distinct, evaluated population.");
-                var fitnessValueResults = result.population()
-                        .stream()
-                        .filter(distinctByAttribute(Phenotype::genotype))
-                        .map(Phenotype::fitness)
-                        .sorted(Comparator.reverseOrder())
-                        .toList();
 
-                this.setFitnessValuesResults(fitnessValueResults);
+                    logger.info("Setting fitness values of distinct, evaluated population.");
+                    var distinctIndividualFitnessValues = result.population()
+                            .stream()
+                            .map(Phenotype::genotype)
+                            .distinct()
+                            .map(problem::fitness)
+                            .sorted(Comparator.reverseOrder())
+                            .collect(Collectors.toList());
+
+                    this.setFitnessValuesResults(distinctIndividualFitnessValues);
+                }else{
+                    if(getFitnessMethod() != FitnessMethod.ACTUAL_VALUES){
+                        logger.debug("Running in privacy-preserving mode. Evaluating the last generation with actual values.");
+                        var seq = Seq.of(result.population());
+                        Integer[] fitnessValues = this.getPrivacyEngineService().computeActualFitnessValues(this, batchEvaluator.convertPopulationToArray(seq));
+
+                        EvolutionResult<EnumGene<Integer>, Integer> finalResult = result;
+                        var evaluatedResultGeneration = IntStream
+                                .range(0, fitnessValues.length)
+                                .mapToObj(i -> finalResult.population().get(i).withFitness(fitnessValues[i]))
+                                .collect(Collectors.toList());
+
+                        logger.info("Setting evaluated population as new result population.");
+                        result = EvolutionResult.of(
+                                Optimize.MAXIMUM,
+                                ISeq.of(evaluatedResultGeneration),
+                                result.generation(),
+                                result.totalGenerations(),
+                                result.durations(),
+                                result.killCount(),
+                                result.invalidCount(),
+                                result.alterCount()
+                        );
+                    }
+                    logger.info("Setting fitness values of distinct, evaluated population.");
+                    var fitnessValueResults = result.population()
+                            .stream()
+                            .filter(distinctByAttribute(Phenotype::genotype))
+                            .map(Phenotype::fitness)
+                            .sorted(Comparator.reverseOrder())
+                            .toList();
+
+                    this.setFitnessValuesResults(fitnessValueResults);
+                }
+            }else{
+                logger.info("No actual fitness values will be calculated, as the result contains no valid solutions");
             }
-        }else{
-            logger.info("No actual fitness values will be calculated, as the result contains no valid solutions");
-        }
 
-        Map<Flight, Slot> resultMap = problem.decode(result.bestPhenotype().genotype());
+            resultMap = problem.decode(result.bestPhenotype().genotype());
 
-        if(logger.isDebugEnabled()) {
-            logger.debug("Checking if solution is valid ...");
+            if(logger.isDebugEnabled()) {
+                logger.debug("Checking if solution is valid ...");
 
-            int invalidCount = 0;
-            for (Flight f : resultMap.keySet()) {
-                if (f.getScheduledTime() != null && f.getScheduledTime().isAfter(resultMap.get(f).getTime())) {
-                    invalidCount++;
-                    logger.debug("Flight " + f.getFlightId() + " with scheduled time " + f.getScheduledTime() +" at Slot " + resultMap.get(f).getTime());
-                }
+                int invalidCount = 0;
+                for (Flight f : resultMap.keySet()) {
+                    if (f.getScheduledTime() != null && f.getScheduledTime().isAfter(resultMap.get(f).getTime())) {
+                        invalidCount++;
+                        logger.debug("Flight " + f.getFlightId() + " with scheduled time " + f.getScheduledTime() +" at Slot " + resultMap.get(f).getTime());
+                    }
 
-                if(invalidCount > 0) {
-                    logger.debug("Solution is invalid. Number of invalid assignments: " + invalidCount);
-                } else {
-                    logger.debug("Solution is valid.");
+                    if(invalidCount > 0) {
+                        logger.debug("Solution is invalid. Number of invalid assignments: " + invalidCount);
+                    } else {
+                        logger.debug("Solution is valid.");
+                    }
                 }
             }
-        }
 
-        logger.info("Statistics: \n" + statistics);
-        logger.info("Printing statistics from BatchEvaluator");
-        batchEvaluator.printLogs();
+            logger.info("Statistics: \n" + statistics);
+            logger.info("Printing statistics from BatchEvaluator");
+            for(BatchEvaluator evaluator : evaluators) {
+                evaluator.printLogs();
+            }
+            if(this.deltaEvaluation != null) {
+                this.deltaEvaluation.printLogs();
+            }
+            if(this.fitnessCache != null) {
+                this.fitnessCache.printLogs();
+            }
+            if(migration != null) {
+                migration.printLogs();
+            }
+            if(steadyStateEngine != null) {
+                steadyStateEngine.printLogs();
+            }
+        } finally {
+            for(BatchEvaluator evaluator : evaluators) {
+                evaluator.shutdown();
+            }
+        }
 
         int resultFitness = result.bestPhenotype().fitness();
         logger.info("Setting statistics for this optimization."); // already initialized in constructor
@@ -327,6 +480,7 @@ public class JeneticsOptimization extends Optimization {
         this.getStatistics().setResultFitness(result.bestPhenotype().fitness());
         this.getStatistics().setIterations((int) statistics.altered().count());
         this.getStatistics().setFitnessFunctionInvocations(problem.getFitnessFunctionApplications());
+        this.getMetrics().recordFitnessEvaluations(problem.getFitnessFunctionApplications());
         this.getStatistics().setSolutionGeneration(resultFitness);
         if(resultFitness > this.getMaximumFitness()) this.setMaximumFitness(resultFitness);
 
@@ -349,11 +503,13 @@ public class JeneticsOptimization extends Optimization {
         this.setResults(resultList);
 
         logger.info("Converting result population to the format required by the PE.");
-        Integer[][] resultListConverted = batchEvaluator.convertPopulationToArray(ISeq.of(result.population().stream()
+        Integer[][] resultListConverted = Arrays.stream(evaluators.get(0).convertPopulationToArray(ISeq.of(result.population().stream()
                 .filter(distinctByAttribute(Phenotype::genotype))
                 .sorted(Comparator.comparingInt(Phenotype::fitness))
                 .sorted(Comparator.reverseOrder())
-                .collect(Collectors.toList())));
+                .collect(Collectors.toList()))))
+                .map(row -> Arrays.stream(row).boxed().toArray(Integer[]::new))
+                .toArray(Integer[][]::new);
 
         this.setConvertedResults(resultListConverted);
 
@@ -362,6 +518,101 @@ public class JeneticsOptimization extends Optimization {
         return resultMap;
     }
 
+    /**
+     * Returns the evolution stream of an engine, limited by the termination conditions.
+     * @param interrupted truncates the stream once it returns true
+     */
+    private EvolutionStream<EnumGene<Integer>, Integer> evolve(Engine<EnumGene<Integer>, Integer> engine,
+                                                               ISeq<Genotype<EnumGene<Integer>>> initialPopulation,
+                                                               Predicate<? super EvolutionResult<EnumGene<Integer>, Integer>>[] terminationConditions,
+                                                               BooleanSupplier interrupted) {
+        EvolutionStream<EnumGene<Integer>, Integer> stream = engine.stream(initialPopulation);
+
+        for(Predicate<? super EvolutionResult<EnumGene<Integer>, Integer>> terminationCondition: terminationConditions) {
+            stream = stream.limit(terminationCondition);
+        }
+
+        return stream.limit(result -> !interrupted.getAsBoolean());
+    }
+
+    /**
+     * Evolves each island on its own thread until it meets its termination conditions. The populations of the best
+     * generations of all islands are merged into a single result; as the result population is evaluated again after
+     * the optimization, the best solution of any island is returned.
+     */
+    private EvolutionResult<EnumGene<Integer>, Integer> evolveIslands(List<Engine<EnumGene<Integer>, Integer>> engines,
+                                                                      ISeq<Genotype<EnumGene<Integer>>> initialPopulation,
+                                                                      EvolutionStatistics<Integer, ?> statistics) {
+        ExecutorService executor = Executors.newFixedThreadPool(engines.size());
+        AtomicBoolean interrupted = new AtomicBoolean(false);
+
+        List<Future<EvolutionResult<EnumGene<Integer>, Integer>>> futures = new ArrayList<>();
+        for(int island = 0; island < engines.size(); island++) {
+            final int i = island;
+            final Engine<EnumGene<Integer>, Integer> engine = engines.get(island);
+
+            // termination conditions such as steady fitness keep state, each island requires its own instances
+            final Predicate<? super EvolutionResult<EnumGene<Integer>, Integer>>[] terminationConditions =
+                    this.getConfiguration().getTerminationConditions() != null ?
+                            this.getConfiguration().getTerminationConditions() :
+                            this.getDefaultConfiguration().getTerminationConditions();
+
+            futures.add(executor.submit(() -> {
+                EvolutionResult<EnumGene<Integer>, Integer> islandResult = this.evolve(engine, initialPopulation, terminationConditions, interrupted::get)
+                        .peek(r -> {
+                            synchronized (statistics) {
+                                statistics.accept(r);
+                            }
+                        })
+                        .collect(EvolutionResult.toBestEvolutionResult());
+
+                logger.info("Island " + i + " finished after " + islandResult.totalGenerations() + " generations with fitness " + islandResult.bestFitness() + ".");
+
+                return islandResult;
+            }));
+        }
+
+        List<EvolutionResult<EnumGene<Integer>, Integer>> islandResults = new ArrayList<>();
+        try {
+            for(Future<EvolutionResult<EnumGene<Integer>, Integer>> future : futures) {
+                while(true) {
+                    try {
+                        islandResults.add(future.get());
+                        break;
+                    } catch (InterruptedException e) {
+                        logger.info("Optimization was interrupted. Stopping all islands.");
+                        interrupted.set(true);
+                    }
+                }
+            }
+        } catch (ExecutionException e) {
+            interrupted.set(true);
+            throw new IllegalStateException("Evolution of an island failed.", e.getCause());
+        } finally {
+            executor.shutdown();
+        }
+
+        if(interrupted.get()) {
+            // keep the interrupted status, as if the optimization had run on the current thread
+            Thread.currentThread().interrupt();
+        }
+
+        ISeq<Phenotype<EnumGene<Integer>, Integer>> population = islandResults.stream()
+                .flatMap(islandResult -> islandResult.population().stream())
+                .collect(ISeq.toISeq());
+
+        return EvolutionResult.of(
+                Optimize.MAXIMUM,
+                population,
+                islandResults.stream().mapToLong(EvolutionResult::generation).max().orElse(0),
+                islandResults.stream().mapToLong(EvolutionResult::totalGenerations).sum(),
+                islandResults.get(0).durations(),
+                islandResults.stream().mapToInt(EvolutionResult::killCount).sum(),
+                islandResults.stream().mapToInt(EvolutionResult::invalidCount).sum(),
+                islandResults.stream().mapToInt(EvolutionResult::alterCount).sum()
+        );
+    }
+
     @Override
     public JeneticsOptimizationConfiguration getDefaultConfiguration() {
         JeneticsOptimizationConfiguration defaultConfiguration = new JeneticsOptimizationConfiguration();
@@ -380,6 +631,13 @@ public class JeneticsOptimization extends Optimization {
         defaultConfiguration.setOffspringSelector("TOURNAMENT_SELECTOR");
         defaultConfiguration.setTerminationConditions(terminationConditionParameters);
         defaultConfiguration.setDeduplicate(false);
+        defaultConfiguration.setIslands(1);
+        defaultConfiguration.setMigrationInterval(10);
+        defaultConfiguration.setMigrants(2);
+        defaultConfiguration.setMigrationTopology("RING");
+        defaultConfiguration.setSteadyState(false);
+        defaultConfiguration.setSteadyStateReplacements(10);
+        defaultConfiguration.setSteadyStateEliteSize(10);
 
         return defaultConfiguration;
     }
@@ -407,6 +665,20 @@ public class JeneticsOptimization extends Optimization {
         Object terminationConditions = parameters.get("terminationConditions");
         Object deduplicate = parameters.get("deduplicate");
         Object deduplicateMaxRetries = parameters.get("deduplicateMaxRetries");
+        Object evaluationParallelism = parameters.get("evaluationParallelism");
+        Object deltaEvaluation = parameters.get("deltaEvaluation");
+        Object fitnessCacheSize = parameters.get("fitnessCacheSize");
+        Object pipelinedEvaluation = parameters.get("pipelinedEvaluation");
+        Object privacyEngineBatchSize = parameters.get("privacyEngineBatchSize");
+        Object islands = parameters.get("islands");
+        Object migrationInterval = parameters.get("migrationInterval");
+        Object migrants = parameters.get("migrants");
+        Object migrationTopology = parameters.get("migrationTopology");
+        Object traceSampleInterval = parameters.get("traceSampleInterval");
+        Object traceQuantiles = parameters.get("traceQuantiles");
+        Object steadyState = parameters.get("steadyState");
+        Object steadyStateReplacements = parameters.get("steadyStateReplacements");
+        Object steadyStateEliteSize = parameters.get("steadyStateEliteSize");
 
         // set the parameters
         try {
@@ -526,6 +798,120 @@ public class JeneticsOptimization extends Optimization {
             throw new InvalidOptimizationParameterTypeException("deduplicateMaxRetries", Integer.class);
         }
 
+        try {
+            if (evaluationParallelism != null) {
+                newConfiguration.setEvaluationParallelism((int) evaluationParallelism);
+            }
+        } catch (Exception e) {
+            throw new InvalidOptimizationParameterTypeException("evaluationParallelism", Integer.class);
+        }
+
+        try {
+            if (deltaEvaluation != null) {
+                newConfiguration.setDeltaEvaluation((boolean) deltaEvaluation);
+            }
+        } catch (Exception e) {
+            throw new InvalidOptimizationParameterTypeException("deltaEvaluation", Boolean.class);
+        }
+
+        try {
+            if (fitnessCacheSize != null) {
+                newConfiguration.setFitnessCacheSize((int) fitnessCacheSize);
+            }
+        } catch (Exception e) {
+            throw new InvalidOptimizationParameterTypeException("fitnessCacheSize", Integer.class);
+        }
+
+        try {
+            if (pipelinedEvaluation != null) {
+                newConfiguration.setPipelinedEvaluation((boolean) pipelinedEvaluation);
+            }
+        } catch (Exception e) {
+            throw new InvalidOptimizationParameterTypeException("pipelinedEvaluation", Boolean.class);
+        }
+
+        try {
+            if (privacyEngineBatchSize != null) {
+                newConfiguration.setPrivacyEngineBatchSize((int) privacyEngineBatchSize);
+            }
+        } catch (Exception e) {
+            throw new InvalidOptimizationParameterTypeException("privacyEngineBatchSize", Integer.class);
+        }
+
+        try {
+            if (islands != null) {
+                newConfiguration.setIslands((int) islands);
+            }
+        } catch (Exception e) {
+            throw new InvalidOptimizationParameterTypeException("islands", Integer.class);
+        }
+
+        try {
+            if (migrationInterval != null) {
+                newConfiguration.setMigrationInterval((int) migrationInterval);
+            }
+        } catch (Exception e) {
+            throw new InvalidOptimizationParameterTypeException("migrationInterval", Integer.class);
+        }
+
+        try {
+            if (migrants != null) {
+                newConfiguration.setMigrants((int) migrants);
+            }
+        } catch (Exception e) {
+            throw new InvalidOptimizationParameterTypeException("migrants", Integer.class);
+        }
+
+        try {
+            if (migrationTopology != null) {
+                // reject unknown topologies
+                IslandMigration.Topology.valueOf((String) migrationTopology);
+                newConfiguration.setMigrationTopology((String) migrationTopology);
+            }
+        } catch (Exception e) {
+            throw new InvalidOptimizationParameterTypeException("migrationTopology", String.class);
+        }
+
+        try {
+            if (traceSampleInterval != null) {
+                newConfiguration.setTraceSampleInterval((int) traceSampleInterval);
+            }
+        } catch (Exception e) {
+            throw new InvalidOptimizationParameterTypeException("traceSampleInterval", Integer.class);
+        }
+
+        try {
+            if (traceQuantiles != null) {
+                newConfiguration.setTraceQuantiles((int) traceQuantiles);
+            }
+        } catch (Exception e) {
+            throw new InvalidOptimizationParameterTypeException("traceQuantiles", Integer.class);
+        }
+
+        try {
+            if (steadyState != null) {
+                newConfiguration.setSteadyState((boolean) steadyState);
+            }
+        } catch (Exception e) {
+            throw new InvalidOptimizationParameterTypeException("steadyState", Boolean.class);
+        }
+
+        try {
+            if (steadyStateReplacements != null) {
+                newConfiguration.setSteadyStateReplacements((int) steadyStateReplacements);
+            }
+        } catch (Exception e) {
+            throw new InvalidOptimizationParameterTypeException("steadyStateReplacements", Integer.class);
+        }
+
+        try {
+            if (steadyStateEliteSize != null) {
+                newConfiguration.setSteadyStateEliteSize((int) steadyStateEliteSize);
+            }
+        } catch (Exception e) {
+            throw new InvalidOptimizationParameterTypeException("steadyStateEliteSize", Integer.class);
+        }
+
 
         // replace the configuration if no error was thrown
         this.configuration = newConfiguration;
@@ -536,6 +922,26 @@ public class JeneticsOptimization extends Optimization {
         return this.statistics;
     }
 
+    /**
+     * Each island evolves on its own thread and evaluates its populations using the configured evaluation parallelism.
+     */
+    @Override
+    public int getCpuBudget() {
+        int islands = Integer.MIN_VALUE;
+        int evaluationParallelism = Integer.MIN_VALUE;
+
+        if(this.getConfiguration() != null) {
+            islands = this.getConfiguration().getIslands();
+            evaluationParallelism = this.getConfiguration().getEvaluationParallelism();
+        }
+
+        if(islands < 1 || (this.getConfiguration() != null && this.getConfiguration().isSteadyState())) {
+            islands = this.getDefaultConfiguration().getIslands();
+        }
+
+        return islands * Math.max(1, evaluationParallelism);
+    }
+
     @Override
     public int computeInitialFitness() {
         logger.info("Calculating fitness of initial flight sequence.");
@@ -576,10 +982,62 @@ public class JeneticsOptimization extends Optimization {
     }
 
 
+    /**
+     * Builds an initial population around the given solutions. The population contains the solutions themselves, the
+     * remaining individuals are copies of the solutions with the flights in a few pairs of consecutive slots swapped.
+     * @param allocations the solutions to start from
+     * @param populationSize the size of the population
+     * @return the initial population
+     */
+    private ISeq<Genotype<EnumGene<Integer>>> getSeededPopulation(List<Map<Flight, Slot>> allocations, int populationSize) {
+        Random random = RandomRegistry.random();
+        List<Genotype<EnumGene<Integer>>> genotypes = new ArrayList<>(populationSize);
+
+        for(int i = 0; i < populationSize; i++) {
+            Map<Flight, Slot> allocation = allocations.get(i % allocations.size());
+
+            if(i >= allocations.size()) {
+                allocation = new HashMap<>(allocation);
+
+                Flight[] flightsBySlot = allocation.entrySet().stream()
+                        .sorted(Map.Entry.comparingByValue())
+                        .map(Map.Entry::getKey)
+                        .toArray(Flight[]::new);
+
+                int swaps = 1 + random.nextInt(3);
+                for(int k = 0; k < swaps && flightsBySlot.length > 1; k++) {
+                    int position = random.nextInt(flightsBySlot.length - 1);
+
+                    Slot slot = allocation.get(flightsBySlot[position]);
+                    allocation.put(flightsBySlot[position], allocation.get(flightsBySlot[position + 1]));
+                    allocation.put(flightsBySlot[position + 1], slot);
+                }
+            }
+
+            genotypes.add(problem.codec().encode(allocation));
+        }
+
+        return ISeq.of(genotypes);
+    }
+
     public SlotAllocationProblem getProblem() {
         return problem;
     }
 
+    /**
+     * @return the delta evaluation of the current run, or null if delta evaluation is not used
+     */
+    public DeltaEvaluation getDeltaEvaluation() {
+        return deltaEvaluation;
+    }
+
+    /**
+     * @return the fitness cache of the current run, or null if fitness values are not cached
+     */
+    public FitnessCache getFitnessCache() {
+        return fitnessCache;
+    }
+
     /**
      * Get a Predicate that returns whether it has seen the elements' key according to the keyExtractor
      * @param keyExtractor extracts the key from T for filtering
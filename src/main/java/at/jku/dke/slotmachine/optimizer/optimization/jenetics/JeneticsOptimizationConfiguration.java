@@ -2,6 +2,7 @@ package at.jku.dke.slotmachine.optimizer.optimization.jenetics;
 
 import at.jku.dke.slotmachine.optimizer.domain.Flight;
 import at.jku.dke.slotmachine.optimizer.domain.Slot;
+import at.jku.dke.slotmachine.optimizer.optimization.FitnessEvolutionTrace;
 import at.jku.dke.slotmachine.optimizer.optimization.OptimizationConfiguration;
 import io.jenetics.*;
 import io.jenetics.engine.EvolutionResult;
@@ -264,6 +265,9 @@ public class JeneticsOptimizationConfiguration extends OptimizationConfiguration
         return ISeq.of(genotypes);
     }
 
+    /**
+     * Returns the termination conditions, or null if the parameter is not set.
+     */
     public Predicate<? super EvolutionResult<EnumGene<Integer>, Integer>>[] getTerminationConditions() {
         List<Predicate<? super EvolutionResult<EnumGene<Integer>, Integer>>> predicates = new LinkedList<>();
 
@@ -334,7 +338,7 @@ public class JeneticsOptimizationConfiguration extends OptimizationConfiguration
             }
         }
 
-        return predicates.toArray(Predicate[]::new);
+        return terminationConditionParameters != null ? predicates.toArray(Predicate[]::new) : null;
     }
 
     private Map<String,Object> getMapParameter(String param) {
@@ -355,6 +359,130 @@ public class JeneticsOptimizationConfiguration extends OptimizationConfiguration
         return this.getIntegerParameter("deduplicateMaxRetries");
     }
 
+    /**
+     * Returns the number of threads used to evaluate a population, or Integer.MIN_VALUE if the parameter is not set.
+     * Populations are evaluated sequentially unless the parallelism is greater than one.
+     * @return the evaluation parallelism
+     */
+    public int getEvaluationParallelism() {
+        return this.getIntegerParameter("evaluationParallelism");
+    }
+
+    /**
+     * If true, the fitness of mutated candidates is derived from the fitness of their parents, see
+     * {@link DeltaEvaluation}. Does not apply in privacy-preserving mode.
+     * @return true if delta evaluation is enabled
+     */
+    public boolean isDeltaEvaluation() {
+        return this.getBooleanParameter("deltaEvaluation");
+    }
+
+    /**
+     * If true, the Privacy Engine is invoked asynchronously in privacy-preserving mode: the population is scored locally
+     * while the Privacy Engine evaluates it, and actual fitness values are requested in concurrent sub-batches, see
+     * {@link #getPrivacyEngineBatchSize()}.
+     * @return true if the evaluation is pipelined
+     */
+    public boolean isPipelinedEvaluation() {
+        return this.getBooleanParameter("pipelinedEvaluation");
+    }
+
+    /**
+     * Returns the maximum number of individuals per request when actual fitness values are requested from the
+     * Privacy Engine in pipelined evaluation, or Integer.MIN_VALUE if the parameter is not set.
+     * @return the batch size of requests to the Privacy Engine
+     */
+    public int getPrivacyEngineBatchSize() {
+        return this.getIntegerParameter("privacyEngineBatchSize");
+    }
+
+    /**
+     * Returns the maximum number of fitness values cached during an optimization run, or Integer.MIN_VALUE if the
+     * parameter is not set. Fitness values are only cached if the size is greater than zero, see {@link FitnessCache}.
+     * @return the size of the fitness cache
+     */
+    public int getFitnessCacheSize() {
+        return this.getIntegerParameter("fitnessCacheSize");
+    }
+
+    /**
+     * Returns the number of islands, or Integer.MIN_VALUE if the parameter is not set. If there is more than one
+     * island, each island evolves its own population on its own thread, see {@link IslandMigration}.
+     * @return the number of islands
+     */
+    public int getIslands() {
+        return this.getIntegerParameter("islands");
+    }
+
+    /**
+     * @return the number of generations between two migrations, or Integer.MIN_VALUE if the parameter is not set
+     */
+    public int getMigrationInterval() {
+        return this.getIntegerParameter("migrationInterval");
+    }
+
+    /**
+     * @return the number of elite genotypes an island sends to each neighbour, or Integer.MIN_VALUE if the parameter
+     * is not set
+     */
+    public int getMigrants() {
+        return this.getIntegerParameter("migrants");
+    }
+
+    /**
+     * @return the migration topology, or null if the parameter is not set
+     */
+    public IslandMigration.Topology getMigrationTopology() {
+        String migrationTopology = this.getStringParameter("migrationTopology");
+
+        if(migrationTopology == null) return null;
+
+        return IslandMigration.Topology.valueOf(migrationTopology);
+    }
+
+    /**
+     * Returns the number of generations between two generations recorded in the fitness evolution trace, or
+     * Integer.MIN_VALUE if the parameter is not set, in which case every generation is recorded.
+     * @return the sample interval of the fitness evolution trace
+     */
+    public int getTraceSampleInterval() {
+        return this.getIntegerParameter("traceSampleInterval");
+    }
+
+    /**
+     * Returns the number of quantiles of the fitness values recorded per generation in the fitness evolution trace,
+     * or Integer.MIN_VALUE if the parameter is not set, in which case the fitness values of the whole population are
+     * recorded, see {@link FitnessEvolutionTrace}.
+     * @return the number of quantiles of the fitness evolution trace
+     */
+    public int getTraceQuantiles() {
+        return this.getIntegerParameter("traceQuantiles");
+    }
+
+    /**
+     * If true, the population evolves in a steady state instead of in generations, see {@link SteadyStateEngine}.
+     * @return true if the steady-state engine is used
+     */
+    public boolean isSteadyState() {
+        return this.getBooleanParameter("steadyState");
+    }
+
+    /**
+     * @return the number of offspring created per step of the steady-state engine, which compete with as many of the
+     * worst individuals of the population, or Integer.MIN_VALUE if the parameter is not set
+     */
+    public int getSteadyStateReplacements() {
+        return this.getIntegerParameter("steadyStateReplacements");
+    }
+
+    /**
+     * @return the number of best individuals kept in the elite of the steady-state engine, or Integer.MIN_VALUE if the
+     * parameter is not set
+     */
+    public int getSteadyStateEliteSize() {
+        return this.getIntegerParameter("steadyStateEliteSize");
+    }
+
     public void setTerminationConditions(Map<String,Object> terminationConditionParameters) {
         this.setParameter("terminationConditions", terminationConditionParameters);
     }
@@ -402,4 +530,60 @@ public class JeneticsOptimizationConfiguration extends OptimizationConfiguration
     public void setDeduplicateMaxRetries(int maxRetries) {
         this.setParameter("deduplicateMaxRetries", maxRetries);
     }
+
+    public void setEvaluationParallelism(int evaluationParallelism) {
+        this.setParameter("evaluationParallelism", evaluationParallelism);
+    }
+
+    public void setDeltaEvaluation(boolean deltaEvaluation) {
+        this.setParameter("deltaEvaluation", deltaEvaluation);
+    }
+
+    public void setPipelinedEvaluation(boolean pipelinedEvaluation) {
+        this.setParameter("pipelinedEvaluation", pipelinedEvaluation);
+    }
+
+    public void setPrivacyEngineBatchSize(int privacyEngineBatchSize) {
+        this.setParameter("privacyEngineBatchSize", privacyEngineBatchSize);
+    }
+
+    public void setFitnessCacheSize(int fitnessCacheSize) {
+        this.setParameter("fitnessCacheSize", fitnessCacheSize);
+    }
+
+    public void setIslands(int islands) {
+        this.setParameter("islands", islands);
+    }
+
+    public void setMigrationInterval(int migrationInterval) {
+        this.setParameter("migrationInterval", migrationInterval);
+    }
+
+    public void setMigrants(int migrants) {
+        this.setParameter("migrants", migrants);
+    }
+
+    public void setMigrationTopology(String migrationTopology) {
+        this.setParameter("migrationTopology", migrationTopology);
+    }
+
+    public void setTraceSampleInterval(int traceSampleInterval) {
+        this.setParameter("traceSampleInterval", traceSampleInterval);
+    }
+
+    public void setTraceQuantiles(int traceQuantiles) {
+        this.setParameter("traceQuantiles", traceQuantiles);
+    }
+
+    public void setSteadyState(boolean steadyState) {
+        this.setParameter("steadyState", steadyState);
+    }
+
+    public void setSteadyStateReplacements(int steadyStateReplacements) {
+        this.setParameter("steadyStateReplacements", steadyStateReplacements);
+    }
+
+    public void setSteadyStateEliteSize(int steadyStateEliteSize) {
+        this.setParameter("steadyStateEliteSize", steadyStateEliteSize);
+    }
 }
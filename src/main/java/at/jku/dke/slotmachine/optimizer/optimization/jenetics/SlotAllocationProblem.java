@@ -2,16 +2,21 @@ package at.jku.dke.slotmachine.optimizer.optimization.jenetics;
 
 import at.jku.dke.slotmachine.optimizer.domain.Flight;
 import at.jku.dke.slotmachine.optimizer.domain.Slot;
+import at.jku.dke.slotmachine.optimizer.optimization.WeightMatrix;
+import io.jenetics.Chromosome;
 import io.jenetics.EnumGene;
+import io.jenetics.Genotype;
 import io.jenetics.engine.Codecs;
 import io.jenetics.engine.Constraint;
 import io.jenetics.engine.InvertibleCodec;
 import io.jenetics.engine.Problem;
-import io.jenetics.engine.RetryConstraint;
 import io.jenetics.util.ISeq;
 
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.Function;
 
 import org.apache.logging.log4j.LogManager;
@@ -23,57 +28,216 @@ public class SlotAllocationProblem implements Problem<Map<Flight, Slot>, EnumGen
 	private final ISeq<Flight> flights;
 	private final ISeq<Slot> availableSlots;
 
-	private int fitnessFunctionApplications = 0;
+	private final WeightMatrix weightMatrix;
+	private final Map<Flight, Integer> flightIndexes;
+	private final Map<Slot, Integer> slotIndexes;
+
+	// populations may be evaluated in parallel, see BatchEvaluator
+	private final LongAdder fitnessFunctionApplications = new LongAdder();
 
 	public SlotAllocationProblem(ISeq<Flight> flights, ISeq<Slot> availableSlots) {
+		this(flights, availableSlots, null);
+	}
+
+	/**
+	 * @param flights the flights
+	 * @param availableSlots the available slots
+	 * @param weightMatrix the weight matrix built from the flights and slots in the given order; if null, the
+	 *                     matrix is computed
+	 */
+	public SlotAllocationProblem(ISeq<Flight> flights, ISeq<Slot> availableSlots, WeightMatrix weightMatrix) {
 		this.flights = flights;
 		this.availableSlots = availableSlots;
 
-		logger.debug("Compute weight map for each flight.");
-		Slot[] slotArray = availableSlots.toArray(Slot[]::new);
-		for(Flight f : flights) {
-			f.computeWeightMap(slotArray);
+		if(weightMatrix == null) {
+			logger.debug("Compute weight matrix.");
+			weightMatrix = new WeightMatrix(flights.toArray(Flight[]::new), availableSlots.toArray(Slot[]::new));
+		}
+		this.weightMatrix = weightMatrix;
+
+		this.flightIndexes = new HashMap<>();
+		for(int i = 0; i < flights.size(); i++) {
+			flightIndexes.put(flights.get(i), i);
+		}
+
+		this.slotIndexes = new HashMap<>();
+		for(int i = 0; i < availableSlots.size(); i++) {
+			slotIndexes.put(availableSlots.get(i), i);
 		}
 	}
 
 	public int getFitnessFunctionApplications() {
-		return fitnessFunctionApplications;
+		return fitnessFunctionApplications.intValue();
 	}
 	
     @Override
     public Function<Map<Flight, Slot>, Integer> fitness() {
         return slotAllocation -> {
-			fitnessFunctionApplications++;
+			fitnessFunctionApplications.increment();
+
+			int fitness = 0;
+			for(Map.Entry<Flight, Slot> e : slotAllocation.entrySet()) {
+				fitness += weightMatrix.getWeight(flightIndexes.get(e.getKey()), slotIndexes.get(e.getValue()));
+			}
 
-			return slotAllocation.keySet().stream()
-					.map(f -> f.getWeight(slotAllocation.get(f)))
-					.mapToInt(Integer::intValue)
-					.sum();
+			return fitness;
 		};
     }
 
+    /**
+     * Computes the fitness directly from the genotype's allele indexes, i.e., without decoding the genotype into a
+     * mapping of flights to slots.
+     * @param genotype the genotype
+     * @return the fitness of the genotype
+     */
+    @Override
+    public Integer fitness(Genotype<EnumGene<Integer>> genotype) {
+		return getFitness(evaluate(genotype));
+    }
+
+	/**
+	 * Computes the fitness and the number of SOBT violations of a genotype in a single pass over the allele indexes.
+	 * The allele index at position i of the permutation is the index of the slot assigned to flight i. Both values
+	 * are packed into a long to avoid allocating a result object for each evaluation.
+	 * @param genotype the genotype
+	 * @return the packed result; use {@link #getFitness(long)} and {@link #getInvalidAssignments(long)} to unpack
+	 */
+	public long evaluate(Genotype<EnumGene<Integer>> genotype) {
+		fitnessFunctionApplications.increment();
+
+		Chromosome<EnumGene<Integer>> chromosome = genotype.chromosome();
+		int flightCount = flights.size();
+
+		int fitness = 0;
+		int invalidAssignments = 0;
+
+		for(int f = 0; f < flightCount; f++) {
+			int s = chromosome.get(f).alleleIndex();
+
+			fitness += weightMatrix.getWeight(f, s);
+
+			if(!weightMatrix.isAllowed(f, s)) {
+				invalidAssignments++;
+			}
+		}
+
+		return ((long) fitness << 32) | (invalidAssignments & 0xFFFFFFFFL);
+	}
+
+	/**
+	 * Derives the packed result of {@link #evaluate(Genotype)} for a child from the result of its parent, considering
+	 * only the positions where the child may differ from the parent. Does not count as a fitness function
+	 * application.
+	 * @param parent the parent genotype
+	 * @param parentScore the packed result of the parent
+	 * @param child the child genotype, differing from the parent at most at the given positions
+	 * @param positions the positions that may have changed; positions may occur more than once
+	 * @param count the number of positions
+	 * @return the packed result of the child
+	 */
+	public long evaluateDelta(Genotype<EnumGene<Integer>> parent, long parentScore, Genotype<EnumGene<Integer>> child, int[] positions, int count) {
+		Chromosome<EnumGene<Integer>> parentChromosome = parent.chromosome();
+		Chromosome<EnumGene<Integer>> childChromosome = child.chromosome();
+		int flightCount = flights.size();
+
+		int fitness = getFitness(parentScore);
+		int invalidAssignments = getInvalidAssignments(parentScore);
+
+		// sort so that positions changed more than once are only considered once
+		int[] sortedPositions = Arrays.copyOf(positions, count);
+		Arrays.sort(sortedPositions);
+
+		for(int k = 0; k < count; k++) {
+			int f = sortedPositions[k];
+
+			// positions beyond the number of flights hold unassigned slots
+			if(f >= flightCount || (k > 0 && f == sortedPositions[k - 1])) {
+				continue;
+			}
+
+			int parentSlot = parentChromosome.get(f).alleleIndex();
+			int childSlot = childChromosome.get(f).alleleIndex();
+
+			if(parentSlot != childSlot) {
+				fitness += weightMatrix.getWeight(f, childSlot) - weightMatrix.getWeight(f, parentSlot);
+
+				if(!weightMatrix.isAllowed(f, parentSlot)) {
+					invalidAssignments--;
+				}
+				if(!weightMatrix.isAllowed(f, childSlot)) {
+					invalidAssignments++;
+				}
+			}
+		}
+
+		return ((long) fitness << 32) | (invalidAssignments & 0xFFFFFFFFL);
+	}
+
+	/**
+	 * Counts the SOBT violations of a genotype without decoding it. Does not count as a fitness function application.
+	 * @param genotype the genotype
+	 * @return the number of flights assigned to a slot before their scheduled time
+	 */
+	public int getInvalidAssignments(Genotype<EnumGene<Integer>> genotype) {
+		Chromosome<EnumGene<Integer>> chromosome = genotype.chromosome();
+		int flightCount = flights.size();
+
+		int invalidAssignments = 0;
+
+		for(int f = 0; f < flightCount; f++) {
+			if(!weightMatrix.isAllowed(f, chromosome.get(f).alleleIndex())) {
+				invalidAssignments++;
+			}
+		}
+
+		return invalidAssignments;
+	}
+
+	/**
+	 * Determines whether a genotype satisfies the SOBT constraint for all flights.
+	 * @param genotype the genotype
+	 * @return true if no flight is assigned to a slot before its scheduled time; false otherwise.
+	 */
+	public boolean isValid(Genotype<EnumGene<Integer>> genotype) {
+		Chromosome<EnumGene<Integer>> chromosome = genotype.chromosome();
+		int flightCount = flights.size();
+
+		for(int f = 0; f < flightCount; f++) {
+			if(!weightMatrix.isAllowed(f, chromosome.get(f).alleleIndex())) {
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	/**
+	 * @param score a result of {@link #evaluate(Genotype)}
+	 * @return the fitness
+	 */
+	public static int getFitness(long score) {
+		return (int) (score >> 32);
+	}
+
+	/**
+	 * @param score a result of {@link #evaluate(Genotype)}
+	 * @return the number of SOBT violations
+	 */
+	public static int getInvalidAssignments(long score) {
+		return (int) score;
+	}
+
     @Override
     public InvertibleCodec<Map<Flight, Slot>, EnumGene<Integer>> codec() {
         return Codecs.ofMapping(flights, availableSlots);
     }
     
+    /**
+     * @return the SOBT constraint, which repairs invalid individuals, see {@link SobtConstraint}
+     */
     @Override
     public Optional<Constraint<EnumGene<Integer>, Integer>> constraint() {
-		return Optional.of(
-				RetryConstraint.of(
-						codec(),
-						flightSlotMap -> {
-							for(Map.Entry<Flight, Slot> e : flightSlotMap.entrySet()) {
-								if(e.getKey().getScheduledTime() != null &&
-										e.getKey().getScheduledTime().isAfter(e.getValue().getTime())) {
-									return false;
-								}
-							}
-
-							return true;
-						}
-				)
-		);
+		return Optional.of(new SobtConstraint(this));
     }
 
 	public ISeq<Flight> getFlights() {
@@ -84,4 +248,8 @@ public class SlotAllocationProblem implements Problem<Map<Flight, Slot>, EnumGen
 		return availableSlots;
 	}
 
+	public WeightMatrix getWeightMatrix() {
+		return weightMatrix;
+	}
+
 }
@@ -0,0 +1,86 @@
+package at.jku.dke.slotmachine.optimizer.optimization.jenetics;
+
+import at.jku.dke.slotmachine.optimizer.optimization.SobtFeasibility;
+import io.jenetics.Chromosome;
+import io.jenetics.EnumGene;
+import io.jenetics.Genotype;
+import io.jenetics.Phenotype;
+import io.jenetics.engine.Constraint;
+import io.jenetics.util.ISeq;
+import io.jenetics.util.MSeq;
+import io.jenetics.util.RandomRegistry;
+
+/**
+ * Constraint that an individual does not assign a flight to a slot before the flight's scheduled time. Rather than
+ * regenerating invalid individuals at random until a valid one is found, which rarely succeeds for problems with few
+ * spare slots, an invalid individual is repaired: its valid assignments are kept as far as possible and the other
+ * flights are assigned to one of the earliest free slots that are not before their scheduled time.
+ */
+public class SobtConstraint implements Constraint<EnumGene<Integer>, Integer> {
+    /**
+     * Number of earliest free allowed slots a displaced flight is assigned to at random, so that repairs of the same
+     * individual differ
+     */
+    private static final int CHOICES = 3;
+
+    private final SlotAllocationProblem problem;
+
+    private final Chromosome<EnumGene<Integer>> chromosomeTemplate;
+    private final ISeq<EnumGene<Integer>> genes;
+
+    public SobtConstraint(SlotAllocationProblem problem) {
+        this.problem = problem;
+
+        this.chromosomeTemplate = problem.codec().encoding().newInstance().chromosome();
+
+        ISeq<Integer> alleles = this.chromosomeTemplate.get(0).validAlleles();
+        MSeq<EnumGene<Integer>> genes = MSeq.ofLength(this.chromosomeTemplate.length());
+        for(int a = 0; a < genes.length(); a++) {
+            genes.set(a, EnumGene.of(a, alleles));
+        }
+        this.genes = genes.toISeq();
+    }
+
+    @Override
+    public boolean test(Phenotype<EnumGene<Integer>, Integer> individual) {
+        return problem.isValid(individual.genotype());
+    }
+
+    @Override
+    public Phenotype<EnumGene<Integer>, Integer> repair(Phenotype<EnumGene<Integer>, Integer> individual, long generation) {
+        return Phenotype.of(this.repair(individual.genotype()), generation);
+    }
+
+    /**
+     * Repairs a genotype; the positions beyond the number of flights hold the unassigned slots in ascending order.
+     * @param genotype the genotype
+     * @return a genotype that satisfies the constraint if the problem has a valid solution
+     */
+    public Genotype<EnumGene<Integer>> repair(Genotype<EnumGene<Integer>> genotype) {
+        Chromosome<EnumGene<Integer>> chromosome = genotype.chromosome();
+        int flightCount = problem.getFlights().size();
+
+        int[] assignment = new int[flightCount];
+        for(int f = 0; f < flightCount; f++) {
+            assignment[f] = chromosome.get(f).alleleIndex();
+        }
+
+        assignment = SobtFeasibility.repair(problem.getWeightMatrix(), assignment, CHOICES, RandomRegistry.random());
+
+        boolean[] assigned = new boolean[genes.length()];
+        MSeq<EnumGene<Integer>> repairedGenes = MSeq.ofLength(genes.length());
+        for(int f = 0; f < flightCount; f++) {
+            repairedGenes.set(f, genes.get(assignment[f]));
+            assigned[assignment[f]] = true;
+        }
+
+        int position = flightCount;
+        for(int s = 0; s < genes.length(); s++) {
+            if(!assigned[s]) {
+                repairedGenes.set(position++, genes.get(s));
+            }
+        }
+
+        return Genotype.of(this.chromosomeTemplate.newInstance(repairedGenes.toISeq()));
+    }
+}
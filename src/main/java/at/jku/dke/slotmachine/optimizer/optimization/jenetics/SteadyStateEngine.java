@@ -0,0 +1,774 @@
+package at.jku.dke.slotmachine.optimizer.optimization.jenetics;
+
+import at.jku.dke.slotmachine.optimizer.optimization.jenetics.evaluation.BatchEvaluator;
+import io.jenetics.Chromosome;
+import io.jenetics.Crossover;
+import io.jenetics.EnumGene;
+import io.jenetics.Genotype;
+import io.jenetics.Mutator;
+import io.jenetics.Optimize;
+import io.jenetics.Phenotype;
+import io.jenetics.SwapMutator;
+import io.jenetics.engine.Constraint;
+import io.jenetics.engine.EvolutionDurations;
+import io.jenetics.engine.EvolutionResult;
+import io.jenetics.engine.EvolutionStatistics;
+import io.jenetics.ext.HPRMutator;
+import io.jenetics.ext.RSMutator;
+import io.jenetics.util.ISeq;
+import io.jenetics.util.MSeq;
+import io.jenetics.util.RandomRegistry;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.function.BooleanSupplier;
+import java.util.function.Predicate;
+
+/**
+ * Steady-state genetic algorithm that keeps its population in a fixed primitive buffer instead of rebuilding it as
+ * immutable phenotypes every generation. The buffer holds the allele indexes of each individual, i.e., a permutation
+ * of the slot indexes in the encoding of the problem's codec, together with its fitness.
+ * <p>
+ * Each step, which counts as a generation, creates offspring from parents chosen by tournament, applies the configured
+ * partially matched crossover and swap, reverse sequence or hybrid mutation directly on the allele indexes, repairs
+ * offspring that violate the problem's constraint as the generational engine does, and evaluates the offspring
+ * together with the worst individuals of the population in a single batch of the
+ * {@link BatchEvaluator}. The best individuals of the batch take the places of the worst individuals, so only the
+ * batch is wrapped in phenotypes. As fitness values of relative fitness methods, e.g., the population order, are only
+ * comparable within a batch, the worst individuals are evaluated again together with the offspring that compete for
+ * their places, and the whole population is evaluated again each time as many offspring have been created as the
+ * population has members.
+ * <p>
+ * The best individuals seen so far are kept in an elite heap. The elite is reported to the termination conditions and
+ * the statistics each step, and returned together with the final population. For relative fitness methods, the elite
+ * is evaluated again together with the whole population and rebuilt from this evaluation, as its fitness values are
+ * not comparable with those of other batches; offspring only enter the elite through these evaluations.
+ */
+public class SteadyStateEngine {
+    private static final Logger logger = LogManager.getLogger();
+
+    /**
+     * Number of individuals competing in the tournament that chooses a parent, as in the default tournament selector
+     */
+    private static final int TOURNAMENT_SIZE = 3;
+
+    private final BatchEvaluator evaluator;
+
+    private final int populationSize;
+    private final int replacements;
+    private final int eliteSize;
+    private final int deduplicateRetries;
+    private final boolean relativeFitness;
+
+    private final Mutator<EnumGene<Integer>, Integer> mutator;
+    private final Crossover<EnumGene<Integer>, Integer> crossover;
+    private final Constraint<EnumGene<Integer>, Integer> constraint;
+
+    /**
+     * Chromosome of the codec's encoding used to create chromosomes from allele indexes, and the gene of each allele
+     * index; genes are immutable and shared by all chromosomes.
+     */
+    private final Chromosome<EnumGene<Integer>> chromosomeTemplate;
+    private final ISeq<EnumGene<Integer>> genes;
+    private final int length;
+
+    /**
+     * Allele indexes and fitness of each individual of the population
+     */
+    private final int[][] population;
+    private final int[] fitness;
+
+    /**
+     * Allele indexes of the offspring of the current step, the population indexes of their parents, and the
+     * population indexes of the individuals they compete with
+     */
+    private final int[][] offspring;
+    private final int[] parents;
+    private final int[] candidates;
+    private final int[] spare;
+
+    /**
+     * Genotypes of the offspring of the current step, created when the offspring are checked against the constraint
+     */
+    private final List<Genotype<EnumGene<Integer>>> offspringGenotypes;
+
+    /**
+     * Slot positions of the alleles of two offspring during crossover
+     */
+    private final int[] positionsA;
+    private final int[] positionsB;
+
+    /**
+     * Elite phenotypes and their fitness; eliteHeap holds the indexes of the elite as a min-heap by fitness, so the
+     * worst elite is replaced first.
+     */
+    private final Phenotype<EnumGene<Integer>, Integer>[] elite;
+    private final int[] eliteFitness;
+    private final int[] eliteHeap;
+    private int eliteCount;
+    private ISeq<Phenotype<EnumGene<Integer>, Integer>> eliteSeq;
+
+    private long step;
+    private long noOffspring;
+    private long noAcceptedOffspring;
+    private long noEliteUpdates;
+    private long noDeduplicateRetries;
+    private long noRepeatedEvaluations;
+    private long noRepairedOffspring;
+
+    /**
+     * @param problem the slot allocation problem, which provides the codec and the constraint
+     * @param evaluator the evaluator of the batches
+     * @param populationSize the number of individuals in the population
+     * @param replacements the maximum number of individuals replaced per step
+     * @param eliteSize the number of best individuals kept in the elite
+     * @param mutator the mutator, determines type and probability of the mutation
+     * @param crossover the crossover, determines the probability of the crossover; may be null
+     * @param deduplicateRetries the number of times an offspring that duplicates another member of its batch is
+     *                           mutated again; zero to allow duplicates
+     * @param relativeFitness true if the fitness values of different batches are not comparable, in which case the
+     *                        whole population is evaluated again periodically and the elite is rebuilt from these
+     *                        evaluations
+     */
+    public SteadyStateEngine(SlotAllocationProblem problem, BatchEvaluator evaluator, int populationSize, int replacements,
+                             int eliteSize, Mutator<EnumGene<Integer>, Integer> mutator,
+                             Crossover<EnumGene<Integer>, Integer> crossover, int deduplicateRetries,
+                             boolean relativeFitness) {
+        this.evaluator = evaluator;
+        this.populationSize = Math.max(2, populationSize);
+        this.replacements = Math.max(1, Math.min(replacements, this.populationSize));
+        this.eliteSize = Math.max(1, eliteSize);
+        this.deduplicateRetries = Math.max(0, deduplicateRetries);
+        this.relativeFitness = relativeFitness;
+        this.mutator = mutator;
+        this.crossover = crossover;
+        this.constraint = problem.constraint().orElse(null);
+
+        this.chromosomeTemplate = problem.codec().encoding().newInstance().chromosome();
+        this.length = this.chromosomeTemplate.length();
+
+        ISeq<Integer> alleles = this.chromosomeTemplate.get(0).validAlleles();
+        List<EnumGene<Integer>> genes = new ArrayList<>(this.length);
+        for(int a = 0; a < this.length; a++) {
+            genes.add(EnumGene.of(a, alleles));
+        }
+        this.genes = ISeq.of(genes);
+
+        this.population = new int[this.populationSize][this.length];
+        this.fitness = new int[this.populationSize];
+
+        this.offspring = new int[this.replacements][];
+        this.parents = new int[this.replacements];
+        this.candidates = new int[this.replacements];
+        this.spare = new int[this.length];
+        this.offspringGenotypes = new ArrayList<>(this.replacements);
+
+        this.positionsA = new int[this.length];
+        this.positionsB = new int[this.length];
+
+        this.elite = newPhenotypeArray(this.eliteSize);
+        this.eliteFitness = new int[this.eliteSize];
+        this.eliteHeap = new int[this.eliteSize];
+    }
+
+    /**
+     * Evolves the population until a termination condition is met or the evolution is interrupted.
+     * @param initialPopulation the initial population; filled up with random genotypes if it is too small
+     * @param terminationConditions the evolution continues while all termination conditions hold
+     * @param interrupted stops the evolution once it returns true
+     * @param statistics receives the result of each step
+     * @return the result of the last step, with the elite and the population as population
+     */
+    public EvolutionResult<EnumGene<Integer>, Integer> evolve(ISeq<Genotype<EnumGene<Integer>>> initialPopulation,
+                                                             Predicate<? super EvolutionResult<EnumGene<Integer>, Integer>>[] terminationConditions,
+                                                             BooleanSupplier interrupted,
+                                                             EvolutionStatistics<Integer, ?> statistics) {
+        final Random random = RandomRegistry.random();
+
+        this.step = 0;
+        this.eliteCount = 0;
+        this.eliteSeq = ISeq.empty();
+
+        this.initialize(initialPopulation);
+
+        // number of steps after which the population has been replaced once
+        int refreshInterval = (this.populationSize + this.replacements - 1) / this.replacements + 1;
+
+        EvolutionResult<EnumGene<Integer>, Integer> result;
+        boolean proceed;
+
+        do {
+            long start = System.nanoTime();
+
+            boolean wholePopulation = this.step == 0 || (this.relativeFitness && this.step % refreshInterval == 0);
+
+            int altered = wholePopulation ? 0 : this.breed(random);
+            long evaluationNanos = this.evaluateStep(wholePopulation);
+
+            result = EvolutionResult.of(
+                    Optimize.MAXIMUM,
+                    this.eliteSeq,
+                    this.step,
+                    this.step,
+                    EvolutionDurations.of(Duration.ZERO, Duration.ZERO, Duration.ZERO, Duration.ZERO, Duration.ZERO,
+                            Duration.ofNanos(evaluationNanos), Duration.ofNanos(System.nanoTime() - start)),
+                    0,
+                    0,
+                    altered
+            );
+
+            statistics.accept(result);
+
+            proceed = !interrupted.getAsBoolean();
+            for(Predicate<? super EvolutionResult<EnumGene<Integer>, Integer>> terminationCondition : terminationConditions) {
+                proceed &= terminationCondition.test(result);
+            }
+        } while(proceed);
+
+        logger.info("Steady-state evolution finished after " + this.step + " steps.");
+
+        // the final population consists of the elite and the distinct members of the population
+        List<Phenotype<EnumGene<Integer>, Integer>> finalPopulation = new ArrayList<>(this.eliteSeq.asList());
+        Set<Genotype<EnumGene<Integer>>> genotypes = new HashSet<>();
+        for(Phenotype<EnumGene<Integer>, Integer> phenotype : finalPopulation) {
+            genotypes.add(phenotype.genotype());
+        }
+        for(int i = 0; i < this.populationSize; i++) {
+            Genotype<EnumGene<Integer>> genotype = this.toGenotype(this.population[i]);
+            if(genotypes.add(genotype)) {
+                finalPopulation.add(Phenotype.of(genotype, this.step, this.fitness[i]));
+            }
+        }
+
+        return EvolutionResult.of(
+                Optimize.MAXIMUM,
+                ISeq.of(finalPopulation),
+                result.generation(),
+                result.totalGenerations(),
+                result.durations(),
+                result.killCount(),
+                result.invalidCount(),
+                result.alterCount()
+        );
+    }
+
+    /**
+     * Copies the allele indexes of the initial population into the population buffer; the initial population is
+     * evaluated by the first step. Random genotypes that fill up the population are repaired if they violate the
+     * constraint.
+     * @param initialPopulation the initial population
+     */
+    private void initialize(ISeq<Genotype<EnumGene<Integer>>> initialPopulation) {
+        for(int i = 0; i < this.populationSize; i++) {
+            Chromosome<EnumGene<Integer>> chromosome;
+            if(i < initialPopulation.size()) {
+                chromosome = initialPopulation.get(i).chromosome();
+            } else {
+                Phenotype<EnumGene<Integer>, Integer> phenotype = Phenotype.of(Genotype.of(this.chromosomeTemplate.newInstance()), 0);
+                if(this.constraint != null && !this.constraint.test(phenotype)) {
+                    phenotype = this.constraint.repair(phenotype, 0);
+                }
+                chromosome = phenotype.genotype().chromosome();
+            }
+
+            for(int p = 0; p < this.length; p++) {
+                this.population[i][p] = chromosome.get(p).alleleIndex();
+            }
+        }
+    }
+
+    /**
+     * Creates the offspring of the current step and determines the individuals they compete with.
+     * @param random the random engine
+     * @return the number of altered offspring
+     */
+    private int breed(Random random) {
+        this.selectWorst();
+
+        int altered = 0;
+
+        for(int o = 0; o < this.replacements; o += 2) {
+            int a = this.tournament(random);
+            int b = this.tournament(random);
+
+            // an odd number of replacements leaves the second child of the last pair unused
+            int[] childA = this.offspringBuffer(o);
+            System.arraycopy(this.population[a], 0, childA, 0, this.length);
+            this.parents[o] = a;
+
+            int[] childB = o + 1 < this.replacements ? this.offspringBuffer(o + 1) : this.spare;
+            System.arraycopy(this.population[b], 0, childB, 0, this.length);
+            if(o + 1 < this.replacements) {
+                this.parents[o + 1] = b;
+            }
+
+            if(this.crossover != null && random.nextDouble() < this.crossover.probability()) {
+                this.crossover(childA, childB, random);
+                altered += 2;
+            }
+        }
+
+        for(int o = 0; o < this.replacements; o++) {
+            if(mutate(this.mutator, this.offspring[o], random)) {
+                altered++;
+            }
+
+            for(int retry = 0; retry < this.deduplicateRetries && this.isDuplicate(o); retry++) {
+                this.noDeduplicateRetries++;
+                swap(this.offspring[o], random.nextInt(this.length), random.nextInt(this.length));
+            }
+        }
+
+        this.offspringGenotypes.clear();
+        for(int o = 0; o < this.replacements; o++) {
+            this.offspringGenotypes.add(this.repair(o));
+        }
+
+        this.noOffspring += this.replacements;
+
+        return altered;
+    }
+
+    /**
+     * Repairs the offspring if it violates the constraint and copies the allele indexes of the repaired genotype back
+     * into the offspring buffer.
+     * @return the genotype of the offspring
+     */
+    private Genotype<EnumGene<Integer>> repair(int o) {
+        Genotype<EnumGene<Integer>> genotype = this.toGenotype(this.offspring[o]);
+
+        if(this.constraint == null) {
+            return genotype;
+        }
+
+        Phenotype<EnumGene<Integer>, Integer> phenotype = Phenotype.of(genotype, this.step + 1);
+        if(this.constraint.test(phenotype)) {
+            return genotype;
+        }
+
+        this.noRepairedOffspring++;
+        genotype = this.constraint.repair(phenotype, this.step + 1).genotype();
+
+        Chromosome<EnumGene<Integer>> chromosome = genotype.chromosome();
+        for(int p = 0; p < this.length; p++) {
+            this.offspring[o][p] = chromosome.get(p).alleleIndex();
+        }
+
+        return genotype;
+    }
+
+    private int[] offspringBuffer(int o) {
+        if(this.offspring[o] == null) {
+            this.offspring[o] = new int[this.length];
+        }
+        return this.offspring[o];
+    }
+
+    /**
+     * Determines the population indexes of the worst individuals, which are the candidates for replacement. The
+     * candidates are kept as a max-heap by fitness while scanning the population, so the best candidate is replaced
+     * by a worse individual.
+     */
+    private void selectWorst() {
+        int count = 0;
+
+        for(int i = 0; i < this.populationSize; i++) {
+            if(count < this.replacements) {
+                this.candidates[count] = i;
+                this.siftUp(this.candidates, count++, this.fitness, false);
+            } else if(this.fitness[i] < this.fitness[this.candidates[0]]) {
+                this.candidates[0] = i;
+                this.siftDown(this.candidates, 0, count, this.fitness, false);
+            }
+        }
+    }
+
+    private int tournament(Random random) {
+        int winner = random.nextInt(this.populationSize);
+
+        for(int t = 1; t < TOURNAMENT_SIZE; t++) {
+            int challenger = random.nextInt(this.populationSize);
+            if(this.fitness[challenger] > this.fitness[winner]) {
+                winner = challenger;
+            }
+        }
+
+        return winner;
+    }
+
+    /**
+     * Partially matched crossover: the offspring exchange the alleles between two random points; the alleles outside
+     * this range are swapped with their duplicates, so both offspring remain permutations.
+     */
+    private void crossover(int[] a, int[] b, Random random) {
+        for(int p = 0; p < this.length; p++) {
+            this.positionsA[a[p]] = p;
+            this.positionsB[b[p]] = p;
+        }
+
+        int from = random.nextInt(this.length);
+        int to = random.nextInt(this.length);
+        if(from > to) {
+            int swap = from;
+            from = to;
+            to = swap;
+        }
+
+        for(int p = from; p < to; p++) {
+            int alleleA = a[p];
+            int alleleB = b[p];
+
+            // move alleleB to position p in a by swapping it with alleleA, and vice versa in b
+            int q = this.positionsA[alleleB];
+            a[q] = alleleA;
+            a[p] = alleleB;
+            this.positionsA[alleleA] = q;
+            this.positionsA[alleleB] = p;
+
+            q = this.positionsB[alleleA];
+            b[q] = alleleB;
+            b[p] = alleleA;
+            this.positionsB[alleleB] = q;
+            this.positionsB[alleleA] = p;
+        }
+    }
+
+    /**
+     * Mutates an offspring as the mutator mutates a genotype with a single chromosome. The mutator selects the
+     * individual, its chromosome and, for the swap and hybrid mutation, each gene with the cube root of its probability,
+     * so that a gene is swapped with the mutator's probability and a sequence is reversed with the probability to the
+     * power of 2/3.
+     * @param mutator the mutator, determines type and probability of the mutation
+     * @param child the allele indexes of the offspring
+     * @param random the random engine
+     * @return true if the offspring was mutated
+     */
+    static boolean mutate(Mutator<?, ?> mutator, int[] child, Random random) {
+        int length = child.length;
+        double p = Math.cbrt(mutator.probability());
+
+        if(length <= 1 || random.nextDouble() >= p || random.nextDouble() >= p) {
+            return false;
+        }
+
+        if(mutator instanceof SwapMutator) {
+            boolean mutated = false;
+            for(int i = 0; i < length; i++) {
+                if(random.nextDouble() < p) {
+                    swap(child, i, random.nextInt(length));
+                    mutated = true;
+                }
+            }
+            return mutated;
+        } else if(mutator instanceof RSMutator) {
+            // two distinct bounds, the sequence from the lower bound up to the upper bound (exclusive) is reversed
+            int from = random.nextInt(length + 1);
+            int to = random.nextInt(length);
+            if(to >= from) {
+                to++;
+            } else {
+                int swap = from;
+                from = to;
+                to = swap;
+            }
+
+            reverse(child, from, to - 1);
+        } else if(mutator instanceof HPRMutator) {
+            // two distinct indexes, each element moved by the reversal is also swapped with a random element
+            int from = random.nextInt(length);
+            int to = random.nextInt(length - 1);
+            if(to >= from) {
+                to++;
+            } else {
+                int swap = from;
+                from = to;
+                to = swap;
+            }
+
+            for(int i = from, j = to; i < j; i++, j--) {
+                swap(child, i, j);
+                if(random.nextDouble() < p) {
+                    swap(child, i, random.nextInt(length));
+                }
+            }
+        } else {
+            throw new IllegalStateException("Unexpected value: " + mutator);
+        }
+
+        return true;
+    }
+
+    private static void swap(int[] child, int i, int j) {
+        int allele = child[i];
+        child[i] = child[j];
+        child[j] = allele;
+    }
+
+    private static void reverse(int[] child, int from, int to) {
+        for(int i = from, j = to; i < j; i++, j--) {
+            swap(child, i, j);
+        }
+    }
+
+    /**
+     * @return true if the offspring equals one of its parents, one of the candidates, or an earlier offspring
+     */
+    private boolean isDuplicate(int o) {
+        int[] child = this.offspring[o];
+
+        for(int i = 0; i < o; i++) {
+            if(Arrays.equals(child, this.offspring[i])) return true;
+        }
+
+        int mate = o % 2 == 0 ? o + 1 : o - 1;
+        if(Arrays.equals(child, this.population[this.parents[o]])
+                || (mate < this.replacements && Arrays.equals(child, this.population[this.parents[mate]]))) {
+            return true;
+        }
+
+        for(int candidate : this.candidates) {
+            if(Arrays.equals(child, this.population[candidate])) return true;
+        }
+
+        return false;
+    }
+
+    /**
+     * Evaluates the batch of the current step: either the whole population, or the offspring together with the
+     * candidates for replacement, of which the best are kept.
+     * @param wholePopulation true to evaluate the whole population
+     * @return the duration of the evaluation in nanoseconds
+     */
+    private long evaluateStep(boolean wholePopulation) {
+        this.step++;
+
+        int offspringCount = wholePopulation ? 0 : this.replacements;
+        int candidateCount = wholePopulation ? this.populationSize : this.replacements;
+
+        List<Phenotype<EnumGene<Integer>, Integer>> batch = new ArrayList<>(offspringCount + candidateCount + this.eliteCount);
+        Map<Genotype<EnumGene<Integer>>, Integer> batchIndexes = new IdentityHashMap<>(2 * (offspringCount + candidateCount + this.eliteCount));
+
+        for(int o = 0; o < offspringCount; o++) {
+            Genotype<EnumGene<Integer>> genotype = this.offspringGenotypes.get(o);
+            batchIndexes.put(genotype, batch.size());
+            batch.add(Phenotype.of(genotype, this.step));
+        }
+        for(int c = 0; c < candidateCount; c++) {
+            int index = wholePopulation ? c : this.candidates[c];
+            Genotype<EnumGene<Integer>> genotype = this.toGenotype(this.population[index]);
+            batchIndexes.put(genotype, batch.size());
+            batch.add(Phenotype.of(genotype, this.step));
+        }
+
+        if(wholePopulation && this.relativeFitness) {
+            // the elite is rebuilt from the batch, so elite individuals that left the population are evaluated again
+            Set<Genotype<EnumGene<Integer>>> genotypes = new HashSet<>(batchIndexes.keySet());
+            for(int e = 0; e < this.eliteCount; e++) {
+                Genotype<EnumGene<Integer>> genotype = this.elite[e].genotype();
+                if(genotypes.add(genotype)) {
+                    batchIndexes.put(genotype, batch.size());
+                    batch.add(Phenotype.of(genotype, this.step));
+                }
+            }
+
+            this.eliteCount = 0;
+        }
+
+        long start = System.nanoTime();
+
+        ISeq<Phenotype<EnumGene<Integer>, Integer>> population = ISeq.of(batch);
+        long unevaluated = this.evaluator.getNoGenerationsUnevaluated();
+        ISeq<Phenotype<EnumGene<Integer>, Integer>> evaluated = this.evaluator.eval(population);
+
+        if(this.evaluator.getNoGenerationsUnevaluated() > unevaluated) {
+            // a deduplicating evaluator returns a batch with duplicates unevaluated when it first encounters it
+            this.noRepeatedEvaluations++;
+            evaluated = this.evaluator.eval(population);
+        }
+
+        long evaluationNanos = System.nanoTime() - start;
+
+        Phenotype<EnumGene<Integer>, Integer>[] phenotypes = newPhenotypeArray(batch.size());
+        for(Phenotype<EnumGene<Integer>, Integer> phenotype : evaluated) {
+            phenotypes[batchIndexes.get(phenotype.genotype())] = phenotype;
+        }
+
+        if(wholePopulation) {
+            for(int i = 0; i < this.populationSize; i++) {
+                this.fitness[i] = phenotypes[i].fitness();
+            }
+            for(Phenotype<EnumGene<Integer>, Integer> phenotype : phenotypes) {
+                this.offerElite(phenotype);
+            }
+        } else {
+            this.replace(phenotypes);
+        }
+
+        return evaluationNanos;
+    }
+
+    /**
+     * Keeps the best individuals of the evaluated batch in the places of the candidates. Offspring win ties against
+     * candidates.
+     * @param phenotypes the evaluated offspring followed by the evaluated candidates
+     */
+    private void replace(Phenotype<EnumGene<Integer>, Integer>[] phenotypes) {
+        // sort keys: complemented fitness in the upper half (ascending order is descending fitness), index in the lower half
+        long[] keys = new long[phenotypes.length];
+        for(int i = 0; i < keys.length; i++) {
+            keys[i] = ((long) ~phenotypes[i].fitness() << 32) | i;
+        }
+        Arrays.sort(keys);
+
+        boolean[] kept = new boolean[this.replacements];
+        int[] accepted = new int[this.replacements];
+        int acceptedCount = 0;
+
+        for(int k = 0; k < this.replacements; k++) {
+            int index = (int) keys[k];
+
+            if(index < this.replacements) {
+                accepted[acceptedCount++] = index;
+            } else {
+                int c = index - this.replacements;
+                kept[c] = true;
+                this.fitness[this.candidates[c]] = phenotypes[index].fitness();
+            }
+        }
+
+        // accepted offspring take the places of the candidates that were not kept
+        for(int c = 0, a = 0; c < this.replacements && a < acceptedCount; c++) {
+            if(!kept[c]) {
+                int o = accepted[a++];
+                int place = this.candidates[c];
+
+                System.arraycopy(this.offspring[o], 0, this.population[place], 0, this.length);
+                this.fitness[place] = phenotypes[o].fitness();
+
+                if(!this.relativeFitness) {
+                    this.offerElite(phenotypes[o]);
+                }
+            }
+        }
+
+        this.noAcceptedOffspring += acceptedCount;
+    }
+
+    /**
+     * Adds the phenotype to the elite if the elite is not full or the phenotype is better than the worst elite, unless
+     * the elite already contains its genotype.
+     */
+    private void offerElite(Phenotype<EnumGene<Integer>, Integer> phenotype) {
+        int phenotypeFitness = phenotype.fitness();
+
+        if(this.eliteCount == this.eliteSize && phenotypeFitness <= this.eliteFitness[this.eliteHeap[0]]) {
+            return;
+        }
+
+        for(int e = 0; e < this.eliteCount; e++) {
+            if(this.elite[e].genotype().equals(phenotype.genotype())) {
+                return;
+            }
+        }
+
+        if(this.eliteCount < this.eliteSize) {
+            int e = this.eliteCount;
+            this.elite[e] = phenotype;
+            this.eliteFitness[e] = phenotypeFitness;
+            this.eliteHeap[e] = e;
+            this.siftUp(this.eliteHeap, this.eliteCount++, this.eliteFitness, true);
+        } else {
+            int e = this.eliteHeap[0];
+            this.elite[e] = phenotype;
+            this.eliteFitness[e] = phenotypeFitness;
+            this.siftDown(this.eliteHeap, 0, this.eliteCount, this.eliteFitness, true);
+        }
+
+        this.eliteSeq = ISeq.of(Arrays.copyOf(this.elite, this.eliteCount));
+        this.noEliteUpdates++;
+    }
+
+    /**
+     * Restores the heap property after the element at the given position of the heap was added.
+     * @param heap indexes ordered as a heap by their values
+     * @param position the position of the added element
+     * @param values the values of the indexes
+     * @param min true for a min-heap, false for a max-heap
+     */
+    private void siftUp(int[] heap, int position, int[] values, boolean min) {
+        int index = heap[position];
+
+        while(position > 0) {
+            int parent = (position - 1) / 2;
+            if(!this.precedes(values[index], values[heap[parent]], min)) break;
+
+            heap[position] = heap[parent];
+            position = parent;
+        }
+
+        heap[position] = index;
+    }
+
+    /**
+     * Restores the heap property after the element at the given position of the heap was replaced.
+     * @param heap indexes ordered as a heap by their values
+     * @param position the position of the replaced element
+     * @param size the number of elements of the heap
+     * @param values the values of the indexes
+     * @param min true for a min-heap, false for a max-heap
+     */
+    private void siftDown(int[] heap, int position, int size, int[] values, boolean min) {
+        int index = heap[position];
+
+        while(2 * position + 1 < size) {
+            int child = 2 * position + 1;
+            if(child + 1 < size && this.precedes(values[heap[child + 1]], values[heap[child]], min)) {
+                child++;
+            }
+            if(!this.precedes(values[heap[child]], values[index], min)) break;
+
+            heap[position] = heap[child];
+            position = child;
+        }
+
+        heap[position] = index;
+    }
+
+    private boolean precedes(int value, int other, boolean min) {
+        return min ? value < other : value > other;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Phenotype<EnumGene<Integer>, Integer>[] newPhenotypeArray(int length) {
+        return (Phenotype<EnumGene<Integer>, Integer>[]) new Phenotype<?, ?>[length];
+    }
+
+    private Genotype<EnumGene<Integer>> toGenotype(int[] alleleIndexes) {
+        MSeq<EnumGene<Integer>> chromosomeGenes = MSeq.ofLength(this.length);
+        for(int p = 0; p < this.length; p++) {
+            chromosomeGenes.set(p, this.genes.get(alleleIndexes[p]));
+        }
+
+        return Genotype.of(this.chromosomeTemplate.newInstance(chromosomeGenes.toISeq()));
+    }
+
+    public void printLogs() {
+        logger.info("Steady-state evolution: population size " + populationSize + " | replacements per step: " + replacements + " | elite size: " + eliteSize);
+        logger.info("Number of steps: " + step);
+        logger.info("Number of offspring: " + noOffspring);
+        logger.info("Number of offspring that replaced an individual: " + noAcceptedOffspring);
+        logger.info("Number of elite updates: " + noEliteUpdates);
+        logger.info("Number of offspring mutated again as duplicates: " + noDeduplicateRetries);
+        logger.info("Number of offspring repaired because of the constraint: " + noRepairedOffspring);
+        logger.info("Number of batches evaluated again because of duplicates: " + noRepeatedEvaluations);
+    }
+}
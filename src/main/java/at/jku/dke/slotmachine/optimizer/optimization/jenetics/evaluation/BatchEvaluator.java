@@ -1,13 +1,18 @@
 package at.jku.dke.slotmachine.optimizer.optimization.jenetics.evaluation;
 
-import at.jku.dke.slotmachine.optimizer.domain.Flight;
-import at.jku.dke.slotmachine.optimizer.domain.Slot;
 import at.jku.dke.slotmachine.optimizer.optimization.FitnessEvolutionStep;
+import at.jku.dke.slotmachine.optimizer.optimization.FitnessEvolutionTrace;
 import at.jku.dke.slotmachine.optimizer.optimization.FitnessMethod;
+import at.jku.dke.slotmachine.optimizer.optimization.GenerationProgress;
+import at.jku.dke.slotmachine.optimizer.optimization.OptimizationMetrics;
 import at.jku.dke.slotmachine.optimizer.optimization.OptimizationMode;
+import at.jku.dke.slotmachine.optimizer.optimization.WeightMatrix;
+import at.jku.dke.slotmachine.optimizer.optimization.jenetics.DeltaEvaluation;
+import at.jku.dke.slotmachine.optimizer.optimization.jenetics.FitnessCache;
 import at.jku.dke.slotmachine.optimizer.optimization.jenetics.JeneticsOptimization;
 import at.jku.dke.slotmachine.optimizer.optimization.jenetics.SlotAllocationProblem;
 import at.jku.dke.slotmachine.privacyEngine.dto.PopulationOrderDTO;
+import io.jenetics.Chromosome;
 import io.jenetics.EnumGene;
 import io.jenetics.Genotype;
 import io.jenetics.Phenotype;
@@ -18,8 +23,13 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import java.util.*;
-import java.util.Map.Entry;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.function.IntConsumer;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
@@ -46,9 +56,13 @@ public abstract class BatchEvaluator implements Evaluator<EnumGene<Integer>, Int
      * If true, the actual fitness values are used. Otherwise, the fitness is obfuscated for the GA.
      */
     protected final boolean useActualFitnessValues;
+    /**
+     * If true, the population is scored locally while the Privacy Engine evaluates it.
+     */
+    protected final boolean isPipelined;
 
     /**
-     * Used in NON_PRIVACY_PRESERVING mode when useActualFitnessValues is false, to verify if fitness has been improved in a given generation.
+     * Used unless in PRIVACY_PRESERVING mode when useActualFitnessValues is false, to verify if fitness has been improved in a given generation.
      */
     protected long actualMaxFitness;
     /**
@@ -74,6 +88,52 @@ public abstract class BatchEvaluator implements Evaluator<EnumGene<Integer>, Int
     protected long noInvalidPhenotypes;
     protected long noInvalidAssignments;
 
+    /**
+     * Number of duplicate genotypes that have not been sent to the Privacy Engine
+     */
+    protected long noDuplicatesNotSent;
+    private long noDuplicatesNotSentRecorded;
+
+    /**
+     * Pool used to evaluate populations in parallel; null if populations are evaluated sequentially.
+     */
+    protected final ForkJoinPool evaluationPool;
+
+    /**
+     * Per-generation scores of the population currently being evaluated, indexed like the population. Each score
+     * packs fitness and number of invalid assignments, see {@link SlotAllocationProblem#evaluate(Genotype)}.
+     */
+    private long[] populationScores;
+
+    /**
+     * Index of each genotype of the population currently being evaluated; genotypes are identified by reference.
+     */
+    private final Map<Genotype<EnumGene<Integer>>, Integer> genotypeIndexes = new IdentityHashMap<>();
+
+    /**
+     * Fitness cache of the optimization run; null if fitness values are not cached.
+     */
+    protected final FitnessCache fitnessCache;
+
+    /**
+     * Hashes of the genotypes of the population currently being evaluated, indexed like the population; only
+     * computed if fitness values are cached.
+     */
+    private long[] populationHashes;
+
+    /**
+     * Scoring of the population currently being evaluated that runs concurrently to the Privacy Engine's evaluation;
+     * null if the scores are available.
+     */
+    private CompletableFuture<Void> pendingScores;
+
+    /**
+     * Rows reused by {@link #convertPopulationToArray(Seq)}, and the flight assigned to each slot position of the
+     * individual being converted (-1 if none)
+     */
+    private int[][] populationArray;
+    private int[] flightAtPosition;
+
     /**
      *
      * @param problem the slot allocation problem
@@ -93,6 +153,8 @@ public abstract class BatchEvaluator implements Evaluator<EnumGene<Integer>, Int
         this.noPhenotypes = 0;
         this.noInvalidAssignments = 0;
         this.noInvalidPhenotypes = 0;
+        this.noDuplicatesNotSent = 0;
+        this.fitnessCache = optimization.getFitnessCache();
 
         // Configuration
 
@@ -100,6 +162,18 @@ public abstract class BatchEvaluator implements Evaluator<EnumGene<Integer>, Int
         this.useActualFitnessValues = Boolean.parseBoolean(System.getenv("USE_ACTUAL_FITNESS"))
                 || this.optimization.getFitnessMethod() == FitnessMethod.ACTUAL_VALUES;
         logger.info("Using actual fitness values: {}.", useActualFitnessValues);
+
+        this.isPipelined = optimization.getConfiguration().isPipelinedEvaluation()
+                && optimization.getMode() == OptimizationMode.PRIVACY_PRESERVING;
+        logger.info("Pipelined evaluation: {}.", isPipelined);
+
+        int evaluationParallelism = optimization.getConfiguration().getEvaluationParallelism();
+        if(evaluationParallelism > 1) {
+            logger.info("Evaluating populations in parallel using {} threads.", evaluationParallelism);
+            this.evaluationPool = new ForkJoinPool(evaluationParallelism);
+        } else {
+            this.evaluationPool = null;
+        }
     }
 
     /**
@@ -111,7 +185,7 @@ public abstract class BatchEvaluator implements Evaluator<EnumGene<Integer>, Int
     public ISeq<Phenotype<EnumGene<Integer>, Integer>> eval(Seq<Phenotype<EnumGene<Integer>, Integer>> population) {
         logger.debug("Starting population evaluation ...");
         this.noGenerations++;
-        Optional<Long> generation = population.stream().map(Phenotype::generation).max(Long::compareTo);
+        Optional<Long> generation = this.getGeneration(population);
         if(isDeduplicate){
             if(generation.get() != latestUnevaluatedGeneration || trackDuplicates){
                 logger.debug("Checking for duplicates.");
@@ -127,6 +201,7 @@ public abstract class BatchEvaluator implements Evaluator<EnumGene<Integer>, Int
                     logger.debug("Returning unevaluated population with dummy fitness-values.");
                     this.noGenerationsUnevaluated++;
                     this.noInitialDuplicates = noInitialDuplicates + population.size() - elements.size();
+                    this.optimization.getMetrics().recordRejectedGeneration(population.size() - elements.size());
 
                     latestUnevaluatedGeneration = generation.get();
                     return ISeq.of(population
@@ -135,11 +210,13 @@ public abstract class BatchEvaluator implements Evaluator<EnumGene<Integer>, Int
                             .collect(Collectors.toList()));
                 }
                 this.noRemainingDuplicates = noRemainingDuplicates + population.size() - elements.size();
+                this.optimization.getMetrics().recordRemainingDuplicates(population.size() - elements.size());
                 if(elements.size() < population.size()) this.noGenerationsDuplicatesNotEliminated++;
             }
         }
         noGenerationsEvaluated++;
 
+        final long evaluationStart = System.nanoTime();
 
         final List<Phenotype<EnumGene<Integer>, Integer>> evaluatedPopulation;
         Map<Phenotype<EnumGene<Integer>, Integer>, Integer> fitnessQuantilesPopulation = null;
@@ -150,14 +227,17 @@ public abstract class BatchEvaluator implements Evaluator<EnumGene<Integer>, Int
 
         FitnessEvolutionStep fitnessEvolutionStep = null;
 
-        logger.debug("Number of distinct solutions in population: " + population.stream().distinct().count());
+        if(logger.isDebugEnabled()) {
+            logger.debug("Number of distinct solutions in population: " + population.stream().distinct().count());
+        }
 
-        if(this.optimization.isTraceFitnessEvolution()) {
-            fitnessEvolutionStep = new FitnessEvolutionStep();
+        this.scorePopulation(population);
 
-            logger.debug("Adding fitness evolution to statistics");
-            this.optimization.getStatistics().getFitnessEvolution().add(fitnessEvolutionStep);
+        final FitnessEvolutionTrace fitnessEvolution = this.optimization.isTraceFitnessEvolution() ?
+                this.optimization.getStatistics().getFitnessEvolution() : null;
 
+        if(fitnessEvolution != null && fitnessEvolution.isTraced(generation.orElse(0L))) {
+            fitnessEvolutionStep = new FitnessEvolutionStep();
 
             if(generation.isPresent()) {
                 fitnessEvolutionStep.setGeneration(generation.get().intValue());
@@ -180,43 +260,48 @@ public abstract class BatchEvaluator implements Evaluator<EnumGene<Integer>, Int
         estimatedPopulation = estimatePopulation(population, evaluatedPopulation, fitnessEvolutionStep, fitnessQuantilesPopulation, maxFitness, minFitness, evaluation.bestGenotype);
 
         if(fitnessEvolutionStep != null) {
-            fitnessEvolutionStep.setEstimatedPopulation(
-                    estimatedPopulation.stream()
-                            .map(phenotype -> (double) phenotype.fitness())
-                            .toArray(Double[]::new)
-            );
+            fitnessEvolutionStep.setEstimatedPopulation(getFitnessValues(estimatedPopulation));
             logger.debug("Size of estimated population: " + fitnessEvolutionStep.getEstimatedPopulation().length);
+
+            logger.debug("Adding fitness evolution to statistics");
+            // the evaluators of several islands may trace the fitness evolution of the same optimization; the trace is thread-safe
+            fitnessEvolution.append(fitnessEvolutionStep);
         }
 
         logger.debug("Devaluing invalid solutions.");
-        estimatedPopulation = estimatedPopulation.stream().map(p -> {
-            Map<Flight, Slot> phenotypeMap = this.problem.decode(p.genotype()); // decode phenotype
+        this.awaitScores();
+        final List<Phenotype<EnumGene<Integer>, Integer>> estimated = estimatedPopulation;
+        estimatedPopulation = new ArrayList<>(estimated.size());
+        int invalidCount = 0;
+        long invalidAssignmentCount = 0;
+        for(Phenotype<EnumGene<Integer>, Integer> phenotype : estimated) {
             this.noPhenotypes++;
-            long invalidAssignments = // determine how many invalid assignments the phenotype has
-                    phenotypeMap.entrySet().stream().filter(e ->
-                            e.getKey().getScheduledTime() != null &&
-                                    e.getKey().getScheduledTime().isAfter(e.getValue().getTime())).count();
 
-            Phenotype<EnumGene<Integer>, Integer> phenotype = p;
+            // the number of invalid assignments was determined when scoring the population
+            int invalidAssignments = this.getInvalidAssignments(phenotype.genotype());
 
             // if there are violations of the constraint, devalue the individual accordingly
             if(invalidAssignments > 0) {
+                invalidCount++;
                 this.noInvalidPhenotypes++;
                 this.noInvalidAssignments += invalidAssignments;
-                phenotype = p.withFitness((int) invalidAssignments * DEVALUATOR);
+                invalidAssignmentCount += invalidAssignments;
+                phenotype = phenotype.withFitness(invalidAssignments * DEVALUATOR);
             }
 
-            return phenotype;
-        }).collect(Collectors.toList());
+            estimatedPopulation.add(phenotype);
+        }
 
-        if(maxFitness >= this.optimization.getMaximumFitness() && estimatedPopulation != null) {
-            logger.debug("Best fitness of current generation better than current best fitness. Attaching intermediate result to the optimization run.");
-            this.optimization.setResults(
-                    estimatedPopulation.stream().distinct().map(phenotype -> this.problem.decode(phenotype.genotype())).toList()
-            );
+        synchronized (this.optimization) {
+            if(maxFitness >= this.optimization.getMaximumFitness() && estimatedPopulation != null) {
+                logger.debug("Best fitness of current generation better than current best fitness. Attaching intermediate result to the optimization run.");
+                this.optimization.setResults(
+                        estimatedPopulation.stream().distinct().map(phenotype -> this.problem.decode(phenotype.genotype())).toList()
+                );
 
-            // set the optimization's maximum fitness to this generation's maximum fitness
-            this.optimization.setMaximumFitness(maxFitness);
+                // set the optimization's maximum fitness to this generation's maximum fitness
+                this.optimization.setMaximumFitness(maxFitness);
+            }
         }
 
         logger.debug("Finished evaluation");
@@ -225,9 +310,274 @@ public abstract class BatchEvaluator implements Evaluator<EnumGene<Integer>, Int
         this.optimization.getStatistics().setFitnessFunctionInvocations(problem.getFitnessFunctionApplications());
         this.optimization.getStatistics().setResultFitness(this.optimization.getMaximumFitness());
 
+        OptimizationMetrics metrics = this.optimization.getMetrics();
+        metrics.recordGeneration(System.nanoTime() - evaluationStart, estimatedPopulation.size(), invalidCount, invalidAssignmentCount);
+        metrics.recordFitnessEvaluations(problem.getFitnessFunctionApplications());
+        metrics.recordUnsentDuplicates(this.noDuplicatesNotSent - this.noDuplicatesNotSentRecorded);
+        this.noDuplicatesNotSentRecorded = this.noDuplicatesNotSent;
+
+        this.genotypeIndexes.clear();
+
+        Consumer<GenerationProgress> progressListener = this.optimization.getProgressListener();
+        if(progressListener != null && !estimatedPopulation.isEmpty()) {
+            progressListener.accept(
+                    getGenerationProgress(generation.orElse(0L), estimatedPopulation, invalidCount, System.nanoTime() - evaluationStart)
+            );
+        }
+
         return ISeq.of(estimatedPopulation);
     }
 
+    /**
+     * @param generation the generation number
+     * @param population the evaluated population
+     * @param invalidCount the number of invalid solutions in the population
+     * @param evaluationNanos the time it took to evaluate the population
+     * @return the summary of the generation
+     */
+    private static GenerationProgress getGenerationProgress(long generation, List<Phenotype<EnumGene<Integer>, Integer>> population,
+                                                            int invalidCount, long evaluationNanos) {
+        int best = Integer.MIN_VALUE;
+        int worst = Integer.MAX_VALUE;
+        double sum = 0;
+        for(Phenotype<EnumGene<Integer>, Integer> phenotype : population) {
+            int fitness = phenotype.fitness();
+            best = Math.max(best, fitness);
+            worst = Math.min(worst, fitness);
+            sum += fitness;
+        }
+
+        GenerationProgress progress = new GenerationProgress();
+        progress.setGeneration(generation);
+        progress.setBestFitness(best);
+        progress.setMeanFitness(sum / population.size());
+        progress.setWorstFitness(worst);
+        progress.setInvalidCount(invalidCount);
+        progress.setEvaluationMillis(TimeUnit.NANOSECONDS.toMillis(evaluationNanos));
+        return progress;
+    }
+
+    /**
+     * Returns the generation of the population, i.e., the highest generation of its phenotypes.
+     * @param population the population
+     * @return the generation, or empty if the population is empty
+     */
+    private Optional<Long> getGeneration(Seq<Phenotype<EnumGene<Integer>, Integer>> population) {
+        if(population.isEmpty()) {
+            return Optional.empty();
+        }
+
+        long generation = Long.MIN_VALUE;
+        for(Phenotype<EnumGene<Integer>, Integer> phenotype : population) {
+            generation = Math.max(generation, phenotype.generation());
+        }
+        return Optional.of(generation);
+    }
+
+    /**
+     * Scores each genotype of the population in a single pass. Unless in privacy-preserving mode, fitness and number of
+     * invalid assignments are computed together; in privacy-preserving mode, the weights are not available and only
+     * the number of invalid assignments is computed. The scores are kept until the population has been evaluated.
+     * @param population the unevaluated population
+     */
+    private void scorePopulation(Seq<Phenotype<EnumGene<Integer>, Integer>> population) {
+        final int size = population.size();
+
+        // the scoring of the previous population is still pending if its evaluation failed
+        this.awaitScores();
+
+        if(this.populationScores == null || this.populationScores.length < size) {
+            this.populationScores = new long[size];
+        }
+
+        final long[] scores = this.populationScores;
+
+        if(this.fitnessCache != null) {
+            if(this.populationHashes == null || this.populationHashes.length < size) {
+                this.populationHashes = new long[size];
+            }
+
+            final long[] hashes = this.populationHashes;
+            this.forEachIndex(size, i -> hashes[i] = this.fitnessCache.hash(population.get(i).genotype()));
+        }
+
+        final DeltaEvaluation deltaEvaluation = this.optimization.getDeltaEvaluation();
+
+        if(deltaEvaluation != null) {
+            // candidates created by a delta-aware mutator already have a score
+            this.forEachIndex(size, i -> {
+                Long score = deltaEvaluation.getScore(population.get(i).genotype());
+                scores[i] = score != null ? score : this.evaluate(population, i);
+            });
+        } else if(this.optimization.getMode() != OptimizationMode.PRIVACY_PRESERVING) {
+            this.forEachIndex(size, i -> scores[i] = this.evaluate(population, i));
+        } else if(this.isPipelined) {
+            // the invalid assignments are only required once the Privacy Engine has evaluated the population
+            this.pendingScores = CompletableFuture.runAsync(() ->
+                    this.forEachIndex(size, i -> scores[i] = this.problem.getInvalidAssignments(population.get(i).genotype()) & 0xFFFFFFFFL));
+        } else {
+            this.forEachIndex(size, i -> scores[i] = this.problem.getInvalidAssignments(population.get(i).genotype()) & 0xFFFFFFFFL);
+        }
+
+        this.genotypeIndexes.clear();
+        for(int i = 0; i < size; i++) {
+            this.genotypeIndexes.put(population.get(i).genotype(), i);
+        }
+
+        if(deltaEvaluation != null) {
+            deltaEvaluation.setScores(population, scores);
+        }
+    }
+
+    /**
+     * Waits until the population currently being evaluated has been scored.
+     */
+    private void awaitScores() {
+        if(this.pendingScores != null) {
+            this.pendingScores.join();
+            this.pendingScores = null;
+        }
+    }
+
+    /**
+     * Computes the score of a genotype of the population currently being evaluated, unless it is cached.
+     * @param population the unevaluated population
+     * @param index the index of the genotype in the population
+     * @return the score of the genotype
+     */
+    private long evaluate(Seq<Phenotype<EnumGene<Integer>, Integer>> population, int index) {
+        if(this.fitnessCache == null) {
+            return this.problem.evaluate(population.get(index).genotype());
+        }
+
+        Long score = this.fitnessCache.get(this.populationHashes[index]);
+
+        if(score == null) {
+            score = this.problem.evaluate(population.get(index).genotype());
+            this.fitnessCache.put(this.populationHashes[index], score);
+        }
+
+        return score;
+    }
+
+    /**
+     * Returns the hash of a genotype of the population currently being evaluated. Requires the fitness cache.
+     * @param index the index of the genotype in the population
+     * @return the hash of the genotype
+     */
+    protected long getHash(int index) {
+        return this.populationHashes[index];
+    }
+
+    /**
+     * Determines the distinct genotypes of the population currently being evaluated, identified by their hash.
+     * Requires the fitness cache.
+     * @param size the size of the population
+     * @param positions receives, for each index of the population, the position of its genotype among the distinct
+     *                  genotypes
+     * @return the index of the first occurrence of each distinct genotype
+     */
+    protected int[] getDistinctIndexes(int size, int[] positions) {
+        Map<Long, Integer> distinctPositions = new HashMap<>();
+        int[] distinctIndexes = new int[size];
+        int count = 0;
+
+        for(int i = 0; i < size; i++) {
+            Integer position = distinctPositions.putIfAbsent(this.populationHashes[i], count);
+
+            if(position == null) {
+                distinctIndexes[count] = i;
+                positions[i] = count++;
+            } else {
+                positions[i] = position;
+            }
+        }
+
+        this.noDuplicatesNotSent += size - count;
+
+        return Arrays.copyOf(distinctIndexes, count);
+    }
+
+    /**
+     * Replaces each position of a distinct genotype by the indexes of all its occurrences in the population.
+     * @param distinctPositions positions of distinct genotypes, e.g., in the order returned by the Privacy Engine
+     * @param positions the position of the genotype at each index of the population, see {@link #getDistinctIndexes(int, int[])}
+     * @param distinctCount the number of distinct genotypes
+     * @return the indexes of the population, in the order of the given positions
+     */
+    protected int[] expandDistinctPositions(int[] distinctPositions, int[] positions, int distinctCount) {
+        // occurrences of each distinct genotype are stored consecutively, starting at firstOccurrence[position]
+        int[] firstOccurrence = new int[distinctCount + 1];
+        for(int position : positions) {
+            firstOccurrence[position + 1]++;
+        }
+        for(int d = 0; d < distinctCount; d++) {
+            firstOccurrence[d + 1] += firstOccurrence[d];
+        }
+
+        int[] occurrences = new int[positions.length];
+        int[] next = Arrays.copyOf(firstOccurrence, distinctCount);
+        for(int i = 0; i < positions.length; i++) {
+            occurrences[next[positions[i]]++] = i;
+        }
+
+        int total = 0;
+        for(int d : distinctPositions) {
+            total += firstOccurrence[d + 1] - firstOccurrence[d];
+        }
+
+        int[] indexes = new int[total];
+        int k = 0;
+        for(int d : distinctPositions) {
+            for(int o = firstOccurrence[d]; o < firstOccurrence[d + 1]; o++) {
+                indexes[k++] = occurrences[o];
+            }
+        }
+
+        return indexes;
+    }
+
+    /**
+     * @param population the population
+     * @param indexes indexes of the population
+     * @return the phenotypes at the given indexes
+     */
+    protected static Seq<Phenotype<EnumGene<Integer>, Integer>> selectIndexes(Seq<Phenotype<EnumGene<Integer>, Integer>> population, int[] indexes) {
+        List<Phenotype<EnumGene<Integer>, Integer>> selected = new ArrayList<>(indexes.length);
+        for(int index : indexes) {
+            selected.add(population.get(index));
+        }
+        return ISeq.of(selected);
+    }
+
+    /**
+     * @param population the population
+     * @return the fitness values of the phenotypes, in the order of the population
+     */
+    protected static float[] getFitnessValues(List<Phenotype<EnumGene<Integer>, Integer>> population) {
+        float[] fitnessValues = new float[population.size()];
+        for(int i = 0; i < fitnessValues.length; i++) {
+            fitnessValues[i] = population.get(i).fitness();
+        }
+        return fitnessValues;
+    }
+
+    /**
+     * Returns the number of invalid assignments of a genotype of the population currently being evaluated.
+     * @param genotype the genotype
+     * @return the number of invalid assignments
+     */
+    private int getInvalidAssignments(Genotype<EnumGene<Integer>> genotype) {
+        Integer index = this.genotypeIndexes.get(genotype);
+
+        if(index == null) {
+            // not part of the scored population, e.g., created by an estimator
+            return this.problem.getInvalidAssignments(genotype);
+        }
+
+        return SlotAllocationProblem.getInvalidAssignments(this.populationScores[index]);
+    }
+
     /**
      * Takes the evaluated population and configuration and estimates missing fitness-values accordingly
      * @param population the unevaluated population
@@ -263,8 +613,17 @@ public abstract class BatchEvaluator implements Evaluator<EnumGene<Integer>, Int
         if(this.optimization.getMode() == OptimizationMode.PRIVACY_PRESERVING) {
             logger.debug("Running in privacy-preserving mode: Evaluate the population using the Privacy Engine.");
 
+            Seq<Phenotype<EnumGene<Integer>, Integer>> distinctPopulation = population;
+            int[] positions = null;
+
+            if(this.fitnessCache != null) {
+                logger.debug("Only send distinct genotypes to the Privacy Engine.");
+                positions = new int[population.size()];
+                distinctPopulation = selectIndexes(population, this.getDistinctIndexes(population.size(), positions));
+            }
+
             logger.debug("Convert population to format required by Privacy Engine.");
-            Integer[][] input = this.convertPopulationToArray(population);
+            int[][] input = this.convertPopulationToArray(distinctPopulation);
 
             logger.debug("Invoke the Privacy Engine service to evaluate population.");
             PopulationOrderDTO populationOrder =
@@ -272,6 +631,11 @@ public abstract class BatchEvaluator implements Evaluator<EnumGene<Integer>, Int
 
             int[] order = populationOrder.getOrder();
 
+            if(positions != null) {
+                // duplicates follow their distinct genotype in the order
+                order = this.expandDistinctPositions(order, positions, distinctPopulation.size());
+            }
+
             logger.debug("Convert the population order received from the Privacy Engine to the format required by Jenetics.");
 
             evaluatedPopulation =
@@ -282,12 +646,7 @@ public abstract class BatchEvaluator implements Evaluator<EnumGene<Integer>, Int
             logger.debug("Maximum fitness in generation according to Privacy Engine is " + maxFitness + ".");
         } else {
             logger.debug("Running in non-privacy-preserving mode: Evaluate the population using the submitted weights.");
-            evaluatedPopulation =
-                    population.stream()
-                            .map(phenotype -> phenotype.withFitness(problem.fitness(phenotype.genotype())))
-                            .sorted(Comparator.comparingInt(Phenotype::fitness))
-                            .sorted(Comparator.reverseOrder())
-                            .toList();
+            evaluatedPopulation = this.evaluateExact(population);
 
             maxFitness = evaluatedPopulation.get(0).fitness();
             bestGenotype = evaluatedPopulation.get(0).genotype();
@@ -311,9 +670,7 @@ public abstract class BatchEvaluator implements Evaluator<EnumGene<Integer>, Int
             logger.debug("Actual minimum fitness of the population: " + evaluatedPopulation.get(evaluatedPopulation.size() - 1).fitness());
 
             if(fitnessEvolutionStep != null) {
-                fitnessEvolutionStep.setEvaluatedPopulation(
-                        evaluatedPopulation.stream().map(phenotype -> (double) phenotype.fitness()).toArray(Double[]::new)
-                );
+                fitnessEvolutionStep.setEvaluatedPopulation(getFitnessValues(evaluatedPopulation));
                 logger.debug("Tracing fitness evolution. Size of evaluated population: " + fitnessEvolutionStep.getEvaluatedPopulation().length);
             }
         }
@@ -325,6 +682,64 @@ public abstract class BatchEvaluator implements Evaluator<EnumGene<Integer>, Int
         return evaluation;
     }
 
+    /**
+     * Returns the population with exact fitness values, ordered by descending fitness. Phenotypes with equal fitness
+     * keep their order in the population. Requires the population to be scored with the weights, i.e., not in
+     * privacy-preserving mode.
+     * @param population the unevaluated population
+     * @return the evaluated phenotypes, ordered by descending fitness
+     */
+    protected List<Phenotype<EnumGene<Integer>, Integer>> evaluateExact(Seq<Phenotype<EnumGene<Integer>, Integer>> population) {
+        final int size = population.size();
+
+        // sort keys: complemented fitness in the upper half (ascending order is descending fitness), index in the lower half
+        long[] keys = new long[size];
+        for(int i = 0; i < size; i++) {
+            keys[i] = ((long) ~SlotAllocationProblem.getFitness(this.populationScores[i]) << 32) | i;
+        }
+        Arrays.sort(keys);
+
+        List<Phenotype<EnumGene<Integer>, Integer>> evaluatedPopulation = new ArrayList<>(size);
+        for(long key : keys) {
+            int index = (int) key;
+            evaluatedPopulation.add(population.get(index).withFitness(SlotAllocationProblem.getFitness(this.populationScores[index])));
+        }
+        return evaluatedPopulation;
+    }
+
+    /**
+     * Applies the action to each index in [0, size), using the evaluation pool if available. The action must only
+     * write to the given index of shared arrays.
+     * @param size the number of indexes
+     * @param action the action to be applied to each index
+     */
+    protected void forEachIndex(int size, IntConsumer action) {
+        if(this.evaluationPool != null && size > 1) {
+            int threshold = Math.max(1, size / (this.evaluationPool.getParallelism() * 4));
+            this.evaluationPool.invoke(new IndexRangeAction(0, size, threshold, action));
+        } else {
+            for(int i = 0; i < size; i++) {
+                action.accept(i);
+            }
+        }
+    }
+
+    /**
+     * Releases the threads of the evaluation pool, if any.
+     */
+    public void shutdown() {
+        if(this.evaluationPool != null) {
+            this.evaluationPool.shutdown();
+        }
+    }
+
+    /**
+     * @return the number of populations that have been returned unevaluated because of duplicates
+     */
+    public long getNoGenerationsUnevaluated() {
+        return this.noGenerationsUnevaluated;
+    }
+
     public void printLogs(){
         logger.info("--------------- Statistics Batch Evaluator --------------------");
         logger.info("Deduplication: " + this.isDeduplicate + ".");
@@ -337,28 +752,102 @@ public abstract class BatchEvaluator implements Evaluator<EnumGene<Integer>, Int
         logger.info("Number of phenotypes checked for validness: " + this.noPhenotypes);
         logger.info("Number of invalid phenotypes found: " + this.noInvalidPhenotypes);
         logger.info("Number of invalid assignments: " + this.noInvalidAssignments);
+        logger.info("Number of duplicates not sent to the Privacy Engine: " + this.noDuplicatesNotSent);
         logger.info("----------------------------------------------------------------");
     }
 
     /**
      * Convert the population from the Jenetics native representation to the array format required by the
-     * Privacy Engine.
+     * Privacy Engine. For each flight, the array holds the index of its slot among the assigned slots ordered by time.
+     * <p>
+     * The slot order is taken from the weight matrix, so no allocation is decoded and no slots are sorted. The rows of
+     * the returned array are reused by the next conversion; they must not be kept beyond the current evaluation.
      * @param population the population in Jenetics representation
      * @return the population in array format required by Privacy Engine
      */
-    public Integer[][] convertPopulationToArray(Seq<Phenotype<EnumGene<Integer>, Integer>> population) {
-        return population.asList().stream()
-                  .map(phenotype -> this.problem.decode(phenotype.genotype()))
-                  .map(map ->{
-                              // 1. Get the slots ordered ascending by time
-                              // 2. Replace the flights in the flight sequence by the index of their assigned slot
-                              var orderedSlots = map.entrySet().stream().sorted(Entry.comparingByValue()).map(Entry::getValue).toList();
-                              return this.problem.getFlights().stream().map(flight -> orderedSlots.indexOf(map.get(flight))).toArray(Integer[]::new);
-                          }
-                  ).toArray(Integer[][]::new);
+    public int[][] convertPopulationToArray(Seq<Phenotype<EnumGene<Integer>, Integer>> population) {
+        final WeightMatrix weightMatrix = this.problem.getWeightMatrix();
+        final int flightCount = weightMatrix.getFlightCount();
+        final int slotCount = weightMatrix.getSlotCount();
+        final int size = population.size();
+
+        if(this.populationArray == null || this.populationArray.length < size) {
+            int[][] populationArray = new int[size][];
+            for(int i = 0; i < size; i++) {
+                populationArray[i] = this.populationArray != null && i < this.populationArray.length ?
+                        this.populationArray[i] : new int[flightCount];
+            }
+            this.populationArray = populationArray;
+        }
+
+        if(this.flightAtPosition == null) {
+            this.flightAtPosition = new int[slotCount];
+            Arrays.fill(this.flightAtPosition, -1);
+        }
+
+        int[][] array = new int[size][];
+
+        for(int i = 0; i < size; i++) {
+            Chromosome<EnumGene<Integer>> chromosome = population.get(i).genotype().chromosome();
+            int[] row = this.populationArray[i];
+
+            if(flightCount == slotCount) {
+                // all slots are assigned, the index of a slot is its position
+                for(int f = 0; f < flightCount; f++) {
+                    row[f] = weightMatrix.getSlotPosition(chromosome.get(f).alleleIndex());
+                }
+            } else {
+                // rank the positions of the assigned slots by scanning the positions in time order
+                for(int f = 0; f < flightCount; f++) {
+                    this.flightAtPosition[weightMatrix.getSlotPosition(chromosome.get(f).alleleIndex())] = f;
+                }
+
+                int index = 0;
+                for(int position = 0; position < slotCount; position++) {
+                    int f = this.flightAtPosition[position];
+                    if(f >= 0) {
+                        row[f] = index++;
+                        this.flightAtPosition[position] = -1;
+                    }
+                }
+            }
+
+            array[i] = row;
+        }
+
+        return array;
     }
 
 
+    /**
+     * Fork-join task that splits an index range until it is below the threshold and applies an action to each index.
+     */
+    private static class IndexRangeAction extends RecursiveAction {
+        private final int from;
+        private final int to;
+        private final int threshold;
+        private final IntConsumer action;
+
+        IndexRangeAction(int from, int to, int threshold, IntConsumer action) {
+            this.from = from;
+            this.to = to;
+            this.threshold = threshold;
+            this.action = action;
+        }
+
+        @Override
+        protected void compute() {
+            if(to - from <= threshold) {
+                for(int i = from; i < to; i++) {
+                    action.accept(i);
+                }
+            } else {
+                int mid = (from + to) >>> 1;
+                invokeAll(new IndexRangeAction(from, mid, threshold, action), new IndexRangeAction(mid, to, threshold, action));
+            }
+        }
+    }
+
     /**
      * Represents the evaluation of a population
      */
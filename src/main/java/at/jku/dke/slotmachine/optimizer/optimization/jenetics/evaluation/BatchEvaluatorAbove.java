@@ -110,8 +110,19 @@ public abstract class BatchEvaluatorAbove extends BatchEvaluator {
         if(this.optimization.getMode() == OptimizationMode.PRIVACY_PRESERVING) {
             logger.debug("Running in privacy-preserving mode: Evaluate the population using the Privacy Engine.");
 
+            Seq<Phenotype<EnumGene<Integer>, Integer>> distinctPopulation = population;
+            int[] distinctIndexes = null;
+            int[] positions = null;
+
+            if(this.fitnessCache != null) {
+                logger.debug("Only send distinct genotypes to the Privacy Engine.");
+                positions = new int[population.size()];
+                distinctIndexes = this.getDistinctIndexes(population.size(), positions);
+                distinctPopulation = selectIndexes(population, distinctIndexes);
+            }
+
             logger.debug("Convert population to format required by Privacy Engine.");
-            Integer[][] input = this.convertPopulationToArray(population);
+            int[][] input = this.convertPopulationToArray(distinctPopulation);
 
             logger.debug("Invoke the Privacy Engine service to get phenotypes exceeding threshold.");
             // TODO: distinguish ABOVE from TOP
@@ -125,7 +136,7 @@ public abstract class BatchEvaluatorAbove extends BatchEvaluator {
             logger.debug("Has max fitness improved: {}",  (individualsAbove.getBest() != null ? individualsAbove.getBest() : "NULL") + ".");
 
 
-            bestGenotype = population.get(individualsAbove.getHighest()).genotype();
+            bestGenotype = distinctPopulation.get(individualsAbove.getHighest()).genotype();
             maxFitness = population.size();
 
             if(Boolean.TRUE.equals(individualsAbove.getBest())){
@@ -134,7 +145,16 @@ public abstract class BatchEvaluatorAbove extends BatchEvaluator {
                 logger.debug("Increased max fitness to {}{}",  maxFitness, ".");
             }
 
-            evaluatedPopulation = Arrays.stream(individualsAbove.getIndices())
+            Integer[] indices = individualsAbove.getIndices();
+            if(positions != null) {
+                // duplicates of individuals above the threshold are above the threshold as well
+                int[] distinctPositions = Arrays.stream(indices).mapToInt(Integer::intValue).toArray();
+                indices = Arrays.stream(this.expandDistinctPositions(distinctPositions, positions, distinctIndexes.length))
+                        .boxed()
+                        .toArray(Integer[]::new);
+            }
+
+            evaluatedPopulation = Arrays.stream(indices)
                     .map(population::get)
                     .toList();
 
@@ -7,13 +7,19 @@ import at.jku.dke.slotmachine.optimizer.optimization.jenetics.SlotAllocationProb
 import io.jenetics.EnumGene;
 import io.jenetics.Genotype;
 import io.jenetics.Phenotype;
+import io.jenetics.util.ISeq;
 import io.jenetics.util.Seq;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.stream.IntStream;
 
 public class BatchEvaluatorActualValues extends BatchEvaluator{
@@ -46,7 +52,7 @@ public class BatchEvaluatorActualValues extends BatchEvaluator{
 
     /**
      * Evaluates the population using actual fitness values for each individual.
-     * When running in {@link OptimizationMode#NON_PRIVACY_PRESERVING} mode, {@link BatchEvaluator#evaluatePopulationOrder(Seq, FitnessEvolutionStep)} is used.
+     * Unless running in {@link OptimizationMode#PRIVACY_PRESERVING} mode, {@link BatchEvaluator#evaluatePopulationOrder(Seq, FitnessEvolutionStep)} is used.
      *
      * @param population the unevaluated population
      * @param fitnessEvolutionStep the evolution step for this generation
@@ -59,11 +65,17 @@ public class BatchEvaluatorActualValues extends BatchEvaluator{
         if(this.optimization.getMode() == OptimizationMode.PRIVACY_PRESERVING) {
             logger.debug("Running in privacy-preserving mode: Evaluate the population using the Privacy Engine.");
 
-            logger.debug("Convert population to format required by Privacy Engine.");
-            Integer[][] input = this.convertPopulationToArray(population);
+            Integer[] fitnessValues;
 
-            logger.debug("Invoke the Privacy Engine service to evaluate population.");
-            Integer[] fitnessValues = this.optimization.getPrivacyEngineService().computeActualFitnessValues(optimization, input);
+            if(this.fitnessCache != null) {
+                fitnessValues = this.computeActualFitnessValuesCached(population);
+            } else {
+                logger.debug("Convert population to format required by Privacy Engine.");
+                int[][] input = this.convertPopulationToArray(population);
+
+                logger.debug("Invoke the Privacy Engine service to evaluate population.");
+                fitnessValues = this.requestActualFitnessValues(input);
+            }
 
             logger.debug("Convert the evaluated population received from the Privacy Engine to the format required by Jenetics.");
             evaluatedPopulation = IntStream
@@ -75,7 +87,7 @@ public class BatchEvaluatorActualValues extends BatchEvaluator{
 
             logger.debug("Maximum fitness in generation according to Privacy Engine is " + evaluatedPopulation.get(0).fitness() + ".");
         } else {
-            // order of population is used as it provides all fitness values in NON_PRIVACY_PRESERVING mode
+            // order of population is used as it provides all fitness values unless in PRIVACY_PRESERVING mode
             return evaluatePopulationOrder(population, fitnessEvolutionStep);
         }
 
@@ -83,4 +95,100 @@ public class BatchEvaluatorActualValues extends BatchEvaluator{
         evaluation.evaluatedPopulation = evaluatedPopulation;
         return evaluation;
     }
+
+    /**
+     * Requests the actual fitness values of the individuals from the Privacy Engine. In pipelined evaluation, the
+     * individuals are split into sub-batches that are evaluated concurrently. As the fitness value of an individual
+     * does not depend on the other individuals, the result is the same as for a single request.
+     * @param input the individuals in the format required by the Privacy Engine
+     * @return the actual fitness value of each individual
+     */
+    private Integer[] requestActualFitnessValues(int[][] input) {
+        int batchSize = this.optimization.getConfiguration().getPrivacyEngineBatchSize();
+
+        if(!this.isPipelined || batchSize < 1 || input.length <= batchSize) {
+            return this.optimization.getPrivacyEngineService().computeActualFitnessValues(optimization, input);
+        }
+
+        List<CompletableFuture<Integer[]>> requests = new ArrayList<>();
+        for(int from = 0; from < input.length; from += batchSize) {
+            int[][] batch = Arrays.copyOfRange(input, from, Math.min(input.length, from + batchSize));
+            requests.add(this.optimization.getPrivacyEngineService().computeActualFitnessValuesAsync(optimization, batch));
+        }
+
+        logger.debug("Sent " + requests.size() + " concurrent requests to the Privacy Engine.");
+
+        Integer[] fitnessValues = new Integer[input.length];
+        int offset = 0;
+        try {
+            for(CompletableFuture<Integer[]> request : requests) {
+                Integer[] batchFitnessValues = request.join();
+                System.arraycopy(batchFitnessValues, 0, fitnessValues, offset, batchFitnessValues.length);
+                offset += batchFitnessValues.length;
+            }
+        } catch (CompletionException e) {
+            if(e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+
+        return fitnessValues;
+    }
+
+    /**
+     * Returns the actual fitness values of the population. Only distinct genotypes whose fitness is not cached are sent
+     * to the Privacy Engine; the returned fitness values are added to the cache.
+     * @param population the unevaluated population
+     * @return the actual fitness value of each individual of the population
+     */
+    private Integer[] computeActualFitnessValuesCached(Seq<Phenotype<EnumGene<Integer>, Integer>> population) {
+        final int size = population.size();
+        Integer[] fitnessValues = new Integer[size];
+
+        // position of each uncached genotype in the request to the Privacy Engine, by hash
+        Map<Long, Integer> requestPositions = new HashMap<>();
+        List<Phenotype<EnumGene<Integer>, Integer>> uncachedPopulation = new ArrayList<>();
+
+        for(int i = 0; i < size; i++) {
+            long hash = this.getHash(i);
+
+            if(requestPositions.containsKey(hash)) {
+                this.noDuplicatesNotSent++;
+                continue;
+            }
+
+            Long fitness = this.fitnessCache.get(hash);
+            if(fitness != null) {
+                fitnessValues[i] = fitness.intValue();
+            } else {
+                requestPositions.put(hash, uncachedPopulation.size());
+                uncachedPopulation.add(population.get(i));
+            }
+        }
+
+        logger.debug("Fitness values of " + (size - uncachedPopulation.size()) + " individuals are cached or duplicates.");
+
+        if(uncachedPopulation.isEmpty()) {
+            return fitnessValues;
+        }
+
+        logger.debug("Convert uncached individuals to format required by Privacy Engine.");
+        int[][] input = this.convertPopulationToArray(ISeq.of(uncachedPopulation));
+
+        logger.debug("Invoke the Privacy Engine service to evaluate uncached individuals.");
+        Integer[] uncachedFitnessValues = this.requestActualFitnessValues(input);
+
+        for(int i = 0; i < size; i++) {
+            if(fitnessValues[i] == null) {
+                fitnessValues[i] = uncachedFitnessValues[requestPositions.get(this.getHash(i))];
+            }
+        }
+
+        for(Map.Entry<Long, Integer> requestPosition : requestPositions.entrySet()) {
+            this.fitnessCache.put(requestPosition.getKey(), uncachedFitnessValues[requestPosition.getValue()]);
+        }
+
+        return fitnessValues;
+    }
 }
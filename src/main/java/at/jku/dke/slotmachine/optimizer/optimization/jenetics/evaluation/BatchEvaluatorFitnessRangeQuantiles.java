@@ -73,7 +73,7 @@ public class BatchEvaluatorFitnessRangeQuantiles extends BatchEvaluator{
         } else {
             logger.debug("No estimator specified. Using exact fitness (if available).");
 
-            if(this.optimization.getMode() == OptimizationMode.NON_PRIVACY_PRESERVING){
+            if(this.optimization.getMode() != OptimizationMode.PRIVACY_PRESERVING){
                 logger.debug("Running in non-privacy-preserving mode. Exact fitness values available.");
                 estimatedPopulation = evaluatedPopulation;
             }
@@ -103,7 +103,7 @@ public class BatchEvaluatorFitnessRangeQuantiles extends BatchEvaluator{
             logger.debug("Running in privacy-preserving mode: Evaluate the population using the Privacy Engine.");
 
             logger.debug("Convert population to format required by Privacy Engine.");
-            Integer[][] input = this.convertPopulationToArray(population);
+            int[][] input = this.convertPopulationToArray(population);
 
             logger.debug("Invoke the Privacy Engine service to get fitness quantiles of population.");
             FitnessQuantilesDTO fitnessQuantiles =
@@ -116,12 +116,7 @@ public class BatchEvaluatorFitnessRangeQuantiles extends BatchEvaluator{
 
         } else {
             logger.debug("Running in non-privacy-preserving mode: Evaluate the population using the submitted weights.");
-            evaluatedPopulation =
-                    population.stream()
-                            .map(phenotype -> phenotype.withFitness(problem.fitness(phenotype.genotype())))
-                            .sorted(Comparator.comparingInt(Phenotype::fitness))
-                            .sorted(Comparator.reverseOrder())
-                            .toList();
+            evaluatedPopulation = this.evaluateExact(population);
 
             maxFitness = evaluatedPopulation.get(0).fitness();
             bestGenotype = evaluatedPopulation.get(0).genotype();
@@ -145,9 +140,7 @@ public class BatchEvaluatorFitnessRangeQuantiles extends BatchEvaluator{
             logger.debug("Actual minimum fitness of the population: " + evaluatedPopulation.get(evaluatedPopulation.size() - 1).fitness());
 
             if(fitnessEvolutionStep != null) {
-                fitnessEvolutionStep.setEvaluatedPopulation(
-                        evaluatedPopulation.stream().map(phenotype -> (double) phenotype.fitness()).toArray(Double[]::new)
-                );
+                fitnessEvolutionStep.setEvaluatedPopulation(getFitnessValues(evaluatedPopulation));
                 logger.debug("Tracing fitness evolution. Size of evaluated population: " + fitnessEvolutionStep.getEvaluatedPopulation().length);
             }
 
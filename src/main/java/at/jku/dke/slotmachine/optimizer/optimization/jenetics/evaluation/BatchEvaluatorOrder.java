@@ -15,6 +15,7 @@ import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 /**
  * BatchEvaluator for the fitness-method ORDER
@@ -59,9 +60,9 @@ public class BatchEvaluatorOrder extends BatchEvaluator{
             final int finalEstimatedPopulationSize = estimatedPopulationSize;
 
             // get the fitness value at the candidate's position
-            estimatedPopulationStream = evaluatedPopulation.stream()
-                    .map(phenotype -> phenotype.withFitness((int) estimatedFitnessValues[
-                            (int)((double) (evaluatedPopulation.indexOf(phenotype)) / (double) (population.size()) * finalEstimatedPopulationSize)
+            estimatedPopulationStream = IntStream.range(0, evaluatedPopulation.size())
+                    .mapToObj(i -> evaluatedPopulation.get(i).withFitness((int) estimatedFitnessValues[
+                            (int)((double) i / (double) (population.size()) * finalEstimatedPopulationSize)
                             ])).collect(Collectors.toList());
 
             estimatedPopulation = estimatedPopulationStream.stream()
@@ -73,7 +74,7 @@ public class BatchEvaluatorOrder extends BatchEvaluator{
         } else {
             logger.debug("No estimator specified. Using exact fitness (if available).");
 
-            if(this.optimization.getMode() == OptimizationMode.NON_PRIVACY_PRESERVING){
+            if(this.optimization.getMode() != OptimizationMode.PRIVACY_PRESERVING){
                 logger.debug("Running in non-privacy-preserving mode. Exact fitness values available.");
                 estimatedPopulation = evaluatedPopulation;
             }
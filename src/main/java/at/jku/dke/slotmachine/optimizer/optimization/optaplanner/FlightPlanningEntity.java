@@ -13,15 +13,19 @@ public class FlightPlanningEntity implements Comparable<FlightPlanningEntity> {
 
     private Flight wrappedFlight;
 
+    // index of the flight in the weight matrix
+    private int flightIndex;
+
     @PlanningVariable(
         valueRangeProviderRefs = "slotRange",
         strengthComparatorClass = SlotStrengthComparator.class
     )
     private SlotProblemFact slot;
 
-    public FlightPlanningEntity(Flight wrappedFlight) {
+    public FlightPlanningEntity(Flight wrappedFlight, int flightIndex) {
         this.wrappedFlight = wrappedFlight;
         this.flightId = wrappedFlight.getFlightId();
+        this.flightIndex = flightIndex;
     }
 
     public FlightPlanningEntity() {
@@ -36,6 +40,10 @@ public class FlightPlanningEntity implements Comparable<FlightPlanningEntity> {
         this.wrappedFlight = wrappedFlight;
     }
 
+    public int getFlightIndex() {
+        return flightIndex;
+    }
+
     public SlotProblemFact getSlot() {
         return slot;
     }
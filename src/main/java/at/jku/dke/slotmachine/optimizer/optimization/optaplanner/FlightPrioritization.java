@@ -7,6 +7,7 @@ import java.util.stream.Collectors;
 
 import at.jku.dke.slotmachine.optimizer.domain.Flight;
 import at.jku.dke.slotmachine.optimizer.domain.Slot;
+import at.jku.dke.slotmachine.optimizer.optimization.WeightMatrix;
 
 import org.optaplanner.core.api.domain.solution.PlanningEntityCollectionProperty;
 import org.optaplanner.core.api.domain.solution.PlanningScore;
@@ -30,13 +31,16 @@ public class FlightPrioritization {
     @PlanningScore
     private HardSoftScore score;
 
+    private WeightMatrix weightMatrix;
+
     private FlightPrioritization() {
 
     }
 	
-	public FlightPrioritization(List<SlotProblemFact> slots, List<FlightPlanningEntity> flights) {
+	public FlightPrioritization(List<SlotProblemFact> slots, List<FlightPlanningEntity> flights, WeightMatrix weightMatrix) {
         this.slots = slots;
         this.flights = flights;
+        this.weightMatrix = weightMatrix;
         this.fitnessFunctionInvocations = 0;
     }
 
@@ -48,6 +52,10 @@ public class FlightPrioritization {
         return flights;
     }
 
+    public WeightMatrix getWeightMatrix() {
+        return weightMatrix;
+    }
+
     public HardSoftScore getScore() {
         return score;
     }
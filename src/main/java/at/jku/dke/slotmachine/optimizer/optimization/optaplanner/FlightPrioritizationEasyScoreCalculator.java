@@ -1,5 +1,6 @@
 package at.jku.dke.slotmachine.optimizer.optimization.optaplanner;
 
+import at.jku.dke.slotmachine.optimizer.optimization.WeightMatrix;
 import org.optaplanner.core.api.score.buildin.hardsoft.HardSoftScore;
 import org.optaplanner.core.api.score.calculator.EasyScoreCalculator;
 
@@ -9,9 +10,11 @@ public class FlightPrioritizationEasyScoreCalculator implements EasyScoreCalcula
         int hardScore = 0;
         int softScore = 0;
 
+        WeightMatrix weightMatrix = flightPrioritization.getWeightMatrix();
+
         for(FlightPlanningEntity f : flightPrioritization.getFlights()) {
         	// make sure, that the scheduled time is before or at the assigned time
-            if(f.getWrappedFlight().getScheduledTime().isAfter(f.getSlot().getTime())) {
+            if(!weightMatrix.isAllowed(f.getFlightIndex(), f.getSlot().getSlotIndex())) {
                 hardScore--;
             }
 
@@ -22,7 +25,7 @@ public class FlightPrioritizationEasyScoreCalculator implements EasyScoreCalcula
             }
 
 			// add weight of flight to soft score
-			softScore += f.getWrappedFlight().getWeight(f.getSlot().getWrappedSlot());
+			softScore += weightMatrix.getWeight(f.getFlightIndex(), f.getSlot().getSlotIndex());
         }
 
         flightPrioritization.incrementFitnessFunctionApplications();
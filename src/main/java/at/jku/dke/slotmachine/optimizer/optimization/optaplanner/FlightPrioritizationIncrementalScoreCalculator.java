@@ -0,0 +1,111 @@
+package at.jku.dke.slotmachine.optimizer.optimization.optaplanner;
+
+import at.jku.dke.slotmachine.optimizer.optimization.WeightMatrix;
+import org.optaplanner.core.api.score.buildin.hardsoft.HardSoftScore;
+import org.optaplanner.core.api.score.calculator.IncrementalScoreCalculator;
+
+/**
+ * Computes the same score as the {@link FlightPrioritizationEasyScoreCalculator}, but only updates the score for the
+ * flight whose slot changed. The number of flights assigned to each slot is kept in an occupancy counter; a slot
+ * occupied by c flights contributes c * (c - 1) double bookings to the hard score, as in the easy score calculator.
+ */
+public class FlightPrioritizationIncrementalScoreCalculator implements IncrementalScoreCalculator<FlightPrioritization, HardSoftScore> {
+    private FlightPrioritization flightPrioritization;
+    private WeightMatrix weightMatrix;
+
+    /**
+     * Number of flights assigned to each slot, indexed by slot index
+     */
+    private int[] slotOccupancy;
+
+    private int hardScore;
+    private int softScore;
+
+    @Override
+    public void resetWorkingSolution(FlightPrioritization flightPrioritization) {
+        this.flightPrioritization = flightPrioritization;
+        this.weightMatrix = flightPrioritization.getWeightMatrix();
+        this.slotOccupancy = new int[weightMatrix.getSlotCount()];
+        this.hardScore = 0;
+        this.softScore = 0;
+
+        for(FlightPlanningEntity flight : flightPrioritization.getFlights()) {
+            insert(flight);
+        }
+    }
+
+    @Override
+    public void beforeEntityAdded(Object entity) {
+        // the score is updated after the entity has been added
+    }
+
+    @Override
+    public void afterEntityAdded(Object entity) {
+        insert((FlightPlanningEntity) entity);
+    }
+
+    @Override
+    public void beforeVariableChanged(Object entity, String variableName) {
+        retract((FlightPlanningEntity) entity);
+    }
+
+    @Override
+    public void afterVariableChanged(Object entity, String variableName) {
+        insert((FlightPlanningEntity) entity);
+    }
+
+    @Override
+    public void beforeEntityRemoved(Object entity) {
+        retract((FlightPlanningEntity) entity);
+    }
+
+    @Override
+    public void afterEntityRemoved(Object entity) {
+        // the score has been updated before the entity was removed
+    }
+
+    private void insert(FlightPlanningEntity flight) {
+        if(flight.getSlot() == null) {
+            return;
+        }
+
+        int f = flight.getFlightIndex();
+        int s = flight.getSlot().getSlotIndex();
+
+        // make sure, that the scheduled time is before or at the assigned time
+        if(!weightMatrix.isAllowed(f, s)) {
+            hardScore--;
+        }
+
+        // each of the c flights already in the slot is double-booked with the new flight and vice versa
+        hardScore -= 2 * slotOccupancy[s];
+        slotOccupancy[s]++;
+
+        softScore += weightMatrix.getWeight(f, s);
+    }
+
+    private void retract(FlightPlanningEntity flight) {
+        if(flight.getSlot() == null) {
+            return;
+        }
+
+        int f = flight.getFlightIndex();
+        int s = flight.getSlot().getSlotIndex();
+
+        if(!weightMatrix.isAllowed(f, s)) {
+            hardScore++;
+        }
+
+        slotOccupancy[s]--;
+        hardScore += 2 * slotOccupancy[s];
+
+        softScore -= weightMatrix.getWeight(f, s);
+    }
+
+    @Override
+    public HardSoftScore calculateScore() {
+        flightPrioritization.incrementFitnessFunctionApplications();
+
+        return HardSoftScore.of(hardScore, softScore);
+    }
+}
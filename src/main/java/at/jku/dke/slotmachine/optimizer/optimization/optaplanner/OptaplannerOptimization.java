@@ -4,15 +4,16 @@ import at.jku.dke.slotmachine.optimizer.domain.Flight;
 import at.jku.dke.slotmachine.optimizer.domain.Slot;
 import at.jku.dke.slotmachine.optimizer.optimization.InvalidOptimizationParameterTypeException;
 import at.jku.dke.slotmachine.optimizer.optimization.Optimization;
+import at.jku.dke.slotmachine.optimizer.optimization.WeightMatrix;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.optaplanner.core.api.solver.Solver;
 import org.optaplanner.core.api.solver.SolverFactory;
 import org.optaplanner.core.config.solver.SolverConfig;
 
-import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.IntStream;
 
 public class OptaplannerOptimization extends Optimization {
     private static final Logger logger = LogManager.getLogger();
@@ -48,25 +49,23 @@ public class OptaplannerOptimization extends Optimization {
         logger.info("Build the solver.");
         Solver<FlightPrioritization> solver = solverFactory.buildSolver();
 
-        logger.info("Compute weight map for flights.");
-        for(int i = 0; i < this.getFlights().length; i++) {
-            this.getFlights()[i].computeWeightMap(this.getSlots());
-        }
+        logger.info("Get weight matrix for flights.");
+        WeightMatrix weightMatrix = this.getWeightMatrix();
 
         logger.info("Get OptaPlanner domain model.");
-        List<FlightPlanningEntity> flights = Arrays.stream(this.getFlights())
-                .map(flight -> new FlightPlanningEntity(flight)).sorted().toList();
+        List<FlightPlanningEntity> flights = IntStream.range(0, this.getFlights().length)
+                .mapToObj(i -> new FlightPlanningEntity(this.getFlights()[i], i)).sorted().toList();
 
         logger.info("Get slots");
-        List<SlotProblemFact> slots = Arrays.stream(this.getSlots())
-                .map(slot -> new SlotProblemFact(slot)).sorted().toList();
+        List<SlotProblemFact> slots = IntStream.range(0, this.getSlots().length)
+                .mapToObj(i -> new SlotProblemFact(this.getSlots()[i], i)).sorted().toList();
 
         logger.info("Initially allocate slots according to scheduled time.");
         for(int i = 0; i < flights.size(); i++) {
             flights.get(i).setSlot(slots.get(i));
         }
 
-        FlightPrioritization unsolvedFlightPrioritization = new FlightPrioritization(slots, flights);
+        FlightPrioritization unsolvedFlightPrioritization = new FlightPrioritization(slots, flights, weightMatrix);
 
         logger.info("Running OptaPlanner optimization ...");
 
@@ -92,6 +91,7 @@ public class OptaplannerOptimization extends Optimization {
 
             this.getStatistics().setResultFitness(solvedFlightPrioritization.getScore().getSoftScore());
             this.getStatistics().setFitnessFunctionInvocations(solvedFlightPrioritization.getFitnessFunctionInvocations());
+            this.getMetrics().recordFitnessEvaluations(solvedFlightPrioritization.getFitnessFunctionInvocations());
 
             logger.info("Number of fitness function invocations: " + this.getStatistics().getFitnessFunctionInvocations());
         }
@@ -119,6 +119,7 @@ public class OptaplannerOptimization extends Optimization {
 
         Object configurationName = parameters.get("configurationName");
         Object secondsSpentLimit = parameters.get("secondsSpentLimit");
+        Object scoreCalculator = parameters.get("scoreCalculator");
 
         // set the parameters
         try {
@@ -139,6 +140,14 @@ public class OptaplannerOptimization extends Optimization {
             throw new InvalidOptimizationParameterTypeException("secondsSpentLimit", Long.class);
         }
 
+        try {
+            if (scoreCalculator != null) {
+                newConfiguration.setScoreCalculator((String) scoreCalculator);
+            }
+        } catch (Exception e) {
+            throw new InvalidOptimizationParameterTypeException("scoreCalculator", String.class);
+        }
+
         // replace the configuration if no error was thrown
         this.configuration = newConfiguration;
     }
@@ -6,6 +6,7 @@ import at.jku.dke.slotmachine.optimizer.optimization.OptimizationConfiguration;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.optaplanner.core.api.solver.Solver;
+import org.optaplanner.core.config.score.director.ScoreDirectorFactoryConfig;
 import org.optaplanner.core.config.solver.SolverConfig;
 
 public class OptaplannerOptimizationConfiguration extends OptimizationConfiguration {
@@ -22,6 +23,27 @@ public class OptaplannerOptimizationConfiguration extends OptimizationConfigurat
 
             logger.info("Read the solver configuration resource: " + solverConfigResource);
             solverConfig = SolverConfig.createFromXmlResource(solverConfigResource);
+
+            String scoreCalculator = this.getScoreCalculator();
+
+            if(scoreCalculator != null) {
+                ScoreDirectorFactoryConfig scoreDirectorFactoryConfig = solverConfig.getScoreDirectorFactoryConfig();
+
+                switch (scoreCalculator) {
+                    case "EASY":
+                        logger.info("Use easy score calculator.");
+                        scoreDirectorFactoryConfig.setIncrementalScoreCalculatorClass(null);
+                        scoreDirectorFactoryConfig.setEasyScoreCalculatorClass(FlightPrioritizationEasyScoreCalculator.class);
+                        break;
+                    case "INCREMENTAL":
+                        logger.info("Use incremental score calculator.");
+                        scoreDirectorFactoryConfig.setEasyScoreCalculatorClass(null);
+                        scoreDirectorFactoryConfig.setIncrementalScoreCalculatorClass(FlightPrioritizationIncrementalScoreCalculator.class);
+                        break;
+                    default:
+                        throw new IllegalStateException("Unexpected value: " + scoreCalculator);
+                }
+            }
         }
 
         return solverConfig;
@@ -35,6 +57,19 @@ public class OptaplannerOptimizationConfiguration extends OptimizationConfigurat
         return this.getStringParameter("configurationName");
     }
 
+    /**
+     * Returns the score calculator that overrides the one of the solver configuration resource, i.e., EASY or
+     * INCREMENTAL, or null if the solver configuration resource's score calculator is used.
+     * @return the score calculator
+     */
+    public String getScoreCalculator() {
+        return this.getStringParameter("scoreCalculator");
+    }
+
+    public void setScoreCalculator(String scoreCalculator) {
+        this.setParameter("scoreCalculator", scoreCalculator);
+    }
+
     public Long getSecondsSpentLimit() {
         return this.getLongParameter("secondsSpentLimit");
     }
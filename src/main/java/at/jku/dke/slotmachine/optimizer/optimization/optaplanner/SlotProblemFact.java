@@ -9,13 +9,17 @@ import java.util.Objects;
 public class SlotProblemFact implements Comparable<SlotProblemFact> {
     private Slot wrappedSlot;
 
+    // index of the slot in the weight matrix
+    private int slotIndex;
+
     // PlanningId is used for OptaPlanner (move thread count)
     @PlanningId
     private ChronoLocalDateTime<?> time;
 
-    public SlotProblemFact(Slot wrappedSlot) {
+    public SlotProblemFact(Slot wrappedSlot, int slotIndex) {
         this.wrappedSlot = wrappedSlot;
         this.time = wrappedSlot.getTime();
+        this.slotIndex = slotIndex;
     }
 
     public SlotProblemFact() { }
@@ -28,6 +32,10 @@ public class SlotProblemFact implements Comparable<SlotProblemFact> {
         this.time = time;
     }
 
+    public int getSlotIndex() {
+        return slotIndex;
+    }
+
     public Slot getWrappedSlot() {
         return wrappedSlot;
     }
@@ -1,5 +1,7 @@
 package at.jku.dke.slotmachine.optimizer.rest;
 
+import at.jku.dke.slotmachine.optimizer.service.OptimizationDelta;
+import at.jku.dke.slotmachine.optimizer.service.OptimizationScheduler;
 import at.jku.dke.slotmachine.optimizer.service.OptimizationService;
 import at.jku.dke.slotmachine.optimizer.service.dto.OptimizationDTO;
 import at.jku.dke.slotmachine.optimizer.service.dto.OptimizationResultDTO;
@@ -11,13 +13,19 @@ import io.swagger.annotations.*;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.net.URI;
 import java.util.UUID;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
 
 /***
  * The OptimizationEndpoint relays the REST calls to the {@link at.jku.dke.slotmachine.optimizer.service.OptimizationService}
@@ -28,6 +36,13 @@ import java.util.concurrent.Future;
 public class OptimizationEndpoint {
     private static final Logger logger = LogManager.getLogger();
 
+    /**
+     * Headers that report the schedule of a waiting or running optimization
+     */
+    public static final String QUEUE_POSITION_HEADER = "X-Queue-Position";
+    public static final String ESTIMATED_START_HEADER = "X-Estimated-Start";
+    public static final String ESTIMATED_FINISH_HEADER = "X-Estimated-Finish";
+
     private final OptimizationService optimizationService;
 
     public OptimizationEndpoint(OptimizationService optimizationService) {
@@ -65,7 +80,43 @@ public class OptimizationEndpoint {
         return optimizationResponse;
     }
 
+    @ApiOperation(
+            value = "Create and initialize an optimization that differs from a previous optimization by added, removed " +
+                    "or changed flights and slots. The new optimization keeps the framework, mode and parameters of " +
+                    "the previous optimization, unless parameters are given, and starts from the previous " +
+                    "optimization's solutions, repaired for the changes. Weight maps refer to the slots of the new " +
+                    "optimization in time order; unchanged flights keep their weights.",
+            response = OptimizationDTO.class,
+            produces = "application/json",
+            consumes = "application/json"
+    )
+    @PostMapping(path = "/optimizations/{optId}/reoptimize", produces = "application/json", consumes = "application/json")
+    @ApiResponses(
+            value = {
+                    @ApiResponse(code = 201, message = "Created"),
+                    @ApiResponse(code = 400, message = "Bad Request"),
+                    @ApiResponse(code = 404, message = "Not Found; the previous optimization does not exist")
+            }
+    )
+    public ResponseEntity<OptimizationDTO> reoptimize(@PathVariable @ApiParam(value = "the previous optimization's identifier") UUID optId,
+                                                      @RequestBody OptimizationDelta delta) {
+        ResponseEntity<OptimizationDTO> optimizationResponse;
 
+        try {
+            OptimizationDTO optimizationDto = optimizationService.reoptimize(optId, delta);
+
+            if(optimizationDto != null) {
+                optimizationResponse = new ResponseEntity<>(optimizationDto, HttpStatus.OK);
+            } else {
+                optimizationResponse = new ResponseEntity<>(HttpStatus.NOT_FOUND);
+            }
+        } catch (Exception e) {
+            logger.info("Could not create optimization from optimization " + optId + ": " + e.getMessage());
+            optimizationResponse = new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+
+        return optimizationResponse;
+    }
 
     @ApiOperation(
             value = "Get descriptions of all currently registered optimizations.",
@@ -97,7 +148,8 @@ public class OptimizationEndpoint {
                     @ApiResponse(code = 200, message = "OK; the optimization is already running."),
                     @ApiResponse(code = 202, message = "Accepted; if the optimization was successfully started."),
                     @ApiResponse(code = 303, message = "See Other; returns location of result in header, if cancelled or already done."),
-                    @ApiResponse(code = 404, message = "Not Found")
+                    @ApiResponse(code = 404, message = "Not Found"),
+                    @ApiResponse(code = 503, message = "Service Unavailable; too many optimizations are waiting to be run.")
             }
     )
     public ResponseEntity<OptimizationDTO> startOptimization(@PathVariable @ApiParam(value = "the optimization's identifier") UUID optId) {
@@ -109,18 +161,28 @@ public class OptimizationEndpoint {
         } else {
             OptimizationDTO optimization = optimizationService.getOptimization(optId);
 
-            if(optimization.getOptimizationStatus() == OptimizationStatusEnum.INITIALIZED) {
-                Future<OptimizationResultDTO> future = optimizationService.runOptimizationAsynchronously(optId);
+            if(optimization.getOptimizationStatus() == OptimizationStatusEnum.INITIALIZED &&
+                    optimizationService.getOptimizationEstimate(optId) == null) {
+                try {
+                    Future<OptimizationResultDTO> future = optimizationService.runOptimizationAsynchronously(optId);
 
-                // register the thread (future) with the optimization service so that abort works
-                optimizationService.registerThread(optId, future);
+                    // register the thread (future) with the optimization service so that abort works
+                    optimizationService.registerThread(optId, future);
 
-                // get an updated optimization
-                optimization = optimizationService.getOptimization(optId);
-                optimization.setOptimizationStatus(OptimizationStatusEnum.RUNNING);
+                    // get an updated optimization
+                    optimization = optimizationService.getOptimization(optId);
+                    optimization.setOptimizationStatus(OptimizationStatusEnum.RUNNING);
 
-                logger.info("The start of optimization with id " + optId + " was triggered.");
-                optimizationResponse = new ResponseEntity<>(optimization, HttpStatus.ACCEPTED);
+                    logger.info("The start of optimization with id " + optId + " was triggered.");
+                    optimizationResponse = new ResponseEntity<>(optimization, this.getScheduleHeaders(optId), HttpStatus.ACCEPTED);
+                } catch (RejectedExecutionException e) {
+                    logger.info("Optimization with id " + optId + " was rejected: " + e.getMessage());
+                    optimizationResponse = new ResponseEntity<>(optimization, HttpStatus.SERVICE_UNAVAILABLE);
+                }
+            } else if(optimization.getOptimizationStatus() == OptimizationStatusEnum.INITIALIZED) {
+                logger.info("Optimization with id " + optId + " is waiting to be run.");
+                optimization.setOptimizationStatus(OptimizationStatusEnum.RUNNING);
+                optimizationResponse = new ResponseEntity<>(optimization, this.getScheduleHeaders(optId), HttpStatus.OK);
             } else {
                 if(optimization.getOptimizationStatus() == OptimizationStatusEnum.DONE ||
                         optimization.getOptimizationStatus() == OptimizationStatusEnum.CANCELLED) {
@@ -146,7 +208,8 @@ public class OptimizationEndpoint {
     @ApiResponses(
             value = {
                     @ApiResponse(code = 200, message = "OK"),
-                    @ApiResponse(code = 404, message = "Not Found")
+                    @ApiResponse(code = 404, message = "Not Found"),
+                    @ApiResponse(code = 503, message = "Service Unavailable; too many optimizations are waiting to be run.")
             }
     )
     public ResponseEntity<OptimizationResultDTO> startOptimizationSync(@PathVariable @ApiParam(value = "the optimization's identifier") UUID optId) {
@@ -156,11 +219,27 @@ public class OptimizationEndpoint {
             logger.info("Optimization with id " + optId + " not found.");
             optimizationResponse = new ResponseEntity<>(HttpStatus.NOT_FOUND);
         } else {
-            OptimizationResultDTO optimizationResult = optimizationService.runOptimization(optId);
-
-            optimizationResponse = new ResponseEntity<>(optimizationResult, HttpStatus.ACCEPTED);
+            try {
+                // the run waits in the queue like any other optimization
+                Future<OptimizationResultDTO> future = optimizationService.runOptimizationAsynchronously(optId);
+                optimizationService.registerThread(optId, future);
 
-            logger.info("Optimization run with id " + optId + " has finished.");
+                OptimizationResultDTO optimizationResult = future.get();
+
+                optimizationResponse = new ResponseEntity<>(optimizationResult, HttpStatus.ACCEPTED);
+
+                logger.info("Optimization run with id " + optId + " has finished.");
+            } catch (RejectedExecutionException e) {
+                logger.info("Optimization with id " + optId + " was rejected: " + e.getMessage());
+                optimizationResponse = new ResponseEntity<>(HttpStatus.SERVICE_UNAVAILABLE);
+            } catch (ExecutionException | CancellationException e) {
+                logger.info("Optimization run with id " + optId + " did not finish.", e);
+                optimizationResponse = new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
+            } catch (InterruptedException e) {
+                logger.info("Interrupted while waiting for optimization run with id " + optId + ".");
+                Thread.currentThread().interrupt();
+                optimizationResponse = new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
+            }
         }
 
         return optimizationResponse;
@@ -253,8 +332,11 @@ public class OptimizationEndpoint {
                     @ApiResponse(code = 404, message = "Not Found")
             }
     )
-    public ResponseEntity<OptimizationStatisticsDTO> getOptimizationStatistics(@PathVariable @ApiParam(value = "the optimization's identifier") UUID optId) {
-        OptimizationStatisticsDTO optimizationStatistics = optimizationService.getOptimizationStatistics(optId);
+    public ResponseEntity<OptimizationStatisticsDTO> getOptimizationStatistics(@PathVariable @ApiParam(value = "the optimization's identifier") UUID optId,
+                                                                               @RequestParam(name = "fromGeneration", defaultValue = "0")
+                                                                               @ApiParam(value = "the first generation of the fitness evolution included in the statistics")
+                                                                               int fromGeneration) {
+        OptimizationStatisticsDTO optimizationStatistics = optimizationService.getOptimizationStatistics(optId, fromGeneration);
 
         ResponseEntity<OptimizationStatisticsDTO> response;
 
@@ -267,7 +349,39 @@ public class OptimizationEndpoint {
         return response;
     }
 
-    @ApiOperation(value = "Get the description of a specific optimization.", response = OptimizationDTO.class)
+    @ApiOperation(
+            value = "Stream the progress of a specific optimization as Server-Sent Events. Each evaluated generation is " +
+                    "sent as a 'generation' event containing the generation number, the best, mean and worst fitness, " +
+                    "the number of invalid solutions and the evaluation time; a final 'status' event contains the " +
+                    "status of the finished optimization."
+    )
+    @GetMapping(path = "/optimizations/{optId}/stats/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @ApiResponses(
+            value = {
+                    @ApiResponse(code = 200, message = "OK"),
+                    @ApiResponse(code = 404, message = "Not Found")
+            }
+    )
+    public ResponseEntity<SseEmitter> streamOptimizationStatistics(@PathVariable @ApiParam(value = "the optimization's identifier") UUID optId) {
+        SseEmitter emitter = optimizationService.subscribeToProgress(optId);
+
+        ResponseEntity<SseEmitter> response;
+
+        if (emitter != null) {
+            response = new ResponseEntity<>(emitter, HttpStatus.OK);
+        } else {
+            response = new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        }
+
+        return response;
+    }
+
+    @ApiOperation(
+            value = "Get the description of a specific optimization. For a waiting or running optimization, the " +
+                    "position in the queue and the estimated start and finish are returned in the " +
+                    QUEUE_POSITION_HEADER + ", " + ESTIMATED_START_HEADER + " and " + ESTIMATED_FINISH_HEADER + " headers.",
+            response = OptimizationDTO.class
+    )
     @GetMapping(path = "/optimizations/{optId}", produces = "application/json")
     @ApiResponses(
             value = {
@@ -283,11 +397,28 @@ public class OptimizationEndpoint {
         ResponseEntity<OptimizationDTO> response;
 
         if (optimization != null) {
-            response = new ResponseEntity<>(optimization, HttpStatus.OK);
+            response = new ResponseEntity<>(optimization, this.getScheduleHeaders(optId), HttpStatus.OK);
         } else {
             response = new ResponseEntity<>(HttpStatus.NOT_FOUND);
         }
 
         return response;
     }
+
+    /**
+     * Returns the headers that report the position in the queue (0 if running) and the estimated start and finish of
+     * an optimization; no headers if the optimization is neither waiting nor running.
+     */
+    private HttpHeaders getScheduleHeaders(UUID optId) {
+        HttpHeaders headers = new HttpHeaders();
+        OptimizationScheduler.Estimate estimate = optimizationService.getOptimizationEstimate(optId);
+
+        if(estimate != null) {
+            headers.set(QUEUE_POSITION_HEADER, String.valueOf(estimate.getQueuePosition()));
+            headers.set(ESTIMATED_START_HEADER, estimate.getStart().toString());
+            headers.set(ESTIMATED_FINISH_HEADER, estimate.getFinish().toString());
+        }
+
+        return headers;
+    }
 }
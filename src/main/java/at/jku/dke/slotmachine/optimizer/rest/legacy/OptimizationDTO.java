@@ -32,7 +32,7 @@ public class OptimizationDTO {
 	private Map<String,Object> parameters;
 
 	@Nullable
-	private String optimizationFramework; // JENETICS, OPTAPLANNER, HUNGARIAN
+	private String optimizationFramework; // JENETICS, OPTAPLANNER, HUNGARIAN, AUCTION
 
 	@Nullable
 	private String fitnessEstimator;
@@ -0,0 +1,107 @@
+package at.jku.dke.slotmachine.optimizer.service;
+
+import at.jku.dke.slotmachine.optimizer.service.dto.FlightDTO;
+import at.jku.dke.slotmachine.optimizer.service.dto.SlotDTO;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * The changes of an optimization with respect to a previous optimization, e.g., delayed flights or removed slots. The
+ * {@link OptimizationService} creates the changed optimization from the previous one and starts it from the previous
+ * optimization's solutions.
+ * <p>
+ * The weight map of a flight refers to the slots of the changed optimization in time order. Flights that are neither
+ * added nor changed keep their weights; the weight of an added slot is the weight of the closest earlier slot.
+ */
+public class OptimizationDelta {
+    private UUID optId;
+
+    private FlightDTO[] addedFlights;
+    private String[] removedFlights;
+    private FlightDTO[] changedFlights;
+
+    private SlotDTO[] addedSlots;
+    private LocalDateTime[] removedSlots;
+
+    private Map<String, Object> parameters;
+
+    /**
+     * @return the identifier of the changed optimization; a random identifier is used if null
+     */
+    public UUID getOptId() {
+        return optId;
+    }
+
+    public void setOptId(UUID optId) {
+        this.optId = optId;
+    }
+
+    /**
+     * @return the flights that are not part of the previous optimization
+     */
+    public FlightDTO[] getAddedFlights() {
+        return addedFlights;
+    }
+
+    public void setAddedFlights(FlightDTO[] addedFlights) {
+        this.addedFlights = addedFlights;
+    }
+
+    /**
+     * @return the identifiers of the flights of the previous optimization that are removed
+     */
+    public String[] getRemovedFlights() {
+        return removedFlights;
+    }
+
+    public void setRemovedFlights(String[] removedFlights) {
+        this.removedFlights = removedFlights;
+    }
+
+    /**
+     * @return the flights of the previous optimization with a changed scheduled time or changed weights; a flight
+     * without scheduled time or weight map keeps its previous scheduled time or weights
+     */
+    public FlightDTO[] getChangedFlights() {
+        return changedFlights;
+    }
+
+    public void setChangedFlights(FlightDTO[] changedFlights) {
+        this.changedFlights = changedFlights;
+    }
+
+    /**
+     * @return the slots that are not part of the previous optimization
+     */
+    public SlotDTO[] getAddedSlots() {
+        return addedSlots;
+    }
+
+    public void setAddedSlots(SlotDTO[] addedSlots) {
+        this.addedSlots = addedSlots;
+    }
+
+    /**
+     * @return the times of the slots of the previous optimization that are removed, one slot per time
+     */
+    public LocalDateTime[] getRemovedSlots() {
+        return removedSlots;
+    }
+
+    public void setRemovedSlots(LocalDateTime[] removedSlots) {
+        this.removedSlots = removedSlots;
+    }
+
+    /**
+     * @return the parameters that replace the parameters of the previous optimization, e.g., a shorter time limit
+     */
+    public Map<String, Object> getParameters() {
+        return parameters;
+    }
+
+    public void setParameters(Map<String, Object> parameters) {
+        this.parameters = parameters;
+    }
+}
@@ -0,0 +1,159 @@
+package at.jku.dke.slotmachine.optimizer.service;
+
+import at.jku.dke.slotmachine.optimizer.optimization.GenerationProgress;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import javax.annotation.PreDestroy;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Pushes the progress of optimizations to subscribed clients as Server-Sent Events. Each evaluated generation is sent as
+ * a <code>generation</code> event containing a {@link GenerationProgress}, with the generation number as event id.
+ * When the optimization has finished, a final <code>status</code> event containing the status of the optimization is
+ * sent and the stream is closed.
+ * <p>
+ * Events are sent by a single thread, so that slow clients never delay the evaluation of a population. Publishing
+ * the progress of an optimization without subscribers is free.
+ */
+@Component
+public class OptimizationProgressStream {
+    private static final Logger logger = LogManager.getLogger();
+
+    private static final String GENERATION_EVENT = "generation";
+    private static final String STATUS_EVENT = "status";
+
+    private final Duration timeout;
+
+    private final Map<UUID, List<SseEmitter>> subscribers;
+
+    private final ExecutorService sender;
+
+    /**
+     * @param timeout the time after which a stream is closed, even if the optimization has not finished
+     */
+    public OptimizationProgressStream(@Value("${progressStream.timeout:PT30M}") Duration timeout) {
+        this.timeout = timeout;
+
+        this.subscribers = new ConcurrentHashMap<>();
+
+        this.sender = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "OptimizationProgressStream::sender");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Subscribes to the progress of an optimization.
+     * @param optId the optimization identifier
+     * @return the stream of progress events
+     */
+    public SseEmitter subscribe(UUID optId) {
+        SseEmitter emitter = new SseEmitter(this.timeout.toMillis());
+
+        List<SseEmitter> emitters = this.subscribers.computeIfAbsent(optId, id -> new CopyOnWriteArrayList<>());
+        emitters.add(emitter);
+
+        emitter.onCompletion(() -> emitters.remove(emitter));
+        emitter.onTimeout(() -> emitters.remove(emitter));
+        emitter.onError(throwable -> emitters.remove(emitter));
+
+        logger.debug("Subscribed to the progress of optimization " + optId + ".");
+
+        return emitter;
+    }
+
+    /**
+     * Returns a stream that only contains the status event of an optimization that is not running anymore.
+     * @param status the status of the optimization
+     * @return the completed stream of progress events
+     */
+    public SseEmitter completed(Enum<?> status) {
+        SseEmitter emitter = new SseEmitter(this.timeout.toMillis());
+
+        this.sender.execute(() -> {
+            try {
+                emitter.send(SseEmitter.event().name(STATUS_EVENT).data(String.valueOf(status)));
+                emitter.complete();
+            } catch (IOException | IllegalStateException e) {
+                emitter.completeWithError(e);
+            }
+        });
+
+        return emitter;
+    }
+
+    /**
+     * Sends the progress of a generation to all subscribers of the optimization.
+     * @param optId the optimization identifier
+     * @param progress the summary of the evaluated generation
+     */
+    public void publish(UUID optId, GenerationProgress progress) {
+        List<SseEmitter> emitters = this.subscribers.get(optId);
+
+        if(emitters == null || emitters.isEmpty()) {
+            return;
+        }
+
+        this.sender.execute(() -> {
+            for(SseEmitter emitter : emitters) {
+                try {
+                    emitter.send(
+                            SseEmitter.event()
+                                    .name(GENERATION_EVENT)
+                                    .id(String.valueOf(progress.getGeneration()))
+                                    .data(progress, MediaType.APPLICATION_JSON)
+                    );
+                } catch (IOException | IllegalStateException e) {
+                    logger.debug("Could not send progress of optimization " + optId + ": " + e.getMessage());
+                    emitters.remove(emitter);
+                    emitter.completeWithError(e);
+                }
+            }
+        });
+    }
+
+    /**
+     * Sends the final status of an optimization to all subscribers and closes their streams.
+     * @param optId the optimization identifier
+     * @param status the status of the optimization
+     */
+    public void complete(UUID optId, Enum<?> status) {
+        List<SseEmitter> emitters = this.subscribers.remove(optId);
+
+        if(emitters == null) {
+            return;
+        }
+
+        // sent after all progress events published before
+        this.sender.execute(() -> {
+            for(SseEmitter emitter : emitters) {
+                try {
+                    emitter.send(SseEmitter.event().name(STATUS_EVENT).data(String.valueOf(status)));
+                    emitter.complete();
+                } catch (IOException | IllegalStateException e) {
+                    emitter.completeWithError(e);
+                }
+            }
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        this.sender.shutdownNow();
+    }
+}
@@ -0,0 +1,471 @@
+package at.jku.dke.slotmachine.optimizer.service;
+
+import at.jku.dke.slotmachine.optimizer.optimization.Optimization;
+import at.jku.dke.slotmachine.optimizer.optimization.OptimizationStatus;
+import at.jku.dke.slotmachine.optimizer.service.dto.OptimizationDTO;
+import at.jku.dke.slotmachine.optimizer.service.dto.OptimizationResultDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import javax.annotation.PreDestroy;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Keeps the optimizations known to the {@link OptimizationService}, bounded in time and memory. An optimization that
+ * has not been accessed for longer than the time to live is removed, unless it is waiting or running. If the estimated
+ * heap usage of all optimizations exceeds the heap budget, the least recently accessed completed optimizations are
+ * spilled to the spill directory as gzip-compressed JSON, see {@link SpilledOptimization}, and reloaded on demand.
+ * Spilled optimizations are subject to the same time to live, and they are indexed again after a restart.
+ * <p>
+ * If no spill directory is configured, completed optimizations exceeding the heap budget are removed.
+ * <p>
+ * The estimated heap usage of each optimization in memory is reported as a per-optimization gauge, whose meters are
+ * removed together with the optimization from memory.
+ */
+@Component
+public class OptimizationRegistry implements MeterBinder {
+    private static final Logger logger = LogManager.getLogger();
+
+    private static final String SPILL_FILE_SUFFIX = ".json.gz";
+
+    private final Duration timeToLive;
+    private final long heapBudget;
+    private final Path spillDirectory;
+    private final ObjectMapper objectMapper;
+
+    private final Map<UUID, Entry> entries;
+    private final Map<UUID, Long> spilled;
+    private final Map<UUID, Future<OptimizationResultDTO>> threads;
+
+    private final ScheduledExecutorService sweeper;
+
+    private Function<UUID, SpilledOptimization> spillFunction = null;
+
+    private long noSpilled;
+    private long noExpired;
+
+    /**
+     * @param timeToLive the time after the last access until an optimization is removed
+     * @param heapBudget the estimated heap usage of all optimizations before completed optimizations are spilled
+     * @param spillDirectory the directory of spilled optimizations; empty to remove instead of spill
+     * @param objectMapper the object mapper used to write and read spilled optimizations
+     */
+    public OptimizationRegistry(@Value("${registry.timeToLive:PT24H}") Duration timeToLive,
+                                @Value("${registry.heapBudget:512MB}") DataSize heapBudget,
+                                @Value("${registry.spillDirectory:}") String spillDirectory,
+                                ObjectMapper objectMapper) {
+        this.timeToLive = timeToLive;
+        this.heapBudget = heapBudget.toBytes();
+        this.spillDirectory = spillDirectory == null || spillDirectory.isBlank() ? null : Paths.get(spillDirectory);
+        this.objectMapper = objectMapper;
+
+        this.entries = new ConcurrentHashMap<>();
+        this.spilled = new ConcurrentHashMap<>();
+        this.threads = new ConcurrentHashMap<>();
+
+        this.indexSpilledOptimizations();
+
+        this.sweeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "OptimizationRegistry::sweeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        long sweepInterval = Math.max(1, Math.min(60, timeToLive.toSeconds() / 4));
+        this.sweeper.scheduleWithFixedDelay(this::sweep, sweepInterval, sweepInterval, TimeUnit.SECONDS);
+
+        logger.info("Keeping optimizations for " + timeToLive + " within a heap budget of " + this.heapBudget + " bytes; " +
+                (this.spillDirectory != null ? "spilling to " + this.spillDirectory : "spilling disabled") + ".");
+    }
+
+    /**
+     * Sets the function that captures a completed optimization before it is spilled.
+     * @param spillFunction returns the spilled form of an optimization
+     */
+    public void setSpillFunction(Function<UUID, SpilledOptimization> spillFunction) {
+        this.spillFunction = spillFunction;
+    }
+
+    public void put(UUID optId, OptimizationDTO optimizationDto, Optimization optimization) {
+        this.removeSpilled(optId);
+        release(this.entries.put(optId, new Entry(optimizationDto, optimization)));
+
+        optimization.getMetrics().gauge("heap", "Estimated heap usage of the optimization", optimization, OptimizationRegistry::estimateSize);
+    }
+
+    /**
+     * @param optId the optimization identifier
+     * @return the optimization, or null if the optimization does not exist or is spilled
+     */
+    public Optimization getOptimization(UUID optId) {
+        Entry entry = this.touch(optId);
+        return entry != null ? entry.optimization : null;
+    }
+
+    /**
+     * @param optId the optimization identifier
+     * @return the optimization DTO, or null if the optimization does not exist or is spilled
+     */
+    public OptimizationDTO getOptimizationDto(UUID optId) {
+        Entry entry = this.touch(optId);
+        return entry != null ? entry.optimizationDto : null;
+    }
+
+    /**
+     * @param optId the optimization identifier
+     * @return true if the optimization exists in memory or on disk
+     */
+    public boolean contains(UUID optId) {
+        return this.entries.containsKey(optId) || this.spilled.containsKey(optId);
+    }
+
+    /**
+     * Reloads a spilled optimization.
+     * @param optId the optimization identifier
+     * @return the spilled optimization, or null if the optimization is not spilled or cannot be read
+     */
+    public SpilledOptimization getSpilled(UUID optId) {
+        if(!this.spilled.containsKey(optId)) {
+            return null;
+        }
+
+        this.spilled.put(optId, System.currentTimeMillis());
+
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(this.getSpillFile(optId)))) {
+            return this.objectMapper.readValue(in, SpilledOptimization.class);
+        } catch (IOException e) {
+            logger.error("Could not read spilled optimization " + optId + ".", e);
+            return null;
+        }
+    }
+
+    /**
+     * Removes an optimization from memory and disk.
+     * @param optId the optimization identifier
+     * @return the optimization DTO, or null if the optimization does not exist
+     */
+    public OptimizationDTO remove(UUID optId) {
+        Entry entry = this.entries.remove(optId);
+        OptimizationDTO optimizationDto = entry != null ? entry.optimizationDto : null;
+        release(entry);
+
+        if(optimizationDto == null) {
+            SpilledOptimization spilledOptimization = this.getSpilled(optId);
+            optimizationDto = spilledOptimization != null ? spilledOptimization.getOptimization() : null;
+        }
+
+        this.removeSpilled(optId);
+
+        return optimizationDto;
+    }
+
+    /**
+     * @return the DTOs of all optimizations in memory and on disk
+     */
+    public List<OptimizationDTO> getOptimizationDtos() {
+        List<OptimizationDTO> optimizationDtos = new ArrayList<>();
+
+        for(Entry entry : this.entries.values()) {
+            optimizationDtos.add(entry.optimizationDto);
+        }
+
+        for(UUID optId : new ArrayList<>(this.spilled.keySet())) {
+            SpilledOptimization spilledOptimization = this.getSpilled(optId);
+
+            if(spilledOptimization != null) {
+                optimizationDtos.add(spilledOptimization.getOptimization());
+            }
+        }
+
+        return optimizationDtos;
+    }
+
+    public void registerThread(UUID optId, Future<OptimizationResultDTO> future) {
+        this.threads.put(optId, future);
+    }
+
+    public Future<OptimizationResultDTO> getThread(UUID optId) {
+        return this.threads.get(optId);
+    }
+
+    public Future<OptimizationResultDTO> removeThread(UUID optId) {
+        return this.threads.remove(optId);
+    }
+
+    /**
+     * Notifies the registry that an optimization run has finished, which may exceed the heap budget.
+     * @param optId the optimization identifier
+     */
+    public void completed(UUID optId) {
+        this.sweeper.execute(this::sweep);
+    }
+
+    /**
+     * Removes expired optimizations and spills completed optimizations until the heap budget is met.
+     */
+    synchronized void sweep() {
+        try {
+            long now = System.currentTimeMillis();
+            long expiry = now - this.timeToLive.toMillis();
+
+            for(Map.Entry<UUID, Entry> entry : this.entries.entrySet()) {
+                if(entry.getValue().lastAccess < expiry && !this.isActive(entry.getKey(), entry.getValue())) {
+                    logger.info("Optimization " + entry.getKey() + " expired.");
+                    this.entries.remove(entry.getKey());
+                    this.threads.remove(entry.getKey());
+                    release(entry.getValue());
+                    this.noExpired++;
+                }
+            }
+
+            for(Map.Entry<UUID, Long> entry : this.spilled.entrySet()) {
+                if(entry.getValue() < expiry) {
+                    logger.info("Spilled optimization " + entry.getKey() + " expired.");
+                    this.removeSpilled(entry.getKey());
+                    this.noExpired++;
+                }
+            }
+
+            long heapUsage = 0;
+            List<Map.Entry<UUID, Entry>> completed = new ArrayList<>();
+
+            for(Map.Entry<UUID, Entry> entry : this.entries.entrySet()) {
+                heapUsage += entry.getValue().getEstimatedSize();
+
+                if(!this.isActive(entry.getKey(), entry.getValue())) {
+                    completed.add(Map.entry(entry.getKey(), entry.getValue()));
+                }
+            }
+
+            if(heapUsage <= this.heapBudget) {
+                return;
+            }
+
+            logger.info("Estimated heap usage of optimizations (" + heapUsage + " bytes) exceeds budget of " + this.heapBudget + " bytes.");
+
+            completed.sort(Comparator.comparingLong(entry -> entry.getValue().lastAccess));
+
+            for(Map.Entry<UUID, Entry> completedEntry : completed) {
+                if(heapUsage <= this.heapBudget) {
+                    break;
+                }
+
+                UUID optId = completedEntry.getKey();
+                Entry entry = completedEntry.getValue();
+
+                if(this.spillDirectory != null && this.spillFunction != null) {
+                    if(!this.spill(optId, entry)) {
+                        continue;
+                    }
+                } else {
+                    logger.warn("Removing optimization " + optId + " to meet the heap budget.");
+                }
+
+                this.entries.remove(optId, entry);
+                this.threads.remove(optId);
+                release(entry);
+                heapUsage -= entry.getEstimatedSize();
+            }
+        } catch (RuntimeException e) {
+            logger.error("Could not sweep optimizations.", e);
+        }
+    }
+
+    private boolean spill(UUID optId, Entry entry) {
+        SpilledOptimization spilledOptimization = this.spillFunction.apply(optId);
+
+        if(spilledOptimization == null) {
+            return false;
+        }
+
+        try {
+            Files.createDirectories(this.spillDirectory);
+
+            Path spillFile = this.getSpillFile(optId);
+            Path temporaryFile = Files.createTempFile(this.spillDirectory, optId.toString(), ".tmp");
+
+            try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(temporaryFile))) {
+                this.objectMapper.writeValue(out, spilledOptimization);
+            }
+
+            Files.move(temporaryFile, spillFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+            this.spilled.put(optId, entry.lastAccess);
+            this.noSpilled++;
+
+            logger.info("Spilled optimization " + optId + " (" + entry.getEstimatedSize() + " bytes) to " + spillFile + " (" + Files.size(spillFile) + " bytes).");
+            return true;
+        } catch (IOException e) {
+            logger.error("Could not spill optimization " + optId + ".", e);
+            return false;
+        }
+    }
+
+    private void removeSpilled(UUID optId) {
+        if(this.spilled.remove(optId) != null) {
+            try {
+                Files.deleteIfExists(this.getSpillFile(optId));
+            } catch (IOException e) {
+                logger.error("Could not delete spilled optimization " + optId + ".", e);
+            }
+        }
+    }
+
+    private void indexSpilledOptimizations() {
+        if(this.spillDirectory == null || !Files.isDirectory(this.spillDirectory)) {
+            return;
+        }
+
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(this.spillDirectory, "*" + SPILL_FILE_SUFFIX)) {
+            for(Path file : files) {
+                String fileName = file.getFileName().toString();
+
+                try {
+                    UUID optId = UUID.fromString(fileName.substring(0, fileName.length() - SPILL_FILE_SUFFIX.length()));
+                    this.spilled.put(optId, Files.getLastModifiedTime(file).toMillis());
+                } catch (IllegalArgumentException e) {
+                    logger.warn("Ignoring unexpected file " + file + " in spill directory.");
+                }
+            }
+        } catch (IOException e) {
+            logger.error("Could not index spilled optimizations in " + this.spillDirectory + ".", e);
+        }
+
+        logger.info("Found " + this.spilled.size() + " spilled optimizations in " + this.spillDirectory + ".");
+    }
+
+    private Path getSpillFile(UUID optId) {
+        return this.spillDirectory.resolve(optId + SPILL_FILE_SUFFIX);
+    }
+
+    private Entry touch(UUID optId) {
+        Entry entry = this.entries.get(optId);
+
+        if(entry != null) {
+            entry.lastAccess = System.currentTimeMillis();
+        }
+
+        return entry;
+    }
+
+    /**
+     * An optimization is active if it is running or waiting to be run.
+     */
+    private boolean isActive(UUID optId, Entry entry) {
+        Future<OptimizationResultDTO> future = this.threads.get(optId);
+
+        return entry.optimization.getStatus() == OptimizationStatus.RUNNING || (future != null && !future.isDone());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        this.sweeper.shutdownNow();
+    }
+
+    public synchronized void printLogs() {
+        logger.info("--------------- Statistics Optimization Registry ------------");
+        logger.info("Optimizations in memory: " + this.entries.size() + " | spilled: " + this.spilled.size());
+        logger.info("Estimated heap usage: " + this.entries.values().stream().mapToLong(Entry::getEstimatedSize).sum() + " bytes | budget: " + this.heapBudget + " bytes");
+        logger.info("Number of spilled optimizations: " + this.noSpilled);
+        logger.info("Number of expired optimizations: " + this.noExpired);
+        logger.info("--------------------------------------------------------------");
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("slotmachine.registry.optimizations", this.entries, Map::size)
+                .description("Optimizations kept by the registry")
+                .tag("location", "memory")
+                .register(registry);
+        Gauge.builder("slotmachine.registry.optimizations", this.spilled, Map::size)
+                .description("Optimizations kept by the registry")
+                .tag("location", "spilled")
+                .register(registry);
+        Gauge.builder("slotmachine.registry.heap", this.entries, entries ->
+                        entries.values().stream().mapToLong(Entry::getEstimatedSize).sum())
+                .description("Estimated heap usage of the optimizations in memory")
+                .register(registry);
+    }
+
+    /**
+     * Estimates the heap usage of an optimization: the weights of the flights are held by the DTO, the flights, and the
+     * weight matrix; each result maps every flight to a slot; the fitness evolution trace holds its values in float
+     * columns.
+     * @param optimization the optimization
+     * @return the estimated heap usage in bytes
+     */
+    static long estimateSize(Optimization optimization) {
+        long flights = optimization.getFlights() != null ? optimization.getFlights().length : 0;
+        long slots = optimization.getSlots() != null ? optimization.getSlots().length : 0;
+
+        long size = 1024 + flights * 128 + slots * 64;
+
+        size += 3 * flights * slots * Integer.BYTES;
+
+        Map<?, ?>[] results = optimization.getResults();
+        if(results != null) {
+            // hash map node and boxed converted result per flight
+            size += results.length * flights * (48 + 16);
+        }
+
+        if(optimization.getStatistics() != null && optimization.getStatistics().getFitnessEvolution() != null) {
+            size += optimization.getStatistics().getFitnessEvolution().getEstimatedSize();
+        }
+
+        return size;
+    }
+
+    /**
+     * Removes the per-optimization meters of an optimization that is removed from memory.
+     */
+    private static void release(Entry entry) {
+        if(entry != null) {
+            entry.optimization.getMetrics().close();
+        }
+    }
+
+    private static class Entry {
+        private final OptimizationDTO optimizationDto;
+        private final Optimization optimization;
+        private volatile long lastAccess;
+
+        private Entry(OptimizationDTO optimizationDto, Optimization optimization) {
+            this.optimizationDto = optimizationDto;
+            this.optimization = optimization;
+            this.lastAccess = System.currentTimeMillis();
+        }
+
+        private long getEstimatedSize() {
+            return estimateSize(this.optimization);
+        }
+    }
+}
@@ -0,0 +1,480 @@
+package at.jku.dke.slotmachine.optimizer.service;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Schedules optimization runs on the available cores. Each optimization claims a CPU budget, i.e., a number of cores,
+ * and only starts once that many cores are free. Waiting optimizations are started in the order of their priority
+ * class and, within a class, in the order of submission; an optimization at the head of the queue is never overtaken,
+ * which prevents optimizations with large budgets from starving.
+ * <p>
+ * Optimizations that spend most of their time waiting for the Privacy Engine are I/O-bound: they do not claim cores,
+ * but one of a large number of slots, and run on a separate pool that grows with the number of running optimizations.
+ * Hence, I/O-bound optimizations neither wait for nor block the cores of CPU-bound optimizations.
+ * <p>
+ * The number of waiting optimizations is bounded: if the queue is full, further optimizations that cannot start
+ * immediately are rejected with a {@link RejectedExecutionException}. For each waiting optimization, the scheduler
+ * estimates its start time by replaying the queue against the expected finish times of the running optimizations. The
+ * expected run time of an optimization is the exponentially weighted average of the run times of the previous
+ * optimizations of its priority class, separately for CPU-bound and I/O-bound optimizations.
+ * <p>
+ * Bound to a meter registry, the scheduler reports the capacity, usage and queue length of each lane, tagged with
+ * <code>lane</code> <code>cpu</code> or <code>io</code>, and the time optimizations wait in the queue.
+ */
+public class OptimizationScheduler implements MeterBinder {
+    private static final Logger logger = LogManager.getLogger();
+
+    /**
+     * Weight of the latest run time in the average run time of a priority class
+     */
+    private static final double RUN_TIME_SMOOTHING = 0.3;
+
+    public enum Priority {
+        OPERATIONAL,
+        BENCHMARKING
+    }
+
+    private final int queueCapacity;
+
+    /**
+     * Cores for CPU-bound optimizations
+     */
+    private final Lane cpuLane;
+
+    /**
+     * Slots for I/O-bound optimizations
+     */
+    private final Lane ioLane;
+
+    private final Map<UUID, Job<?>> jobs;
+
+    private final AtomicLong sequence = new AtomicLong();
+
+    private long noStarted;
+    private long noRejected;
+
+    private Timer waitTimer = null;
+
+    /**
+     * @param cores the number of cores available to optimizations; the number of available processors if less than one
+     * @param ioBoundSlots the maximum number of I/O-bound optimizations running at the same time
+     * @param queueCapacity the maximum number of waiting optimizations; zero to only accept optimizations that can start
+     *                      immediately
+     * @param defaultRunTime the expected run time of an optimization before any optimization has finished
+     */
+    public OptimizationScheduler(int cores, int ioBoundSlots, int queueCapacity, Duration defaultRunTime) {
+        this.queueCapacity = Math.max(0, queueCapacity);
+
+        this.cpuLane = new Lane("cores", "Optimization::", cores > 0 ? cores : Runtime.getRuntime().availableProcessors(), defaultRunTime);
+        this.ioLane = new Lane("I/O-bound slots", "IoBoundOptimization::", Math.max(1, ioBoundSlots), defaultRunTime);
+
+        this.jobs = new HashMap<>();
+
+        logger.info("Scheduling optimizations on " + this.cpuLane.capacity + " cores and up to " + this.ioLane.capacity +
+                " I/O-bound optimizations with up to " + this.queueCapacity + " waiting optimizations.");
+    }
+
+    /**
+     * Submits an optimization run. The run starts as soon as the optimizations before it in the queue have started and
+     * enough cores are available.
+     * @param optId the identifier of the optimization
+     * @param priority the priority class of the optimization
+     * @param cpuBudget the number of cores the optimization occupies while running; limited to the available cores
+     * @param task the optimization run
+     * @param <T> the type of the result of the run
+     * @return the future of the run; cancelling a waiting run removes it from the queue
+     * @throws RejectedExecutionException if the optimization cannot start immediately and the queue is full, or if the
+     * optimization is already scheduled
+     */
+    public <T> Future<T> submit(UUID optId, Priority priority, int cpuBudget, Callable<T> task) {
+        return this.submit(optId, priority, cpuBudget, false, task);
+    }
+
+    /**
+     * Submits an optimization run. An I/O-bound run does not claim cores but one of the slots for I/O-bound
+     * optimizations, and it runs on the separate pool for I/O-bound optimizations.
+     * @param optId the identifier of the optimization
+     * @param priority the priority class of the optimization
+     * @param cpuBudget the number of cores a CPU-bound optimization occupies while running; limited to the available cores
+     * @param ioBound true if the optimization mostly waits for I/O
+     * @param task the optimization run
+     * @param <T> the type of the result of the run
+     * @return the future of the run; cancelling a waiting run removes it from the queue
+     * @throws RejectedExecutionException if the optimization cannot start immediately and the queue is full, or if the
+     * optimization is already scheduled
+     */
+    public synchronized <T> Future<T> submit(UUID optId, Priority priority, int cpuBudget, boolean ioBound, Callable<T> task) {
+        if(this.jobs.containsKey(optId)) {
+            throw new RejectedExecutionException("Optimization " + optId + " is already scheduled.");
+        }
+
+        Lane lane = ioBound ? this.ioLane : this.cpuLane;
+        int cost = ioBound ? 1 : Math.min(Math.max(1, cpuBudget), this.cpuLane.capacity);
+
+        Job<T> job = new Job<>(optId, priority, lane, cost, task);
+        this.jobs.put(optId, job);
+        lane.queue.add(job);
+
+        this.dispatch(lane);
+
+        if(job.startTime != null) {
+            return job;
+        }
+
+        // only an optimization that cannot start immediately counts against the capacity of the queue
+        int waiting = this.cpuLane.queue.size() + this.ioLane.queue.size() - 1;
+        if(waiting >= this.queueCapacity) {
+            // the queue is as before, so its head still does not fit into the available capacity
+            lane.queue.remove(job);
+            this.jobs.remove(optId);
+
+            this.noRejected++;
+            logger.warn("Rejected optimization " + optId + ": " + waiting + " optimizations are waiting.");
+            throw new RejectedExecutionException("Queue of optimizations is full: " + waiting + " optimizations are waiting.");
+        }
+
+        if(ioBound) {
+            logger.info("Queued I/O-bound optimization " + optId + " with priority " + priority + ".");
+        } else {
+            logger.info("Queued optimization " + optId + " with priority " + priority + " and a budget of " + job.cost + " cores.");
+        }
+
+        return job;
+    }
+
+    /**
+     * Starts waiting optimizations as long as the head of the lane's queue fits into the lane's available capacity.
+     */
+    private void dispatch(Lane lane) {
+        while(!lane.queue.isEmpty() && lane.queue.peek().cost <= lane.available) {
+            Job<?> job = lane.queue.poll();
+
+            lane.available -= job.cost;
+            job.startTime = LocalDateTime.now();
+            this.noStarted++;
+
+            if(this.waitTimer != null) {
+                this.waitTimer.record(System.nanoTime() - job.queuedNanos, TimeUnit.NANOSECONDS);
+            }
+
+            logger.info("Starting optimization " + job.optId + " using " + job.cost + " of " + lane.capacity + " " + lane.name + "; " + lane.available + " remain available.");
+
+            lane.workers.execute(() -> {
+                try {
+                    job.run();
+                } finally {
+                    this.release(job);
+                }
+            });
+        }
+    }
+
+    private synchronized void release(Job<?> job) {
+        job.lane.available += job.cost;
+        this.jobs.remove(job.optId);
+
+        Duration runTime = Duration.between(job.startTime, LocalDateTime.now());
+        Duration expectedRunTime = job.lane.expectedRunTimes.get(job.priority);
+        job.lane.expectedRunTimes.put(job.priority, Duration.ofMillis(Math.round(
+                RUN_TIME_SMOOTHING * runTime.toMillis() + (1 - RUN_TIME_SMOOTHING) * expectedRunTime.toMillis()
+        )));
+
+        logger.info("Optimization " + job.optId + " released " + job.cost + " " + job.lane.name + " after " + runTime.toMillis() + " ms.");
+
+        this.dispatch(job.lane);
+    }
+
+    private synchronized void dequeue(Job<?> job) {
+        if(job.startTime == null && job.lane.queue.remove(job)) {
+            this.jobs.remove(job.optId);
+            logger.info("Removed cancelled optimization " + job.optId + " from the queue.");
+
+            // the cancelled optimization may have blocked the head of the queue
+            this.dispatch(job.lane);
+        }
+    }
+
+    /**
+     * Estimates when an optimization starts and finishes.
+     * @param optId the identifier of the optimization
+     * @return the estimate, or null if the optimization is neither waiting nor running
+     */
+    public synchronized Estimate getEstimate(UUID optId) {
+        Job<?> job = this.jobs.get(optId);
+
+        if(job == null) {
+            return null;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+
+        if(job.startTime != null) {
+            return new Estimate(0, job.startTime, this.getExpectedFinish(job, now));
+        }
+
+        // the lane's capacity becomes available when its running optimizations finish
+        Lane lane = job.lane;
+        PriorityQueue<Release> releases = new PriorityQueue<>(Comparator.comparing(release -> release.time));
+        for(Job<?> other : this.jobs.values()) {
+            if(other.lane == lane && other.startTime != null) {
+                releases.add(new Release(this.getExpectedFinish(other, now), other.cost));
+            }
+        }
+
+        List<Job<?>> waiting = new ArrayList<>(lane.queue);
+        waiting.sort(lane.queue.comparator());
+
+        int available = lane.available;
+        LocalDateTime time = now;
+
+        for(int position = 0; position < waiting.size(); position++) {
+            Job<?> next = waiting.get(position);
+
+            while(available < next.cost && !releases.isEmpty()) {
+                Release release = releases.poll();
+                available += release.cost;
+                if(release.time.isAfter(time)) {
+                    time = release.time;
+                }
+            }
+
+            LocalDateTime finish = time.plus(lane.expectedRunTimes.get(next.priority));
+
+            if(next == job) {
+                return new Estimate(position + 1, time, finish);
+            }
+
+            available -= next.cost;
+            releases.add(new Release(finish, next.cost));
+        }
+
+        return null;
+    }
+
+    private LocalDateTime getExpectedFinish(Job<?> job, LocalDateTime now) {
+        LocalDateTime finish = job.startTime.plus(job.lane.expectedRunTimes.get(job.priority));
+        return finish.isAfter(now) ? finish : now;
+    }
+
+    public int getCores() {
+        return cpuLane.capacity;
+    }
+
+    public synchronized int getAvailableCores() {
+        return cpuLane.available;
+    }
+
+    public int getIoBoundSlots() {
+        return ioLane.capacity;
+    }
+
+    public synchronized int getAvailableIoBoundSlots() {
+        return ioLane.available;
+    }
+
+    public synchronized int getQueueLength() {
+        return cpuLane.queue.size() + ioLane.queue.size();
+    }
+
+    @Override
+    public synchronized void bindTo(MeterRegistry registry) {
+        this.bindTo(registry, this.cpuLane, "cpu");
+        this.bindTo(registry, this.ioLane, "io");
+
+        FunctionCounter.builder("slotmachine.scheduler.started", this, scheduler -> scheduler.getNoStarted())
+                .description("Optimizations started by the scheduler")
+                .register(registry);
+        FunctionCounter.builder("slotmachine.scheduler.rejected", this, scheduler -> scheduler.getNoRejected())
+                .description("Optimizations rejected because the queue was full")
+                .register(registry);
+
+        this.waitTimer = Timer.builder("slotmachine.scheduler.wait")
+                .description("Time optimizations wait in the queue before they start")
+                .register(registry);
+    }
+
+    private void bindTo(MeterRegistry registry, Lane lane, String laneTag) {
+        Tags tags = Tags.of("lane", laneTag);
+
+        Gauge.builder("slotmachine.scheduler.capacity", lane, l -> l.capacity)
+                .description("Cores or I/O-bound slots available to optimizations")
+                .tags(tags)
+                .register(registry);
+        Gauge.builder("slotmachine.scheduler.used", this, scheduler -> scheduler.getUsed(lane))
+                .description("Cores or I/O-bound slots used by running optimizations")
+                .tags(tags)
+                .register(registry);
+        Gauge.builder("slotmachine.scheduler.queue", this, scheduler -> scheduler.getQueueLength(lane))
+                .description("Optimizations waiting to start")
+                .tags(tags)
+                .register(registry);
+    }
+
+    private synchronized int getUsed(Lane lane) {
+        return lane.capacity - lane.available;
+    }
+
+    private synchronized int getQueueLength(Lane lane) {
+        return lane.queue.size();
+    }
+
+    private synchronized long getNoStarted() {
+        return this.noStarted;
+    }
+
+    private synchronized long getNoRejected() {
+        return this.noRejected;
+    }
+
+    public void shutdown() {
+        this.cpuLane.workers.shutdownNow();
+        this.ioLane.workers.shutdownNow();
+    }
+
+    public synchronized void printLogs() {
+        logger.info("--------------- Statistics Optimization Scheduler -----------");
+        logger.info("Cores: " + this.cpuLane.capacity + " | available: " + this.cpuLane.available);
+        logger.info("I/O-bound slots: " + this.ioLane.capacity + " | available: " + this.ioLane.available);
+        logger.info("Waiting optimizations: " + this.cpuLane.queue.size() + " CPU-bound, " + this.ioLane.queue.size() + " I/O-bound | capacity: " + this.queueCapacity);
+        logger.info("Number of started optimizations: " + this.noStarted);
+        logger.info("Number of rejected optimizations: " + this.noRejected);
+        logger.info("Expected run times: " + this.cpuLane.expectedRunTimes + " CPU-bound, " + this.ioLane.expectedRunTimes + " I/O-bound");
+        logger.info("--------------------------------------------------------------");
+    }
+
+    /**
+     * The expected start and finish of an optimization.
+     */
+    public static class Estimate {
+        private final int queuePosition;
+        private final LocalDateTime start;
+        private final LocalDateTime finish;
+
+        private Estimate(int queuePosition, LocalDateTime start, LocalDateTime finish) {
+            this.queuePosition = queuePosition;
+            this.start = start;
+            this.finish = finish;
+        }
+
+        /**
+         * @return the position in the queue starting with 1, or 0 if the optimization is running
+         */
+        public int getQueuePosition() {
+            return queuePosition;
+        }
+
+        /**
+         * @return the (expected) start time of the optimization
+         */
+        public LocalDateTime getStart() {
+            return start;
+        }
+
+        /**
+         * @return the expected finish time of the optimization
+         */
+        public LocalDateTime getFinish() {
+            return finish;
+        }
+    }
+
+    private static class Release {
+        private final LocalDateTime time;
+        private final int cost;
+
+        private Release(LocalDateTime time, int cost) {
+            this.time = time;
+            this.cost = cost;
+        }
+    }
+
+    /**
+     * A capacity shared by optimizations, the queue of optimizations waiting for it, and the threads that run them.
+     * As the capacity limits the number of running optimizations, the pool of threads is unbounded.
+     */
+    private static class Lane {
+        private final String name;
+        private final int capacity;
+        private final PriorityQueue<Job<?>> queue;
+        private final Map<Priority, Duration> expectedRunTimes;
+        private final ExecutorService workers;
+
+        private int available;
+
+        private Lane(String name, String threadNamePrefix, int capacity, Duration defaultRunTime) {
+            this.name = name;
+            this.capacity = capacity;
+            this.available = capacity;
+
+            this.expectedRunTimes = new EnumMap<>(Priority.class);
+            for(Priority priority : Priority.values()) {
+                this.expectedRunTimes.put(priority, defaultRunTime);
+            }
+
+            this.queue = new PriorityQueue<>(Comparator.<Job<?>, Priority>comparing(job -> job.priority)
+                    .thenComparingLong(job -> job.sequence));
+
+            AtomicInteger threadCount = new AtomicInteger();
+            this.workers = Executors.newCachedThreadPool(runnable -> {
+                Thread thread = new Thread(runnable, threadNamePrefix + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    private class Job<T> extends FutureTask<T> {
+        private final UUID optId;
+        private final Priority priority;
+        private final Lane lane;
+        private final int cost;
+        private final long sequence;
+
+        private final long queuedNanos = System.nanoTime();
+
+        private LocalDateTime startTime = null;
+
+        private Job(UUID optId, Priority priority, Lane lane, int cost, Callable<T> task) {
+            super(task);
+            this.optId = optId;
+            this.priority = priority;
+            this.lane = lane;
+            this.cost = cost;
+            this.sequence = OptimizationScheduler.this.sequence.getAndIncrement();
+        }
+
+        @Override
+        protected void done() {
+            if(this.isCancelled()) {
+                OptimizationScheduler.this.dequeue(this);
+            }
+        }
+    }
+}
@@ -9,42 +9,48 @@ import at.jku.dke.slotmachine.optimizer.optimization.hungarian.HungarianOptimiza
 import at.jku.dke.slotmachine.optimizer.optimization.jenetics.JeneticsOptimization;
 import at.jku.dke.slotmachine.optimizer.service.dto.*;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
-import org.springframework.scheduling.annotation.Async;
-import org.springframework.scheduling.annotation.AsyncResult;
 import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.lang.reflect.InvocationTargetException;
 import java.time.LocalDateTime;
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Future;
-import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 @Service
 public class OptimizationService {
 	private static final Logger logger = LogManager.getLogger();
 
-	private final Map<UUID, OptimizationDTO> optimizationDTOs;
-	private final Map<UUID, Optimization> optimizations;
-	private final Map<UUID, Future<OptimizationResultDTO>> threads;
+	private final OptimizationRegistry registry;
 
 	private final PrivacyEngineService privacyEngineService;
+	private final OptimizationScheduler optimizationScheduler;
+	private final OptimizationProgressStream progressStream;
+	private final MeterRegistry meterRegistry;
 
-	public OptimizationService(PrivacyEngineService privacyEngineService) {
+	public OptimizationService(PrivacyEngineService privacyEngineService, OptimizationScheduler optimizationScheduler,
+							   OptimizationRegistry registry, OptimizationProgressStream progressStream,
+							   MeterRegistry meterRegistry) {
 		this.privacyEngineService = privacyEngineService;
+		this.optimizationScheduler = optimizationScheduler;
+		this.progressStream = progressStream;
+		this.meterRegistry = meterRegistry;
 
-		this.optimizationDTOs = new ConcurrentHashMap<>();
-		this.optimizations = new ConcurrentHashMap<>();
-		this.threads = new ConcurrentHashMap<>();
+		this.registry = registry;
+		this.registry.setSpillFunction(this::createSpilledOptimization);
 	}
 
 	/**
 	 * Create the optimization and initialize it with the given data.
 	 * @param optimizationDto data for the optimization session
 	 * @return information about the optimization
+	 * @throws IllegalArgumentException if the flights cannot be assigned to the slots without violating the SOBT
+	 * constraint
 	 */
 	public OptimizationDTO createAndInitializeOptimization(final OptimizationDTO optimizationDto)
 			throws ClassNotFoundException, InvocationTargetException,
@@ -55,12 +61,13 @@ public class OptimizationService {
 		UUID optId = optimizationDto.getOptId();
 
 		// remove existing optimization if same optimization id is used twice
-		if(this.optimizations.containsKey(optId)) {
+		if(this.registry.contains(optId)) {
 			logger.info("Found duplicate optimization entry for optimization with id " + optId + ". Deleting old entry.");
-			optimizationDTOs.remove(optId);
-			optimizations.remove(optId);
+			registry.remove(optId);
 		}
 
+		Optimization newOptimization;
+
 		try {
 			logger.info("Read the factory class from the JSON properties file.");
 			String factoryClasses = System.getProperty(OptimizerApplication.FACTORY_PROPERTY);
@@ -94,23 +101,14 @@ public class OptimizationService {
 					.toArray(Slot[]::new);
 
 			logger.info("Checking if flights can be assigned to slots without violating SOBT constraint..");
-			var flightsWithScheduledTime = Arrays.stream(flights)
-					.filter(f -> f.getScheduledTime() != null)
-					.sorted()
-					.collect(Collectors.toList());
-			for(int i = 1; i <= flightsWithScheduledTime.size(); i++){
-				var flight = flightsWithScheduledTime.get(flightsWithScheduledTime.size() - i);
-				Long availableSlots = Arrays.stream(slots).filter(slot -> slot.getTime().compareTo(flight.getScheduledTime()) >= 0).count();
-				if(availableSlots < i){
-					logger.error("It is not possible to construct a valid solution.");
-					logger.error("{} flights require a slot after or equal to {}, but there are only {} slots available.", i, flight.getScheduledTime().toString(), availableSlots);
-					logger.warn("Initialize the optimization with a feasible input.");
-					break;
-				}
+			SobtFeasibility feasibility = SobtFeasibility.analyse(flights, slots);
+			if(!feasibility.isFeasible()) {
+				logger.error("It is not possible to construct a valid solution.");
+				logger.error(feasibility.getViolation());
+				throw new IllegalArgumentException("Infeasible optimization " + optId + ": " + feasibility.getViolation());
 			}
 			logger.info("Finished validating SOBT constraint.");
 
-			Optimization newOptimization;
 			try {
 				logger.info("Create a new optimization with the specified characteristics");
 				if (optimizationDto.getParameters() != null) {
@@ -120,6 +118,13 @@ public class OptimizationService {
 				}
 
 				newOptimization.setOptId(optId);
+
+				// record the meters of the optimization in the application's registry
+				newOptimization.setMetrics(new OptimizationMetrics(this.meterRegistry, optId, optimizationDto.getOptimizationFramework()));
+
+				// improve the best results by local search once the optimization has finished, if requested
+				newOptimization.setLocalSearch(LocalSearch.fromParameters(optimizationDto.getParameters()));
+
 				// set initial flight sequence
 				newOptimization.setInitialFlightSequence(optimizationDto.getInitialFlightSequence());
 
@@ -127,15 +132,15 @@ public class OptimizationService {
 				newOptimization.setTraceFitnessEvolution(optimizationDto.isTraceFitnessEvolution());
 
 				if(optimizationDto.isTraceFitnessEvolution()) {
-					newOptimization.getStatistics().setFitnessEvolution(new LinkedList<>());
+					newOptimization.getStatistics().setFitnessEvolution(new FitnessEvolutionTrace());
 				}
 
+				// push the progress of each generation to the subscribers of the optimization, if any
+				newOptimization.setProgressListener(progress -> this.progressStream.publish(optId, progress));
+
 				// set the creation time in the optimization's statistics
 				newOptimization.getStatistics().setTimeCreated(LocalDateTime.now());
 
-				logger.info("Store optimization " + optId + " for later invocation");
-				optimizations.put(optId, newOptimization);
-
 				String estimatorName = optimizationDto.getFitnessEstimator();
 				String estimatorClassName;
 
@@ -226,6 +231,7 @@ public class OptimizationService {
 					logger.info("Get theoretical maximum fitness by running the Hungarian algorithm before the actual optimization.");
 
 					HungarianOptimization hungarianOptimization = new HungarianOptimization(flights, slots);
+					hungarianOptimization.setWeightMatrix(newOptimization.getWeightMatrix()); // same flights and slots
 					var optimalSolution = hungarianOptimization.run();
 					logger.info("Checking if optimal solution produced by Hungarian is valid.");
 					var invalidMappings = optimalSolution.entrySet().stream().filter(e -> e.getKey().getScheduledTime() != null && e.getValue().getTime().isBefore(e.getKey().getScheduledTime())).count();
@@ -267,12 +273,13 @@ public class OptimizationService {
 			throw e;
 		}
 
-		// keep the DTO for later
-		optimizationDTOs.put(optId, optimizationDto);
+		// keep the optimization and the DTO for later
+		logger.info("Store optimization " + optId + " for later invocation");
+		registry.put(optId, optimizationDto, newOptimization);
 
 		if(logger.isDebugEnabled()) {
 			logger.debug("Listing available optimization sessions ...");
-			for (Optimization o : optimizations.values()) {
+			for (OptimizationDTO o : registry.getOptimizationDtos()) {
 				logger.debug(o.getOptId().toString());
 			}
 		}
@@ -280,18 +287,304 @@ public class OptimizationService {
 
 		return optimizationDto;
 	}
+
+	/**
+	 * Creates an optimization that differs from a previous optimization by the given changes, e.g., delayed flights
+	 * or removed slots. The changed optimization is initialized like a new optimization with the previous
+	 * optimization's framework, mode and parameters, unless the changes replace parameters. Flights that are neither
+	 * added nor changed keep their weights, so only the changes have to be sent. The changed optimization starts from
+	 * the previous optimization's solutions, repaired for the changed flights and slots, rather than from scratch; the
+	 * best repaired solution becomes the initial flight sequence. The previous optimization may still be running or
+	 * may have been spilled.
+	 * @param baseOptId the identifier of the previous optimization
+	 * @param delta the changes with respect to the previous optimization
+	 * @return information about the changed optimization, or null if the previous optimization does not exist
+	 * @throws IllegalArgumentException if the changes refer to flights or slots that are not part of the previous
+	 * optimization, or if the changed optimization has the previous optimization's identifier
+	 */
+	public OptimizationDTO reoptimize(UUID baseOptId, OptimizationDelta delta)
+			throws ClassNotFoundException, InvocationTargetException,
+				   InstantiationException, IllegalAccessException,
+				   NoSuchMethodException, InvalidOptimizationParameterTypeException {
+		SpilledOptimization baseOptimization = this.registry.getOptimization(baseOptId) != null ?
+				this.createSpilledOptimization(baseOptId) : this.registry.getSpilled(baseOptId);
+
+		if(baseOptimization == null) {
+			logger.info("Optimization " + baseOptId + " not found.");
+			return null;
+		}
+
+		UUID optId = delta.getOptId() != null ? delta.getOptId() : UUID.randomUUID();
+
+		if(optId.equals(baseOptId)) {
+			throw new IllegalArgumentException("The changed optimization requires an identifier other than " + baseOptId + ".");
+		}
+
+		logger.info("Creating optimization " + optId + " from optimization " + baseOptId + ".");
+		OptimizationDTO baseDto = baseOptimization.getOptimization();
+
+		SlotDTO[] baseSlots = baseDto.getSlots();
+		boolean[] removedSlots = new boolean[baseSlots.length];
+
+		if(delta.getRemovedSlots() != null) {
+			for(LocalDateTime time : delta.getRemovedSlots()) {
+				int s = 0;
+				while(s < baseSlots.length && (removedSlots[s] || !baseSlots[s].getTime().equals(time))) {
+					s++;
+				}
+
+				if(s == baseSlots.length) {
+					throw new IllegalArgumentException("Slot at " + time + " not found in optimization " + baseOptId + ".");
+				}
+
+				removedSlots[s] = true;
+			}
+		}
+
+		List<Integer> keptSlots = new ArrayList<>();
+		List<SlotDTO> slots = new ArrayList<>();
+		for(int s = 0; s < baseSlots.length; s++) {
+			if(!removedSlots[s]) {
+				keptSlots.add(s);
+				slots.add(baseSlots[s]);
+			}
+		}
+
+		if(delta.getAddedSlots() != null) {
+			slots.addAll(Arrays.asList(delta.getAddedSlots()));
+		}
+
+		boolean slotsChanged = keptSlots.size() < baseSlots.length || slots.size() > keptSlots.size();
+		int[] weightSources = slotsChanged ? this.getWeightSources(baseSlots, keptSlots, slots) : null;
+
+		Map<String, FlightDTO> changedFlights = new HashMap<>();
+		if(delta.getChangedFlights() != null) {
+			for(FlightDTO flight : delta.getChangedFlights()) {
+				changedFlights.put(flight.getFlightId(), flight);
+			}
+		}
+
+		Set<String> removedFlights = new HashSet<>();
+		if(delta.getRemovedFlights() != null) {
+			removedFlights.addAll(Arrays.asList(delta.getRemovedFlights()));
+		}
+
+		List<FlightDTO> flights = new ArrayList<>();
+		Set<String> flightIds = new HashSet<>();
+		for(FlightDTO baseFlight : baseDto.getFlights()) {
+			flightIds.add(baseFlight.getFlightId());
+
+			if(removedFlights.contains(baseFlight.getFlightId())) {
+				continue;
+			}
+
+			FlightDTO changedFlight = changedFlights.get(baseFlight.getFlightId());
+
+			if(changedFlight == null && !slotsChanged) {
+				// the weights still refer to the same slots
+				flights.add(baseFlight);
+			} else {
+				FlightDTO flight = new FlightDTO();
+				flight.setFlightId(baseFlight.getFlightId());
+
+				if(changedFlight != null && changedFlight.getScheduledTime() != null) {
+					flight.setScheduledTime(changedFlight.getScheduledTime());
+				} else {
+					flight.setScheduledTime(baseFlight.getScheduledTime());
+				}
+
+				if(changedFlight != null && changedFlight.getWeightMap() != null) {
+					flight.setWeightMap(changedFlight.getWeightMap());
+				} else if(baseFlight.getWeightMap() != null && slotsChanged) {
+					if(weightSources == null) {
+						throw new IllegalArgumentException("Flight " + baseFlight.getFlightId() + " requires weights as all slots are replaced.");
+					}
+
+					int[] baseWeights = baseFlight.getWeightMap();
+					flight.setWeightMap(Arrays.stream(weightSources).map(position -> baseWeights[position]).toArray());
+				} else {
+					flight.setWeightMap(baseFlight.getWeightMap());
+				}
+
+				flights.add(flight);
+			}
+		}
+
+		for(String flightId : removedFlights) {
+			if(!flightIds.contains(flightId)) {
+				throw new IllegalArgumentException("Flight " + flightId + " not found in optimization " + baseOptId + ".");
+			}
+		}
+
+		for(String flightId : changedFlights.keySet()) {
+			if(!flightIds.contains(flightId) || removedFlights.contains(flightId)) {
+				throw new IllegalArgumentException("Flight " + flightId + " not found in optimization " + baseOptId + ".");
+			}
+		}
+
+		if(delta.getAddedFlights() != null) {
+			for(FlightDTO flight : delta.getAddedFlights()) {
+				if(flightIds.contains(flight.getFlightId()) && !removedFlights.contains(flight.getFlightId())) {
+					throw new IllegalArgumentException("Flight " + flight.getFlightId() + " already exists in optimization " + baseOptId + ".");
+				}
+
+				flights.add(flight);
+			}
+		}
+
+		Map<String, Object> parameters = new HashMap<>();
+		if(baseDto.getParameters() != null) {
+			parameters.putAll(baseDto.getParameters());
+		}
+		if(delta.getParameters() != null) {
+			parameters.putAll(delta.getParameters());
+		}
+
+		OptimizationDTO optimizationDto = new OptimizationDTO();
+		optimizationDto.setOptId(optId);
+		optimizationDto.setFlights(flights.toArray(FlightDTO[]::new));
+		optimizationDto.setSlots(slots.toArray(SlotDTO[]::new));
+		optimizationDto.setFitnessEstimator(baseDto.getFitnessEstimator());
+		optimizationDto.setParameters(parameters);
+		optimizationDto.setOptimizationFramework(baseDto.getOptimizationFramework());
+		optimizationDto.setOptimizationMode(baseDto.getOptimizationMode());
+		optimizationDto.setPrivacyEngineEndpoint(baseDto.getPrivacyEngineEndpoint());
+		optimizationDto.setTraceFitnessEvolution(baseDto.isTraceFitnessEvolution());
+		optimizationDto.setFitnessMethod(baseDto.getFitnessMethod());
+		optimizationDto.setFitnessPrecision(baseDto.getFitnessPrecision());
+
+		optimizationDto = this.createAndInitializeOptimization(optimizationDto);
+
+		Optimization optimization = this.registry.getOptimization(optId);
+
+		// the solutions of the previous optimization; its initial flight sequence if there are none
+		String[][] flightSequences = baseOptimization.getFlightSequences();
+		LocalDateTime[][] slotTimes = baseOptimization.getSlotTimes();
+
+		if((flightSequences == null || flightSequences.length == 0) && baseDto.getInitialFlightSequence() != null) {
+			flightSequences = new String[][] { baseDto.getInitialFlightSequence() };
+			slotTimes = new LocalDateTime[][] { Arrays.stream(baseSlots).map(SlotDTO::getTime).toArray(LocalDateTime[]::new) };
+		}
+
+		List<Map<Flight, Slot>> initialAllocations = new ArrayList<>();
+		for(int i = 0; flightSequences != null && i < flightSequences.length; i++) {
+			Map<Flight, Slot> allocation = WarmStart.repair(optimization.getWeightMatrix(),
+					optimization.getFlights(), optimization.getSlots(), flightSequences[i], slotTimes[i]);
+
+			if(allocation != null && !initialAllocations.contains(allocation)) {
+				initialAllocations.add(allocation);
+			}
+		}
+
+		if(!initialAllocations.isEmpty()) {
+			logger.info("Starting optimization " + optId + " from " + initialAllocations.size() + " repaired solutions of optimization " + baseOptId + ".");
+			optimization.setInitialAllocations(initialAllocations);
+
+			Map<Slot, Flight> bestAllocation = new IdentityHashMap<>();
+			initialAllocations.get(0).forEach((flight, slot) -> bestAllocation.put(slot, flight));
+
+			String[] initialFlightSequence = Arrays.stream(optimization.getSlots())
+					.map(slot -> bestAllocation.containsKey(slot) ? bestAllocation.get(slot).getFlightId() : null)
+					.toArray(String[]::new);
+
+			optimization.setInitialFlightSequence(initialFlightSequence);
+			optimizationDto.setInitialFlightSequence(initialFlightSequence);
+
+			if(optimization.getMode() != OptimizationMode.PRIVACY_PRESERVING) {
+				optimization.getStatistics().setInitialFitness(optimization.computeInitialFitness());
+			}
+		} else {
+			logger.info("Optimization " + baseOptId + " has no solutions to start optimization " + optId + " from.");
+		}
+
+		return optimizationDto;
+	}
+
+	/**
+	 * Determines for each slot of a changed optimization, in time order, the slot of the previous optimization whose
+	 * weight is used: the same slot if the slot is kept, otherwise the closest earlier kept slot, or the earliest kept
+	 * slot if there is none.
+	 * @param baseSlots the slots of the previous optimization
+	 * @param keptSlots the indexes of the previous optimization's slots that are kept
+	 * @param slots the slots of the changed optimization; the kept slots first, in the same order
+	 * @return the positions in time order of the previous optimization's slots, or null if no slot is kept
+	 */
+	private int[] getWeightSources(SlotDTO[] baseSlots, List<Integer> keptSlots, List<SlotDTO> slots) {
+		if(keptSlots.isEmpty()) {
+			return null;
+		}
+
+		// sorting is stable, as in the weight matrix
+		int[] basePositions = new int[baseSlots.length];
+		int[] baseOrder = IntStream.range(0, baseSlots.length)
+				.boxed()
+				.sorted(Comparator.comparing(s -> baseSlots[s].getTime()))
+				.mapToInt(Integer::intValue)
+				.toArray();
+		for(int position = 0; position < baseOrder.length; position++) {
+			basePositions[baseOrder[position]] = position;
+		}
+
+		int[] order = IntStream.range(0, slots.size())
+				.boxed()
+				.sorted(Comparator.comparing(s -> slots.get(s).getTime()))
+				.mapToInt(Integer::intValue)
+				.toArray();
+
+		int[] weightSources = new int[order.length];
+		int previousSource = -1;
+		for(int position = 0; position < order.length; position++) {
+			weightSources[position] = order[position] < keptSlots.size() ?
+					basePositions[keptSlots.get(order[position])] : previousSource;
+			previousSource = weightSources[position];
+		}
+
+		for(int position = order.length - 1; position >= 0; position--) {
+			if(weightSources[position] >= 0) {
+				previousSource = weightSources[position];
+			} else {
+				weightSources[position] = previousSource;
+			}
+		}
+
+		return weightSources;
+	}
 	
 	/**
-	 * Start the optimization run. The method runs asynchronously in a separate thread.
+	 * Start the optimization run. The run is queued by the {@link OptimizationScheduler} and runs asynchronously in a
+	 * separate thread once enough cores are available. Optimizations in benchmarking or demonstration mode give way to
+	 * operational optimizations. Privacy-preserving optimizations mostly wait for the Privacy Engine and therefore run
+	 * as I/O-bound optimizations, which do not occupy cores.
 	 * @param optId optId of the optimization session
+	 * @throws java.util.concurrent.RejectedExecutionException if too many optimizations are waiting
 	 */
-	@Async("threadPoolTaskExecutor")
 	public Future<OptimizationResultDTO> runOptimizationAsynchronously(UUID optId) {
-		logger.info("Current thread: " + Thread.currentThread());
+		Optimization optimization = this.registry.getOptimization(optId);
+
+		OptimizationScheduler.Priority priority = OptimizationScheduler.Priority.OPERATIONAL;
+		int cpuBudget = 1;
+		boolean ioBound = false;
+
+		if(optimization != null) {
+			if(optimization.getMode() == OptimizationMode.BENCHMARKING ||
+					optimization.getMode() == OptimizationMode.DEMONSTRATION) {
+				priority = OptimizationScheduler.Priority.BENCHMARKING;
+			}
+
+			cpuBudget = optimization.getCpuBudget();
+			ioBound = optimization.getMode() == OptimizationMode.PRIVACY_PRESERVING;
+		}
 
-		OptimizationResultDTO optimizationResultDto = this.runOptimization(optId);
+		return this.optimizationScheduler.submit(optId, priority, cpuBudget, ioBound, () -> this.runOptimization(optId));
+	}
 
-		return new AsyncResult<>(optimizationResultDto);
+	/**
+	 * Returns the expected start and finish of a waiting or running optimization.
+	 * @param optId the optimization identifier
+	 * @return the estimate, or null if the optimization is neither waiting nor running
+	 */
+	public OptimizationScheduler.Estimate getOptimizationEstimate(UUID optId) {
+		return this.optimizationScheduler.getEstimate(optId);
 	}
 
 	/**
@@ -301,9 +594,18 @@ public class OptimizationService {
 	 * @return the result of the optimization
 	 */
 	public OptimizationResultDTO[] getOptimizationResult(UUID optId, int noOfSolutions) {
-		Optimization optimization = this.optimizations.get(optId);
+		Optimization optimization = this.registry.getOptimization(optId);
 		List<OptimizationResultDTO> results = new LinkedList<>();
 
+		if(optimization == null) {
+			SpilledOptimization spilledOptimization = this.registry.getSpilled(optId);
+
+			if(spilledOptimization != null) {
+				logger.info("Reloaded results of spilled optimization " + optId + ".");
+				return spilledOptimization.getResults(optId, noOfSolutions);
+			}
+		}
+
 		if(optimization != null) {
 			Map<Flight, Slot>[] resultMaps = optimization.getResults();
 
@@ -329,15 +631,11 @@ public class OptimizationService {
 
 
 					if(i == 0) {
-						// For the best result, we know the fitness
 						logger.info("Set fitness of solution " + i + " to " + optimization.getMaximumFitness());
-						results.get(i).setFitness(optimization.getStatistics().getResultFitness());
-					} else{
-						if(i == 1) logger.info("Setting fitness values of all returned solutions.");
-						results.get(i).setFitness(optimization.getFitnessValuesResults() != null && optimization.getFitnessValuesResults().size() > i ?
-								optimization.getFitnessValuesResults().get(i)
-								: 0.0);
+					} else if(i == 1) {
+						logger.info("Setting fitness values of all returned solutions.");
 					}
+					results.get(i).setFitness(this.getResultFitness(optimization, i));
 					if(optimization.getConvertedResults() != null){
 						results.get(i).setOptimizedFlightSequenceIndexes(optimization.getConvertedResults()[i]);
 					}
@@ -347,6 +645,61 @@ public class OptimizationService {
 
 		return results.toArray(OptimizationResultDTO[]::new);
 	}
+
+	/**
+	 * Returns the fitness of a solution of an optimization.
+	 * @param optimization the optimization
+	 * @param i the index of the solution, starting with the best solution
+	 * @return the fitness of the solution, 0.0 if unknown
+	 */
+	private double getResultFitness(Optimization optimization, int i) {
+		if(i == 0) {
+			// For the best result, we know the fitness
+			return optimization.getStatistics().getResultFitness();
+		}
+
+		return optimization.getFitnessValuesResults() != null && optimization.getFitnessValuesResults().size() > i ?
+				optimization.getFitnessValuesResults().get(i)
+				: 0.0;
+	}
+
+	/**
+	 * Captures a completed optimization so that it can be spilled by the {@link OptimizationRegistry}.
+	 * @param optId the optimization identifier
+	 * @return the spilled form of the optimization, or null if the optimization does not exist
+	 */
+	private SpilledOptimization createSpilledOptimization(UUID optId) {
+		OptimizationDTO optimizationDto = this.getOptimization(optId);
+		Optimization optimization = this.registry.getOptimization(optId);
+
+		if(optimizationDto == null || optimization == null) {
+			return null;
+		}
+
+		SpilledOptimization spilledOptimization = new SpilledOptimization();
+		spilledOptimization.setOptimization(optimizationDto);
+		spilledOptimization.setStatistics(this.getOptimizationStatistics(optId));
+
+		Map<Flight, Slot>[] resultMaps = optimization.getResults();
+		int resultCount = resultMaps != null ? resultMaps.length : 0;
+
+		String[][] flightSequences = new String[resultCount][];
+		LocalDateTime[][] slotTimes = new LocalDateTime[resultCount][];
+		double[] fitnessValues = new double[resultCount];
+
+		for(int i = 0; i < resultCount; i++) {
+			flightSequences[i] = this.getOptimizedFlightSequence(resultMaps[i]);
+			slotTimes[i] = this.getSlotTimes(resultMaps[i]);
+			fitnessValues[i] = this.getResultFitness(optimization, i);
+		}
+
+		spilledOptimization.setFlightSequences(flightSequences);
+		spilledOptimization.setSlotTimes(slotTimes);
+		spilledOptimization.setFitnessValues(fitnessValues);
+		spilledOptimization.setFlightSequenceIndexes(optimization.getConvertedResults());
+
+		return spilledOptimization;
+	}
 	
 	/**
 	 * Deletes an optimization and all its associated data. If the optimization is currently running, the optimization
@@ -354,14 +707,23 @@ public class OptimizationService {
 	 * @param optId the optimization identifier
 	 */
 	public OptimizationDTO deleteOptimization(UUID optId) {
-		OptimizationDTO optimizationDto = optimizationDTOs.remove(optId);
-		Optimization optimization = optimizations.remove(optId);
-		
-		if(optimization.getStatus() == OptimizationStatus.RUNNING) {
+		Optimization optimization = registry.getOptimization(optId);
+
+		if(optimization != null && optimization.getStatus() == OptimizationStatus.RUNNING) {
 			this.abortOptimization(optId);
+		} else {
+			// remove the optimization from the queue if it has not started yet
+			Future<OptimizationResultDTO> future = this.registry.getThread(optId);
+
+			if(future != null) {
+				future.cancel(false);
+			}
 		}
 
-		return optimizationDto;
+		this.registry.removeThread(optId);
+		this.progressStream.complete(optId, OptimizationStatus.CANCELLED);
+
+		return registry.remove(optId);
 	}
 
 	/**
@@ -370,7 +732,7 @@ public class OptimizationService {
 	 * @return true if the optimization exists; false otherwise.
 	 */
 	public boolean existsOptimization(UUID optId) {
-		return optimizations.get(optId) != null;
+		return registry.contains(optId);
 	}
 
 	/**
@@ -379,8 +741,18 @@ public class OptimizationService {
 	 * @return the optimization DTO with the specified identifier, if it exists; null otherwise.
 	 */
 	public OptimizationDTO getOptimization(UUID optId) {
-		OptimizationDTO optimizationDto = optimizationDTOs.get(optId);
-		Optimization optimization = optimizations.get(optId);
+		OptimizationDTO optimizationDto = registry.getOptimizationDto(optId);
+		Optimization optimization = registry.getOptimization(optId);
+
+		if(optimization == null) {
+			SpilledOptimization spilledOptimization = this.registry.getSpilled(optId);
+
+			if(spilledOptimization != null) {
+				optimizationDto = spilledOptimization.getOptimization();
+				optimizationDto.setTimestamp(LocalDateTime.now());
+				return optimizationDto;
+			}
+		}
 
 		if(optimization != null && optimizationDto != null) {
 			switch (optimization.getStatus()) {
@@ -406,9 +778,37 @@ public class OptimizationService {
 	 * @return the current optimization statistics
 	 */
 	public OptimizationStatisticsDTO getOptimizationStatistics(UUID optId) {
+		return this.getOptimizationStatistics(optId, 0);
+	}
+
+	/**
+	 * Get the current statistics for an optimization, including only the fitness evolution from the given generation
+	 * onward. Clients polling a running optimization may thus fetch only the generations traced since the last request.
+	 * @param optId the optimization id
+	 * @param fromGeneration the first generation of the fitness evolution included in the statistics
+	 * @return the current optimization statistics
+	 */
+	public OptimizationStatisticsDTO getOptimizationStatistics(UUID optId, int fromGeneration) {
 		// search for optId
-		Optimization optimization = this.optimizations.get(optId);
+		Optimization optimization = this.registry.getOptimization(optId);
 		if (optimization == null) {
+			SpilledOptimization spilledOptimization = this.registry.getSpilled(optId);
+
+			if(spilledOptimization != null && spilledOptimization.getStatistics() != null) {
+				OptimizationStatisticsDTO stats = spilledOptimization.getStatistics();
+				stats.setRequestTime(LocalDateTime.now());
+
+				if(stats.getFitnessEvolution() != null && fromGeneration > 0) {
+					stats.setFitnessEvolution(
+							Arrays.stream(stats.getFitnessEvolution())
+									.filter(fitnessEvolutionStep -> fitnessEvolutionStep.getGeneration() >= fromGeneration)
+									.toArray(FitnessEvolutionStepDTO[]::new)
+					);
+				}
+
+				return stats;
+			}
+
 			logger.info("Optimization with id " + optId + " not found.");
 			return null;
 		}
@@ -456,18 +856,18 @@ public class OptimizationService {
 		if(optimization.isTraceFitnessEvolution()) {
 			logger.debug("Tracing fitness evolution: include fitness evolution in statistics.");
 			stats.setFitnessEvolution(
-					optimization.getStatistics().getFitnessEvolution().stream()
+					optimization.getStatistics().getFitnessEvolution().getSteps(fromGeneration).stream()
 							.map(fitnessEvolutionStep -> {
 								FitnessEvolutionStepDTO newStep = new FitnessEvolutionStepDTO();
 
 								newStep.setGeneration(fitnessEvolutionStep.getGeneration());
 
 								if(fitnessEvolutionStep.getEstimatedPopulation() != null)newStep.setEstimatedPopulation(
-										Arrays.stream(fitnessEvolutionStep.getEstimatedPopulation()).mapToDouble(Double::doubleValue).toArray()
+										toDoubleArray(fitnessEvolutionStep.getEstimatedPopulation())
 								);
 
 								if(fitnessEvolutionStep.getEvaluatedPopulation() != null)newStep.setEvaluatedPopulation(
-										Arrays.stream(fitnessEvolutionStep.getEvaluatedPopulation()).mapToDouble(Double::doubleValue).toArray()
+										toDoubleArray(fitnessEvolutionStep.getEvaluatedPopulation())
 								);
 
 								return newStep;
@@ -478,6 +878,38 @@ public class OptimizationService {
 		return stats;
 	}
 
+	private static double[] toDoubleArray(float[] values) {
+		double[] doubleValues = new double[values.length];
+		for(int i = 0; i < values.length; i++) {
+			doubleValues[i] = values[i];
+		}
+		return doubleValues;
+	}
+
+	/**
+	 * Subscribes to the progress of an optimization, see {@link OptimizationProgressStream}. If the optimization is not
+	 * running or waiting to run anymore, the stream only contains the status of the optimization.
+	 * @param optId the optimization identifier
+	 * @return the stream of progress events, or null if the optimization does not exist
+	 */
+	public SseEmitter subscribeToProgress(UUID optId) {
+		Optimization optimization = this.registry.getOptimization(optId);
+
+		if(optimization == null) {
+			OptimizationStatisticsDTO stats = this.getOptimizationStatistics(optId);
+			return stats != null ? this.progressStream.completed(stats.getStatus()) : null;
+		}
+
+		SseEmitter emitter = this.progressStream.subscribe(optId);
+
+		// the optimization may have finished before the subscription
+		if(optimization.getStatus() == OptimizationStatus.DONE || optimization.getStatus() == OptimizationStatus.CANCELLED) {
+			this.progressStream.complete(optId, optimization.getStatus());
+		}
+
+		return emitter;
+	}
+
 	/**
 	 * Runs the optimization with the specified framework and parameters.
 	 * @param optId the optimization identifier
@@ -487,7 +919,7 @@ public class OptimizationService {
 		logger.info("Current thread: " + Thread.currentThread());
 
 		// search for optId
-		Optimization optimization = this.optimizations.get(optId);
+		Optimization optimization = this.registry.getOptimization(optId);
 
 		Map<Flight,Slot> resultMap;
 
@@ -498,13 +930,28 @@ public class OptimizationService {
 			optimization.setStatus(OptimizationStatus.RUNNING);
 
 			logger.info("Starting optimization " + optId + " and running optimization algorithm.");
-			resultMap = optimization.run();
+			try {
+				resultMap = optimization.run();
+
+				if(optimization.getLocalSearch() != null && optimization.getStatus() != OptimizationStatus.CANCELLED) {
+					logger.info("Improving the results of optimization " + optId + " by local search.");
+					resultMap = optimization.getLocalSearch().improve(optimization, resultMap);
+				}
+			} catch (RuntimeException e) {
+				this.progressStream.complete(optId, optimization.getStatus());
+				throw e;
+			} finally {
+				// the completed optimization may be spilled
+				this.registry.completed(optId);
+			}
 
 			logger.info("Optimization " + optId + " has finished.");
 			if(optimization.getStatus() != OptimizationStatus.CANCELLED) {
 				optimization.setStatus(OptimizationStatus.DONE);
 			}
 
+			this.progressStream.complete(optId, optimization.getStatus());
+
 			logger.info("Convert the result map into the required format.");
 			optimizationResultDto = this.convertResultMapToOptimizationResultMapDto(optId, resultMap);
 
@@ -525,16 +972,28 @@ public class OptimizationService {
 	 * @return an OptimizationResultDTO based on the input mapping
 	 */
 	public OptimizationResultDTO convertResultMapToOptimizationResultMapDto(UUID optId, Map<Flight, Slot> resultMap) {
-		// sort the flights by slot instant
-		String[] optimizedFlightSequence = resultMap.entrySet().stream()
+		return new OptimizationResultDTO(optId, this.getOptimizedFlightSequence(resultMap), this.getSlotTimes(resultMap));
+	}
+
+	/**
+	 * Returns the identifiers of the flights sorted by slot instant.
+	 * @param resultMap a mapping between flights and slots
+	 * @return the flight sequence
+	 */
+	private String[] getOptimizedFlightSequence(Map<Flight, Slot> resultMap) {
+		return resultMap.entrySet().stream()
 				.sorted(Map.Entry.comparingByValue())
 				.map(Map.Entry::getKey)
 				.map(Flight::getFlightId)
 				.toArray(String[]::new);
+	}
 
-		LocalDateTime[] slots = resultMap.values().stream().sorted().map(Slot::getTime).toArray(LocalDateTime[]::new);
-
-		return new OptimizationResultDTO(optId, optimizedFlightSequence, slots);
+	/**
+	 * @param resultMap a mapping between flights and slots
+	 * @return the sorted times of the assigned slots
+	 */
+	private LocalDateTime[] getSlotTimes(Map<Flight, Slot> resultMap) {
+		return resultMap.values().stream().sorted().map(Slot::getTime).toArray(LocalDateTime[]::new);
 	}
 
 	/**
@@ -542,12 +1001,12 @@ public class OptimizationService {
 	 * @param optId the optimization identifier
 	 */
 	public void abortOptimization(UUID optId) {
-		Future<OptimizationResultDTO> future = this.threads.get(optId);
-        Optimization optimization = this.optimizations.get(optId);
+		Future<OptimizationResultDTO> future = this.registry.getThread(optId);
+        Optimization optimization = this.registry.getOptimization(optId);
 
 		logger.info("Cancel the running optimization " + optId);
 
-		if(future != null && future.cancel(true)) {
+		if(optimization != null && future != null && future.cancel(true)) {
             optimization.setStatus(OptimizationStatus.CANCELLED);
 			logger.info("Cancellation successfully triggered.");
 
@@ -564,7 +1023,7 @@ public class OptimizationService {
 	 */
 	public void registerThread(UUID optId, Future<OptimizationResultDTO> future) {
 		logger.info("Registering future for optimization with id " + optId);
-		this.threads.put(optId, future);
+		this.registry.registerThread(optId, future);
 	}
 
 	/**
@@ -572,6 +1031,6 @@ public class OptimizationService {
 	 * @return a list of optimizations
 	 */
     public OptimizationDTO[] getOptimizations() {
-		return this.optimizationDTOs.values().toArray(OptimizationDTO[]::new);
+		return this.registry.getOptimizationDtos().toArray(OptimizationDTO[]::new);
     }
 }
@@ -0,0 +1,97 @@
+package at.jku.dke.slotmachine.optimizer.service;
+
+import java.io.ByteArrayOutputStream;
+
+/**
+ * Compact binary encoding of the populations sent to the Privacy Engine. A population is a matrix with one row per
+ * candidate solution and one column per flight, where each entry is the position of the flight's slot. The encoding
+ * consists of the number of rows and the number of columns, followed by the entries in row-major order. All numbers
+ * are encoded as zig-zag varints, i.e., entries below 64 take one byte and entries below 8192 take two bytes.
+ */
+public class PermutationMatrixCodec {
+    public static final String MEDIA_TYPE = "application/x-permutation-matrix";
+
+    private PermutationMatrixCodec() {
+    }
+
+    /**
+     * @param matrix the population in the format required by the Privacy Engine; all rows must have the same length
+     * @return the encoded population
+     */
+    public static byte[] encode(int[][] matrix) {
+        int rows = matrix.length;
+        int columns = rows > 0 ? matrix[0].length : 0;
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream(8 + rows * columns * 2);
+        writeVarint(out, rows);
+        writeVarint(out, columns);
+
+        for(int[] row : matrix) {
+            if(row.length != columns) {
+                throw new IllegalArgumentException("Rows of the population differ in length: " + row.length + " instead of " + columns);
+            }
+
+            for(int entry : row) {
+                writeVarint(out, zigZag(entry));
+            }
+        }
+
+        return out.toByteArray();
+    }
+
+    /**
+     * @param bytes the encoded population
+     * @return the population in the format required by the Privacy Engine
+     */
+    public static int[][] decode(byte[] bytes) {
+        int[] offset = new int[1];
+
+        int rows = readVarint(bytes, offset);
+        int columns = readVarint(bytes, offset);
+
+        int[][] matrix = new int[rows][columns];
+        for(int r = 0; r < rows; r++) {
+            for(int c = 0; c < columns; c++) {
+                matrix[r][c] = unZigZag(readVarint(bytes, offset));
+            }
+        }
+
+        return matrix;
+    }
+
+    private static int zigZag(int value) {
+        return (value << 1) ^ (value >> 31);
+    }
+
+    private static int unZigZag(int value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static void writeVarint(ByteArrayOutputStream out, int value) {
+        while((value & ~0x7F) != 0) {
+            out.write((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.write(value);
+    }
+
+    private static int readVarint(byte[] bytes, int[] offset) {
+        int value = 0;
+        int shift = 0;
+
+        while(true) {
+            if(offset[0] >= bytes.length || shift > 28) {
+                throw new IllegalArgumentException("Malformed population encoding at byte " + offset[0]);
+            }
+
+            byte b = bytes[offset[0]++];
+            value |= (b & 0x7F) << shift;
+
+            if((b & 0x80) == 0) {
+                return value;
+            }
+
+            shift += 7;
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package at.jku.dke.slotmachine.optimizer.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.web.client.RestClientException;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Sends populations to the Privacy Engine in the binary format of the {@link PermutationMatrixCodec}. The request
+ * body is gzip-compressed, and the response is expected as JSON, optionally gzip-compressed. A single HTTP client
+ * is shared by all requests, which keeps connections alive between generations and uses HTTP/2 if the Privacy Engine
+ * supports it.
+ */
+public class PrivacyEngineBinaryClient {
+    private static final Logger logger = LogManager.getLogger();
+
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper;
+
+    public PrivacyEngineBinaryClient() {
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .connectTimeout(Duration.ofSeconds(30))
+                .build();
+        this.objectMapper = new ObjectMapper();
+    }
+
+    /**
+     * Sends the population to an endpoint of the Privacy Engine.
+     * @param url the URL of the endpoint
+     * @param input the population in the format required by the Privacy Engine
+     * @param responseType the type of the response body
+     * @param <T> the type of the response body
+     * @return the response body
+     */
+    public <T> T put(String url, int[][] input, Class<T> responseType) {
+        byte[] body = compress(PermutationMatrixCodec.encode(input));
+
+        logger.debug("Sending " + input.length + " individuals in " + body.length + " bytes to Privacy Engine at URL: " + url);
+
+        HttpRequest request = HttpRequest.newBuilder(URI.create(url))
+                .header("Content-Type", PermutationMatrixCodec.MEDIA_TYPE)
+                .header("Content-Encoding", "gzip")
+                .header("Accept", "application/json")
+                .header("Accept-Encoding", "gzip")
+                .PUT(HttpRequest.BodyPublishers.ofByteArray(body))
+                .build();
+
+        try {
+            HttpResponse<InputStream> response = this.httpClient.send(request, HttpResponse.BodyHandlers.ofInputStream());
+
+            try (InputStream responseBody = "gzip".equalsIgnoreCase(response.headers().firstValue("Content-Encoding").orElse(null)) ?
+                    new GZIPInputStream(response.body()) : response.body()) {
+                if(response.statusCode() / 100 != 2) {
+                    throw new RestClientException("Privacy Engine at URL " + url + " responded with status " + response.statusCode());
+                }
+
+                return this.objectMapper.readValue(responseBody, responseType);
+            }
+        } catch (IOException e) {
+            throw new RestClientException("Could not invoke Privacy Engine at URL " + url, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RestClientException("Interrupted while waiting for Privacy Engine at URL " + url, e);
+        }
+    }
+
+    private static byte[] compress(byte[] bytes) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length / 2 + 32);
+
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(bytes);
+        } catch (IOException e) {
+            // cannot happen when writing to memory
+            throw new IllegalStateException(e);
+        }
+
+        return out.toByteArray();
+    }
+}
@@ -5,8 +5,12 @@ import at.jku.dke.slotmachine.optimizer.optimization.jenetics.JeneticsOptimizati
 import at.jku.dke.slotmachine.privacyEngine.dto.AboveIndividualsDTO;
 import at.jku.dke.slotmachine.privacyEngine.dto.FitnessQuantilesDTO;
 import at.jku.dke.slotmachine.privacyEngine.dto.PopulationOrderDTO;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.MediaType;
 import org.springframework.http.RequestEntity;
@@ -14,14 +18,69 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
 @Service
 public class PrivacyEngineService {
 	private static final Logger logger = LogManager.getLogger();
 
 	private final RestTemplate restTemplate;
-	
-	public PrivacyEngineService(RestTemplateBuilder restTemplateBuilder) {
+
+	/**
+	 * Client for the binary transport; null if populations are sent as JSON.
+	 */
+	private final PrivacyEngineBinaryClient binaryClient;
+
+	/**
+	 * Executes asynchronous requests; threads are created on demand and terminate when idle.
+	 */
+	private final ExecutorService requestExecutor;
+
+	private final MeterRegistry meterRegistry;
+
+	/**
+	 * Number of requests waiting for the Privacy Engine
+	 */
+	private final AtomicInteger activeRequests = new AtomicInteger();
+
+	/**
+	 * @param restTemplateBuilder builds the REST template for the JSON transport
+	 * @param transport JSON to send populations as JSON, or BINARY to send them in the compressed binary format of the
+	 *                  {@link PermutationMatrixCodec}, which must be supported by the Privacy Engine
+	 * @param meterRegistry records the round-trip time of requests per endpoint and operation
+	 */
+	public PrivacyEngineService(RestTemplateBuilder restTemplateBuilder, @Value("${privacyEngine.transport:JSON}") String transport,
+								MeterRegistry meterRegistry) {
         this.restTemplate = restTemplateBuilder.build();
+		this.meterRegistry = meterRegistry;
+
+		Gauge.builder("slotmachine.privacyengine.requests.active", this.activeRequests, AtomicInteger::get)
+				.description("Requests waiting for the Privacy Engine")
+				.register(meterRegistry);
+
+		switch (transport) {
+			case "JSON":
+				this.binaryClient = null;
+				break;
+			case "BINARY":
+				logger.info("Sending populations to the Privacy Engine in binary format.");
+				this.binaryClient = new PrivacyEngineBinaryClient();
+				break;
+			default:
+				throw new IllegalStateException("Unexpected value: " + transport);
+		}
+
+		AtomicInteger threadNumber = new AtomicInteger();
+		this.requestExecutor = Executors.newCachedThreadPool(runnable -> {
+			Thread thread = new Thread(runnable, "privacy-engine-request-" + threadNumber.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		});
     }
 
 	/**
@@ -32,20 +91,27 @@ public class PrivacyEngineService {
 	 * @param input the populations to be ranked
 	 * @return the ranked population and the maximum fitness value
 	 */
-	public PopulationOrderDTO computePopulationOrder(Optimization optimization, Integer[][] input) {
+	public PopulationOrderDTO computePopulationOrder(Optimization optimization, int[][] input) {
 		String url =  optimization.getPrivacyEngineEndpoint() + "/computePopulationOrder";
 
-		RequestEntity<Integer[][]> request =
-			RequestEntity.put(url)
-						 .accept(MediaType.APPLICATION_JSON)
-						 .body(input);
+		return this.timed("computePopulationOrder", optimization, () -> {
+			if(this.binaryClient != null) {
+				logger.debug("Requesting computation of population order from Privacy Engine at URL: " + url);
+				return this.binaryClient.put(url, input, PopulationOrderDTO.class);
+			}
+
+			RequestEntity<int[][]> request =
+				RequestEntity.put(url)
+							 .accept(MediaType.APPLICATION_JSON)
+							 .body(input);
 
-		logger.debug("Requesting computation of population order from Privacy Engine at URL: " + url);
-		ResponseEntity<PopulationOrderDTO> response = this.restTemplate.exchange(request, PopulationOrderDTO.class);
-		return response.getBody();
+			logger.debug("Requesting computation of population order from Privacy Engine at URL: " + url);
+			ResponseEntity<PopulationOrderDTO> response = this.restTemplate.exchange(request, PopulationOrderDTO.class);
+			return response.getBody();
+		});
 	}
 
-    public FitnessQuantilesDTO computeFitnessQuantiles(JeneticsOptimization optimization, Integer[][] input) {
+    public FitnessQuantilesDTO computeFitnessQuantiles(JeneticsOptimization optimization, int[][] input) {
 
 		return null;
 
@@ -58,17 +124,24 @@ public class PrivacyEngineService {
 	 * @param input the population in the format required by the PE
 	 * @return the DTO containing the top-individuals and additional information if available
 	 */
-	public AboveIndividualsDTO computeIndividualsAbove(JeneticsOptimization optimization, Integer[][] input) {
+	public AboveIndividualsDTO computeIndividualsAbove(JeneticsOptimization optimization, int[][] input) {
 		String url =  optimization.getPrivacyEngineEndpoint() + "/computeClassification";
 
-		RequestEntity<Integer[][]> request =
-				RequestEntity.put(url)
-						.accept(MediaType.APPLICATION_JSON)
-						.body(input);
+		return this.timed("computeClassification", optimization, () -> {
+			if(this.binaryClient != null) {
+				logger.debug("Requesting computation of top individuals from Privacy Engine at URL: " + url);
+				return this.binaryClient.put(url, input, AboveIndividualsDTO.class);
+			}
+
+			RequestEntity<int[][]> request =
+					RequestEntity.put(url)
+							.accept(MediaType.APPLICATION_JSON)
+							.body(input);
 
-		logger.debug("Requesting computation of top individuals from Privacy Engine at URL: " + url);
-		ResponseEntity<AboveIndividualsDTO> response = this.restTemplate.exchange(request, AboveIndividualsDTO.class);
-		return response.getBody();
+			logger.debug("Requesting computation of top individuals from Privacy Engine at URL: " + url);
+			ResponseEntity<AboveIndividualsDTO> response = this.restTemplate.exchange(request, AboveIndividualsDTO.class);
+			return response.getBody();
+		});
 	}
 
 	/**
@@ -78,15 +151,61 @@ public class PrivacyEngineService {
 	 * @param input the population in the format required by the PE
 	 * @return fitness values for all individuals
 	 */
-    public Integer[] computeActualFitnessValues(JeneticsOptimization optimization, Integer[][] input) {
+    public Integer[] computeActualFitnessValues(JeneticsOptimization optimization, int[][] input) {
 		String url =  optimization.getPrivacyEngineEndpoint() + "/computeFitnessClear";
-		RequestEntity<Integer[][]> request =
-				RequestEntity.put(url)
-						.accept(MediaType.APPLICATION_JSON)
-						.body(input);
 
-		logger.debug("Requesting computation of actual fitness values for all individuals from Privacy Engine at URL: " + url);
-		ResponseEntity<Integer[]> response = this.restTemplate.exchange(request, Integer[].class);
-		return response.getBody();
+		return this.timed("computeFitnessClear", optimization, () -> {
+			if(this.binaryClient != null) {
+				logger.debug("Requesting computation of actual fitness values for all individuals from Privacy Engine at URL: " + url);
+				return this.binaryClient.put(url, input, Integer[].class);
+			}
+
+			RequestEntity<int[][]> request =
+					RequestEntity.put(url)
+							.accept(MediaType.APPLICATION_JSON)
+							.body(input);
+
+			logger.debug("Requesting computation of actual fitness values for all individuals from Privacy Engine at URL: " + url);
+			ResponseEntity<Integer[]> response = this.restTemplate.exchange(request, Integer[].class);
+			return response.getBody();
+		});
     }
+
+	/**
+	 * Sends a request to the Privacy Engine and records its round-trip time, tagged with the optimization's Privacy
+	 * Engine endpoint, the invoked operation and whether the request succeeded.
+	 */
+	private <T> T timed(String operation, Optimization optimization, Supplier<T> request) {
+		String outcome = "SUCCESS";
+		long start = System.nanoTime();
+		this.activeRequests.incrementAndGet();
+
+		try {
+			return request.get();
+		} catch (RuntimeException e) {
+			outcome = "ERROR";
+			throw e;
+		} finally {
+			this.activeRequests.decrementAndGet();
+
+			Timer.builder("slotmachine.privacyengine.requests")
+					.description("Round-trip time of requests to the Privacy Engine")
+					.tag("endpoint", String.valueOf(optimization.getPrivacyEngineEndpoint()))
+					.tag("operation", operation)
+					.tag("outcome", outcome)
+					.register(this.meterRegistry)
+					.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+		}
+	}
+
+	/**
+	 * Invokes the PE's endpoint to calculate actual fitness values without blocking the calling thread.
+	 *
+	 * @param optimization the optimization
+	 * @param input the population in the format required by the PE
+	 * @return a future that completes with the fitness values for all individuals
+	 */
+	public CompletableFuture<Integer[]> computeActualFitnessValuesAsync(JeneticsOptimization optimization, int[][] input) {
+		return CompletableFuture.supplyAsync(() -> this.computeActualFitnessValues(optimization, input), this.requestExecutor);
+	}
 }
@@ -0,0 +1,93 @@
+package at.jku.dke.slotmachine.optimizer.service;
+
+import at.jku.dke.slotmachine.optimizer.service.dto.OptimizationDTO;
+import at.jku.dke.slotmachine.optimizer.service.dto.OptimizationResultDTO;
+import at.jku.dke.slotmachine.optimizer.service.dto.OptimizationStatisticsDTO;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Everything the {@link OptimizationService} reports about a completed optimization once it has been spilled to disk by
+ * the {@link OptimizationRegistry}: the description, the statistics, and the solutions. Solutions are stored as flight
+ * sequences rather than mappings between flights and slots.
+ */
+public class SpilledOptimization {
+    private OptimizationDTO optimization;
+    private OptimizationStatisticsDTO statistics;
+
+    private String[][] flightSequences;
+    private LocalDateTime[][] slotTimes;
+    private double[] fitnessValues;
+    private Integer[][] flightSequenceIndexes;
+
+    /**
+     * Restores the solutions in the format returned by the {@link OptimizationService}.
+     * @param optId the optimization identifier
+     * @param noOfSolutions the maximum number of solutions
+     * @return the solutions, the best solution first
+     */
+    public OptimizationResultDTO[] getResults(UUID optId, int noOfSolutions) {
+        int count = this.flightSequences != null ? Math.min(this.flightSequences.length, noOfSolutions) : 0;
+        OptimizationResultDTO[] results = new OptimizationResultDTO[Math.max(0, count)];
+
+        for(int i = 0; i < results.length; i++) {
+            results[i] = new OptimizationResultDTO(optId, this.flightSequences[i], this.slotTimes[i]);
+            results[i].setFitness(this.fitnessValues[i]);
+
+            if(this.flightSequenceIndexes != null) {
+                results[i].setOptimizedFlightSequenceIndexes(this.flightSequenceIndexes[i]);
+            }
+        }
+
+        return results;
+    }
+
+    public OptimizationDTO getOptimization() {
+        return optimization;
+    }
+
+    public void setOptimization(OptimizationDTO optimization) {
+        this.optimization = optimization;
+    }
+
+    public OptimizationStatisticsDTO getStatistics() {
+        return statistics;
+    }
+
+    public void setStatistics(OptimizationStatisticsDTO statistics) {
+        this.statistics = statistics;
+    }
+
+    public String[][] getFlightSequences() {
+        return flightSequences;
+    }
+
+    public void setFlightSequences(String[][] flightSequences) {
+        this.flightSequences = flightSequences;
+    }
+
+    public LocalDateTime[][] getSlotTimes() {
+        return slotTimes;
+    }
+
+    public void setSlotTimes(LocalDateTime[][] slotTimes) {
+        this.slotTimes = slotTimes;
+    }
+
+    public double[] getFitnessValues() {
+        return fitnessValues;
+    }
+
+    public void setFitnessValues(double[] fitnessValues) {
+        this.fitnessValues = fitnessValues;
+    }
+
+    public Integer[][] getFlightSequenceIndexes() {
+        return flightSequenceIndexes;
+    }
+
+    public void setFlightSequenceIndexes(Integer[][] flightSequenceIndexes) {
+        this.flightSequenceIndexes = flightSequenceIndexes;
+    }
+}
@@ -0,0 +1,94 @@
+package at.jku.dke.slotmachine.optimizer.optimization;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FitnessEvolutionTraceTest {
+
+    private static FitnessEvolutionStep step(int generation, float[] evaluated, float[] estimated) {
+        FitnessEvolutionStep step = new FitnessEvolutionStep();
+        step.setGeneration(generation);
+        step.setEvaluatedPopulation(evaluated);
+        step.setEstimatedPopulation(estimated);
+        return step;
+    }
+
+    private static float[] randomValues(Random random, int length) {
+        float[] values = new float[length];
+        for(int i = 0; i < length; i++) {
+            values[i] = random.nextInt(100000);
+        }
+        return values;
+    }
+
+    @Test
+    void readsAppendedStepsAcrossChunks() {
+        Random random = new Random(42);
+        FitnessEvolutionTrace trace = new FitnessEvolutionTrace();
+        List<FitnessEvolutionStep> appended = new ArrayList<>();
+
+        // enough values to fill several chunks, including chunks of the maximum size
+        for(int generation = 0; generation < 400; generation++) {
+            float[] evaluated = randomValues(random, random.nextInt(1000));
+            float[] estimated = generation % 3 == 0 ? null : randomValues(random, random.nextInt(50));
+
+            FitnessEvolutionStep step = step(generation, evaluated, estimated);
+            trace.append(step);
+            appended.add(step);
+        }
+
+        assertEquals(appended.size(), trace.size());
+
+        List<FitnessEvolutionStep> steps = trace.getSteps(0);
+        assertEquals(appended.size(), steps.size());
+        for(int i = 0; i < steps.size(); i++) {
+            assertEquals(appended.get(i).getGeneration(), steps.get(i).getGeneration());
+            assertArrayEquals(appended.get(i).getEvaluatedPopulation(), steps.get(i).getEvaluatedPopulation());
+            assertArrayEquals(appended.get(i).getEstimatedPopulation(), steps.get(i).getEstimatedPopulation());
+        }
+
+        List<FitnessEvolutionStep> laterSteps = trace.getSteps(390);
+        assertEquals(10, laterSteps.size());
+        assertEquals(390, laterSteps.get(0).getGeneration());
+        assertArrayEquals(appended.get(399).getEvaluatedPopulation(), laterSteps.get(9).getEvaluatedPopulation());
+    }
+
+    @Test
+    void keepsShortTracesSmall() {
+        FitnessEvolutionTrace trace = new FitnessEvolutionTrace(1, 4);
+
+        for(int generation = 0; generation < 10; generation++) {
+            trace.append(step(generation, randomValues(new Random(generation), 100), null));
+        }
+
+        // far below a single chunk of the maximum size per column
+        assertTrue(trace.getEstimatedSize() < 16 * 1024, "estimated size " + trace.getEstimatedSize());
+    }
+
+    @Test
+    void summarisesToQuantiles() {
+        FitnessEvolutionTrace trace = new FitnessEvolutionTrace(2, 4);
+
+        assertTrue(trace.isTraced(4));
+        assertFalse(trace.isTraced(5));
+
+        float[] descending = new float[101];
+        for(int i = 0; i < descending.length; i++) {
+            descending[i] = 100 - i;
+        }
+        trace.append(step(4, descending, null));
+
+        FitnessEvolutionStep step = trace.getSteps(0).get(0);
+        assertArrayEquals(new float[] { 100, 75, 50, 25, 0 }, step.getEvaluatedPopulation());
+        assertNull(step.getEstimatedPopulation());
+    }
+}
@@ -0,0 +1,98 @@
+package at.jku.dke.slotmachine.optimizer.optimization;
+
+import at.jku.dke.slotmachine.optimizer.domain.Flight;
+import at.jku.dke.slotmachine.optimizer.domain.Slot;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static at.jku.dke.slotmachine.optimizer.optimization.TestInstance.START;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SobtFeasibilityTest {
+    @Test
+    void reportsViolatedCondition() {
+        Slot[] slots = { new Slot(START), new Slot(START.plusMinutes(5)), new Slot(START.plusMinutes(10)) };
+        Flight[] flights = {
+                new Flight("F0", START.plusMinutes(5), new int[3]),
+                new Flight("F1", START.plusMinutes(10), new int[3]),
+                new Flight("F2", START.plusMinutes(10), new int[3])
+        };
+
+        SobtFeasibility feasibility = SobtFeasibility.analyse(flights, slots);
+
+        assertFalse(feasibility.isFeasible());
+        assertNotNull(feasibility.getViolation());
+        assertTrue(feasibility.getViolation().startsWith("2 flights require a slot after or equal to "));
+    }
+
+    @Test
+    void matchesBruteForceOnRandomInstances() {
+        Random random = new Random(42);
+
+        for(int instance = 0; instance < 3000; instance++) {
+            int slotCount = 1 + random.nextInt(7);
+            int flightCount = 1 + random.nextInt(slotCount + 1);
+            TestInstance problem = TestInstance.random(random, flightCount, slotCount, 1);
+
+            boolean feasible = problem.isFeasible();
+            SobtFeasibility feasibility = SobtFeasibility.analyse(problem.getFlights(), problem.getSlots());
+
+            assertEquals(feasible, feasibility.isFeasible(), "instance " + instance);
+            assertEquals(feasible, feasibility.getViolation() == null, "instance " + instance);
+        }
+    }
+
+    @Test
+    void repairsToValidAssignmentsKeepingValidOnes() {
+        Random random = new Random(42);
+
+        for(int instance = 0; instance < 3000; instance++) {
+            int slotCount = 1 + random.nextInt(12);
+            int flightCount = 1 + random.nextInt(slotCount);
+            TestInstance problem = TestInstance.random(random, flightCount, slotCount, 1);
+            WeightMatrix weightMatrix = problem.getWeightMatrix();
+
+            boolean feasible = SobtFeasibility.analyse(problem.getFlights(), problem.getSlots()).isFeasible();
+
+            // a random partial assignment, possibly with invalid and conflicting slots
+            int[] assignment = new int[flightCount];
+            for(int f = 0; f < flightCount; f++) {
+                assignment[f] = random.nextInt(4) == 0 ? -1 : random.nextInt(slotCount);
+            }
+
+            int choices = 1 + random.nextInt(3);
+            int[] repaired = SobtFeasibility.repair(weightMatrix, assignment, choices, random);
+
+            assertEquals(flightCount, repaired.length);
+
+            boolean[] used = new boolean[slotCount];
+            boolean valid = true;
+            for(int f = 0; f < flightCount; f++) {
+                assertFalse(used[repaired[f]], "instance " + instance + ": slot assigned twice");
+                used[repaired[f]] = true;
+                valid &= weightMatrix.isAllowed(f, repaired[f]);
+            }
+
+            assertEquals(feasible, valid, "instance " + instance);
+
+            // an assignment that is already valid is kept entirely
+            if(feasible) {
+                assertArrayEquals(repaired, SobtFeasibility.repair(weightMatrix, repaired, choices, random));
+            }
+        }
+    }
+
+    @Test
+    void rejectsMoreFlightsThanSlots() {
+        TestInstance problem = TestInstance.random(new Random(42), 3, 2, 1);
+
+        assertFalse(SobtFeasibility.analyse(problem.getFlights(), problem.getSlots()).isFeasible());
+        assertThrows(IllegalArgumentException.class, () -> SobtFeasibility.repair(problem.getWeightMatrix(), new int[] { -1, -1, -1 }, 1, null));
+    }
+}
@@ -0,0 +1,106 @@
+package at.jku.dke.slotmachine.optimizer.optimization;
+
+import at.jku.dke.slotmachine.optimizer.domain.Flight;
+import at.jku.dke.slotmachine.optimizer.domain.Slot;
+
+import java.time.LocalDateTime;
+import java.util.Random;
+
+/**
+ * A small slot allocation instance for tests, together with a brute-force oracle for the optimal assignment.
+ */
+public class TestInstance {
+    public static final LocalDateTime START = LocalDateTime.of(2021, 1, 1, 8, 0);
+
+    private final Flight[] flights;
+    private final Slot[] slots;
+    private final WeightMatrix weightMatrix;
+
+    public TestInstance(Flight[] flights, Slot[] slots) {
+        this.flights = flights;
+        this.slots = slots;
+        this.weightMatrix = new WeightMatrix(flights, slots);
+    }
+
+    /**
+     * Creates a random instance. The slot times are drawn from a small range, so that some slots share their time and
+     * the slot indexes differ from the time order. Most flights have a scheduled time, which need not coincide with a
+     * slot time.
+     * @param random the source of randomness
+     * @param flightCount the number of flights, may exceed the number of slots
+     * @param slotCount the number of slots
+     * @param weightBound the exclusive upper bound of the flights' weights; the weights are non-negative
+     * @return a new random instance
+     */
+    public static TestInstance random(Random random, int flightCount, int slotCount, int weightBound) {
+        Slot[] slots = new Slot[slotCount];
+        for(int s = 0; s < slotCount; s++) {
+            slots[s] = new Slot(START.plusMinutes(5L * random.nextInt(slotCount)));
+        }
+
+        Flight[] flights = new Flight[flightCount];
+        for(int f = 0; f < flightCount; f++) {
+            int[] weights = new int[slotCount];
+            for(int p = 0; p < slotCount; p++) {
+                weights[p] = random.nextInt(weightBound);
+            }
+
+            LocalDateTime scheduledTime = random.nextInt(4) > 0 ? START.plusMinutes(random.nextInt(5 * slotCount)) : null;
+            flights[f] = new Flight("F" + f, scheduledTime, weights);
+        }
+
+        return new TestInstance(flights, slots);
+    }
+
+    public Flight[] getFlights() {
+        return flights;
+    }
+
+    public Slot[] getSlots() {
+        return slots;
+    }
+
+    public WeightMatrix getWeightMatrix() {
+        return weightMatrix;
+    }
+
+    /**
+     * Enumerates all assignments of flights to distinct slots that satisfy the flights' scheduled times.
+     * @return the maximum sum of weights of such an assignment, or -1 if there is none
+     */
+    public long getOptimalFitness() {
+        return optimalFitness(new boolean[slots.length], 0);
+    }
+
+    /**
+     * @return true if the flights can be assigned to distinct slots without violating a scheduled time
+     */
+    public boolean isFeasible() {
+        return getOptimalFitness() >= 0;
+    }
+
+    /**
+     * @return the maximum sum of weights of the flights from the given flight on, or -1 if they cannot be assigned
+     * to the free slots without violating a scheduled time
+     */
+    private long optimalFitness(boolean[] used, int flight) {
+        if(flight == flights.length) {
+            return 0;
+        }
+
+        long best = -1;
+        for(int s = 0; s < used.length; s++) {
+            if(!used[s] && weightMatrix.isAllowed(flight, s)) {
+                used[s] = true;
+                long rest = optimalFitness(used, flight + 1);
+                used[s] = false;
+
+                if(rest >= 0) {
+                    best = Math.max(best, rest + weightMatrix.getWeight(flight, s));
+                }
+            }
+        }
+
+        return best;
+    }
+}
@@ -0,0 +1,101 @@
+package at.jku.dke.slotmachine.optimizer.optimization;
+
+import at.jku.dke.slotmachine.optimizer.domain.Flight;
+import at.jku.dke.slotmachine.optimizer.domain.Slot;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Random;
+
+import static at.jku.dke.slotmachine.optimizer.optimization.TestInstance.START;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class WeightMatrixTest {
+    @Test
+    void translatesWeightsFromTimeOrderToSlotOrder() {
+        Slot[] slots = { new Slot(START.plusMinutes(10)), new Slot(START), new Slot(START.plusMinutes(5)) };
+        Flight[] flights = {
+                new Flight("F0", null, new int[] { 1, 2, 3 }),
+                new Flight("F1", START.plusMinutes(5), new int[] { 4, 5, 6 })
+        };
+
+        WeightMatrix weightMatrix = new WeightMatrix(flights, slots);
+
+        assertEquals(2, weightMatrix.getFlightCount());
+        assertEquals(3, weightMatrix.getSlotCount());
+        assertTrue(weightMatrix.hasWeights());
+        assertEquals(3, weightMatrix.getWeight(0, 0));
+        assertEquals(1, weightMatrix.getWeight(0, 1));
+        assertEquals(2, weightMatrix.getWeight(0, 2));
+        assertEquals(6, weightMatrix.getWeight(1, 0));
+        assertEquals(4, weightMatrix.getWeight(1, 1));
+        assertEquals(5, weightMatrix.getWeight(1, 2));
+
+        assertTrue(weightMatrix.isAllowed(1, 0));
+        assertFalse(weightMatrix.isAllowed(1, 1));
+        assertTrue(weightMatrix.isAllowed(1, 2));
+        assertEquals(0, weightMatrix.getEarliestSlotPosition(0));
+        assertEquals(1, weightMatrix.getEarliestSlotPosition(1));
+    }
+
+    @Test
+    void marksFlightsWithoutWeights() {
+        Slot[] slots = { new Slot(START), new Slot(START.plusMinutes(5)) };
+        Flight[] flights = {
+                new Flight("F0", null, new int[] { 1, 2 }),
+                new Flight("F1", null, null)
+        };
+
+        WeightMatrix weightMatrix = new WeightMatrix(flights, slots);
+
+        assertFalse(weightMatrix.hasWeights());
+        assertEquals(Integer.MIN_VALUE, weightMatrix.getWeight(1, 0));
+    }
+
+    @Test
+    void matchesDefinitionOnRandomInstances() {
+        Random random = new Random(42);
+
+        for(int instance = 0; instance < 500; instance++) {
+            int slotCount = 1 + random.nextInt(30);
+            int flightCount = 1 + random.nextInt(slotCount);
+
+            TestInstance problem = TestInstance.random(random, flightCount, slotCount, 1000);
+            Flight[] flights = problem.getFlights();
+            Slot[] slots = problem.getSlots();
+            WeightMatrix weightMatrix = problem.getWeightMatrix();
+
+            // slots in time order; slots with the same time keep their order in the slot array
+            Integer[] byTime = new Integer[slotCount];
+            Arrays.setAll(byTime, s -> s);
+            Arrays.sort(byTime, (a, b) -> slots[a].getTime().compareTo(slots[b].getTime()));
+
+            for(int position = 0; position < slotCount; position++) {
+                assertEquals(byTime[position], weightMatrix.getSlotAtPosition(position));
+                assertEquals(position, weightMatrix.getSlotPosition(byTime[position]));
+            }
+
+            for(int f = 0; f < flightCount; f++) {
+                LocalDateTime scheduledTime = flights[f].getScheduledTime();
+                int earliestPosition = slotCount;
+
+                for(int position = slotCount - 1; position >= 0; position--) {
+                    int s = byTime[position];
+                    boolean allowed = scheduledTime == null || !slots[s].getTime().isBefore(scheduledTime);
+
+                    assertEquals(flights[f].getWeights()[position], weightMatrix.getWeight(f, s));
+                    assertEquals(allowed, weightMatrix.isAllowed(f, s));
+
+                    if(allowed) {
+                        earliestPosition = position;
+                    }
+                }
+
+                assertEquals(earliestPosition, weightMatrix.getEarliestSlotPosition(f));
+            }
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package at.jku.dke.slotmachine.optimizer.optimization.auction;
+
+import at.jku.dke.slotmachine.optimizer.domain.Flight;
+import at.jku.dke.slotmachine.optimizer.domain.Slot;
+import at.jku.dke.slotmachine.optimizer.optimization.InvalidOptimizationParameterTypeException;
+import at.jku.dke.slotmachine.optimizer.optimization.TestInstance;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Random;
+
+import static at.jku.dke.slotmachine.optimizer.optimization.TestInstance.START;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AuctionOptimizationTest {
+    @Test
+    void matchesBruteForceOnRandomInstances() throws InvalidOptimizationParameterTypeException {
+        Random random = new Random(42);
+
+        for(int instance = 0; instance < 500; instance++) {
+            int flightCount = 1 + random.nextInt(5);
+            int slotCount = flightCount + random.nextInt(3);
+            TestInstance problem = TestInstance.random(random, flightCount, slotCount, 100);
+            Flight[] flights = problem.getFlights();
+            Slot[] slots = problem.getSlots();
+
+            long expected = problem.getOptimalFitness();
+            if(expected < 0) {
+                // no assignment satisfies the scheduled times
+                continue;
+            }
+
+            for(String biddingMode : new String[] { "GAUSS_SEIDEL", "JACOBI" }) {
+                AuctionOptimization optimization = new AuctionOptimization(flights, slots);
+                Map<String, Object> parameters = new HashMap<>();
+                parameters.put("biddingMode", biddingMode);
+                parameters.put("parallelism", 2);
+                optimization.newConfiguration(parameters);
+
+                Map<Flight, Slot> result = optimization.run();
+
+                assertEquals(flightCount, result.size(), "instance " + instance);
+                assertEquals(flightCount, new HashSet<>(result.values()).size(), "instance " + instance);
+                for(Map.Entry<Flight, Slot> assignment : result.entrySet()) {
+                    LocalDateTime scheduledTime = assignment.getKey().getScheduledTime();
+                    assertTrue(scheduledTime == null || !assignment.getValue().getTime().isBefore(scheduledTime),
+                            "instance " + instance + ": slot before scheduled time");
+                }
+                assertEquals(expected, optimization.getStatistics().getResultFitness(), biddingMode + " instance " + instance);
+            }
+        }
+    }
+
+    @Test
+    void computesInitialFitnessFromFlightSequence() {
+        Slot[] slots = { new Slot(START), new Slot(START.plusMinutes(5)), new Slot(START.plusMinutes(10)) };
+        Flight[] flights = {
+                new Flight("F0", null, new int[] { 1, 2, 3 }),
+                new Flight("F1", null, new int[] { 10, 20, 30 })
+        };
+
+        AuctionOptimization optimization = new AuctionOptimization(flights, slots);
+
+        optimization.setInitialFlightSequence(new String[] { "F1", "F0" });
+        assertEquals(10 + 2, optimization.computeInitialFitness());
+
+        optimization.setInitialFlightSequence(new String[] { "F0", "X", "F1" });
+        assertEquals(1 + 30, optimization.computeInitialFitness());
+
+        optimization.setInitialFlightSequence(new String[] { "F0" });
+        assertEquals(Integer.MIN_VALUE, optimization.computeInitialFitness());
+    }
+
+    @Test
+    void computesNoInitialFitnessWithoutWeights() {
+        Slot[] slots = { new Slot(START), new Slot(START.plusMinutes(5)) };
+        Flight[] flights = { new Flight("F0", null, null), new Flight("F1", null, null) };
+
+        AuctionOptimization optimization = new AuctionOptimization(flights, slots);
+        optimization.setInitialFlightSequence(new String[] { "F0", "F1" });
+
+        assertFalse(optimization.getWeightMatrix().hasWeights());
+        assertEquals(Integer.MIN_VALUE, optimization.computeInitialFitness());
+    }
+}
@@ -0,0 +1,68 @@
+package at.jku.dke.slotmachine.optimizer.optimization.hungarian;
+
+import at.jku.dke.slotmachine.optimizer.domain.Flight;
+import at.jku.dke.slotmachine.optimizer.domain.Slot;
+import at.jku.dke.slotmachine.optimizer.optimization.TestInstance;
+import at.jku.dke.slotmachine.optimizer.optimization.WeightMatrix;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static at.jku.dke.slotmachine.optimizer.optimization.TestInstance.START;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SparseHungarianAlgorithmTest {
+    @Test
+    void findsMaximumWeightWithMoreSlotsThanFlights() {
+        Slot[] slots = { new Slot(START), new Slot(START.plusMinutes(5)), new Slot(START.plusMinutes(10)) };
+        Flight[] flights = {
+                new Flight("F0", null, new int[] { 10, 9, 0 }),
+                new Flight("F1", null, new int[] { 9, 0, 0 })
+        };
+
+        int[] assignment = new SparseHungarianAlgorithm(new WeightMatrix(flights, slots)).execute();
+
+        assertNotNull(assignment);
+        assertEquals(1, assignment[0]);
+        assertEquals(0, assignment[1]);
+    }
+
+    @Test
+    void matchesBruteForceOnRandomInstances() {
+        Random random = new Random(42);
+
+        for(int instance = 0; instance < 2000; instance++) {
+            int flightCount = 1 + random.nextInt(5);
+            int slotCount = flightCount + random.nextInt(4);
+            TestInstance problem = TestInstance.random(random, flightCount, slotCount, 20);
+            WeightMatrix weightMatrix = problem.getWeightMatrix();
+
+            long expected = problem.getOptimalFitness();
+
+            int[] assignment = new SparseHungarianAlgorithm(weightMatrix).execute();
+
+            if(expected < 0) {
+                assertNull(assignment, "instance " + instance);
+                continue;
+            }
+
+            assertNotNull(assignment, "instance " + instance);
+
+            boolean[] used = new boolean[slotCount];
+            long sum = 0;
+            for(int f = 0; f < flightCount; f++) {
+                int s = assignment[f];
+                assertFalse(used[s], "instance " + instance + ": slot assigned twice");
+                assertTrue(weightMatrix.isAllowed(f, s), "instance " + instance + ": slot before scheduled time");
+                used[s] = true;
+                sum += weightMatrix.getWeight(f, s);
+            }
+
+            assertEquals(expected, sum, "instance " + instance);
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package at.jku.dke.slotmachine.optimizer.optimization.jenetics;
+
+import io.jenetics.AltererResult;
+import io.jenetics.EnumGene;
+import io.jenetics.Genotype;
+import io.jenetics.Mutator;
+import io.jenetics.PermutationChromosome;
+import io.jenetics.Phenotype;
+import io.jenetics.SwapMutator;
+import io.jenetics.ext.HPRMutator;
+import io.jenetics.ext.RSMutator;
+import io.jenetics.util.ISeq;
+import io.jenetics.util.RandomRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SteadyStateEngineTest {
+    private static final int LENGTH = 50;
+    private static final int INDIVIDUALS = 4000;
+
+    @Test
+    void swapsGenesAsOftenAsSwapMutator() {
+        Mutator<EnumGene<Integer>, Integer> mutator = new SwapMutator<>(0.15);
+
+        assertMutatesAsOften(mutator);
+    }
+
+    @Test
+    void reversesSequencesAsOftenAsRSMutator() {
+        Mutator<EnumGene<Integer>, Integer> mutator = new RSMutator<>(0.15);
+
+        assertMutatesAsOften(mutator);
+    }
+
+    @Test
+    void mutatesAsOftenAsHPRMutator() {
+        Mutator<EnumGene<Integer>, Integer> mutator = new HPRMutator<>(0.15);
+
+        assertMutatesAsOften(mutator);
+    }
+
+    /**
+     * Compares the share of individuals and of genes that change their allele when mutated by the steady-state engine
+     * with the shares when mutated by the given mutator.
+     */
+    private static void assertMutatesAsOften(Mutator<EnumGene<Integer>, Integer> mutator) {
+        int[] identity = new int[LENGTH];
+        for(int i = 0; i < LENGTH; i++) {
+            identity[i] = i;
+        }
+
+        Genotype<EnumGene<Integer>> genotype = Genotype.of(PermutationChromosome.ofInteger(LENGTH));
+        int[] alleles = new int[LENGTH];
+        for(int i = 0; i < LENGTH; i++) {
+            alleles[i] = genotype.chromosome().get(i).allele();
+        }
+
+        ISeq<Phenotype<EnumGene<Integer>, Integer>> population =
+                ISeq.of(() -> Phenotype.<EnumGene<Integer>, Integer>of(genotype, 0), INDIVIDUALS);
+        AltererResult<EnumGene<Integer>, Integer> result =
+                RandomRegistry.with(new Random(42), random -> mutator.alter(population, 1));
+
+        int expectedIndividuals = 0;
+        int expectedGenes = 0;
+        for(Phenotype<EnumGene<Integer>, Integer> phenotype : result.population()) {
+            int changed = 0;
+            for(int i = 0; i < LENGTH; i++) {
+                if(phenotype.genotype().chromosome().get(i).allele() != alleles[i]) {
+                    changed++;
+                }
+            }
+
+            expectedIndividuals += changed > 0 ? 1 : 0;
+            expectedGenes += changed;
+        }
+
+        Random random = new Random(42);
+        int individuals = 0;
+        int genes = 0;
+        for(int n = 0; n < INDIVIDUALS; n++) {
+            int[] child = identity.clone();
+            SteadyStateEngine.mutate(mutator, child, random);
+
+            int changed = 0;
+            for(int i = 0; i < LENGTH; i++) {
+                if(child[i] != i) {
+                    changed++;
+                }
+            }
+
+            individuals += changed > 0 ? 1 : 0;
+            genes += changed;
+        }
+
+        assertEquals(expectedIndividuals, individuals, 0.1 * expectedIndividuals, "mutated individuals");
+        assertEquals(expectedGenes, genes, 0.1 * expectedGenes, "changed genes");
+    }
+}
@@ -0,0 +1,80 @@
+package at.jku.dke.slotmachine.optimizer.optimization.jenetics.evaluation;
+
+import at.jku.dke.slotmachine.optimizer.domain.Flight;
+import at.jku.dke.slotmachine.optimizer.domain.Slot;
+import at.jku.dke.slotmachine.optimizer.optimization.FitnessMethod;
+import at.jku.dke.slotmachine.optimizer.optimization.InvalidOptimizationParameterTypeException;
+import at.jku.dke.slotmachine.optimizer.optimization.OptimizationMode;
+import at.jku.dke.slotmachine.optimizer.optimization.jenetics.JeneticsOptimization;
+import at.jku.dke.slotmachine.optimizer.optimization.jenetics.SlotAllocationProblem;
+import io.jenetics.EnumGene;
+import io.jenetics.Genotype;
+import io.jenetics.Phenotype;
+import io.jenetics.util.ISeq;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class BatchEvaluatorTest {
+
+    private static JeneticsOptimization newOptimization(OptimizationMode mode, FitnessMethod fitnessMethod)
+            throws InvalidOptimizationParameterTypeException {
+        Random random = new Random(42);
+        LocalDateTime start = LocalDateTime.of(2021, 1, 1, 8, 0);
+
+        Slot[] slots = new Slot[10];
+        for(int s = 0; s < slots.length; s++) {
+            slots[s] = new Slot(start.plusMinutes(5L * s));
+        }
+
+        Flight[] flights = new Flight[8];
+        for(int f = 0; f < flights.length; f++) {
+            int[] weights = new int[slots.length];
+            for(int s = 0; s < weights.length; s++) {
+                weights[s] = 1 + random.nextInt(100);
+            }
+            flights[f] = new Flight("F" + f, null, weights);
+        }
+
+        JeneticsOptimization optimization = new JeneticsOptimization(flights, slots);
+        optimization.newConfiguration(new HashMap<>());
+        optimization.setMode(mode);
+        optimization.setFitnessMethod(fitnessMethod);
+        return optimization;
+    }
+
+    @ParameterizedTest
+    @EnumSource(value = OptimizationMode.class, names = {"NON_PRIVACY_PRESERVING", "DEMONSTRATION", "BENCHMARKING"})
+    void evaluatesExactFitnessUnlessPrivacyPreserving(OptimizationMode mode) throws InvalidOptimizationParameterTypeException {
+        for(FitnessMethod fitnessMethod : new FitnessMethod[] { FitnessMethod.ORDER, FitnessMethod.ACTUAL_VALUES }) {
+            JeneticsOptimization optimization = newOptimization(mode, fitnessMethod);
+            SlotAllocationProblem problem = optimization.getProblem();
+
+            Set<Genotype<EnumGene<Integer>>> genotypes = new LinkedHashSet<>();
+            while(genotypes.size() < 20) {
+                genotypes.add(problem.codec().encoding().newInstance());
+            }
+            ISeq<Phenotype<EnumGene<Integer>, Integer>> population = genotypes.stream()
+                    .map(genotype -> Phenotype.<EnumGene<Integer>, Integer>of(genotype, 1))
+                    .collect(ISeq.toISeq());
+
+            BatchEvaluator evaluator = BatchEvaluatorFactory.getEvaluator(fitnessMethod, problem, optimization);
+            ISeq<Phenotype<EnumGene<Integer>, Integer>> evaluated = evaluator.eval(population);
+
+            assertEquals(population.size(), evaluated.size());
+            for(Phenotype<EnumGene<Integer>, Integer> phenotype : evaluated) {
+                assertEquals(problem.fitness(phenotype.genotype()), phenotype.fitness(),
+                        fitnessMethod + " evaluation in " + mode + " mode");
+            }
+
+            evaluator.shutdown();
+        }
+    }
+}
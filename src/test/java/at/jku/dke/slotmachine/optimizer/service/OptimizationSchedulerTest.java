@@ -0,0 +1,74 @@
+package at.jku.dke.slotmachine.optimizer.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class OptimizationSchedulerTest {
+
+    @Test
+    void startsOptimizationsWithoutQueueCapacity() throws Exception {
+        OptimizationScheduler scheduler = new OptimizationScheduler(2, 1, 0, Duration.ofMinutes(1));
+        CountDownLatch finish = new CountDownLatch(1);
+
+        try {
+            Future<Integer> first = scheduler.submit(UUID.randomUUID(), OptimizationScheduler.Priority.OPERATIONAL, 1, () -> await(finish));
+            Future<Integer> second = scheduler.submit(UUID.randomUUID(), OptimizationScheduler.Priority.OPERATIONAL, 1, () -> await(finish));
+            Future<Integer> ioBound = scheduler.submit(UUID.randomUUID(), OptimizationScheduler.Priority.OPERATIONAL, 1, true, () -> await(finish));
+
+            assertEquals(0, scheduler.getAvailableCores());
+            assertEquals(0, scheduler.getAvailableIoBoundSlots());
+
+            // all cores and slots are in use, so further optimizations would have to wait
+            assertThrows(RejectedExecutionException.class, () ->
+                    scheduler.submit(UUID.randomUUID(), OptimizationScheduler.Priority.OPERATIONAL, 1, () -> 0));
+            assertThrows(RejectedExecutionException.class, () ->
+                    scheduler.submit(UUID.randomUUID(), OptimizationScheduler.Priority.OPERATIONAL, 1, true, () -> 0));
+            assertEquals(0, scheduler.getQueueLength());
+
+            finish.countDown();
+            assertEquals(1, first.get(10, TimeUnit.SECONDS));
+            assertEquals(1, second.get(10, TimeUnit.SECONDS));
+            assertEquals(1, ioBound.get(10, TimeUnit.SECONDS));
+        } finally {
+            finish.countDown();
+            scheduler.shutdown();
+        }
+    }
+
+    @Test
+    void rejectsOptimizationsBeyondQueueCapacity() throws Exception {
+        OptimizationScheduler scheduler = new OptimizationScheduler(2, 1, 1, Duration.ofMinutes(1));
+        CountDownLatch finish = new CountDownLatch(1);
+
+        try {
+            Future<Integer> running = scheduler.submit(UUID.randomUUID(), OptimizationScheduler.Priority.OPERATIONAL, 1, () -> await(finish));
+            Future<Integer> waiting = scheduler.submit(UUID.randomUUID(), OptimizationScheduler.Priority.OPERATIONAL, 2, () -> await(finish));
+
+            assertEquals(1, scheduler.getQueueLength());
+            assertThrows(RejectedExecutionException.class, () ->
+                    scheduler.submit(UUID.randomUUID(), OptimizationScheduler.Priority.BENCHMARKING, 1, () -> 0));
+            assertEquals(1, scheduler.getQueueLength());
+
+            finish.countDown();
+            assertEquals(1, running.get(10, TimeUnit.SECONDS));
+            assertEquals(1, waiting.get(10, TimeUnit.SECONDS));
+        } finally {
+            finish.countDown();
+            scheduler.shutdown();
+        }
+    }
+
+    private static int await(CountDownLatch latch) throws InterruptedException {
+        latch.await();
+        return 1;
+    }
+}
@@ -0,0 +1,75 @@
+package at.jku.dke.slotmachine.optimizer.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class PermutationMatrixCodecTest {
+
+    @Test
+    void roundTripsRandomPopulations() {
+        Random random = new Random(42);
+
+        for(int instance = 0; instance < 200; instance++) {
+            int rows = random.nextInt(20);
+            int columns = 1 + random.nextInt(300);
+
+            int[][] matrix = new int[rows][columns];
+            for(int[] row : matrix) {
+                for(int c = 0; c < columns; c++) {
+                    row[c] = random.nextInt(columns);
+                }
+            }
+
+            int[][] decoded = PermutationMatrixCodec.decode(PermutationMatrixCodec.encode(matrix));
+
+            assertEquals(rows, decoded.length);
+            for(int r = 0; r < rows; r++) {
+                assertArrayEquals(matrix[r], decoded[r]);
+            }
+        }
+    }
+
+    @Test
+    void roundTripsExtremeEntries() {
+        int[][] matrix = {
+                { 0, -1, 1, 63, 64, -64, -65 },
+                { 8191, 8192, Integer.MAX_VALUE, Integer.MIN_VALUE, -8192, -8193, 127 }
+        };
+
+        int[][] decoded = PermutationMatrixCodec.decode(PermutationMatrixCodec.encode(matrix));
+
+        assertEquals(matrix.length, decoded.length);
+        for(int r = 0; r < matrix.length; r++) {
+            assertArrayEquals(matrix[r], decoded[r]);
+        }
+    }
+
+    @Test
+    void encodesSmallEntriesInOneByte() {
+        int[][] matrix = new int[10][50];
+        for(int[] row : matrix) {
+            Arrays.setAll(row, c -> c);
+        }
+
+        // one byte each for the number of rows, the number of columns, and each entry below 64
+        assertEquals(2 + 10 * 50, PermutationMatrixCodec.encode(matrix).length);
+    }
+
+    @Test
+    void rejectsRowsOfDifferentLength() {
+        assertThrows(IllegalArgumentException.class, () -> PermutationMatrixCodec.encode(new int[][] { { 1, 2 }, { 1 } }));
+    }
+
+    @Test
+    void rejectsTruncatedEncoding() {
+        byte[] bytes = PermutationMatrixCodec.encode(new int[][] { { 1, 200, 3 } });
+
+        assertThrows(IllegalArgumentException.class, () -> PermutationMatrixCodec.decode(Arrays.copyOf(bytes, bytes.length - 1)));
+    }
+}
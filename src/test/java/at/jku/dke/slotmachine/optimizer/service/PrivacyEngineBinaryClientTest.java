@@ -0,0 +1,133 @@
+package at.jku.dke.slotmachine.optimizer.service;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.RestClientException;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class PrivacyEngineBinaryClientTest {
+    private HttpServer server;
+    private String url;
+
+    private final AtomicReference<String> method = new AtomicReference<>();
+    private final AtomicReference<String> contentType = new AtomicReference<>();
+    private final AtomicReference<int[][]> received = new AtomicReference<>();
+
+    @BeforeEach
+    void startServer() throws IOException {
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        this.server.createContext("/sum", exchange -> this.respond(exchange, false));
+        this.server.createContext("/sum-gzip", exchange -> this.respond(exchange, true));
+        this.server.createContext("/error", exchange -> {
+            exchange.getRequestBody().readAllBytes();
+            exchange.sendResponseHeaders(500, -1);
+            exchange.close();
+        });
+        this.server.start();
+
+        this.url = "http://" + InetAddress.getLoopbackAddress().getHostAddress() + ":" + this.server.getAddress().getPort();
+    }
+
+    @AfterEach
+    void stopServer() {
+        this.server.stop(0);
+    }
+
+    /**
+     * Decodes the population like the Privacy Engine and responds with the sum of the entries of each row.
+     */
+    private void respond(HttpExchange exchange, boolean compress) throws IOException {
+        this.method.set(exchange.getRequestMethod());
+        this.contentType.set(exchange.getRequestHeaders().getFirst("Content-Type"));
+
+        byte[] body;
+        try (InputStream in = "gzip".equals(exchange.getRequestHeaders().getFirst("Content-Encoding")) ?
+                new GZIPInputStream(exchange.getRequestBody()) : exchange.getRequestBody()) {
+            body = in.readAllBytes();
+        }
+
+        int[][] population = PermutationMatrixCodec.decode(body);
+        this.received.set(population);
+
+        byte[] response = Arrays.stream(population)
+                .map(row -> String.valueOf(Arrays.stream(row).sum()))
+                .collect(Collectors.joining(",", "[", "]"))
+                .getBytes(StandardCharsets.UTF_8);
+
+        if(compress) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+                gzip.write(response);
+            }
+            response = out.toByteArray();
+            exchange.getResponseHeaders().set("Content-Encoding", "gzip");
+        }
+
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, response.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(response);
+        }
+    }
+
+    @Test
+    void sendsPopulationAndReadsResponse() {
+        int[][] population = { { 0, 1, 2, 3 }, { 3, 2, 1, 0 }, { 100, 200, 300, 400 } };
+
+        Integer[] fitness = new PrivacyEngineBinaryClient().put(this.url + "/sum", population, Integer[].class);
+
+        assertEquals("PUT", this.method.get());
+        assertEquals(PermutationMatrixCodec.MEDIA_TYPE, this.contentType.get());
+        assertEquals(population.length, this.received.get().length);
+        for(int r = 0; r < population.length; r++) {
+            assertArrayEquals(population[r], this.received.get()[r]);
+        }
+        assertArrayEquals(new Integer[] { 6, 6, 1000 }, fitness);
+    }
+
+    @Test
+    void readsCompressedResponse() {
+        int[][] population = new int[50][120];
+        for(int[] row : population) {
+            Arrays.setAll(row, c -> c);
+        }
+
+        PrivacyEngineBinaryClient client = new PrivacyEngineBinaryClient();
+
+        // the client is reused across requests, as across generations
+        for(int request = 0; request < 3; request++) {
+            Integer[] fitness = client.put(this.url + "/sum-gzip", population, Integer[].class);
+
+            assertEquals(population.length, fitness.length);
+            for(Integer value : fitness) {
+                assertEquals(119 * 120 / 2, value);
+            }
+        }
+    }
+
+    @Test
+    void throwsOnErrorStatus() {
+        PrivacyEngineBinaryClient client = new PrivacyEngineBinaryClient();
+
+        assertThrows(RestClientException.class, () -> client.put(this.url + "/error", new int[][] { { 0 } }, Integer[].class));
+    }
+}